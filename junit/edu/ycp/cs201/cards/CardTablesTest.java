@@ -0,0 +1,60 @@
+package edu.ycp.cs201.cards;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CardTablesTest {
+	@Test
+	public void testCanStackOn() throws Exception {
+		for (int c = 0; c < Card.NUM_CARDS; c++) {
+			Card card = Card.fromCode(c);
+			for (int d = 0; d < Card.NUM_CARDS; d++) {
+				Card onto = Card.fromCode(d);
+				boolean expected = card.getSuit().getColor() != onto.getSuit().getColor()
+						&& card.getRank().ordinal() + 1 == onto.getRank().ordinal();
+				assertEquals(card + " on " + onto, expected, CardTables.canStackOn(c, d));
+			}
+			assertEquals(card.getRank() == Rank.KING, CardTables.canStackOn(c, CardTables.EMPTY));
+		}
+		
+		assertTrue(CardTables.canStackOn(new Card(Rank.NINE, Suit.HEARTS).getCode(), new Card(Rank.TEN, Suit.CLUBS).getCode()));
+		assertFalse(CardTables.canStackOn(new Card(Rank.NINE, Suit.HEARTS).getCode(), new Card(Rank.TEN, Suit.DIAMONDS).getCode()));
+	}
+	
+	@Test
+	public void testCanGoOnFoundation() throws Exception {
+		for (int c = 0; c < Card.NUM_CARDS; c++) {
+			Card card = Card.fromCode(c);
+			for (int d = 0; d < Card.NUM_CARDS; d++) {
+				Card top = Card.fromCode(d);
+				boolean expected = card.getSuit() == top.getSuit()
+						&& card.getRank().ordinal() == top.getRank().ordinal() + 1;
+				assertEquals(card + " on " + top, expected, CardTables.canGoOnFoundation(c, d));
+			}
+			assertEquals(card.getRank() == Rank.ACE, CardTables.canGoOnFoundation(c, CardTables.EMPTY));
+		}
+	}
+	
+	@Test
+	public void testFoundationSuccessor() throws Exception {
+		Card twoOfSpades = new Card(Rank.TWO, Suit.SPADES);
+		Card threeOfSpades = new Card(Rank.THREE, Suit.SPADES);
+		
+		assertEquals(threeOfSpades.getCode(), CardTables.foundationSuccessor(twoOfSpades.getCode()));
+		assertEquals(twoOfSpades.getCode(), CardTables.foundationPredecessor(threeOfSpades.getCode()));
+		assertEquals(CardTables.EMPTY, CardTables.foundationPredecessor(new Card(Rank.ACE, Suit.SPADES).getCode()));
+		assertEquals(CardTables.NONE, CardTables.foundationSuccessor(new Card(Rank.KING, Suit.SPADES).getCode()));
+		assertEquals(CardTables.NONE, CardTables.foundationSuccessor(CardTables.EMPTY));
+	}
+	
+	@Test
+	public void testTopCode() throws Exception {
+		Pile pile = new Pile();
+		assertEquals(CardTables.EMPTY, CardTables.topCode(pile));
+		
+		Card card = new Card(Rank.FIVE, Suit.DIAMONDS);
+		pile.addCard(card);
+		assertEquals(card.getCode(), CardTables.topCode(pile));
+	}
+}
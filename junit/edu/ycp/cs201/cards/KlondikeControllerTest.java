@@ -3,6 +3,7 @@ package edu.ycp.cs201.cards;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -120,6 +121,27 @@ public class KlondikeControllerTest {
 		}
 	}
 	
+	// test that dealing with a seeded Random is reproducible, and that
+	// a model which already holds a game can be dealt again
+	@Test
+	public void testInitModelWithRandom() throws Exception {
+		KlondikeModel aModel = new KlondikeModel();
+		controller.initModel(aModel, new Random(42L));
+		String dealt = StringifyGameState.modelToString(aModel);
+		
+		assertEquals(24, aModel.getMainDeck().getNumCards());
+		assertEquals(23, aModel.getMainDeck().getExposeIndex());
+		assertTrue(aModel.getWastePile().getExposeIndex() >= 52);
+		for (int i = 0; i < 7; i++) {
+			assertEquals(i + 1, aModel.getTableauPile(i).getNumCards());
+			assertEquals(i, aModel.getTableauPile(i).getExposeIndex());
+		}
+		
+		// deal the same game into a model which is in use
+		controller.initModel(model, new Random(42L));
+		assertEquals(dealt, StringifyGameState.modelToString(model));
+	}
+	
 	// sanity checking to ensure that the initial game state is correct 
 	@Test
 	public void testInitialGameState() throws Exception {
@@ -559,6 +581,48 @@ public class KlondikeControllerTest {
 		assertEquals(3, model.getTableauPile(3).getExposeIndex());
 	}
 	
+	@Test
+	public void testAutoPlayToFoundations() throws Exception {
+		// In the second test game, the two of spades and then the
+		// three of diamonds (from the sixth tableau pile) can safely
+		// be moved to the foundation piles; the four of clubs can't
+		// be moved, since the three of clubs is not on a foundation pile
+		assertEquals(2, controller.autoPlayToFoundations(model2));
+		assertTopCardIs(new Card(Rank.TWO, Suit.SPADES), model2.getFoundationPile(2));
+		assertTopCardIs(new Card(Rank.THREE, Suit.DIAMONDS), model2.getFoundationPile(1));
+		assertTopCardIs(new Card(Rank.FOUR, Suit.CLUBS), model2.getTableauPile(6));
+		assertEquals(8, model2.getTableauPile(6).getNumCards());
+		assertEquals(6, model2.getTableauPile(6).getExposeIndex());
+		
+		// Nothing more can be moved
+		assertEquals(0, controller.autoPlayToFoundations(model2));
+	}
+	
+	@Test
+	public void testAutoPlayToFoundationsNoSafeMoves() throws Exception {
+		assertEquals(0, controller.autoPlayToFoundations(model));
+		assertEquals(TEST_GAME, StringifyGameState.modelToString(model));
+	}
+	
+	@Test
+	public void testAutoPlayToFoundationsRecordsMoves() throws Exception {
+		ArrayList<Move> moves = new ArrayList<Move>();
+		assertEquals(2, controller.autoPlayToFoundations(model2, moves));
+		assertEquals(2, moves.size());
+		assertEquals(new Move(new Location(LocationType.TABLEAU_PILE, 6, 9),
+				new Location(LocationType.FOUNDATION_PILE, 2, -1)), moves.get(0));
+		assertEquals(new Move(new Location(LocationType.TABLEAU_PILE, 6, 8),
+				new Location(LocationType.FOUNDATION_PILE, 1, -1)), moves.get(1));
+		
+		// Making the recorded moves has the same effect
+		KlondikeModel replayed = new KlondikeModel();
+		StringifyGameState.stringToModel(replayed, TEST_GAME_2);
+		for (Move move : moves) {
+			assertTrue(controller.makeMove(replayed, move));
+		}
+		assertEquals(StringifyGameState.modelToString(model2), StringifyGameState.modelToString(replayed));
+	}
+	
 	@Test
 	public void testIsWin() throws Exception {
 		assertFalse(controller.isWin(model));
@@ -0,0 +1,43 @@
+package edu.ycp.cs201.cards;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class KlondikeModelPoolTest {
+	private KlondikeModelPool pool;
+	
+	@Before
+	public void setUp() {
+		pool = new KlondikeModelPool(2);
+	}
+	
+	@Test
+	public void testAcquireFromEmptyPool() throws Exception {
+		KlondikeModel model = pool.acquire();
+		assertNotNull(model);
+		assertTrue(model.getMainDeck().isEmpty());
+	}
+	
+	@Test
+	public void testReleasedModelIsReusedAndReset() throws Exception {
+		KlondikeModel model = pool.acquire();
+		model.getMainDeck().populate();
+		pool.release(model);
+		assertEquals(1, pool.getNumIdle());
+		
+		KlondikeModel reused = pool.acquire();
+		assertSame(model, reused);
+		assertTrue(reused.getMainDeck().isEmpty());
+		assertEquals(0, pool.getNumIdle());
+	}
+	
+	@Test
+	public void testPoolIsBounded() throws Exception {
+		pool.release(new KlondikeModel());
+		pool.release(new KlondikeModel());
+		pool.release(new KlondikeModel());
+		assertEquals(2, pool.getNumIdle());
+	}
+}
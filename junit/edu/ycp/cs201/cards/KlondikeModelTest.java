@@ -78,4 +78,78 @@ public class KlondikeModelTest {
 			assertEquals(new Card(ranks[i], Suit.HEARTS), model.getFoundationPile(i).getCard(0));
 		}
 	}
+	
+	@Test
+	public void testReset() throws Exception {
+		// Put cards in every pile, then reset
+		Pile mainDeck = model.getMainDeck();
+		mainDeck.populate();
+		mainDeck.setExposeIndex(51);
+		model.getWastePile().addCard(mainDeck.drawCard());
+		model.getWastePile().setExposeIndex(53);
+		for (int i = 0; i < 4; i++) {
+			model.getFoundationPile(i).addCard(mainDeck.drawCard());
+		}
+		for (int i = 0; i < 7; i++) {
+			model.getTableauPile(i).addCard(mainDeck.drawCard());
+			model.getTableauPile(i).setExposeIndex(1);
+		}
+		
+		// The same Pile objects should be kept, but all should be empty
+		Pile tableauPile = model.getTableauPile(3);
+		model.reset();
+		assertSame(mainDeck, model.getMainDeck());
+		assertSame(tableauPile, model.getTableauPile(3));
+		assertTrue(model.getMainDeck().isEmpty());
+		assertEquals(0, model.getMainDeck().getExposeIndex());
+		assertTrue(model.getWastePile().isEmpty());
+		assertEquals(0, model.getWastePile().getExposeIndex());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(model.getFoundationPile(i).isEmpty());
+		}
+		for (int i = 0; i < 7; i++) {
+			assertTrue(model.getTableauPile(i).isEmpty());
+			assertEquals(0, model.getTableauPile(i).getExposeIndex());
+		}
+	}
+	
+	@Test
+	public void testCopy() throws Exception {
+		model.getMainDeck().populate();
+		model.getMainDeck().setExposeIndex(51);
+		model.getTableauPile(2).addCard(model.getMainDeck().drawCard());
+		model.getFoundationPile(1).addCard(model.getMainDeck().drawCard());
+		
+		KlondikeModel copy = model.copy();
+		assertEquals(StringifyGameState.modelToString(model), StringifyGameState.modelToString(copy));
+		
+		// The copy should not share piles with the original
+		copy.getTableauPile(2).drawCard();
+		assertEquals(1, model.getTableauPile(2).getNumCards());
+		assertNotSame(model.getMainDeck(), copy.getMainDeck());
+	}
+	
+	@Test
+	public void testCopyInto() throws Exception {
+		KlondikeModel target = new KlondikeModel();
+		target.getWastePile().addCard(new Card(Rank.KING, Suit.CLUBS));
+		Pile targetMainDeck = target.getMainDeck();
+		
+		model.getMainDeck().populate();
+		model.copyInto(target);
+		
+		assertEquals(StringifyGameState.modelToString(model), StringifyGameState.modelToString(target));
+		assertSame(targetMainDeck, target.getMainDeck());
+		assertTrue(target.getWastePile().isEmpty());
+	}
+	
+	@Test
+	public void testCopyIntoSelf() throws Exception {
+		model.getMainDeck().populate();
+		model.getTableauPile(2).addCard(model.getMainDeck().drawCard());
+		String state = StringifyGameState.modelToString(model);
+		model.copyInto(model);
+		
+		assertEquals(state, StringifyGameState.modelToString(model));
+	}
 }
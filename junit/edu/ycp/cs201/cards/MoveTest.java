@@ -0,0 +1,56 @@
+package edu.ycp.cs201.cards;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class MoveTest {
+	@Test
+	public void testDraw() throws Exception {
+		assertTrue(Move.DRAW.isDraw());
+		assertNull(Move.DRAW.getDest());
+		assertEquals("D", Move.DRAW.toNotation());
+		assertSame(Move.DRAW, Move.parse("D"));
+	}
+	
+	@Test
+	public void testNotation() throws Exception {
+		Move tableauMove = new Move(new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1));
+		Move mainDeckMove = new Move(new Location(LocationType.MAIN_DECK, 0, 23), new Location(LocationType.FOUNDATION_PILE, 2, -1));
+		
+		assertEquals("T3.3>T5", tableauMove.toNotation());
+		assertEquals("M23>F2", mainDeckMove.toNotation());
+		assertEquals(tableauMove, Move.parse("T3.3>T5"));
+		assertEquals(mainDeckMove, Move.parse("M23>F2"));
+	}
+	
+	@Test
+	public void testEqualsAndHashCode() throws Exception {
+		Move a = Move.parse("T0.1>F0");
+		Move b = Move.parse("T0.1>F0");
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertFalse(a.equals(Move.parse("T0.1>F1")));
+		assertFalse(a.equals(Move.DRAW));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testParseInvalid() throws Exception {
+		Move.parse("T3.x>Q");
+	}
+	
+	@Test
+	public void testParseIndexOutOfRange() throws Exception {
+		String[] invalid = { "T9>T1", "T7.0>F0", "T-1>T2", "T0.52>T1", "M52>F0", "M-1>F0", "T0>F7", "T0>F-1", "W1>T0" };
+		for (String notation : invalid) {
+			try {
+				Move.parse(notation);
+				fail(notation + " should not parse");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+		assertEquals(new Move(new Location(LocationType.TABLEAU_PILE, 6, 51), new Location(LocationType.FOUNDATION_PILE, 3, -1)),
+				Move.parse("T6.51>F3"));
+	}
+}
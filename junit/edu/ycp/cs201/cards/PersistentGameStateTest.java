@@ -0,0 +1,62 @@
+package edu.ycp.cs201.cards;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PersistentGameStateTest {
+	private KlondikeController controller;
+	private PersistentGameState state;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		KlondikeModel model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		state = PersistentGameState.fromModel(model);
+	}
+	
+	@Test
+	public void testToModel() throws Exception {
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(state.toModel()));
+	}
+	
+	@Test
+	public void testApplySharesUnchangedPiles() throws Exception {
+		// move the king of spades and queen of diamonds to the empty tableau pile
+		Move move = new Move(new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1));
+		PersistentGameState next = state.apply(controller, move);
+		assertNotNull(next);
+		
+		// tableau piles 3 and 5 (pile numbers 9 and 11) changed, all others are shared
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			if (i == 9 || i == 11) {
+				assertNotSame(state.getPile(i), next.getPile(i));
+			} else {
+				assertSame(state.getPile(i), next.getPile(i));
+			}
+		}
+		assertEquals(3, next.getPile(9).getNumCards());
+		assertEquals(2, next.getPile(9).getExposeIndex());
+		assertEquals(2, next.getPile(11).getNumCards());
+		
+		// the original state is unchanged
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(state.toModel()));
+	}
+	
+	@Test
+	public void testApplyDraw() throws Exception {
+		PersistentGameState next = state.apply(controller, Move.DRAW);
+		assertEquals(23, next.getPile(0).getNumCards());
+		assertEquals(1, next.getPile(1).getNumCards());
+		assertSame(state.getPile(6), next.getPile(6));
+	}
+	
+	@Test
+	public void testApplyIllegalMove() throws Exception {
+		// the eight of diamonds can't go on the five of diamonds
+		Move move = new Move(new Location(LocationType.TABLEAU_PILE, 2, 2), new Location(LocationType.TABLEAU_PILE, 6, -1));
+		assertNull(state.apply(controller, move));
+	}
+}
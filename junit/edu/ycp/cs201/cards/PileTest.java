@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.TreeSet;
 
 import org.junit.Before;
@@ -252,4 +253,57 @@ public class PileTest {
 		assertEquals(new Card(Rank.NINE, Suit.SPADES), r2.get(3));
 		assertEquals(new Card(Rank.TEN, Suit.SPADES), r2.get(4));
 	}
+	
+	@Test
+	public void testShuffleWithRandom() throws Exception {
+		// Shuffling with identically-seeded Randoms should produce
+		// identical orders
+		Pile other = new Pile();
+		Util.addAllCards(pile);
+		Util.addAllCards(other);
+		pile.shuffle(new Random(201L));
+		other.shuffle(new Random(201L));
+		assertEquals(52, pile.getNumCards());
+		for (int i = 0; i < 52; i++) {
+			assertEquals(other.getCard(i), pile.getCard(i));
+		}
+	}
+	
+	@Test
+	public void testClear() throws Exception {
+		fullPile.setExposeIndex(17);
+		fullPile.clear();
+		assertTrue(fullPile.isEmpty());
+		assertEquals(0, fullPile.getExposeIndex());
+		
+		// the pile should be usable afterwards
+		fullPile.addCard(new Card(Rank.ACE, Suit.HEARTS));
+		assertEquals(new Card(Rank.ACE, Suit.HEARTS), fullPile.getTopCard());
+	}
+	
+	@Test
+	public void testCopyInto() throws Exception {
+		fullPile.setExposeIndex(40);
+		pile.addCard(new Card(Rank.TWO, Suit.CLUBS));
+		fullPile.copyInto(pile);
+		
+		assertEquals(52, pile.getNumCards());
+		assertEquals(40, pile.getExposeIndex());
+		for (int i = 0; i < 52; i++) {
+			assertEquals(fullPile.getCard(i), pile.getCard(i));
+		}
+		
+		// the piles should be independent
+		pile.drawCard();
+		assertEquals(52, fullPile.getNumCards());
+	}
+	
+	@Test
+	public void testCopyIntoSelf() throws Exception {
+		fullPile.setExposeIndex(40);
+		fullPile.copyInto(fullPile);
+		
+		assertEquals(52, fullPile.getNumCards());
+		assertEquals(40, fullPile.getExposeIndex());
+	}
 }
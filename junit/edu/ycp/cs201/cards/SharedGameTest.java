@@ -0,0 +1,93 @@
+package edu.ycp.cs201.cards;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class SharedGameTest {
+	@Rule
+	public Timeout globalTimeout = Timeout.millis(10000); // 10 seconds
+	
+	private KlondikeController controller;
+	private KlondikeModel model;
+	private SharedGame game;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		model = new KlondikeModel();
+		controller.initModel(model, new Random(201L));
+		game = new SharedGame(model, controller);
+	}
+	
+	private static int countCards(KlondikeModel model) {
+		int count = model.getMainDeck().getNumCards() + model.getWastePile().getNumCards();
+		for (int i = 0; i < 4; i++) {
+			count += model.getFoundationPile(i).getNumCards();
+		}
+		for (int i = 0; i < 7; i++) {
+			count += model.getTableauPile(i).getNumCards();
+		}
+		return count;
+	}
+	
+	@Test
+	public void testSnapshot() throws Exception {
+		String before = StringifyGameState.modelToString(model);
+		assertEquals(before, StringifyGameState.modelToString(game.snapshot()));
+		
+		assertTrue(game.makeMove(Move.DRAW));
+		assertEquals(1, game.snapshot().getWastePile().getNumCards());
+		assertFalse(before.equals(game.getState()));
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void testSnapshotFailureIsRethrown() throws Exception {
+		// With no concurrent move, a failure can't be caused by one,
+		// so it must be reported rather than retried forever
+		KlondikeModel broken = new KlondikeModel() {
+			@Override
+			public void copyInto(KlondikeModel target) {
+				throw new IllegalStateException("copy failed");
+			}
+		};
+		new SharedGame(broken, controller).snapshotInto(new KlondikeModel());
+	}
+	
+	@Test
+	public void testReadersNeverSeeTornState() throws Exception {
+		// While the owner draws cards (each of which moves a card from
+		// the main deck to the waste pile), a reader should always
+		// see exactly 52 cards
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicInteger tornReads = new AtomicInteger();
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				KlondikeModel copy = new KlondikeModel();
+				while (!done.get()) {
+					game.snapshotInto(copy);
+					if (countCards(copy) != 52) {
+						tornReads.incrementAndGet();
+					}
+				}
+			}
+		});
+		reader.start();
+		
+		for (int i = 0; i < 5000; i++) {
+			game.makeMove(Move.DRAW);
+		}
+		done.set(true);
+		reader.join();
+		
+		assertEquals(0, tornReads.get());
+	}
+}
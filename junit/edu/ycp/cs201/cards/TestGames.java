@@ -0,0 +1,55 @@
+package edu.ycp.cs201.cards;
+
+/**
+ * Game states shared by the tests of the search, persistence and
+ * packing classes.  The two game states are the ones used by
+ * {@link KlondikeControllerTest}.
+ */
+public class TestGames {
+	/**
+	 * This is a game state converted to a string by the
+	 * {@link StringifyGameState} class.  It corresponds to the
+	 * game shown in the <code>testgame.png</code> image file.
+	 */
+	public static final String TEST_GAME = "00000023G-NE,(MS')=TR#Q0IPB82A%D!" +
+			"00000053!00000000\"!00000000/!00000000!00000000!000000001J!00000001<4&?!" +
+			"00000002L+6!0000000397OU:!00000004H.>KF!00000000!00000006$5@C*;3";
+	
+	/**
+	 * This is another game state, corresponding to the game shown
+	 * in the <code>testgame2.png</code> image file.
+	 */
+	public static final String TEST_GAME_2 = "00000009G-NE,(MS')!00000053DA28BQT!" +
+			"00000000\"#!00000000/0!00000000I!00000000<=!00000000U:!00000000!00000002L+6O4&?!" +
+			"000000009!00000004H.>KFR7P!00000000!00000006$5@C*;3%1J";
+	
+	/**
+	 * Set up an endgame: everything but the kings is on the foundations,
+	 * and each king is alone on a tableau pile (so the game is won
+	 * by moving the four kings to the foundations).
+	 * 
+	 * @param model an empty {@link KlondikeModel}
+	 */
+	public static void setUpKingsOnly(KlondikeModel model) {
+		for (Suit suit : Suit.values()) {
+			for (Rank rank : Rank.values()) {
+				Card card = new Card(rank, suit);
+				if (rank == Rank.KING) {
+					model.getTableauPile(suit.ordinal()).addCard(card);
+				} else {
+					model.getFoundationPile(suit.ordinal()).addCard(card);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Set up a lost game: the only card is a king at the bottom
+	 * of a tableau pile, which can't move anywhere useful.
+	 * 
+	 * @param model an empty {@link KlondikeModel}
+	 */
+	public static void setUpLoneKing(KlondikeModel model) {
+		model.getTableauPile(0).addCard(new Card(Rank.KING, Suit.HEARTS));
+	}
+}
@@ -0,0 +1,71 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.TestGames;
+
+public class AnytimeSearchTest {
+	private static final Move MOVE_KING = new Move(
+			new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1));
+	
+	private KlondikeController controller;
+	private AnytimeSearch search;
+	private KlondikeModel model;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		search = new AnytimeSearch(controller, new DeadEndDetector());
+		model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+	}
+	
+	@Test
+	public void testSearch() throws Exception {
+		SearchResult result = search.search(model, System.nanoTime() + 50000000L);
+		
+		assertEquals(MOVE_KING, result.getBestMove());
+		assertEquals(MOVE_KING, result.getLine().get(0));
+		assertTrue(result.getDepth() >= 1);
+		assertTrue(result.getNodes() > 0);
+		
+		// The search works on a copy of the model
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(model));
+	}
+	
+	@Test
+	public void testLineIsPlayable() throws Exception {
+		SearchResult result = search.search(model, System.nanoTime() + 50000000L);
+		
+		for (Move move : result.getLine()) {
+			assertTrue(controller.makeMove(model, move));
+		}
+	}
+	
+	@Test
+	public void testExpiredDeadline() throws Exception {
+		// Even with no time at all, the first move in heuristic order is returned
+		SearchResult result = search.search(model, System.nanoTime() - 1);
+		
+		assertEquals(MOVE_KING, result.getBestMove());
+		assertEquals(0, result.getDepth());
+	}
+	
+	@Test
+	public void testDeadlineIsRespected() throws Exception {
+		long start = System.nanoTime();
+		search.search(model, start + 50000000L);
+		long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+		
+		assertTrue("search took " + elapsedMillis + "ms", elapsedMillis < 250);
+	}
+}
@@ -0,0 +1,83 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.Suit;
+
+public class BitboardTest {
+	private static final Card NINE_OF_DIAMONDS = new Card(Rank.NINE, Suit.DIAMONDS);
+	private static final Card TEN_OF_SPADES = new Card(Rank.TEN, Suit.SPADES);
+	private static final Card KING_OF_HEARTS = new Card(Rank.KING, Suit.HEARTS);
+	private static final Card ACE_OF_CLUBS = new Card(Rank.ACE, Suit.CLUBS);
+	
+	private KlondikeModel model;
+	private Bitboard bitboard;
+	
+	@Before
+	public void setUp() {
+		model = new KlondikeModel();
+		model.getTableauPile(0).addCard(NINE_OF_DIAMONDS);
+		model.getTableauPile(1).addCard(TEN_OF_SPADES);
+		for (int i = 3; i < 7; i++) {
+			model.getTableauPile(i).addCard(new Card(Rank.FIVE, Suit.values()[i - 3]));
+			model.getTableauPile(i).addCard(new Card(Rank.SIX, Suit.values()[i - 3]));
+			model.getTableauPile(i).setExposeIndex(1);
+		}
+		model.getMainDeck().addCard(KING_OF_HEARTS);
+		model.getFoundationPile(0).addCard(ACE_OF_CLUBS);
+		
+		bitboard = new Bitboard();
+		bitboard.update(model);
+	}
+	
+	private static long bit(Card card) {
+		return Bitboard.bit(card.getCode());
+	}
+	
+	@Test
+	public void testStackableOn() throws Exception {
+		long redNines = bit(NINE_OF_DIAMONDS) | bit(new Card(Rank.NINE, Suit.HEARTS));
+		assertEquals(redNines, Bitboard.stackableOn(TEN_OF_SPADES.getCode()));
+		assertEquals(0L, Bitboard.stackableOn(ACE_OF_CLUBS.getCode()));
+		assertEquals(4, Long.bitCount(Bitboard.KINGS));
+	}
+	
+	@Test
+	public void testMasks() throws Exception {
+		assertEquals(bit(ACE_OF_CLUBS), bitboard.getOnFoundation());
+		assertEquals(bit(KING_OF_HEARTS), bitboard.getMainDeckTop());
+		assertEquals(bit(KING_OF_HEARTS), bitboard.getStock());
+		assertTrue((bitboard.getFaceUp() & bit(new Card(Rank.FIVE, Suit.CLUBS))) == 0);
+		assertTrue((bitboard.getFaceUp() & bit(new Card(Rank.SIX, Suit.CLUBS))) != 0);
+		
+		long expectedFoundationAccepts = bit(new Card(Rank.TWO, Suit.CLUBS))
+				| bit(new Card(Rank.ACE, Suit.DIAMONDS))
+				| bit(new Card(Rank.ACE, Suit.HEARTS))
+				| bit(new Card(Rank.ACE, Suit.SPADES));
+		assertEquals(expectedFoundationAccepts, bitboard.getFoundationAccepts());
+	}
+	
+	@Test
+	public void testCardsWithMoves() throws Exception {
+		// The nine of diamonds can go on the ten of spades,
+		// and the king of hearts can go on the empty tableau pile
+		assertEquals(bit(NINE_OF_DIAMONDS) | bit(KING_OF_HEARTS), bitboard.getCardsWithMoves());
+		assertTrue(bitboard.canMoveToTableau(NINE_OF_DIAMONDS.getCode()));
+		assertFalse(bitboard.canMoveToTableau(TEN_OF_SPADES.getCode()));
+		assertFalse(bitboard.canMoveToFoundation(KING_OF_HEARTS.getCode()));
+	}
+	
+	@Test
+	public void testFoundationMove() throws Exception {
+		model.getMainDeck().addCard(new Card(Rank.TWO, Suit.CLUBS));
+		bitboard.update(model);
+		
+		assertTrue(bitboard.canMoveToFoundation(new Card(Rank.TWO, Suit.CLUBS).getCode()));
+	}
+}
@@ -0,0 +1,140 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.Suit;
+import edu.ycp.cs201.cards.TestGames;
+
+public class DeadEndDetectorTest {
+	private DeadEndDetector detector;
+	private KlondikeModel model;
+	
+	@Before
+	public void setUp() {
+		detector = new DeadEndDetector();
+		model = new KlondikeModel();
+	}
+	
+	private static void addCards(Pile pile, int exposeIndex, Card... cards) {
+		for (Card card : cards) {
+			pile.addCard(card);
+		}
+		pile.setExposeIndex(exposeIndex);
+	}
+	
+	@Test
+	public void testTestGameIsNotDeadEnd() throws Exception {
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		
+		assertNull(detector.analyze(model));
+		assertEquals(1L, detector.getChecks());
+		for (DeadEndDetector.Rule rule : DeadEndDetector.Rule.values()) {
+			assertEquals(0L, detector.getHits(rule));
+		}
+	}
+	
+	@Test
+	public void testTrappedCard() throws Exception {
+		// The 3 of hearts can't go to the foundation before the 2 of hearts,
+		// and both black 4s are buried beneath it
+		addCards(model.getTableauPile(0), 4,
+				new Card(Rank.FOUR, Suit.CLUBS),
+				new Card(Rank.FOUR, Suit.SPADES),
+				new Card(Rank.TWO, Suit.HEARTS),
+				new Card(Rank.THREE, Suit.HEARTS),
+				new Card(Rank.NINE, Suit.DIAMONDS));
+		
+		assertEquals(DeadEndDetector.Rule.TRAPPED_CARD, detector.analyze(model));
+		assertEquals(1L, detector.getHits(DeadEndDetector.Rule.TRAPPED_CARD));
+	}
+	
+	@Test
+	public void testTrappedCardParentAvailable() throws Exception {
+		// The 4 of spades can be drawn from the main deck,
+		// so the 3 of hearts can be moved onto it
+		addCards(model.getTableauPile(0), 3,
+				new Card(Rank.FOUR, Suit.CLUBS),
+				new Card(Rank.TWO, Suit.HEARTS),
+				new Card(Rank.THREE, Suit.HEARTS),
+				new Card(Rank.NINE, Suit.DIAMONDS));
+		addCards(model.getTableauPile(1), 0, new Card(Rank.TEN, Suit.SPADES));
+		addCards(model.getMainDeck(), 0, new Card(Rank.FOUR, Suit.SPADES));
+		
+		assertNull(detector.analyze(model));
+	}
+	
+	// The 2 of hearts is beneath the face-down king of hearts, the black
+	// aces through nines are on the foundations, and the other six tableau
+	// piles hold the 3 through 8 of hearts, which can't go anywhere
+	private void setUpBlockedKing(int numOtherPiles) {
+		addCards(model.getTableauPile(0), 2,
+				new Card(Rank.TWO, Suit.HEARTS),
+				new Card(Rank.KING, Suit.HEARTS),
+				new Card(Rank.ACE, Suit.HEARTS));
+		for (int i = 1; i <= numOtherPiles; i++) {
+			addCards(model.getTableauPile(i), 0, new Card(Rank.values()[i + 1], Suit.HEARTS));
+		}
+		for (Rank rank : Rank.values()) {
+			if (rank.ordinal() <= Rank.NINE.ordinal()) {
+				model.getFoundationPile(0).addCard(new Card(rank, Suit.CLUBS));
+				model.getFoundationPile(1).addCard(new Card(rank, Suit.SPADES));
+			}
+		}
+	}
+	
+	@Test
+	public void testBlockedKing() throws Exception {
+		setUpBlockedKing(6);
+		
+		assertEquals(DeadEndDetector.Rule.BLOCKED_KING, detector.analyze(model));
+		assertEquals(1L, detector.getHits(DeadEndDetector.Rule.BLOCKED_KING));
+		assertEquals(0L, detector.getHits(DeadEndDetector.Rule.TRAPPED_CARD));
+	}
+	
+	@Test
+	public void testBlockedKingWithEmptyPile() throws Exception {
+		// Tableau pile 6 is empty, so the king of hearts can be moved there
+		setUpBlockedKing(5);
+		
+		assertNull(detector.analyze(model));
+	}
+	
+	@Test
+	public void testBlockedKingPileCanBeEmptied() throws Exception {
+		// The 8 of hearts can be moved onto the 9 of clubs,
+		// which is no longer on a foundation pile
+		setUpBlockedKing(6);
+		model.getFoundationPile(0).removeCards(1);
+		
+		assertNull(detector.analyze(model));
+	}
+	
+	@Test
+	public void testNoMoves() throws Exception {
+		// A king at the bottom of a tableau pile can't move anywhere useful
+		addCards(model.getTableauPile(0), 0, new Card(Rank.KING, Suit.HEARTS));
+		addCards(model.getWastePile(), 53, new Card(Rank.FIVE, Suit.CLUBS));
+		
+		assertEquals(DeadEndDetector.Rule.NO_MOVES, detector.analyze(model));
+		assertEquals(1L, detector.getHits(DeadEndDetector.Rule.NO_MOVES));
+	}
+	
+	@Test
+	public void testWonGameIsNotDeadEnd() throws Exception {
+		for (Suit suit : Suit.values()) {
+			for (Rank rank : Rank.values()) {
+				model.getFoundationPile(suit.ordinal()).addCard(new Card(rank, suit));
+			}
+		}
+		
+		assertNull(detector.analyze(model));
+	}
+}
@@ -0,0 +1,209 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.TestGames;
+
+public class HintEngineTest {
+	private static final Move MOVE_KING = new Move(
+			new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1));
+	
+	@Rule
+	public Timeout globalTimeout = Timeout.millis(10000); // 10 seconds
+	
+	private KlondikeController controller;
+	private KlondikeModel model;
+	private HintEngine engine;
+	
+	// Records the hints delivered to it
+	private static class Recorder implements HintListener {
+		final CountDownLatch delivered = new CountDownLatch(1);
+		final AtomicInteger numHints = new AtomicInteger();
+		volatile Move hint;
+		volatile boolean onEventDispatchThread;
+		
+		@Override
+		public void hintFound(Move hint) {
+			this.hint = hint;
+			this.onEventDispatchThread = SwingUtilities.isEventDispatchThread();
+			numHints.incrementAndGet();
+			delivered.countDown();
+		}
+		
+		void await() throws InterruptedException {
+			assertTrue(delivered.await(5, TimeUnit.SECONDS));
+		}
+	}
+	
+	@BeforeClass
+	public static void setUpClass() {
+		System.setProperty("java.awt.headless", "true");
+	}
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+	}
+	
+	@After
+	public void tearDown() {
+		if (engine != null) {
+			engine.shutdown();
+		}
+	}
+	
+	private void requestHint(final HintListener listener) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				engine.requestHint(model, listener);
+			}
+		});
+	}
+	
+	// An engine whose searches don't finish until released
+	private HintEngine blockingEngine(final CountDownLatch started, final CountDownLatch release,
+			final AtomicInteger numSearches) {
+		return new HintEngine(controller, 1000) {
+			@Override
+			Move findHint(KlondikeModel model, long deadline, long requestGeneration) {
+				numSearches.incrementAndGet();
+				started.countDown();
+				boolean interrupted = false;
+				while (true) {
+					try {
+						release.await();
+						break;
+					} catch (InterruptedException e) {
+						// Keep going, as a search which ignores cancellation would
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				return MOVE_KING;
+			}
+		};
+	}
+	
+	@Test
+	public void testHintDeliveredOnEventDispatchThread() throws Exception {
+		engine = new HintEngine(controller, 20);
+		long start = System.nanoTime();
+		Recorder recorder = new Recorder();
+		requestHint(recorder);
+		recorder.await();
+		long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+		
+		assertEquals(MOVE_KING, recorder.hint);
+		assertTrue(recorder.onEventDispatchThread);
+		assertTrue("hint took " + elapsedMillis + "ms", elapsedMillis < 500);
+	}
+	
+	@Test
+	public void testCacheHitSkipsSearch() throws Exception {
+		final AtomicInteger numSearches = new AtomicInteger();
+		engine = new HintEngine(controller, 20) {
+			@Override
+			Move findHint(KlondikeModel model, long deadline, long requestGeneration) {
+				numSearches.incrementAndGet();
+				return super.findHint(model, deadline, requestGeneration);
+			}
+		};
+		Recorder first = new Recorder();
+		requestHint(first);
+		first.await();
+		assertEquals(1, numSearches.get());
+		assertEquals(1, engine.getCache().size());
+		
+		Recorder second = new Recorder();
+		requestHint(second);
+		second.await();
+		assertEquals(first.hint, second.hint);
+		assertTrue(second.onEventDispatchThread);
+		assertEquals(1, numSearches.get());
+	}
+	
+	@Test
+	public void testCancelSuppressesDelivery() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger numSearches = new AtomicInteger();
+		engine = blockingEngine(started, release, numSearches);
+		Recorder canceled = new Recorder();
+		requestHint(canceled);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		engine.cancel();
+		release.countDown();
+		
+		// Hints are searched for one at a time and delivered in order,
+		// so once a later hint arrives, the canceled one never will
+		Recorder later = new Recorder();
+		requestHint(later);
+		later.await();
+		assertEquals(0, canceled.numHints.get());
+		assertEquals(1, later.numHints.get());
+		
+		// The canceled result was not cached, so the later request searched again
+		assertEquals(2, numSearches.get());
+	}
+	
+	@Test
+	public void testStaleHintNotDelivered() throws Exception {
+		engine = new HintEngine(controller, 20);
+		Recorder first = new Recorder();
+		requestHint(first);
+		first.await();
+		
+		// Hold up the event dispatch thread, so that the cached hint is
+		// posted, but the request is canceled before it can be delivered
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		assertTrue(blocked.await(5, TimeUnit.SECONDS));
+		Recorder stale = new Recorder();
+		engine.requestHint(model, stale);
+		engine.cancel();
+		release.countDown();
+		
+		// Wait for everything posted so far to run
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+			}
+		});
+		assertEquals(0, stale.numHints.get());
+	}
+}
@@ -0,0 +1,61 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.TestGames;
+
+public class MoveGeneratorTest {
+	private KlondikeController controller;
+	private MoveGenerator moveGenerator;
+	private KlondikeModel model;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		moveGenerator = new MoveGenerator(controller);
+		model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+	}
+	
+	@Test
+	public void testGenerateMoves() throws Exception {
+		// The only legal moves are moving the king of spades (and the
+		// queen of diamonds on top of it) to the empty tableau pile,
+		// and drawing a card
+		ArrayList<Move> moves = new ArrayList<Move>();
+		moveGenerator.generateMoves(model, moves);
+		
+		assertEquals(2, moves.size());
+		assertEquals(new Move(new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1)), moves.get(0));
+		assertEquals(Move.DRAW, moves.get(1));
+	}
+	
+	@Test
+	public void testGenerateMovesLeavesModelUnchanged() throws Exception {
+		ArrayList<Move> moves = new ArrayList<Move>();
+		moveGenerator.generateMoves(model, moves);
+		
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(model));
+	}
+	
+	@Test
+	public void testFindHint() throws Exception {
+		// Moving the king exposes a face-down card, which is better than drawing
+		HintEngine hintEngine = new HintEngine(controller);
+		Move hint = hintEngine.findHint(model, System.nanoTime() + 500000000L, 0);
+		hintEngine.shutdown();
+		
+		assertEquals(new Move(new Location(LocationType.TABLEAU_PILE, 3, 3), new Location(LocationType.TABLEAU_PILE, 5, -1)), hint);
+	}
+}
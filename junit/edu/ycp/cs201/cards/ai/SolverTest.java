@@ -0,0 +1,119 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.Suit;
+import edu.ycp.cs201.cards.TestGames;
+
+public class SolverTest {
+	private KlondikeController controller;
+	private Solver solver;
+	private KlondikeModel model;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		solver = new Solver(controller);
+		model = new KlondikeModel();
+	}
+	
+	@Test
+	public void testSolveEndgame() throws Exception {
+		TestGames.setUpKingsOnly(model);
+		SolverResult result = solver.solve(model);
+		
+		assertEquals(SolverResult.Verdict.SOLVED, result.getVerdict());
+		assertEquals(4, result.getMoves().size());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(controller.makeMove(model, result.getMoves().get(i)));
+		}
+		assertTrue(controller.isWin(model));
+	}
+	
+	@Test
+	public void testForcedMovesReduceNodes() throws Exception {
+		// Aces to fives are on the foundations, and the rest of each
+		// suit is face up on a tableau pile, king at the bottom: every
+		// move from here is a safe move to a foundation pile
+		for (Suit suit : Suit.values()) {
+			Pile tableauPile = model.getTableauPile(suit.ordinal());
+			for (Rank rank : Rank.values()) {
+				if (rank.ordinal() <= Rank.FIVE.ordinal()) {
+					model.getFoundationPile(suit.ordinal()).addCard(new Card(rank, suit));
+				}
+			}
+			for (int i = Rank.values().length - 1; i > Rank.FIVE.ordinal(); i--) {
+				tableauPile.addCard(new Card(Rank.values()[i], suit));
+			}
+			tableauPile.setExposeIndex(0);
+		}
+		
+		Solver plainSolver = new Solver(controller, new DeadEndDetector(), Solver.DEFAULT_NODE_LIMIT, false);
+		SolverResult plain = plainSolver.solve(model);
+		SolverResult forced = solver.solve(model);
+		
+		assertEquals(SolverResult.Verdict.SOLVED, plain.getVerdict());
+		assertEquals(SolverResult.Verdict.SOLVED, forced.getVerdict());
+		assertEquals(33, plain.getNodes());
+		assertEquals(2, forced.getNodes());
+		
+		// The forced moves are part of the winning line
+		assertEquals(32, forced.getMoves().size());
+		for (Move move : forced.getMoves()) {
+			assertTrue(controller.makeMove(model, move));
+		}
+		assertTrue(controller.isWin(model));
+	}
+	
+	@Test
+	public void testUnsolvable() throws Exception {
+		TestGames.setUpLoneKing(model);
+		
+		assertEquals(SolverResult.Verdict.UNSOLVABLE, solver.solve(model).getVerdict());
+	}
+	
+	@Test
+	public void testMonitorNotified() throws Exception {
+		TestGames.setUpLoneKing(model);
+		final Object token = new Object();
+		final List<SolverResult> results = new ArrayList<SolverResult>();
+		SearchMonitor previous = SearchMonitor.get();
+		SearchMonitor.install(new SearchMonitor() {
+			@Override
+			public Object solveStarted() {
+				return token;
+			}
+			
+			@Override
+			public void solveFinished(Object t, Solver s, SolverResult result) {
+				assertSame(token, t);
+				assertSame(solver, s);
+				results.add(result);
+			}
+		});
+		try {
+			SolverResult result = solver.solve(model);
+			
+			assertEquals(1, results.size());
+			assertSame(result, results.get(0));
+			assertEquals(SolverResult.Verdict.UNSOLVABLE, result.getVerdict());
+			assertEquals(1, solver.getPrunes(DeadEndDetector.Rule.TRAPPED_CARD)
+					+ solver.getPrunes(DeadEndDetector.Rule.BLOCKED_KING)
+					+ solver.getPrunes(DeadEndDetector.Rule.NO_MOVES));
+		} finally {
+			SearchMonitor.install(previous);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.TestGames;
+
+public class StateCacheTest {
+	private KlondikeModel model;
+	private StateCache<Move> cache;
+	
+	@Before
+	public void setUp() {
+		model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		cache = new StateCache<Move>(StateCache.NUM_SEGMENTS);
+	}
+	
+	@Test
+	public void testStateKey() throws Exception {
+		long key = StateKey.of(model);
+		assertEquals(key, StateKey.of(model.copy()));
+		
+		new KlondikeController().makeMove(model, Move.DRAW);
+		assertTrue(key != StateKey.of(model));
+	}
+	
+	@Test
+	public void testGetAndPut() throws Exception {
+		long key = StateKey.of(model);
+		assertNull(cache.get(key));
+		cache.put(key, Move.DRAW);
+		assertEquals(Move.DRAW, cache.get(key));
+		
+		assertEquals(1, cache.size());
+		assertEquals(1L, cache.getHits());
+		assertEquals(1L, cache.getMisses());
+		assertEquals(0.5, cache.getHitRate(), 0.0);
+	}
+	
+	@Test
+	public void testEviction() throws Exception {
+		// Each segment holds one entry: keys 0 and 1 share a segment
+		cache.put(0L, Move.DRAW);
+		cache.put(1L, Move.DRAW);
+		
+		assertNull(cache.get(0L));
+		assertEquals(Move.DRAW, cache.get(1L));
+		assertEquals(1L, cache.getEvictions());
+	}
+	
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() throws Exception {
+		StateCache<Move> larger = new StateCache<Move>(2 * StateCache.NUM_SEGMENTS);
+		larger.put(0L, Move.DRAW);
+		larger.put(1L, Move.DRAW);
+		larger.get(0L);
+		larger.put(2L, Move.DRAW);
+		
+		assertNotNull(larger.get(0L));
+		assertNull(larger.get(1L));
+		assertNotNull(larger.get(2L));
+	}
+	
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		Move move = Move.parse("T3.3>T5");
+		cache.put(StateKey.of(model), move);
+		cache.put(-1L, Move.DRAW);
+		
+		File file = File.createTempFile("hints", ".txt");
+		try {
+			cache.save(file, HintEngine.HINT_CODEC);
+			
+			StateCache<Move> loaded = new StateCache<Move>(100);
+			assertEquals(2, loaded.load(file, HintEngine.HINT_CODEC));
+			assertEquals(move, loaded.get(StateKey.of(model)));
+			assertEquals(Move.DRAW, loaded.get(-1L));
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package edu.ycp.cs201.cards.ai;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.TestGames;
+
+public class WinProbabilityEstimatorTest {
+	private WinProbabilityEstimator estimator;
+	private KlondikeModel model;
+	
+	@Before
+	public void setUp() {
+		estimator = new WinProbabilityEstimator(2);
+		model = new KlondikeModel();
+	}
+	
+	@After
+	public void tearDown() {
+		estimator.shutdown();
+	}
+	
+	@Test
+	public void testEstimate() throws Exception {
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		WinEstimate estimate = estimator.estimate(model, 1000, 42L);
+		
+		assertEquals(1000L, estimate.getRollouts());
+		assertTrue(estimate.getLowerBound() <= estimate.getProbability());
+		assertTrue(estimate.getProbability() <= estimate.getUpperBound());
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(model));
+	}
+	
+	@Test
+	public void testEstimateIsReproducible() throws Exception {
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		
+		assertEquals(estimator.estimate(model, 1000, 42L).getWins(), estimator.estimate(model, 1000, 42L).getWins());
+	}
+	
+	@Test
+	public void testCertainWin() throws Exception {
+		TestGames.setUpKingsOnly(model);
+		WinEstimate estimate = estimator.estimate(model, 100, 1L);
+		
+		assertEquals(100L, estimate.getWins());
+		assertEquals(1.0, estimate.getProbability(), 0.0);
+	}
+	
+	@Test
+	public void testConfidenceInterval() throws Exception {
+		WinEstimate estimate = new WinEstimate(50, 100);
+		
+		assertEquals(0.5, estimate.getProbability(), 0.0);
+		assertEquals(0.404, estimate.getLowerBound(), 0.001);
+		assertEquals(0.596, estimate.getUpperBound(), 0.001);
+	}
+}
@@ -0,0 +1,101 @@
+package edu.ycp.cs201.cards.batch;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+
+public class BatchSolverTest {
+	private File dir;
+	private File output;
+	private File checkpointFile;
+	private BatchSolver batchSolver;
+	
+	@Before
+	public void setUp() throws Exception {
+		dir = Files.createTempDirectory("batch").toFile();
+		output = new File(dir, "results.txt");
+		checkpointFile = new File(dir, "checkpoint.txt");
+		batchSolver = new BatchSolver(new KlondikeController(), 1000, 2, 4, 0);
+	}
+	
+	@After
+	public void tearDown() {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+	}
+	
+	@Test
+	public void testRunAndResume() throws Exception {
+		assertEquals(10L, batchSolver.run(DealSource.seeds(100, 10), output, checkpointFile));
+		List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+		assertEquals(10, lines.size());
+		
+		// Each result is labelled with its seed
+		Set<String> seeds = new HashSet<String>();
+		for (String line : lines) {
+			seeds.add(line.substring(0, line.indexOf(' ')));
+		}
+		for (int seed = 100; seed < 110; seed++) {
+			assertTrue(seeds.contains(Integer.toString(seed)));
+		}
+		
+		Checkpoint checkpoint = Checkpoint.load(checkpointFile, 4);
+		assertEquals(3, checkpoint.getNumDone());
+		assertEquals(output.length(), checkpoint.getOffset());
+		
+		// Resuming a completed run solves nothing, and leaves the output unchanged
+		assertEquals(0L, batchSolver.run(DealSource.seeds(100, 10), output, checkpointFile));
+		assertEquals(lines, Files.readAllLines(output.toPath(), StandardCharsets.UTF_8));
+	}
+	
+	@Test
+	public void testResumeDiscardsUncheckpointedOutput() throws Exception {
+		// Chunk 0 is complete; the output also has a partial line written after the checkpoint
+		Checkpoint checkpoint = new Checkpoint(4);
+		checkpoint.markDone(0);
+		checkpoint.setOffset(8);
+		checkpoint.save(checkpointFile);
+		Files.write(output.toPath(), "chunk 0\npartial".getBytes(StandardCharsets.UTF_8));
+		
+		assertEquals(6L, batchSolver.run(DealSource.seeds(100, 10), output, checkpointFile));
+		List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+		assertEquals(7, lines.size());
+		assertEquals("chunk 0", lines.get(0));
+	}
+	
+	@Test
+	public void testCheckpointRoundTrip() throws Exception {
+		Checkpoint checkpoint = new Checkpoint(64);
+		checkpoint.setOffset(12345L);
+		for (int chunk : new int[] { 0, 1, 2, 5, 7, 8 }) {
+			checkpoint.markDone(chunk);
+		}
+		assertEquals("chunkSize=64\noffset=12345\ndone=0-2,5,7-8\n", checkpoint.toString());
+		
+		checkpoint.save(checkpointFile);
+		Checkpoint loaded = Checkpoint.load(checkpointFile, 64);
+		assertEquals(12345L, loaded.getOffset());
+		assertEquals(6, loaded.getNumDone());
+		assertTrue(loaded.isDone(7));
+		assertFalse(loaded.isDone(6));
+	}
+	
+	@Test(expected = java.io.IOException.class)
+	public void testCheckpointChunkSizeMismatch() throws Exception {
+		new Checkpoint(64).save(checkpointFile);
+		Checkpoint.load(checkpointFile, 32);
+	}
+}
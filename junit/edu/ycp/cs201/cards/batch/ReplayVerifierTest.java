@@ -0,0 +1,93 @@
+package edu.ycp.cs201.cards.batch;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModelPool;
+
+public class ReplayVerifierTest {
+	private ReplayVerifier verifier;
+	
+	@Before
+	public void setUp() {
+		verifier = new ReplayVerifier(new KlondikeController(), new KlondikeModelPool(4), 2);
+	}
+	
+	@After
+	public void tearDown() {
+		verifier.shutdown();
+	}
+	
+	@Test
+	public void testNotAWin() throws Exception {
+		ReplayResult result = verifier.verify("201 D D D");
+		assertEquals(ReplayResult.Status.NOT_A_WIN, result.getStatus());
+		assertEquals(-1, result.getMoveIndex());
+	}
+	
+	@Test
+	public void testIllegalMove() throws Exception {
+		// moving cards from a foundation pile is never legal
+		ReplayResult result = verifier.verify("201 D D F0>T1 D");
+		assertEquals(ReplayResult.Status.ILLEGAL_MOVE, result.getStatus());
+		assertEquals(2, result.getMoveIndex());
+	}
+	
+	@Test
+	public void testMalformed() throws Exception {
+		assertEquals(ReplayResult.Status.MALFORMED, verifier.verify("seed D").getStatus());
+		assertEquals(-1, verifier.verify("seed D").getMoveIndex());
+		assertEquals(ReplayResult.Status.MALFORMED, verifier.verify("201 D X9").getStatus());
+		assertEquals(1, verifier.verify("201 D X9").getMoveIndex());
+	}
+	
+	@Test
+	public void testIndexOutOfRange() throws Exception {
+		// Out-of-range piles are rejected when parsed
+		for (String move : new String[] { "T9>T1", "F7>T0", "T-1>T2" }) {
+			ReplayResult result = verifier.verify("201 D " + move);
+			assertEquals(ReplayResult.Status.MALFORMED, result.getStatus());
+			assertEquals(1, result.getMoveIndex());
+		}
+		
+		// A card index beyond the end of its pile is an illegal move
+		ReplayResult result = verifier.verify("201 T0.40>T1");
+		assertEquals(ReplayResult.Status.ILLEGAL_MOVE, result.getStatus());
+		assertEquals(0, result.getMoveIndex());
+		
+		// So is a tableau source without a card index, or a main deck
+		// card other than the top one
+		for (String move : new String[] { "T0>T1", "M30>T1" }) {
+			result = verifier.verify("201 " + move);
+			assertEquals(ReplayResult.Status.ILLEGAL_MOVE, result.getStatus());
+			assertEquals(0, result.getMoveIndex());
+		}
+	}
+	
+	@Test
+	public void testBadSubmissionDoesNotAbortBatch() throws Exception {
+		ReplayResult[] results = verifier.verifyAll(Arrays.asList("201 T9>T1", "201 D D D", "201 F7"));
+		
+		assertEquals(ReplayResult.Status.MALFORMED, results[0].getStatus());
+		assertEquals(ReplayResult.Status.NOT_A_WIN, results[1].getStatus());
+		assertEquals(ReplayResult.Status.MALFORMED, results[2].getStatus());
+	}
+	
+	@Test
+	public void testVerifyAll() throws Exception {
+		ReplayResult[] results = verifier.verifyAll(Arrays.asList("1 D", "2 F0>T1", "3 D D"));
+		assertEquals(ReplayResult.Status.NOT_A_WIN, results[0].getStatus());
+		assertEquals(ReplayResult.Status.ILLEGAL_MOVE, results[1].getStatus());
+		assertEquals(ReplayResult.Status.NOT_A_WIN, results[2].getStatus());
+		
+		// The threads are reused for the next batch
+		results = verifier.verifyAll(Arrays.asList("4 D"));
+		assertEquals(ReplayResult.Status.NOT_A_WIN, results[0].getStatus());
+	}
+}
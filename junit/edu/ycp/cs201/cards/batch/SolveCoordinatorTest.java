@@ -0,0 +1,169 @@
+package edu.ycp.cs201.cards.batch;
+
+import static org.junit.Assert.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class SolveCoordinatorTest {
+	@Rule
+	public Timeout globalTimeout = Timeout.millis(10000); // 10 seconds
+	
+	private File output;
+	
+	@Before
+	public void setUp() throws Exception {
+		output = File.createTempFile("results", ".txt");
+	}
+	
+	@After
+	public void tearDown() {
+		output.delete();
+	}
+	
+	// A worker which speaks the coordinator protocol, but doesn't solve anything;
+	// it disconnects after sending maxResults results.
+	private static Thread startFakeWorker(final int port, final int maxResults) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Socket socket = new Socket("localhost", port);
+					try {
+						DataInputStream in = new DataInputStream(socket.getInputStream());
+						DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+						out.writeByte(SolveCoordinator.HELLO);
+						out.writeInt(1);
+						int sent = 0;
+						while (in.readByte() == SolveCoordinator.ASSIGN) {
+							long first = in.readLong();
+							int count = in.readInt();
+							for (long seed = first; seed < first + count; seed++) {
+								if (sent++ == maxResults) {
+									return;
+								}
+								out.writeByte(SolveCoordinator.RESULT);
+								out.writeLong(seed);
+								out.writeUTF(seed + " UNKNOWN 0");
+							}
+							out.writeByte(SolveCoordinator.COMPLETE);
+						}
+					} finally {
+						socket.close();
+					}
+				} catch (Exception e) {
+					// Simulated worker death
+				}
+			}
+		});
+		thread.start();
+		return thread;
+	}
+	
+	private static Thread startCoordinator(final SolveCoordinator coordinator) {
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					coordinator.run();
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		});
+		thread.start();
+		return thread;
+	}
+	
+	private void checkOutput(long firstSeed, int count) throws Exception {
+		List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+		assertEquals(count, lines.size());
+		Set<String> unique = new HashSet<String>(lines);
+		for (long seed = firstSeed; seed < firstSeed + count; seed++) {
+			assertTrue(unique.contains(seed + " UNKNOWN 0"));
+		}
+	}
+	
+	@Test
+	public void testWorkers() throws Exception {
+		SolveCoordinator coordinator = new SolveCoordinator(100, 50, output, 0);
+		Thread coordinatorThread = startCoordinator(coordinator);
+		startFakeWorker(coordinator.getPort(), Integer.MAX_VALUE);
+		startFakeWorker(coordinator.getPort(), Integer.MAX_VALUE);
+		coordinatorThread.join();
+		
+		assertEquals(50, coordinator.getNumDone());
+		assertEquals(0, coordinator.getNumRequeued());
+		checkOutput(100, 50);
+	}
+	
+	@Test
+	public void testWorkerDeath() throws Exception {
+		// The first worker dies after 3 results; the rest of its range is requeued
+		SolveCoordinator coordinator = new SolveCoordinator(100, 50, output, 0);
+		Thread coordinatorThread = startCoordinator(coordinator);
+		startFakeWorker(coordinator.getPort(), 3).join();
+		while (coordinator.getNumRequeued() == 0) {
+			Thread.sleep(1);
+		}
+		startFakeWorker(coordinator.getPort(), Integer.MAX_VALUE);
+		coordinatorThread.join();
+		
+		assertEquals(SolveCoordinator.INITIAL_RANGE_SIZE - 3, coordinator.getNumRequeued());
+		checkOutput(100, 50);
+	}
+	
+	@Test
+	public void testOutputFailure() throws Exception {
+		// The output fails after 5 results: that isn't the worker's fault,
+		// so nothing is requeued, and run() reports the failure
+		Writer failingOutput = new Writer() {
+			private int numLines;
+			
+			@Override
+			public void write(String str) throws IOException {
+				if (numLines++ == 5) {
+					throw new IOException("disk full");
+				}
+			}
+			
+			@Override
+			public void write(char[] cbuf, int off, int len) {
+			}
+			
+			@Override
+			public void flush() {
+			}
+			
+			@Override
+			public void close() {
+			}
+		};
+		SolveCoordinator coordinator = new SolveCoordinator(100, 50, failingOutput, 0);
+		startFakeWorker(coordinator.getPort(), Integer.MAX_VALUE);
+		try {
+			coordinator.run();
+			fail();
+		} catch (IOException e) {
+			assertEquals("disk full", e.getMessage());
+		}
+		
+		assertEquals(5, coordinator.getNumDone());
+		assertEquals(0, coordinator.getNumRequeued());
+	}
+}
@@ -0,0 +1,75 @@
+package edu.ycp.cs201.cards.gui;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+public class ThumbnailRendererTest {
+	private static CardImageCollection cardImageCollection;
+	
+	@BeforeClass
+	public static void setUpClass() {
+		System.setProperty("java.awt.headless", "true");
+		cardImageCollection = new CardImageCollection();
+	}
+	
+	private static KlondikeModel deal(long seed) {
+		KlondikeModel model = new KlondikeModel();
+		new KlondikeController().initModel(model, new Random(seed));
+		return model;
+	}
+	
+	private static boolean samePixels(BufferedImage a, BufferedImage b) {
+		if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) {
+			return false;
+		}
+		for (int y = 0; y < a.getHeight(); y++) {
+			for (int x = 0; x < a.getWidth(); x++) {
+				if (a.getRGB(x, y) != b.getRGB(x, y)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	@Test
+	public void testThumbnailSize() throws Exception {
+		ThumbnailRenderer renderer = new ThumbnailRenderer(cardImageCollection, 200);
+		BufferedImage thumbnail = renderer.render(deal(201L));
+		
+		// Scaled to preserve the aspect ratio of the game window
+		assertEquals(200, thumbnail.getWidth());
+		assertEquals(200 * KlondikeView.HEIGHT / KlondikeView.WIDTH, thumbnail.getHeight());
+	}
+	
+	@Test
+	public void testFullSize() throws Exception {
+		ThumbnailRenderer renderer = new ThumbnailRenderer(cardImageCollection, 1000);
+		BufferedImage image = renderer.render(deal(201L));
+		
+		assertEquals(KlondikeView.WIDTH, image.getWidth());
+		assertEquals(KlondikeView.HEIGHT, image.getHeight());
+	}
+	
+	@Test
+	public void testDeterministic() throws Exception {
+		ThumbnailRenderer renderer = new ThumbnailRenderer(cardImageCollection, 200);
+		KlondikeModel model = deal(201L);
+		BufferedImage first = renderer.render(model);
+		
+		assertTrue(samePixels(first, renderer.render(model)));
+		assertTrue(samePixels(first, new ThumbnailRenderer(cardImageCollection, 200).render(deal(201L))));
+		
+		new KlondikeController().makeMove(model, Move.DRAW);
+		assertFalse(samePixels(first, renderer.render(model)));
+	}
+}
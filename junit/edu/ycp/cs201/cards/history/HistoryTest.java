@@ -0,0 +1,209 @@
+package edu.ycp.cs201.cards.history;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.ai.MoveGenerator;
+
+public class HistoryTest {
+	private static final int NUM_MOVES = 100;
+	private static final int KEYFRAME_INTERVAL = 16;
+	
+	private File file;
+	private List<String> states;
+	private long bytesWritten;
+	
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("history", ".bin");
+		
+		// Play a game (preferring moves other than drawing),
+		// recording the state after each move
+		KlondikeController controller = new KlondikeController();
+		MoveGenerator moveGenerator = new MoveGenerator(controller);
+		KlondikeModel model = new KlondikeModel();
+		controller.initModel(model, new Random(201L));
+		
+		states = new ArrayList<String>();
+		HistoryWriter writer = new HistoryWriter(FileChannel.open(file.toPath(), StandardOpenOption.WRITE), KEYFRAME_INTERVAL);
+		try {
+			states.add(StringifyGameState.modelToString(model));
+			writer.append(model);
+			List<Move> moves = new ArrayList<Move>();
+			for (int i = 0; i < NUM_MOVES; i++) {
+				moves.clear();
+				moveGenerator.generateMoves(model, moves);
+				controller.makeMove(model, moves.get(i % moves.size()));
+				states.add(StringifyGameState.modelToString(model));
+				writer.append(model);
+			}
+			bytesWritten = writer.getBytesWritten();
+		} finally {
+			writer.close();
+		}
+	}
+	
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+	
+	@Test
+	public void testSequentialRead() throws Exception {
+		HistoryReader reader = new HistoryReader(FileChannel.open(file.toPath()));
+		try {
+			KlondikeModel model = new KlondikeModel();
+			int count = 0;
+			while (reader.next(model)) {
+				assertEquals(states.get(count), StringifyGameState.modelToString(model));
+				count++;
+			}
+			assertEquals(NUM_MOVES + 1, count);
+		} finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testRandomAccess() throws Exception {
+		HistoryReader reader = new HistoryReader(FileChannel.open(file.toPath()));
+		try {
+			assertEquals(NUM_MOVES + 1, reader.getNumRecords());
+			KlondikeModel model = new KlondikeModel();
+			for (int moveNumber : new int[] { 77, 0, 15, 16, 17, NUM_MOVES, 3 }) {
+				reader.readState(moveNumber, model);
+				assertEquals(states.get(moveNumber), StringifyGameState.modelToString(model));
+			}
+		} finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testCompression() throws Exception {
+		// Much smaller than storing every encoded state
+		int encodedSize = 0;
+		for (String state : states) {
+			encodedSize += state.length();
+		}
+		assertEquals(bytesWritten, file.length());
+		assertTrue(bytesWritten * 10 < encodedSize);
+	}
+	
+	@Test
+	public void testNumRecordsKeepsReadPosition() throws Exception {
+		HistoryReader reader = new HistoryReader(FileChannel.open(file.toPath()));
+		try {
+			KlondikeModel model = new KlondikeModel();
+			for (int i = 0; i < 20; i++) {
+				assertTrue(reader.next(model));
+			}
+			assertEquals(NUM_MOVES + 1, reader.getNumRecords());
+			
+			// Sequential reading continues with record 20
+			int count = 20;
+			while (reader.next(model)) {
+				assertEquals(states.get(count), StringifyGameState.modelToString(model));
+				count++;
+			}
+			assertEquals(NUM_MOVES + 1, count);
+		} finally {
+			reader.close();
+		}
+	}
+	
+	@Test
+	public void testInvalidTag() throws Exception {
+		// A keyframe, then a record whose flags byte is neither
+		// the keyframe tag nor valid delta flags
+		ByteBuffer records = ByteBuffer.allocate(HistoryFormat.MAX_KEYFRAME_SIZE + HistoryFormat.DELTA_SIZE);
+		HistoryFormat.writeKeyframe(new KlondikeModel(), records);
+		records.put((byte) 0x40).put((byte) 0x01).put((byte) 1);
+		writeHistory(records);
+		
+		assertCorrupt(1);
+	}
+	
+	@Test
+	public void testInvalidDeltaPile() throws Exception {
+		ByteBuffer records = ByteBuffer.allocate(HistoryFormat.MAX_KEYFRAME_SIZE + HistoryFormat.DELTA_SIZE);
+		HistoryFormat.writeKeyframe(new KlondikeModel(), records);
+		records.put((byte) 0).put((byte) 0xF0).put((byte) 1);
+		writeHistory(records);
+		
+		assertCorrupt(1);
+	}
+	
+	@Test
+	public void testCorruptKeyframeLength() throws Exception {
+		// The first pile claims 200 cards, more than a keyframe can hold
+		ByteBuffer records = ByteBuffer.allocate(1024);
+		records.put(HistoryFormat.KEYFRAME).put((byte) 0).put((byte) 200);
+		records.position(records.limit());
+		writeHistory(records);
+		
+		assertCorrupt(0);
+	}
+	
+	@Test
+	public void testCorruptKeyframeCard() throws Exception {
+		ByteBuffer records = ByteBuffer.allocate(HistoryFormat.MAX_KEYFRAME_SIZE);
+		HistoryFormat.writeKeyframe(new KlondikeModel(), records);
+		records.put(2, (byte) 1).put(3, (byte) 99);
+		writeHistory(records);
+		
+		assertCorrupt(0);
+	}
+	
+	// Replace the history with a header followed by the given records
+	private void writeHistory(ByteBuffer records) throws IOException {
+		ByteBuffer history = ByteBuffer.allocate(HistoryFormat.HEADER_SIZE + records.position());
+		history.putInt(HistoryFormat.MAGIC).put(HistoryFormat.VERSION).putInt(KEYFRAME_INTERVAL);
+		records.flip();
+		history.put(records);
+		Files.write(file.toPath(), history.array());
+	}
+	
+	// Both sequential reading and indexing must report the bad record
+	// as an IOException
+	private void assertCorrupt(int numValid) throws IOException {
+		HistoryReader reader = new HistoryReader(FileChannel.open(file.toPath()));
+		try {
+			KlondikeModel model = new KlondikeModel();
+			for (int i = 0; i < numValid; i++) {
+				assertTrue(reader.next(model));
+			}
+			try {
+				reader.next(model);
+				fail("Corrupt record read");
+			} catch (IOException e) {
+				// Expected
+			}
+			try {
+				reader.getNumRecords();
+				fail("Corrupt history indexed");
+			} catch (IOException e) {
+				// Expected
+			}
+		} finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package edu.ycp.cs201.cards.metrics;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.TestGames;
+import edu.ycp.cs201.cards.ai.SearchMonitor;
+import edu.ycp.cs201.cards.ai.Solver;
+
+public class FlightRecorderMonitorTest {
+	private SearchMonitor previous;
+	
+	@Before
+	public void setUp() {
+		previous = SearchMonitor.get();
+		FlightRecorderMonitor.install();
+	}
+	
+	@After
+	public void tearDown() {
+		SearchMonitor.install(previous);
+	}
+	
+	@Test
+	public void testSolveEventRecorded() throws Exception {
+		Solver solver = new Solver(new KlondikeController());
+		KlondikeModel model = new KlondikeModel();
+		TestGames.setUpLoneKing(model);
+		
+		File file = File.createTempFile("solver", ".jfr");
+		try {
+			Recording recording = new Recording();
+			recording.enable("edu.ycp.cs201.cards.Solve");
+			recording.start();
+			solver.solve(model);
+			recording.stop();
+			recording.dump(file.toPath());
+			recording.close();
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+			assertEquals(1, events.size());
+			assertEquals("UNSOLVABLE", events.get(0).getString("verdict"));
+			assertEquals(0, events.get(0).getInt("solutionLength"));
+		} finally {
+			file.delete();
+		}
+	}
+}
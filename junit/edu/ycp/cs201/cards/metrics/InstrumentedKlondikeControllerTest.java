@@ -0,0 +1,125 @@
+package edu.ycp.cs201.cards.metrics;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Selection;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+public class InstrumentedKlondikeControllerTest {
+	private InstrumentedKlondikeController controller;
+	private KlondikeController plainController;
+	private KlondikeModel model;
+	private KlondikeModel plainModel;
+	
+	@Before
+	public void setUp() {
+		controller = new InstrumentedKlondikeController();
+		plainController = new KlondikeController();
+		model = new KlondikeModel();
+		controller.initModel(model, new Random(201L));
+		plainModel = new KlondikeModel();
+		plainController.initModel(plainModel, new Random(201L));
+	}
+	
+	private OperationStats getStats(String name) {
+		for (OperationStats stats : controller.getStats()) {
+			if (stats.getName().equals(name)) {
+				return stats;
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+	
+	private void assertSameState() {
+		assertEquals(StringifyGameState.modelToString(plainModel), StringifyGameState.modelToString(model));
+	}
+	
+	@Test
+	public void testStatsNames() throws Exception {
+		OperationStats[] stats = controller.getStats();
+		assertEquals(5, stats.length);
+		assertEquals("select", stats[0].getName());
+		assertEquals("allowMove", stats[1].getName());
+		assertEquals("moveCards", stats[2].getName());
+		assertEquals("drawCardOrRecycleWaste", stats[3].getName());
+		assertEquals("isWin", stats[4].getName());
+	}
+	
+	@Test
+	public void testDelegation() throws Exception {
+		// The dealt games are the same
+		assertSameState();
+		
+		controller.drawCardOrRecycleWaste(model);
+		plainController.drawCardOrRecycleWaste(plainModel);
+		assertSameState();
+		
+		Location top = new Location(LocationType.TABLEAU_PILE, 6, 6);
+		Location dest = new Location(LocationType.TABLEAU_PILE, 0, -1);
+		Selection selection = controller.select(model, top);
+		Selection plainSelection = plainController.select(plainModel, top);
+		assertEquals(plainSelection != null, selection != null);
+		assertEquals(plainController.allowMove(plainModel, plainSelection, dest),
+				controller.allowMove(model, selection, dest));
+		controller.unselect(model, selection);
+		plainController.unselect(plainModel, plainSelection);
+		assertSameState();
+		
+		// makeMove is made of the instrumented operations
+		assertEquals(plainController.makeMove(plainModel, Move.DRAW), controller.makeMove(model, Move.DRAW));
+		assertEquals(2, getStats("drawCardOrRecycleWaste").getCalls());
+		assertEquals(plainController.isWin(plainModel), controller.isWin(model));
+		assertSameState();
+	}
+	
+	@Test
+	public void testCounts() throws Exception {
+		// Selecting a face-down card is rejected
+		assertNull(controller.select(model, new Location(LocationType.TABLEAU_PILE, 6, 0)));
+		Selection selection = controller.select(model, new Location(LocationType.TABLEAU_PILE, 6, 6));
+		assertNotNull(selection);
+		controller.unselect(model, selection);
+		controller.drawCardOrRecycleWaste(model);
+		controller.drawCardOrRecycleWaste(model);
+		controller.isWin(model);
+		
+		assertEquals(2, getStats("select").getCalls());
+		assertEquals(1, getStats("select").getRejected());
+		assertEquals(2, getStats("drawCardOrRecycleWaste").getCalls());
+		assertEquals(0, getStats("drawCardOrRecycleWaste").getRejected());
+		assertEquals(1, getStats("isWin").getCalls());
+		assertEquals(0, getStats("allowMove").getCalls());
+		assertEquals(0, getStats("moveCards").getCalls());
+		
+		// Every call's latency is recorded, rejected or not
+		assertEquals(2, getStats("select").getLatency().getCount());
+	}
+	
+	@Test
+	public void testDisabled() throws Exception {
+		controller.setEnabled(false);
+		controller.drawCardOrRecycleWaste(model);
+		plainController.drawCardOrRecycleWaste(plainModel);
+		assertEquals(plainController.isWin(plainModel), controller.isWin(model));
+		
+		// Calls are still passed through, but not counted
+		assertSameState();
+		for (OperationStats stats : controller.getStats()) {
+			assertEquals(0, stats.getCalls());
+		}
+		
+		controller.setEnabled(true);
+		controller.isWin(model);
+		assertEquals(1, getStats("isWin").getCalls());
+	}
+}
@@ -0,0 +1,57 @@
+package edu.ycp.cs201.cards.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+	private LatencyHistogram histogram;
+	
+	@Before
+	public void setUp() {
+		histogram = new LatencyHistogram();
+	}
+	
+	@Test
+	public void testBuckets() throws Exception {
+		// small values have their own buckets
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, LatencyHistogram.bucketFor(i));
+			assertEquals(i, LatencyHistogram.bucketUpperBound(i));
+		}
+		
+		// every value is in a bucket whose upper bound is within 25%
+		long[] values = { 4, 5, 7, 8, 100, 1000, 123456789L, Long.MAX_VALUE };
+		for (long value : values) {
+			int bucket = LatencyHistogram.bucketFor(value);
+			assertTrue(bucket < LatencyHistogram.NUM_BUCKETS);
+			long upper = LatencyHistogram.bucketUpperBound(bucket);
+			assertTrue(upper >= value);
+			assertTrue(upper - value <= value / 4);
+		}
+		assertEquals(LatencyHistogram.NUM_BUCKETS - 1, LatencyHistogram.bucketFor(Long.MAX_VALUE));
+	}
+	
+	@Test
+	public void testPercentiles() throws Exception {
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i);
+		}
+		assertEquals(1000L, histogram.getCount());
+		assertEquals(500.5, histogram.getMean(), 0.001);
+		assertEquals(1000L, histogram.getMax());
+		
+		long p50 = histogram.getPercentile(0.5);
+		assertTrue(p50 >= 500 && p50 <= 625);
+		assertEquals(1000L, histogram.getPercentile(1.0));
+	}
+	
+	@Test
+	public void testReset() throws Exception {
+		histogram.record(42);
+		histogram.reset();
+		assertEquals(0L, histogram.getCount());
+		assertEquals(0L, histogram.getPercentile(0.99));
+	}
+}
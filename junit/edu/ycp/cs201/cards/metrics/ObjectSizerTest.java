@@ -0,0 +1,93 @@
+package edu.ycp.cs201.cards.metrics;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.Suit;
+
+public class ObjectSizerTest {
+	private ObjectSizer sizer;
+	
+	@Before
+	public void setUp() {
+		sizer = new ObjectSizer(null);
+	}
+	
+	@Test
+	public void testShallowSizeAligned() throws Exception {
+		assertEquals(0, sizer.shallowSize(new long[3]) % 8);
+		assertEquals(0, sizer.shallowSize(new Card(Rank.ACE, Suit.CLUBS)) % 8);
+		assertTrue(sizer.shallowSize(new long[3]) >= 24);
+		assertTrue(sizer.shallowSize(new long[4]) > sizer.shallowSize(new long[3]));
+	}
+	
+	@Test
+	public void testDeepSize() throws Exception {
+		long[] contents = new long[4];
+		Object[] root = new Object[] { contents, contents };
+		Footprint footprint = sizer.measure("root", root, Collections.emptyList());
+		
+		assertEquals(2, footprint.getNumObjects());
+		assertEquals(sizer.shallowSize(root) + sizer.shallowSize(contents), footprint.getHeapBytes());
+		assertEquals(0, footprint.getOffHeapBytes());
+		assertFalse(footprint.isExact());
+	}
+	
+	@Test
+	public void testCycle() throws Exception {
+		Object[] a = new Object[1];
+		Object[] b = new Object[] { a };
+		a[0] = b;
+		
+		assertEquals(2, sizer.measure("cycle", a, Collections.emptyList()).getNumObjects());
+	}
+	
+	@Test
+	public void testSharedAndEnumsNotCounted() throws Exception {
+		Card shared = Card.fromCode(0);
+		Card own = new Card(Rank.KING, Suit.SPADES);
+		Object[] root = new Object[] { shared, own };
+		Footprint footprint = sizer.measure("cards", root, Arrays.asList(shared));
+		
+		// The array and the unshared card; the Rank and Suit constants aren't counted
+		assertEquals(2, footprint.getNumObjects());
+		assertEquals(sizer.shallowSize(root) + sizer.shallowSize(own), footprint.getHeapBytes());
+	}
+	
+	@Test
+	public void testCollectionContentsFollowed() throws Exception {
+		List<Card> cards = new ArrayList<Card>();
+		cards.add(new Card(Rank.ACE, Suit.HEARTS));
+		cards.add(new Card(Rank.TWO, Suit.HEARTS));
+		
+		// The list, its backing storage (estimated), and both cards
+		assertEquals(3, sizer.measure("list", cards, Collections.emptyList()).getNumObjects());
+	}
+	
+	@Test
+	public void testDirectBufferOffHeap() throws Exception {
+		ByteBuffer buf = ByteBuffer.allocateDirect(4096);
+		
+		assertEquals(4096, sizer.measure("buffer", buf, Collections.emptyList()).getOffHeapBytes());
+	}
+	
+	@Test
+	public void testPerItem() throws Exception {
+		Footprint footprint = new Footprint("arena", 10, 1000, 8193, true).perItem("state", 8);
+		
+		assertEquals(2, footprint.getNumObjects());
+		assertEquals(125, footprint.getHeapBytes());
+		assertEquals(1025, footprint.getOffHeapBytes());
+		assertEquals(1150, footprint.getTotalBytes());
+	}
+}
@@ -0,0 +1,73 @@
+package edu.ycp.cs201.cards.metrics;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+
+public class RegressionBenchmarkTest {
+	@Test
+	public void testBaselineRoundTrip() throws Exception {
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
+		results.put("makeMove", 1234567.5);
+		results.put("stringify", 42.0);
+		StringWriter writer = new StringWriter();
+		RegressionBenchmark.writeBaseline(writer, results);
+		
+		assertEquals(results, RegressionBenchmark.readBaseline(new StringReader(writer.toString())));
+	}
+	
+	@Test
+	public void testReadBaselineSkipsComments() throws Exception {
+		Map<String, Double> baseline = RegressionBenchmark.readBaseline(new StringReader("# comment\n\nisWin 100.0\n"));
+		
+		assertEquals(Collections.singletonMap("isWin", 100.0), baseline);
+	}
+	
+	@Test(expected=IOException.class)
+	public void testReadBaselineInvalid() throws Exception {
+		RegressionBenchmark.readBaseline(new StringReader("isWin fast\n"));
+	}
+	
+	@Test
+	public void testFindRegressions() throws Exception {
+		Map<String, Double> baseline = new LinkedHashMap<String, Double>();
+		baseline.put("a", 100.0);
+		baseline.put("b", 100.0);
+		baseline.put("c", 100.0);
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
+		results.put("a", 91.0);  // within 10%
+		results.put("b", 89.0);  // more than 10% slower
+		results.put("c", 150.0); // faster
+		results.put("d", 1.0);   // no baseline
+		
+		assertEquals(Arrays.asList("b"), RegressionBenchmark.findRegressions(baseline, results, 0.10));
+		assertEquals(Arrays.asList("a", "b"), RegressionBenchmark.findRegressions(baseline, results, 0.05));
+	}
+	
+	@Test
+	public void testCorpusStatePositions() throws Exception {
+		BenchmarkCorpus corpus = BenchmarkCorpus.load(new KlondikeController(),
+				new StringReader("# comment\nwon state 00000000!00000053!00000000\"#$%&'()*+,-.!" +
+						"00000000/0123456789:;!00000000IJKLMNOPQRSTU!00000000<=>?@ABCDEFGH!00000000!00000000!" +
+						"00000000!00000000!00000000!00000000!00000000\n"));
+		
+		assertEquals(1, corpus.getNumPositions());
+		assertEquals("won", corpus.getName(0));
+		assertEquals(13, corpus.getModel(0).getFoundationPile(0).getNumCards());
+	}
+	
+	@Test(expected=IOException.class)
+	public void testCorpusUnknownKind() throws Exception {
+		BenchmarkCorpus.load(new KlondikeController(), new StringReader("x midgame 1\n"));
+	}
+}
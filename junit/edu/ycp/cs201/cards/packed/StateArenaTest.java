@@ -0,0 +1,82 @@
+package edu.ycp.cs201.cards.packed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.Suit;
+import edu.ycp.cs201.cards.TestGames;
+
+public class StateArenaTest {
+	private StateArena arena;
+	private KlondikeModel model;
+	private KlondikeModel model2;
+	
+	@Before
+	public void setUp() {
+		// tiny slabs, so that the tests use more than one
+		arena = new StateArena(2);
+		model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, TestGames.TEST_GAME);
+		model2 = new KlondikeModel();
+		StringifyGameState.stringToModel(model2, TestGames.TEST_GAME_2);
+	}
+	
+	@Test
+	public void testAddAndGet() throws Exception {
+		assertEquals(0L, arena.add(model));
+		assertEquals(1L, arena.add(model2));
+		assertEquals(2L, arena.add(model));
+		assertEquals(3L, arena.size());
+		assertEquals(4L * PackedState.SIZE, arena.getAllocatedBytes());
+		
+		KlondikeModel copy = new KlondikeModel();
+		arena.get(1, copy);
+		assertEquals(TestGames.TEST_GAME_2, StringifyGameState.modelToString(copy));
+		arena.get(2, copy);
+		assertEquals(TestGames.TEST_GAME, StringifyGameState.modelToString(copy));
+	}
+	
+	@Test
+	public void testCursor() throws Exception {
+		arena.add(model);
+		StateCursor cursor = arena.cursor().moveTo(0);
+		
+		// main deck
+		assertEquals(24, cursor.getNumCards(0));
+		assertEquals(23, cursor.getExposeIndex(0));
+		assertEquals(new Card(Rank.NINE, Suit.HEARTS), cursor.getTopCard(0));
+		
+		// tableau pile 3 (pile number 9)
+		assertEquals(5, cursor.getNumCards(9));
+		assertEquals(3, cursor.getExposeIndex(9));
+		assertEquals(new Card(Rank.KING, Suit.SPADES), cursor.getCard(9, 3));
+		assertSame(Card.fromCode(cursor.getCardCode(9, 3)), cursor.getCard(9, 3));
+		
+		// waste pile
+		assertEquals(0, cursor.getNumCards(1));
+		assertEquals(53, cursor.getExposeIndex(1));
+	}
+	
+	@Test
+	public void testSameState() throws Exception {
+		arena.add(model);
+		arena.add(model2);
+		arena.add(model);
+		StateCursor a = arena.cursor().moveTo(0);
+		StateCursor b = arena.cursor().moveTo(2);
+		assertTrue(a.sameState(b));
+		assertFalse(a.sameState(b.moveTo(1)));
+	}
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testInvalidIndex() throws Exception {
+		arena.add(model);
+		arena.cursor().moveTo(1);
+	}
+}
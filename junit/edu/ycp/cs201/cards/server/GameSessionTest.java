@@ -0,0 +1,175 @@
+package edu.ycp.cs201.cards.server;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+public class GameSessionTest {
+	private KlondikeController controller;
+	private List<Runnable> scheduled;
+	private GameSession session;
+	private String initialState;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		KlondikeModel model = new KlondikeModel();
+		controller.initModel(model, new Random(201L));
+		initialState = StringifyGameState.modelToString(model);
+		
+		// Mailbox runs are only carried out when the test says so
+		scheduled = new ArrayList<Runnable>();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				scheduled.add(command);
+			}
+		};
+		session = new GameSession("s1", controller, executor, model);
+	}
+	
+	private void runScheduled() {
+		while (!scheduled.isEmpty()) {
+			scheduled.remove(0).run();
+		}
+	}
+	
+	private static SessionCommand<Void> append(final List<Integer> log, final int value) {
+		return new SessionCommand<Void>() {
+			@Override
+			public Void execute(GameSession session) {
+				log.add(value);
+				return null;
+			}
+		};
+	}
+	
+	private static final SessionCommand<Boolean> EVICT = new SessionCommand<Boolean>() {
+		@Override
+		public Boolean execute(GameSession session) {
+			return session.evict(0L);
+		}
+	};
+	
+	@Test
+	public void testCommandsRunInOrder() throws Exception {
+		List<Integer> log = new ArrayList<Integer>();
+		for (int i = 0; i < 200; i++) {
+			session.submit(append(log, i));
+		}
+		
+		// The whole mailbox is drained by one run, in batches
+		assertEquals(1, scheduled.size());
+		runScheduled();
+		
+		assertEquals(200, log.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(Integer.valueOf(i), log.get(i));
+		}
+	}
+	
+	@Test
+	public void testEvictAndRehydrate() throws Exception {
+		Future<Boolean> evicted = session.submitHousekeeping(EVICT);
+		runScheduled();
+		
+		assertTrue(evicted.get());
+		assertFalse(session.isResident());
+		
+		Future<String> state = session.submit(new SessionCommand<String>() {
+			@Override
+			public String execute(GameSession session) {
+				return session.getState();
+			}
+		});
+		runScheduled();
+		
+		// The evicted state is the serialized game
+		assertEquals(initialState, state.get());
+		assertFalse(session.isResident());
+		
+		Future<String> rehydrated = session.submit(new SessionCommand<String>() {
+			@Override
+			public String execute(GameSession session) {
+				return StringifyGameState.modelToString(session.getModel());
+			}
+		});
+		runScheduled();
+		
+		assertEquals(initialState, rehydrated.get());
+		assertTrue(session.isResident());
+	}
+	
+	@Test
+	public void testEvictCancelsSelection() throws Exception {
+		final Location top = new Location(LocationType.TABLEAU_PILE, 6, 6);
+		Future<Boolean> selected = session.submit(new SessionCommand<Boolean>() {
+			@Override
+			public Boolean execute(GameSession session) {
+				return session.select(top);
+			}
+		});
+		Future<Boolean> evicted = session.submitHousekeeping(EVICT);
+		runScheduled();
+		
+		assertTrue(selected.get());
+		assertTrue(evicted.get());
+		assertEquals(initialState, StringifyGameState.modelToString(session.getModel()));
+	}
+	
+	@Test
+	public void testNoEvictionWhileCommandsWait() throws Exception {
+		List<Integer> log = new ArrayList<Integer>();
+		Future<Boolean> evicted = session.submitHousekeeping(EVICT);
+		session.submit(append(log, 1));
+		runScheduled();
+		
+		assertFalse(evicted.get());
+		assertTrue(session.isResident());
+		assertEquals(1, log.size());
+	}
+	
+	@Test
+	public void testNoEvictionOfRecentlyUsedSession() throws Exception {
+		// The session was idle when eviction was requested, but a command
+		// ran before the eviction did
+		session.submit(append(new ArrayList<Integer>(), 1));
+		runScheduled();
+		Future<Boolean> evicted = session.submitHousekeeping(new SessionCommand<Boolean>() {
+			@Override
+			public Boolean execute(GameSession session) {
+				return session.evict(TimeUnit.HOURS.toNanos(1));
+			}
+		});
+		runScheduled();
+		
+		assertFalse(evicted.get());
+		assertTrue(session.isResident());
+	}
+	
+	@Test
+	public void testHousekeepingIsNotActivity() throws Exception {
+		long lastAccess = session.getLastAccessNanos();
+		Thread.sleep(2);
+		session.submitHousekeeping(EVICT);
+		
+		assertEquals(lastAccess, session.getLastAccessNanos());
+		
+		session.submit(append(new ArrayList<Integer>(), 1));
+		assertTrue(session.getLastAccessNanos() > lastAccess);
+	}
+}
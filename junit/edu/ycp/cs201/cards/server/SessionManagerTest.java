@@ -0,0 +1,124 @@
+package edu.ycp.cs201.cards.server;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import edu.ycp.cs201.cards.KlondikeController;
+
+public class SessionManagerTest {
+	@Rule
+	public Timeout globalTimeout = Timeout.millis(10000); // 10 seconds
+	
+	private SessionManager manager;
+	
+	@After
+	public void tearDown() {
+		if (manager != null) {
+			manager.shutdown();
+		}
+	}
+	
+	private static final SessionCommand<String> GET_STATE = new SessionCommand<String>() {
+		@Override
+		public String execute(GameSession session) {
+			return session.getState();
+		}
+	};
+	
+	@Test
+	public void testCommandsRunInOrderOneAtATime() throws Exception {
+		manager = new SessionManager(new KlondikeController(), 4, 60000);
+		final int numSessions = 8;
+		final int numCommands = 500;
+		final AtomicInteger overlaps = new AtomicInteger();
+		
+		List<String> ids = new ArrayList<String>();
+		List<List<Integer>> logs = new ArrayList<List<Integer>>();
+		AtomicInteger[] running = new AtomicInteger[numSessions];
+		for (int s = 0; s < numSessions; s++) {
+			ids.add(manager.createSession().getId());
+			logs.add(new ArrayList<Integer>());
+			running[s] = new AtomicInteger();
+		}
+		List<Future<Void>> results = new ArrayList<Future<Void>>();
+		for (int i = 0; i < numCommands; i++) {
+			for (int s = 0; s < numSessions; s++) {
+				final AtomicInteger sessionRunning = running[s];
+				final List<Integer> log = logs.get(s);
+				final int value = i;
+				results.add(manager.submit(ids.get(s), new SessionCommand<Void>() {
+					@Override
+					public Void execute(GameSession session) {
+						if (sessionRunning.incrementAndGet() != 1) {
+							overlaps.incrementAndGet();
+						}
+						log.add(value);
+						sessionRunning.decrementAndGet();
+						return null;
+					}
+				}));
+			}
+		}
+		for (Future<Void> result : results) {
+			result.get();
+		}
+		
+		assertEquals(0, overlaps.get());
+		for (List<Integer> log : logs) {
+			assertEquals(numCommands, log.size());
+			for (int i = 0; i < numCommands; i++) {
+				assertEquals(Integer.valueOf(i), log.get(i));
+			}
+		}
+	}
+	
+	@Test
+	public void testIdleSessionEvictedAndRehydrated() throws Exception {
+		manager = new SessionManager(new KlondikeController(), 2, 20);
+		GameSession session = manager.createSession();
+		String id = session.getId();
+		String state = manager.submit(id, GET_STATE).get();
+		
+		while (manager.getEvictionCount() == 0) {
+			Thread.sleep(5);
+		}
+		assertFalse(session.isResident());
+		
+		// The next command decodes the game from its serialized form
+		Future<String> rehydrated = manager.submit(id, new SessionCommand<String>() {
+			@Override
+			public String execute(GameSession session) {
+				session.getModel();
+				return session.isResident() ? session.getState() : null;
+			}
+		});
+		assertEquals(state, rehydrated.get());
+		assertSame(session, manager.getSession(id));
+	}
+	
+	@Test
+	public void testUnknownSession() throws Exception {
+		manager = new SessionManager(new KlondikeController(), 1, 60000);
+		
+		assertNull(manager.getSession("nope"));
+		assertNull(manager.submit("nope", GET_STATE));
+		assertFalse(manager.removeSession("nope"));
+		
+		String id = manager.createSession().getId();
+		assertEquals(1, manager.getNumSessions());
+		assertTrue(manager.removeSession(id));
+		
+		assertEquals(0, manager.getNumSessions());
+		assertNull(manager.submit(id, GET_STATE));
+		assertFalse(manager.removeSession(id));
+	}
+}
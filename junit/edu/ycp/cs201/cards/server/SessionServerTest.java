@@ -0,0 +1,90 @@
+package edu.ycp.cs201.cards.server;
+
+import static org.junit.Assert.*;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import edu.ycp.cs201.cards.KlondikeController;
+
+public class SessionServerTest {
+	@Rule
+	public Timeout globalTimeout = Timeout.millis(10000); // 10 seconds
+	
+	private SessionManager manager;
+	private SessionServer server;
+	
+	@Before
+	public void setUp() throws Exception {
+		manager = new SessionManager(new KlondikeController(), 2, 60000);
+		server = new SessionServer(manager, 0, 2);
+		server.start();
+	}
+	
+	@After
+	public void tearDown() {
+		server.stop();
+		manager.shutdown();
+	}
+	
+	private int status(String method, String path) throws Exception {
+		HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+		conn.setRequestMethod(method);
+		try {
+			return conn.getResponseCode();
+		} finally {
+			conn.disconnect();
+		}
+	}
+	
+	@Test
+	public void testPathMustMatchExactly() throws Exception {
+		assertEquals(404, status("POST", "/sessionsX"));
+		assertEquals(404, status("GET", "/statsX"));
+		assertEquals(0, manager.getNumSessions());
+		
+		assertEquals(200, status("POST", "/sessions"));
+		assertEquals(200, status("GET", "/stats"));
+		assertEquals(1, manager.getNumSessions());
+	}
+	
+	@Test
+	public void testMethodIsChecked() throws Exception {
+		String id = manager.createSession().getId();
+		
+		assertEquals(405, status("GET", "/sessions"));
+		assertEquals(405, status("POST", "/stats"));
+		assertEquals(405, status("POST", "/sessions/" + id + "/state"));
+		assertEquals(405, status("GET", "/sessions/" + id + "/draw"));
+		assertEquals(405, status("GET", "/sessions/" + id));
+		assertEquals(404, status("GET", "/sessions/" + id + "/shuffle"));
+		
+		assertEquals(200, status("GET", "/sessions/" + id + "/state"));
+		assertEquals(200, status("DELETE", "/sessions/" + id));
+		assertEquals(404, status("GET", "/sessions/" + id + "/state"));
+	}
+	
+	@Test
+	public void testLocationIsRangeChecked() throws Exception {
+		String select = "/sessions/" + manager.createSession().getId() + "/select?type=";
+		String move = "/sessions/" + manager.createSession().getId() + "/move?type=";
+		
+		assertEquals(400, status("POST", select + "TABLEAU_PILE&pile=99&card=0"));
+		assertEquals(400, status("POST", select + "TABLEAU_PILE&pile=-1&card=0"));
+		assertEquals(400, status("POST", select + "FOUNDATION_PILE&pile=4&card=0"));
+		assertEquals(400, status("POST", select + "TABLEAU_PILE&pile=0&card=99"));
+		assertEquals(400, status("POST", select + "BOARD&pile=0&card=0"));
+		// The first tableau pile has one card
+		assertEquals(400, status("POST", select + "TABLEAU_PILE&pile=0&card=1"));
+		assertEquals(400, status("POST", move + "TABLEAU_PILE&pile=7"));
+		
+		assertEquals(200, status("POST", select + "TABLEAU_PILE&pile=0&card=0"));
+		assertEquals(200, status("POST", move + "FOUNDATION_PILE&pile=3"));
+	}
+}
@@ -0,0 +1,74 @@
+package edu.ycp.cs201.cards.sim;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+public class PlayoutSimulatorTest {
+	private KlondikeController controller;
+	private PlayoutSimulator simulator;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		simulator = new PlayoutSimulator(controller, 4);
+	}
+	
+	@After
+	public void tearDown() {
+		simulator.shutdown();
+	}
+	
+	@Test
+	public void testReportCoversAllGames() throws Exception {
+		PlayoutReport report = simulator.run(new GreedyPolicy(), 0L, 600);
+		
+		assertEquals(600, report.getNumGames());
+		long total = 0;
+		for (long count : report.getMoveCounts()) {
+			total += count;
+		}
+		assertEquals(600, total);
+		assertTrue(report.getNumWins() <= report.getNumGames());
+		assertTrue(report.getMovesPercentile(50) <= report.getMovesPercentile(100));
+	}
+	
+	@Test
+	public void testIndependentOfThreadCount() throws Exception {
+		PlayoutReport parallel = simulator.run(new RandomPolicy(), 42L, 300);
+		PlayoutSimulator single = new PlayoutSimulator(controller, 1);
+		try {
+			PlayoutReport sequential = single.run(new RandomPolicy(), 42L, 300);
+			
+			assertEquals(sequential.getNumWins(), parallel.getNumWins());
+			assertTrue(Arrays.equals(sequential.getMoveCounts(), parallel.getMoveCounts()));
+		} finally {
+			single.shutdown();
+		}
+	}
+	
+	@Test
+	public void testResigningPolicy() throws Exception {
+		PlayoutReport report = simulator.run(new PlayoutPolicy() {
+			@Override
+			public Move chooseMove(KlondikeModel model, List<Move> moves, SplittableRandom random) {
+				return null;
+			}
+		}, 0L, 10);
+		
+		assertEquals(10, report.getNumGames());
+		assertEquals(0, report.getNumWins());
+		assertEquals(10, report.getMoveCounts()[0]);
+		assertEquals(0.0, report.getMeanMoves(), 0.0);
+	}
+}
@@ -0,0 +1,85 @@
+package edu.ycp.cs201.cards.tui;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+
+public class TerminalGameTest {
+	private KlondikeController controller;
+	private KlondikeModel model;
+	private TerminalGame game;
+	
+	@Before
+	public void setUp() {
+		controller = new KlondikeController();
+		model = new KlondikeModel();
+		controller.initModel(model, new Random(1234L));
+		game = new TerminalGame(controller, model, new TerminalRenderer(false));
+	}
+	
+	@Test
+	public void testOutOfRangeNotationIsIllegal() throws Exception {
+		int[] numCards = numCards();
+		
+		assertEquals("Illegal move", game.execute("t9>t1"));
+		assertEquals("Illegal move", game.execute("t0>f7"));
+		assertEquals("Illegal move", game.execute("t-1>t2"));
+		assertEquals("Illegal move", game.execute("t0.51>t1"));
+		assertEquals("Illegal move", game.execute("x>y"));
+		assertArrayEquals(numCards, numCards());
+	}
+	
+	@Test
+	public void testInvalidPileNames() throws Exception {
+		assertEquals("Invalid source: t9", game.execute("t9 t1"));
+		assertEquals("Invalid destination: f7", game.execute("t1 f7"));
+	}
+	
+	@Test
+	public void testRunContinuesAfterIllegalMove() throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		game.run(new StringReader("t9>t1\nf7\ns\nq\n"), output);
+		
+		String screen = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(screen.contains("Illegal move"));
+		assertTrue(screen.contains("Unknown command"));
+		assertTrue(screen.contains("2 updates"));
+	}
+	
+	@Test
+	public void testLongInputRedrawsScreen() throws Exception {
+		StringBuilder longLine = new StringBuilder();
+		while (longLine.length() < TerminalRenderer.WIDTH) {
+			longLine.append("d ");
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		game.run(new StringReader("d\n" + longLine + "\nq\n"), output);
+		
+		// The screen is cleared and drawn by the first render, and again after
+		// the long line (which wrapped onto the piles), but not after "d"
+		String screen = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		String clear = TerminalRenderer.ESC + "2J";
+		int first = screen.indexOf(clear);
+		int second = screen.indexOf(clear, first + 1);
+		assertTrue(first >= 0);
+		assertTrue(second > first);
+		assertEquals(-1, screen.indexOf(clear, second + 1));
+	}
+	
+	private int[] numCards() {
+		int[] numCards = new int[13];
+		for (int i = 0; i < numCards.length; i++) {
+			numCards[i] = model.getPile(i).getNumCards();
+		}
+		return numCards;
+	}
+}
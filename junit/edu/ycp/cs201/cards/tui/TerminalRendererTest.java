@@ -0,0 +1,112 @@
+package edu.ycp.cs201.cards.tui;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.Suit;
+
+public class TerminalRendererTest {
+	private static final String ESC = TerminalRenderer.ESC;
+	
+	@Test
+	public void testDiffUnchanged() throws Exception {
+		Map<Integer, String> frame = new TreeMap<Integer, String>();
+		frame.put(TerminalRenderer.key(5, 1), "A♥   ");
+		StringBuilder buf = new StringBuilder();
+		TerminalRenderer.diff(frame, new TreeMap<Integer, String>(frame), buf);
+		
+		assertEquals("", buf.toString());
+	}
+	
+	@Test
+	public void testDiffChangedAndRemoved() throws Exception {
+		Map<Integer, String> previous = new TreeMap<Integer, String>();
+		previous.put(TerminalRenderer.key(5, 1), "##   ");
+		previous.put(TerminalRenderer.key(6, 1), "K♠   ");
+		previous.put(TerminalRenderer.key(5, 6), "Q♥   ");
+		Map<Integer, String> current = new TreeMap<Integer, String>();
+		current.put(TerminalRenderer.key(5, 1), "7♦   ");
+		current.put(TerminalRenderer.key(5, 6), "Q♥   ");
+		StringBuilder buf = new StringBuilder();
+		TerminalRenderer.diff(previous, current, buf);
+		
+		assertEquals(ESC + "5;1H7♦   " + ESC + "6;1H     ", buf.toString());
+	}
+	
+	@Test
+	public void testDiffAdjacentCellsShareCursorMove() throws Exception {
+		Map<Integer, String> current = new TreeMap<Integer, String>();
+		current.put(TerminalRenderer.key(2, 1), "A♣   ");
+		current.put(TerminalRenderer.key(2, 6), "(23) ");
+		StringBuilder buf = new StringBuilder();
+		TerminalRenderer.diff(new TreeMap<Integer, String>(), current, buf);
+		
+		assertEquals(ESC + "2;1HA♣   (23) ", buf.toString());
+	}
+	
+	@Test
+	public void testDeltaIsSmall() throws Exception {
+		KlondikeController controller = new KlondikeController();
+		KlondikeModel model = new KlondikeModel();
+		controller.initModel(model, new Random(1234L));
+		TerminalRenderer renderer = new TerminalRenderer(true);
+		
+		int full = renderer.render(model, "").getBytes(StandardCharsets.UTF_8).length;
+		controller.makeMove(model, Move.DRAW);
+		int delta = renderer.render(model, "").getBytes(StandardCharsets.UTF_8).length;
+		
+		assertTrue(delta < 100);
+		assertTrue(delta < full / 4);
+	}
+	
+	@Test
+	public void testFitsOn80x24() throws Exception {
+		// The tallest possible tableau pile: six face-down cards, and a king to an ace
+		KlondikeModel model = new KlondikeModel();
+		Pile tableauPile = model.getTableauPile(6);
+		for (int i = 0; i < 6; i++) {
+			tableauPile.addCard(new Card(Rank.values()[i], Suit.CLUBS));
+		}
+		for (int i = Rank.values().length - 1; i >= 0; i--) {
+			tableauPile.addCard(new Card(Rank.values()[i], i % 2 == 0 ? Suit.HEARTS : Suit.SPADES));
+		}
+		tableauPile.setExposeIndex(6);
+		StringBuilder status = new StringBuilder();
+		while (status.length() < 100) {
+			status.append("status ");
+		}
+		
+		String screen = new TerminalRenderer(false).render(model, status.toString());
+		Matcher m = Pattern.compile(Pattern.quote(ESC) + "(\\d+);(\\d+)H([^\u001b]*)").matcher(screen);
+		int maxCardRow = 0;
+		while (m.find()) {
+			int row = Integer.parseInt(m.group(1));
+			int column = Integer.parseInt(m.group(2));
+			assertTrue(row <= TerminalRenderer.HEIGHT);
+			// Nothing is written to the last column, where the cursor would wrap
+			assertTrue(column - 1 + m.group(3).length() < TerminalRenderer.WIDTH);
+			if (row != TerminalRenderer.STATUS_ROW) {
+				maxCardRow = Math.max(maxCardRow, row);
+			}
+		}
+		assertEquals(TerminalRenderer.HEIGHT - 1, maxCardRow);
+		
+		// The cursor is left at the prompt, on the top row
+		assertTrue(screen.endsWith(ESC + TerminalRenderer.PROMPT_ROW + ";1H" + ESC + "K" + TerminalRenderer.PROMPT));
+		assertEquals(1, TerminalRenderer.PROMPT_ROW);
+	}
+}
@@ -2,10 +2,23 @@ package edu.ycp.cs201.cards;
 
 /**
  * Class representing a playing card.
+ * Cards are immutable.
  */
 public class Card implements Comparable<Card> {
-	private Rank rank;
-	private Suit suit;
+	/** Number of distinct cards (and of card codes). */
+	public static final int NUM_CARDS = 52;
+	
+	private static final Card[] BY_CODE = new Card[NUM_CARDS];
+	static {
+		Suit[] suits = Suit.values();
+		Rank[] ranks = Rank.values();
+		for (int i = 0; i < NUM_CARDS; i++) {
+			BY_CODE[i] = new Card(ranks[i%13], suits[i/13]);
+		}
+	}
+	
+	private final Rank rank;
+	private final Suit suit;
 	
 	/**
 	 * Constructor.
@@ -32,6 +45,30 @@ public class Card implements Comparable<Card> {
 		return suit;
 	}
 	
+	/**
+	 * Get the card's code: a number in the range 0..51 which
+	 * uniquely identifies the card.  Codes are ordered by suit,
+	 * then by rank, so the code is 13 times the suit's ordinal plus
+	 * the rank's ordinal.
+	 * 
+	 * @return the card's code
+	 */
+	public int getCode() {
+		return suit.ordinal()*13 + rank.ordinal();
+	}
+	
+	/**
+	 * Get the card with the given code (see {@link #getCode()}).
+	 * The same (shared) Card object is returned for each call with
+	 * the same code.
+	 * 
+	 * @param code the card code
+	 * @return the {@link Card}
+	 */
+	public static Card fromCode(int code) {
+		return BY_CODE[code];
+	}
+	
 	@Override
 	public String toString() {
 		return rank.toString() + suit.toString();
@@ -46,6 +83,11 @@ public class Card implements Comparable<Card> {
 		return this.compareTo(other) == 0;
 	}
 	
+	@Override
+	public int hashCode() {
+		return getCode();
+	}
+	
 	@Override
 	public int compareTo(Card o) {
 		int cmp = this.suit.compareTo(o.suit);
@@ -0,0 +1,105 @@
+package edu.ycp.cs201.cards;
+
+/**
+ * <p>Precomputed tables answering the card-compatibility questions
+ * asked by the rules of Klondike, indexed by {@link Card#getCode() card code}.
+ * Each question is answered by a single array lookup (or comparison),
+ * with no branches on suit, color or rank and no allocation, so these
+ * methods are suitable for move generation inner loops.
+ * The tables are built from the {@link Suit}, {@link Color} and {@link Rank}
+ * enumerations once, when the class is loaded.</p>
+ * 
+ * <p>The pseudo-code {@link #EMPTY} stands for the top of an empty pile,
+ * so that the "king on an empty tableau pile" and "ace on an
+ * empty foundation pile" rules are table lookups like any other.</p>
+ */
+public class CardTables {
+	/** Pseudo card code for the top of an empty pile. */
+	public static final int EMPTY = Card.NUM_CARDS;
+	
+	/** Returned by {@link #foundationSuccessor(int)} when there is no next card. */
+	public static final int NONE = -1;
+	
+	private static final int STRIDE = Card.NUM_CARDS + 1;
+	
+	// CAN_STACK_ON[card*STRIDE + onto] is true if card can be placed on onto in a tableau pile
+	private static final boolean[] CAN_STACK_ON = new boolean[Card.NUM_CARDS * STRIDE];
+	
+	// FOUNDATION_PREDECESSOR[card] is the card which must be on top of a foundation
+	// pile for card to be placed on it (EMPTY for an ace)
+	private static final int[] FOUNDATION_PREDECESSOR = new int[Card.NUM_CARDS];
+	
+	// FOUNDATION_SUCCESSOR[top] is the card which can be placed on top on a foundation pile
+	private static final int[] FOUNDATION_SUCCESSOR = new int[STRIDE];
+	
+	static {
+		for (int c = 0; c < Card.NUM_CARDS; c++) {
+			Card card = Card.fromCode(c);
+			CAN_STACK_ON[c*STRIDE + EMPTY] = card.getRank() == Rank.KING;
+			for (int d = 0; d < Card.NUM_CARDS; d++) {
+				Card onto = Card.fromCode(d);
+				CAN_STACK_ON[c*STRIDE + d] = card.getSuit().getColor() != onto.getSuit().getColor()
+						&& card.getRank().ordinal() + 1 == onto.getRank().ordinal();
+			}
+			
+			int rank = card.getRank().ordinal();
+			FOUNDATION_PREDECESSOR[c] = rank == 0 ? EMPTY : c - 1;
+			FOUNDATION_SUCCESSOR[c] = card.getRank() == Rank.KING ? NONE : c + 1;
+		}
+		// Any ace can start an empty foundation pile, so there is no single successor
+		FOUNDATION_SUCCESSOR[EMPTY] = NONE;
+	}
+	
+	/**
+	 * Determine whether a card may be placed on another card (or on an
+	 * empty pile) in a tableau pile: the colors must differ and the
+	 * card's rank must be one lower, or the pile must be empty and
+	 * the card must be a king.
+	 * 
+	 * @param card  the code of the card to place
+	 * @param onto  the code of the tableau pile's top card, or {@link #EMPTY}
+	 * @return true if the card may be placed there
+	 */
+	public static boolean canStackOn(int card, int onto) {
+		return CAN_STACK_ON[card*STRIDE + onto];
+	}
+	
+	/**
+	 * Determine whether a card may be placed on a foundation pile:
+	 * the pile's top card must be the card of the same suit one rank lower,
+	 * or the pile must be empty and the card must be an ace.
+	 * 
+	 * @param card  the code of the card to place
+	 * @param top   the code of the foundation pile's top card, or {@link #EMPTY}
+	 * @return true if the card may be placed there
+	 */
+	public static boolean canGoOnFoundation(int card, int top) {
+		return FOUNDATION_PREDECESSOR[card] == top;
+	}
+	
+	/**
+	 * @param card the code of a card
+	 * @return the code of the card which must be on top of a foundation
+	 *         pile before the card can be placed on it, or {@link #EMPTY} for an ace
+	 */
+	public static int foundationPredecessor(int card) {
+		return FOUNDATION_PREDECESSOR[card];
+	}
+	
+	/**
+	 * @param top the code of a foundation pile's top card
+	 * @return the code of the card which can be placed on it,
+	 *         or {@link #NONE} for a king or {@link #EMPTY}
+	 */
+	public static int foundationSuccessor(int top) {
+		return FOUNDATION_SUCCESSOR[top];
+	}
+	
+	/**
+	 * @param pile a pile
+	 * @return the code of the pile's top card, or {@link #EMPTY} if the pile is empty
+	 */
+	public static int topCode(Pile pile) {
+		return pile.isEmpty() ? EMPTY : pile.getTopCard().getCode();
+	}
+}
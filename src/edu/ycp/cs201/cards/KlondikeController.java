@@ -1,6 +1,9 @@
 package edu.ycp.cs201.cards;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 
 /**
  * The controller class implements all of the logic required to
@@ -9,6 +12,12 @@ import java.util.ArrayList;
  * takes a reference to the model object as a parameter. 
  */
 public class KlondikeController {
+	/**
+	 * Expose index of the waste pile: higher than the number of
+	 * cards in the deck, so no card in the waste pile is ever exposed.
+	 */
+	public static final int WASTE_PILE_EXPOSE_INDEX = 53;
+	
 	/**
 	 * Initialize the model object.
 	 * Should populate and shuffle the main deck, and then
@@ -29,6 +38,37 @@ public class KlondikeController {
 		throw new UnsupportedOperationException("TODO - implement");
 	}
 
+	/**
+	 * Initialize the model object, using the given random number generator
+	 * to shuffle the main deck.  Dealing with identically-seeded
+	 * generators produces identical games, so a game can be identified
+	 * by its seed.  Unlike {@link #initModel(KlondikeModel)}, the model
+	 * does not need to be empty: it is {@link KlondikeModel#reset() reset}
+	 * first, so a model (and a Random, by calling {@link Random#setSeed(long)})
+	 * can be reused to deal any number of games.
+	 * 
+	 * @param model  the {@link KlondikeModel} object to initialize
+	 * @param random the random number generator used to shuffle the main deck
+	 */
+	public void initModel(KlondikeModel model, Random random) {
+		model.reset();
+		
+		Pile mainDeck = model.getMainDeck();
+		mainDeck.populate();
+		mainDeck.shuffle(random);
+		
+		for (int i = 0; i < 7; i++) {
+			Pile tableauPile = model.getTableauPile(i);
+			for (int j = 0; j <= i; j++) {
+				tableauPile.addCard(mainDeck.drawCard());
+			}
+			tableauPile.setExposeIndex(i);
+		}
+		
+		mainDeck.setExposeIndex(mainDeck.getIndexOfTopCard());
+		model.getWastePile().setExposeIndex(WASTE_PILE_EXPOSE_INDEX);
+	}
+
 	/**
 	 * <p>Attempt to create a {@link Selection} that represents one
 	 * or more {@link Card}s to be moved from a pile
@@ -110,6 +150,10 @@ public class KlondikeController {
 	 * <p>If the destination {@link Location} has {@link LocationType#MAIN_DECK} or
 	 * {@link LocationType#WASTE_PILE} as its {@link LocationType}, then the move is not legal.</p>
 	 * 
+	 * <p>The card rules above can each be checked with a single lookup
+	 * using {@link CardTables#canStackOn(int, int)} and
+	 * {@link CardTables#canGoOnFoundation(int, int)}.</p>
+	 * 
 	 * <p>
 	 * Note that this method just checks to see whether or not a move would
 	 * be legal: it does not move any cards.
@@ -180,4 +224,153 @@ public class KlondikeController {
 	public boolean isWin(KlondikeModel model) {
 		throw new UnsupportedOperationException("TODO - implement");
 	}
+
+	/**
+	 * <p>Attempt to make a complete {@link Move}.  A draw move
+	 * is handled by {@link #drawCardOrRecycleWaste(KlondikeModel)}.
+	 * Any other move is carried out by selecting the cards at the
+	 * move's source {@link Location}, checking the move using
+	 * {@link #allowMove(KlondikeModel, Selection, Location)}, and
+	 * then moving the cards using {@link #moveCards(KlondikeModel, Selection, Location)}.</p>
+	 * 
+	 * <p>If the move is not legal, the model is left unchanged.</p>
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @param move  the {@link Move} to make
+	 * @return true if the move was legal (and was made), false otherwise
+	 */
+	public boolean makeMove(KlondikeModel model, Move move) {
+		if (move.isDraw()) {
+			if (model.getMainDeck().isEmpty() && model.getWastePile().isEmpty()) {
+				return false;
+			}
+			drawCardOrRecycleWaste(model);
+			return true;
+		}
+		
+		Selection selection = select(model, move.getSource());
+		if (selection == null) {
+			return false;
+		}
+		if (!allowMove(model, selection, move.getDest())) {
+			unselect(model, selection);
+			return false;
+		}
+		moveCards(model, selection, move.getDest());
+		return true;
+	}
+	
+	/**
+	 * <p>Move every card which can safely be moved to a foundation pile,
+	 * repeating until no more cards can be moved.  The exposed top
+	 * card of the main deck and of each tableau pile are candidates.
+	 * A card is moved if it is a legal foundation move (see
+	 * {@link #allowMove(KlondikeModel, Selection, Location)}) and it is
+	 * <em>safe</em>: its rank is {@link Rank#ACE} or {@link Rank#TWO}, or
+	 * both foundation piles of the opposite color already hold the card
+	 * one rank lower, so no tableau pile could still need the card to
+	 * hold one of them.  Safe moves never make a game harder to win,
+	 * so players (and search algorithms) can make them without
+	 * considering alternatives.</p>
+	 * 
+	 * <p>As with {@link #moveCards(KlondikeModel, Selection, Location)},
+	 * the top card of each pile a card is taken from is exposed.
+	 * Cards are moved directly between {@link Pile}s, with no
+	 * {@link Selection} objects created.</p>
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @return the number of cards moved to foundation piles
+	 */
+	public int autoPlayToFoundations(KlondikeModel model) {
+		return autoPlayToFoundations(model, null);
+	}
+	
+	/**
+	 * Move every card which can safely be moved to a foundation pile,
+	 * as {@link #autoPlayToFoundations(KlondikeModel)} does, and record
+	 * the moves made.  Each card moved is appended to the list as a
+	 * {@link Move} from its pile to its foundation pile, in the order
+	 * the cards were moved, so making the same moves with
+	 * {@link #makeMove(KlondikeModel, Move)} has the same effect.
+	 * This lets a search treat the safe moves as forced, and still
+	 * report them as part of its line of play.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @param moves the list to append the moves made to, or null if
+	 *              the moves are not needed
+	 * @return the number of cards moved to foundation piles
+	 */
+	public int autoPlayToFoundations(KlondikeModel model, List<Move> moves) {
+		int numMoved = 0;
+		int[] foundationHeights = new int[4];
+		boolean moved;
+		do {
+			moved = false;
+			if (autoPlayFrom(model, LocationType.MAIN_DECK, 0, foundationHeights, moves)) {
+				numMoved++;
+				moved = true;
+			}
+			for (int i = 0; i < 7; i++) {
+				if (autoPlayFrom(model, LocationType.TABLEAU_PILE, i, foundationHeights, moves)) {
+					numMoved++;
+					moved = true;
+				}
+			}
+		} while (moved);
+		return numMoved;
+	}
+
+	// Move the top card of the given pile to a foundation pile,
+	// if it is exposed and it is legal and safe to do so, and append
+	// the move to the list (if there is one).
+	// The foundationHeights array is scratch space.
+	private boolean autoPlayFrom(KlondikeModel model, LocationType type, int pileIndex,
+			int[] foundationHeights, List<Move> moves) {
+		Pile pile = type == LocationType.MAIN_DECK ? model.getMainDeck() : model.getTableauPile(pileIndex);
+		if (pile.isEmpty() || pile.getIndexOfTopCard() < pile.getExposeIndex()) {
+			return false;
+		}
+		Card card = pile.getTopCard();
+		int code = card.getCode();
+		
+		// Find the foundation pile the card can go on, and the
+		// number of cards of each suit on the foundation piles
+		int dest = -1;
+		Arrays.fill(foundationHeights, 0);
+		for (int i = 0; i < 4; i++) {
+			int top = CardTables.topCode(model.getFoundationPile(i));
+			if (top != CardTables.EMPTY) {
+				foundationHeights[top / 13] = top % 13 + 1;
+			}
+			if (dest < 0 && CardTables.canGoOnFoundation(code, top)) {
+				dest = i;
+			}
+		}
+		if (dest < 0 || !isSafeToFoundation(card, foundationHeights)) {
+			return false;
+		}
+		
+		if (moves != null) {
+			moves.add(new Move(new Location(type, pileIndex, pile.getIndexOfTopCard()),
+					new Location(LocationType.FOUNDATION_PILE, dest, -1)));
+		}
+		model.getFoundationPile(dest).addCard(pile.drawCard());
+		if (!pile.isEmpty() && pile.getIndexOfTopCard() < pile.getExposeIndex()) {
+			pile.setExposeIndex(pile.getIndexOfTopCard());
+		}
+		return true;
+	}
+
+	private static boolean isSafeToFoundation(Card card, int[] foundationHeights) {
+		int rank = card.getRank().ordinal();
+		if (rank <= Rank.TWO.ordinal()) {
+			return true;
+		}
+		for (Suit suit : Suit.values()) {
+			if (suit.getColor() != card.getSuit().getColor() && foundationHeights[suit.ordinal()] < rank) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
@@ -9,6 +9,13 @@ package edu.ycp.cs201.cards;
  * is implemented in the {@link KlondikeController} class.
  */
 public class KlondikeModel {
+	/**
+	 * Total number of piles.  Piles can be numbered 0..12 (see
+	 * {@link #getPile(int)}), in the same order in which
+	 * {@link StringifyGameState} encodes them.
+	 */
+	public static final int NUM_PILES = 13;
+	
 	// TODO: add fields
 	
 	/**
@@ -53,4 +60,97 @@ public class KlondikeModel {
 	public Pile getWastePile() {
 		throw new UnsupportedOperationException("TODO - implement");
 	}
+
+	/**
+	 * Get a pile by its number: 0 is the main deck, 1 is the
+	 * waste pile, 2..5 are the foundation piles, and 6..12 are
+	 * the tableau piles.
+	 * 
+	 * @param pileNumber the pile number (in the range 0..12)
+	 * @return the {@link Pile}
+	 */
+	public Pile getPile(int pileNumber) {
+		if (pileNumber == 0) {
+			return getMainDeck();
+		} else if (pileNumber == 1) {
+			return getWastePile();
+		} else if (pileNumber < 6) {
+			return getFoundationPile(pileNumber - 2);
+		} else {
+			return getTableauPile(pileNumber - 6);
+		}
+	}
+	
+	/**
+	 * Get the number (see {@link #getPile(int)}) of the pile
+	 * a {@link Location} refers to.
+	 * 
+	 * @param location the {@link Location}
+	 * @return the pile number
+	 */
+	public static int getPileNumber(Location location) {
+		switch (location.getLocationType()) {
+		case MAIN_DECK:
+			return 0;
+		case WASTE_PILE:
+			return 1;
+		case FOUNDATION_PILE:
+			return 2 + location.getPileIndex();
+		default:
+			return 6 + location.getPileIndex();
+		}
+	}
+	
+	/**
+	 * Clear all of the piles, returning the model to the state of
+	 * a newly-constructed model.  The {@link Pile} objects themselves
+	 * are kept, so a model can be reused for another game rather than
+	 * allocating a new one.
+	 */
+	public void reset() {
+		getMainDeck().clear();
+		getWastePile().clear();
+		for (int i = 0; i < 4; i++) {
+			getFoundationPile(i).clear();
+		}
+		for (int i = 0; i < 7; i++) {
+			getTableauPile(i).clear();
+		}
+	}
+	
+	/**
+	 * Make a deep copy of this model.  The copy shares no {@link Pile}s
+	 * with this model, so either one can be modified without affecting
+	 * the other (for example, a search can explore moves in a copy of
+	 * a game in progress).
+	 * 
+	 * @return the copy
+	 */
+	public KlondikeModel copy() {
+		KlondikeModel copy = new KlondikeModel();
+		copyInto(copy);
+		return copy;
+	}
+	
+	/**
+	 * Copy this model's game state into another model, replacing its
+	 * game state.  The target model keeps its own {@link Pile} objects,
+	 * so repeatedly copying into the same target does not allocate
+	 * new piles.  Copying a model into itself does nothing.
+	 * 
+	 * @param target the {@link KlondikeModel} to copy into
+	 */
+	public void copyInto(KlondikeModel target) {
+		if (target == this) {
+			return;
+		}
+		getMainDeck().copyInto(target.getMainDeck());
+		getWastePile().copyInto(target.getWastePile());
+		for (int i = 0; i < 4; i++) {
+			getFoundationPile(i).copyInto(target.getFoundationPile(i));
+		}
+		for (int i = 0; i < 7; i++) {
+			getTableauPile(i).copyInto(target.getTableauPile(i));
+		}
+	}
 }
@@ -0,0 +1,53 @@
+package edu.ycp.cs201.cards;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of {@link KlondikeModel} objects, for callers which
+ * play large numbers of short games (e.g., simulations).
+ * Models are {@link KlondikeModel#reset() reset} when they are
+ * released, so an acquired model is always empty.
+ * The pool is thread-safe, and never blocks: if the pool is
+ * empty, a new model is created, and if the pool is full,
+ * a released model is discarded.
+ */
+public class KlondikeModelPool {
+	private final ArrayBlockingQueue<KlondikeModel> pool;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param capacity the maximum number of idle models kept in the pool
+	 */
+	public KlondikeModelPool(int capacity) {
+		this.pool = new ArrayBlockingQueue<KlondikeModel>(capacity);
+	}
+	
+	/**
+	 * Get an empty model from the pool, or a new one if the pool is empty.
+	 * 
+	 * @return an empty {@link KlondikeModel}
+	 */
+	public KlondikeModel acquire() {
+		KlondikeModel model = pool.poll();
+		return model != null ? model : new KlondikeModel();
+	}
+	
+	/**
+	 * Return a model to the pool.  The caller must not use
+	 * the model afterwards.
+	 * 
+	 * @param model the {@link KlondikeModel} to return
+	 */
+	public void release(KlondikeModel model) {
+		model.reset();
+		pool.offer(model);
+	}
+	
+	/**
+	 * @return the number of idle models in the pool
+	 */
+	public int getNumIdle() {
+		return pool.size();
+	}
+}
@@ -63,6 +63,11 @@ public class Location {
 				&& this.cardIndex == other.cardIndex;
 	}
 	
+	@Override
+	public int hashCode() {
+		return (locationType.ordinal()*31 + pileIndex)*31 + cardIndex;
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("%s[%d]:%d", locationType, pileIndex, cardIndex);
@@ -0,0 +1,161 @@
+package edu.ycp.cs201.cards;
+
+/**
+ * A Move object represents a complete player action:
+ * either drawing a card from the main deck (or recycling
+ * the waste pile), or moving one or more cards from a
+ * source {@link Location} to a destination {@link Location}.
+ * Moves are immutable, so they can be safely shared
+ * between threads (for example, when a hint is computed
+ * in the background and displayed by the UI).
+ */
+public class Move {
+	/**
+	 * The move which draws a card from the main deck, or recycles
+	 * the waste pile if the main deck is empty.
+	 */
+	public static final Move DRAW = new Move(new Location(LocationType.WASTE_PILE, 0, -1), null);
+	
+	private final Location source;
+	private final Location dest;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param source the source {@link Location} (pile and card index of the
+	 *               bottom-most card to move)
+	 * @param dest   the destination {@link Location}
+	 */
+	public Move(Location source, Location dest) {
+		this.source = source;
+		this.dest = dest;
+	}
+	
+	/**
+	 * @return true if this move draws a card or recycles the waste pile
+	 */
+	public boolean isDraw() {
+		return dest == null;
+	}
+	
+	/**
+	 * @return the source {@link Location}
+	 */
+	public Location getSource() {
+		return source;
+	}
+	
+	/**
+	 * @return the destination {@link Location}, or null if this is a draw move
+	 */
+	public Location getDest() {
+		return dest;
+	}
+	
+	/**
+	 * Convert this move to its compact text notation: <code>D</code> for
+	 * a draw, otherwise the source and destination separated by <code>&gt;</code>.
+	 * A location is written as <code>M</code><i>card</i> (main deck),
+	 * <code>W</code> (waste pile), <code>F</code><i>pile</i> (foundation pile),
+	 * or <code>T</code><i>pile</i> (tableau pile), with <code>.</code><i>card</i>
+	 * appended to a tableau pile if the card index is not -1.
+	 * For example, <code>T3.3&gt;T5</code> moves the cards starting at index 3
+	 * of tableau pile 3 onto tableau pile 5.
+	 * 
+	 * @return the move's notation
+	 */
+	public String toNotation() {
+		if (isDraw()) {
+			return "D";
+		}
+		return toNotation(source) + ">" + toNotation(dest);
+	}
+	
+	/**
+	 * Parse a move from its notation (see {@link #toNotation()}).
+	 * 
+	 * @param notation the move's notation
+	 * @return the {@link Move}
+	 * @throws IllegalArgumentException if the notation is not valid, or a pile
+	 *         or card index is out of range
+	 */
+	public static Move parse(String notation) {
+		if (notation.equals("D")) {
+			return DRAW;
+		}
+		int sep = notation.indexOf('>');
+		if (sep < 0) {
+			throw new IllegalArgumentException("Invalid move: " + notation);
+		}
+		return new Move(parseLocation(notation.substring(0, sep)), parseLocation(notation.substring(sep + 1)));
+	}
+
+	private static String toNotation(Location location) {
+		switch (location.getLocationType()) {
+		case MAIN_DECK:
+			return "M" + location.getCardIndex();
+		case WASTE_PILE:
+			return "W";
+		case FOUNDATION_PILE:
+			return "F" + location.getPileIndex();
+		default:
+			return "T" + location.getPileIndex() + (location.getCardIndex() >= 0 ? "." + location.getCardIndex() : "");
+		}
+	}
+	
+	private static Location parseLocation(String s) {
+		try {
+			switch (s.isEmpty() ? '?' : s.charAt(0)) {
+			case 'M':
+				return new Location(LocationType.MAIN_DECK, 0, parseIndex(s.substring(1), Card.NUM_CARDS, s));
+			case 'W':
+				if (s.length() != 1) {
+					throw new IllegalArgumentException("Invalid location: " + s);
+				}
+				return new Location(LocationType.WASTE_PILE, 0, -1);
+			case 'F':
+				return new Location(LocationType.FOUNDATION_PILE, parseIndex(s.substring(1), 4, s), -1);
+			case 'T':
+				int dot = s.indexOf('.');
+				if (dot < 0) {
+					return new Location(LocationType.TABLEAU_PILE, parseIndex(s.substring(1), 7, s), -1);
+				}
+				return new Location(LocationType.TABLEAU_PILE,
+						parseIndex(s.substring(1, dot), 7, s), parseIndex(s.substring(dot + 1), Card.NUM_CARDS, s));
+			default:
+				throw new IllegalArgumentException("Invalid location: " + s);
+			}
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid location: " + s);
+		}
+	}
+
+	// Parse a pile or card index, which must be in the range 0..limit-1.
+	private static int parseIndex(String index, int limit, String location) {
+		int value = Integer.parseInt(index);
+		if (value < 0 || value >= limit) {
+			throw new IllegalArgumentException("Index out of range in location: " + location);
+		}
+		return value;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null || !(obj instanceof Move)) {
+			return false;
+		}
+		Move other = (Move) obj;
+		return this.source.equals(other.source)
+				&& (this.dest == null ? other.dest == null : this.dest.equals(other.dest));
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31*source.hashCode() + (dest != null ? dest.hashCode() : 0);
+	}
+	
+	@Override
+	public String toString() {
+		return isDraw() ? "DRAW" : source + "->" + dest;
+	}
+}
@@ -0,0 +1,130 @@
+package edu.ycp.cs201.cards;
+
+/**
+ * An immutable game state.  Making a move produces a new state,
+ * which shares every {@link PersistentPile} the move did not change
+ * with the previous state.  Since a move changes at most two piles,
+ * a long sequence of states (e.g., an undo history, or the states
+ * visited by a search) costs little more than the changed piles.
+ * Moves are checked and made by the {@link KlondikeController},
+ * so the rules are exactly those of a {@link KlondikeModel} game.
+ */
+public class PersistentGameState {
+	private static final ThreadLocal<KlondikeModel> SCRATCH = new ThreadLocal<KlondikeModel>() {
+		@Override
+		protected KlondikeModel initialValue() {
+			return new KlondikeModel();
+		}
+	};
+	
+	private final PersistentPile[] piles;
+	
+	private PersistentGameState(PersistentPile[] piles) {
+		this.piles = piles;
+	}
+	
+	/**
+	 * Create an immutable copy of the game state in a {@link KlondikeModel}.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @return the immutable game state
+	 */
+	public static PersistentGameState fromModel(KlondikeModel model) {
+		PersistentPile[] piles = new PersistentPile[KlondikeModel.NUM_PILES];
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			piles[i] = PersistentPile.fromPile(model.getPile(i));
+		}
+		return new PersistentGameState(piles);
+	}
+	
+	/**
+	 * Get a pile.
+	 * 
+	 * @param pileNumber the pile number (as in {@link KlondikeModel#getPile(int)})
+	 * @return the {@link PersistentPile}
+	 */
+	public PersistentPile getPile(int pileNumber) {
+		return piles[pileNumber];
+	}
+	
+	/**
+	 * Copy this game state into a {@link KlondikeModel}, to be used
+	 * as a mutable working copy.
+	 * 
+	 * @param model the {@link KlondikeModel} to copy into
+	 */
+	public void copyInto(KlondikeModel model) {
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			piles[i].copyInto(model.getPile(i));
+		}
+	}
+	
+	/**
+	 * @return a new {@link KlondikeModel} containing this game state
+	 */
+	public KlondikeModel toModel() {
+		KlondikeModel model = new KlondikeModel();
+		copyInto(model);
+		return model;
+	}
+	
+	/**
+	 * Make a move, producing a new game state.  This state is not changed.
+	 * Only the piles involved in the move are copied into a (per-thread)
+	 * scratch model for the {@link KlondikeController} to work on:
+	 * the controller never looks at any other pile when making a move.
+	 * 
+	 * @param controller the {@link KlondikeController}
+	 * @param move       the {@link Move}
+	 * @return the new game state, or null if the move is not legal
+	 */
+	public PersistentGameState apply(KlondikeController controller, Move move) {
+		int first, second;
+		if (move.isDraw()) {
+			first = 0;
+			second = 1;
+		} else {
+			first = KlondikeModel.getPileNumber(move.getSource());
+			second = KlondikeModel.getPileNumber(move.getDest());
+		}
+		
+		KlondikeModel scratch = SCRATCH.get();
+		piles[first].copyInto(scratch.getPile(first));
+		piles[second].copyInto(scratch.getPile(second));
+		if (!controller.makeMove(scratch, move)) {
+			return null;
+		}
+		
+		PersistentPile[] newPiles = piles.clone();
+		newPiles[first] = update(piles[first], scratch.getPile(first));
+		newPiles[second] = update(piles[second], scratch.getPile(second));
+		return new PersistentGameState(newPiles);
+	}
+	
+	private static PersistentPile update(PersistentPile old, Pile pile) {
+		return old.sameAs(pile) ? old : PersistentPile.fromPile(pile);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null || !(obj instanceof PersistentGameState)) {
+			return false;
+		}
+		PersistentGameState other = (PersistentGameState) obj;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			if (this.piles[i] != other.piles[i] && !this.piles[i].equals(other.piles[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (PersistentPile pile : piles) {
+			hash = 31*hash + pile.hashCode();
+		}
+		return hash;
+	}
+}
@@ -0,0 +1,107 @@
+package edu.ycp.cs201.cards;
+
+import java.util.Arrays;
+
+/**
+ * An immutable pile of {@link Card}s, used by {@link PersistentGameState}.
+ * Like a {@link Pile}, it has an expose index, and card 0 is the
+ * bottom card.
+ */
+public class PersistentPile {
+	/** The empty pile with expose index 0. */
+	public static final PersistentPile EMPTY = new PersistentPile(new Card[0], 0);
+	
+	private final Card[] cards;
+	private final int exposeIndex;
+	
+	private PersistentPile(Card[] cards, int exposeIndex) {
+		this.cards = cards;
+		this.exposeIndex = exposeIndex;
+	}
+	
+	/**
+	 * Create an immutable copy of a {@link Pile}.
+	 * 
+	 * @param pile the {@link Pile}
+	 * @return the immutable copy
+	 */
+	public static PersistentPile fromPile(Pile pile) {
+		int numCards = pile.getNumCards();
+		if (numCards == 0 && pile.getExposeIndex() == 0) {
+			return EMPTY;
+		}
+		Card[] cards = new Card[numCards];
+		for (int i = 0; i < numCards; i++) {
+			cards[i] = pile.getCard(i);
+		}
+		return new PersistentPile(cards, pile.getExposeIndex());
+	}
+	
+	/**
+	 * @return the number of {@link Card}s in the pile
+	 */
+	public int getNumCards() {
+		return cards.length;
+	}
+	
+	/**
+	 * @param index the index of a card
+	 * @return the {@link Card} at the index
+	 */
+	public Card getCard(int index) {
+		return cards[index];
+	}
+	
+	/**
+	 * @return the expose index
+	 */
+	public int getExposeIndex() {
+		return exposeIndex;
+	}
+	
+	/**
+	 * Determine whether this pile holds the same cards, with the same
+	 * expose index, as a {@link Pile}.
+	 * 
+	 * @param pile the {@link Pile}
+	 * @return true if the piles are the same, false otherwise
+	 */
+	public boolean sameAs(Pile pile) {
+		if (pile.getNumCards() != cards.length || pile.getExposeIndex() != exposeIndex) {
+			return false;
+		}
+		for (int i = 0; i < cards.length; i++) {
+			if (!pile.getCard(i).equals(cards[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Replace the contents of a {@link Pile} with the contents of this pile.
+	 * 
+	 * @param pile the {@link Pile}
+	 */
+	public void copyInto(Pile pile) {
+		pile.clear();
+		for (Card card : cards) {
+			pile.addCard(card);
+		}
+		pile.setExposeIndex(exposeIndex);
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null || !(obj instanceof PersistentPile)) {
+			return false;
+		}
+		PersistentPile other = (PersistentPile) obj;
+		return this.exposeIndex == other.exposeIndex && Arrays.equals(this.cards, other.cards);
+	}
+	
+	@Override
+	public int hashCode() {
+		return 31*Arrays.hashCode(cards) + exposeIndex;
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 /**
  * Class to represent a pile of {@link Card}s.
@@ -129,6 +130,53 @@ public class Pile {
 		throw new UnsupportedOperationException("TODO - implement");
 	}
 	
+	/**
+	 * Shuffle the {@link Card}s in the pile using the given
+	 * random number generator.  Shuffling identical piles with
+	 * identically-seeded generators produces identical orders,
+	 * which allows games to be dealt reproducibly.
+	 * 
+	 * @param random the random number generator
+	 */
+	public void shuffle(Random random) {
+		ArrayList<Card> cards = removeCards(getNumCards());
+		Collections.shuffle(cards, random);
+		addCards(cards);
+	}
+	
+	/**
+	 * Remove all {@link Card}s from the pile, and set its
+	 * expose index to 0, so that the pile is in the same state
+	 * as a newly-constructed pile.
+	 */
+	public void clear() {
+		while (!isEmpty()) {
+			drawCard();
+		}
+		setExposeIndex(0);
+	}
+	
+	/**
+	 * Make the given pile a copy of this pile: it will contain the same
+	 * {@link Card}s in the same order, and have the same expose index.
+	 * The destination pile is cleared first, and keeps its own storage.
+	 * Since {@link Card}s are immutable, the two piles may safely
+	 * share references to them.  Copying a pile into itself does nothing.
+	 * 
+	 * @param dest the pile to copy this pile into
+	 */
+	public void copyInto(Pile dest) {
+		if (dest == this) {
+			return;
+		}
+		dest.clear();
+		int numCards = getNumCards();
+		for (int i = 0; i < numCards; i++) {
+			dest.addCard(getCard(i));
+		}
+		dest.setExposeIndex(getExposeIndex());
+	}
+	
 	/**
 	 * Remove the top {@link Card} on the pile and return it.
 	 * 
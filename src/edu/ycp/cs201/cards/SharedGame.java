@@ -0,0 +1,93 @@
+package edu.ycp.cs201.cards;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A game which is played by one thread (the owner), and read by any
+ * number of other threads (e.g., spectators, autosave, statistics).
+ * All moves are made through the {@link KlondikeController} while holding
+ * the write lock of a StampedLock, so each move is atomic.
+ * Readers copy the game state under an optimistic read, and retry if
+ * a move happened while they were copying, so readers never block the
+ * owner's moves and never see a partially-completed move (such as a
+ * card which is in both the source and destination piles).
+ */
+public class SharedGame {
+	private final KlondikeModel model;
+	private final KlondikeController controller;
+	private final StampedLock lock;
+	
+	/**
+	 * Constructor.  After construction, the model must only be
+	 * accessed through this object.
+	 * 
+	 * @param model       the {@link KlondikeModel}
+	 * @param controller  the {@link KlondikeController}
+	 */
+	public SharedGame(KlondikeModel model, KlondikeController controller) {
+		this.model = model;
+		this.controller = controller;
+		this.lock = new StampedLock();
+	}
+	
+	/**
+	 * Make a move.
+	 * 
+	 * @param move the {@link Move} to make
+	 * @return true if the move was legal (and was made), false otherwise
+	 * @see KlondikeController#makeMove(KlondikeModel, Move)
+	 */
+	public boolean makeMove(Move move) {
+		long stamp = lock.writeLock();
+		try {
+			return controller.makeMove(model, move);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Copy the current game state into the given model.
+	 * Never blocks a concurrent move: if a move is made while the
+	 * state is being copied, the copy is discarded and made again.
+	 * 
+	 * @param target the {@link KlondikeModel} to copy the game state into
+	 * @throws RuntimeException if copying fails when no move was made during the copy
+	 */
+	public void snapshotInto(KlondikeModel target) {
+		while (true) {
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L) {
+				try {
+					model.copyInto(target);
+					if (lock.validate(stamp)) {
+						return;
+					}
+				} catch (RuntimeException e) {
+					// A concurrent move may have changed a pile while it was
+					// being copied; if not, the failure is real
+					if (lock.validate(stamp)) {
+						throw e;
+					}
+				}
+			}
+			Thread.yield();
+		}
+	}
+	
+	/**
+	 * @return a copy of the current game state
+	 */
+	public KlondikeModel snapshot() {
+		KlondikeModel copy = new KlondikeModel();
+		snapshotInto(copy);
+		return copy;
+	}
+	
+	/**
+	 * @return the current game state, encoded by {@link StringifyGameState}
+	 */
+	public String getState() {
+		return StringifyGameState.modelToString(snapshot());
+	}
+}
@@ -11,14 +11,6 @@ public class StringifyGameState {
 	private static final char SEPARATOR = '!'; // printable character with the lowest character code (!)
 	private static final char FIRST_CARD = SEPARATOR+1;
 	private static final int EXPOSE_INDEX_NUM_DIGITS = 8; // much larger than it needs to be, just in case
-	private static final Card[] CARDS = new Card[52];
-	static {
-		Suit[] suits = Suit.values();
-		Rank[] ranks = Rank.values();
-		for (int i = 0; i < 52; i++) {
-			CARDS[i] = new Card(ranks[i%13], suits[i/13]);
-		}
-	}
 	
 	/**
 	 * Convert the game state stored in the given {@link KlondikeModel} object
@@ -74,11 +66,11 @@ public class StringifyGameState {
 		if (c < FIRST_CARD || c >= (FIRST_CARD+52)) {
 			throw new IllegalArgumentException("Character " + c + " doesn't correspond to a legal Card");
 		}
-		return CARDS[c - FIRST_CARD];
+		return Card.fromCode(c - FIRST_CARD);
 	}
 	
 	private static char cardToChar(Card card) {
-		return (char) (FIRST_CARD + card.getSuit().ordinal() * 13 + card.getRank().ordinal());
+		return (char) (FIRST_CARD + card.getCode());
 	}
 	
 	private static void stringToPile(Pile pile, String s) {
@@ -0,0 +1,270 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * <p>Iterative-deepening search for the best line of play within a
+ * time budget.  Depth 1 is searched first, then depth 2, and so on,
+ * until the deadline passes; the line found by the deepest search
+ * is returned, so the search can be stopped at any time and the
+ * time taken is bounded by the deadline, however complex the position.</p>
+ * 
+ * <p>A line is scored by the best {@link PositionEvaluator} score of
+ * any position along it.  Moves are tried in heuristic order:
+ * moves to foundation piles, then moves which expose a face-down card,
+ * moves which empty a tableau pile, moves from the main deck, other
+ * tableau moves, and finally drawing.  The best move from the previous
+ * iteration is always tried first, so when an iteration is cut off after
+ * re-searching it, any better move it has found so far can be used.
+ * Positions which the {@link DeadEndDetector} reports as lost are
+ * not searched, and drawing is not searched once every card in the
+ * main deck and waste pile has been drawn without any other move.
+ * After each move, the cards which can safely go to the foundation piles
+ * are moved there at once, as forced moves (see
+ * {@link KlondikeController#autoPlayToFoundations(KlondikeModel, List)}),
+ * and are included in the line.</p>
+ * 
+ * <p>Each search is reported to the installed {@link SearchMonitor}.</p>
+ * 
+ * <p>A search object reuses its scratch game states, so it should only
+ * be used by one thread at a time.</p>
+ */
+public class AnytimeSearch {
+	/** Maximum search depth. */
+	public static final int MAX_DEPTH = 40;
+	
+	/** Score of a position which can't be won. */
+	public static final int LOST = Integer.MIN_VALUE;
+	
+	// Move ordering classes, best first
+	private static final int FOUNDATION = 0;
+	private static final int EXPOSES_CARD = 1;
+	private static final int EMPTIES_PILE = 2;
+	private static final int FROM_MAIN_DECK = 3;
+	private static final int OTHER = 4;
+	private static final int DRAW = 5;
+	private static final int NUM_CLASSES = 6;
+	
+	private final KlondikeController controller;
+	private final MoveGenerator moveGenerator;
+	private final DeadEndDetector deadEndDetector;
+	
+	// Per-ply scratch state
+	private final KlondikeModel[] models;
+	private final List<List<Move>> moveLists;
+	private final List<List<Move>> orderedLists;
+	private final List<List<Move>> forcedLists;
+	private final Move[][] lines;
+	private final int[] lineLengths;
+	
+	private long deadline;
+	private long nodes;
+	private boolean aborted;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller       the {@link KlondikeController} whose rules are used
+	 * @param deadEndDetector  the {@link DeadEndDetector} used to prune lost positions
+	 */
+	public AnytimeSearch(KlondikeController controller, DeadEndDetector deadEndDetector) {
+		this.controller = controller;
+		this.moveGenerator = new MoveGenerator(controller);
+		this.deadEndDetector = deadEndDetector;
+		this.models = new KlondikeModel[MAX_DEPTH + 1];
+		this.moveLists = new ArrayList<List<Move>>();
+		this.orderedLists = new ArrayList<List<Move>>();
+		this.forcedLists = new ArrayList<List<Move>>();
+		// Each card can only be moved to a foundation pile once,
+		// so a line has at most one forced move per card
+		this.lines = new Move[MAX_DEPTH + 1][MAX_DEPTH + Card.NUM_CARDS];
+		this.lineLengths = new int[MAX_DEPTH + 1];
+		for (int i = 0; i <= MAX_DEPTH; i++) {
+			models[i] = new KlondikeModel();
+			moveLists.add(new ArrayList<Move>());
+			orderedLists.add(new ArrayList<Move>());
+			forcedLists.add(new ArrayList<Move>());
+		}
+	}
+	
+	/**
+	 * Search for the best line of play from the given game state.
+	 * The search stops when the deadline passes, when the calling
+	 * thread is interrupted, or when {@link #MAX_DEPTH} is reached.
+	 * If even the depth 1 search is cut off, the best move
+	 * examined so far (or the first move, in heuristic order) is returned.
+	 * 
+	 * @param model     the game state (not modified)
+	 * @param deadline  the deadline, as a {@link System#nanoTime()} value
+	 * @return the {@link SearchResult}
+	 */
+	public SearchResult search(KlondikeModel model, long deadline) {
+		SearchMonitor monitor = SearchMonitor.get();
+		Object token = monitor.searchStarted();
+		SearchResult result = deepen(model, deadline);
+		monitor.searchFinished(token, result);
+		return result;
+	}
+	
+	private SearchResult deepen(KlondikeModel model, long deadline) {
+		this.deadline = deadline;
+		this.nodes = 0;
+		this.aborted = false;
+		model.copyInto(models[0]);
+		
+		List<Move> rootMoves = new ArrayList<Move>();
+		if (deadEndDetector.analyze(model) == null) {
+			moveGenerator.generateMoves(model, moveLists.get(0));
+			orderMoves(model, moveLists.get(0), rootMoves);
+			moveLists.get(0).clear();
+		}
+		if (rootMoves.isEmpty()) {
+			return new SearchResult(new ArrayList<Move>(), PositionEvaluator.evaluate(model), 0, 0);
+		}
+		
+		List<Move> bestLine = new ArrayList<Move>();
+		bestLine.add(rootMoves.get(0));
+		int bestScore = LOST;
+		int completedDepth = 0;
+		
+		for (int depth = 1; depth <= MAX_DEPTH && !isExpired(); depth++) {
+			// Search the best move from the previous iteration first
+			rootMoves.remove(bestLine.get(0));
+			rootMoves.add(0, bestLine.get(0));
+			
+			int iterationScore = LOST;
+			List<Move> iterationLine = null;
+			for (Move move : rootMoves) {
+				models[0].copyInto(models[1]);
+				controller.makeMove(models[1], move);
+				autoPlay(1);
+				int score = searchChild(1, depth - 1, move.isDraw() ? 1 : 0);
+				if (aborted) {
+					break;
+				}
+				if (iterationLine == null || score > iterationScore) {
+					iterationScore = score;
+					iterationLine = new ArrayList<Move>();
+					iterationLine.add(move);
+					iterationLine.addAll(forcedLists.get(1));
+					for (int i = 0; i < lineLengths[1]; i++) {
+						iterationLine.add(lines[1][i]);
+					}
+				}
+			}
+			
+			// A partial iteration is only used if it re-searched the previous best move
+			if (iterationLine != null) {
+				bestLine = iterationLine;
+				bestScore = iterationScore;
+			}
+			if (aborted) {
+				break;
+			}
+			completedDepth = depth;
+		}
+		
+		return new SearchResult(bestLine, bestScore, completedDepth, nodes);
+	}
+
+	// Search the position models[ply] to the given remaining depth,
+	// leaving the best line from it in lines[ply].
+	private int searchChild(int ply, int depth, int consecutiveDraws) {
+		nodes++;
+		lineLengths[ply] = 0;
+		KlondikeModel model = models[ply];
+		if (deadEndDetector.analyze(model) != null) {
+			return LOST;
+		}
+		int score = PositionEvaluator.evaluate(model);
+		if (depth == 0 || isExpired()) {
+			return score;
+		}
+		
+		List<Move> moves = moveLists.get(ply);
+		List<Move> ordered = orderedLists.get(ply);
+		moveGenerator.generateMoves(model, moves);
+		orderMoves(model, moves, ordered);
+		moves.clear();
+		int stockSize = model.getMainDeck().getNumCards() + model.getWastePile().getNumCards();
+		
+		for (int i = 0; i < ordered.size(); i++) {
+			Move move = ordered.get(i);
+			if (move.isDraw() && consecutiveDraws > stockSize) {
+				continue;
+			}
+			model.copyInto(models[ply + 1]);
+			controller.makeMove(models[ply + 1], move);
+			autoPlay(ply + 1);
+			int childScore = searchChild(ply + 1, depth - 1, move.isDraw() ? consecutiveDraws + 1 : 0);
+			if (aborted) {
+				break;
+			}
+			if (childScore > score) {
+				score = childScore;
+				List<Move> forced = forcedLists.get(ply + 1);
+				lines[ply][0] = move;
+				for (int j = 0; j < forced.size(); j++) {
+					lines[ply][j + 1] = forced.get(j);
+				}
+				System.arraycopy(lines[ply + 1], 0, lines[ply], forced.size() + 1, lineLengths[ply + 1]);
+				lineLengths[ply] = lineLengths[ply + 1] + forced.size() + 1;
+			}
+		}
+		ordered.clear();
+		return score;
+	}
+
+	// Make the safe moves to the foundation piles in models[ply],
+	// recording them in forcedLists[ply].
+	private void autoPlay(int ply) {
+		List<Move> forced = forcedLists.get(ply);
+		forced.clear();
+		controller.autoPlayToFoundations(models[ply], forced);
+	}
+
+	// Stable partition of the moves by ordering class
+	// (also used by the Solver).
+	static void orderMoves(KlondikeModel model, List<Move> moves, List<Move> ordered) {
+		for (int c = 0; c < NUM_CLASSES; c++) {
+			for (Move move : moves) {
+				if (classify(model, move) == c) {
+					ordered.add(move);
+				}
+			}
+		}
+	}
+
+	private static int classify(KlondikeModel model, Move move) {
+		if (move.isDraw()) {
+			return DRAW;
+		}
+		if (move.getDest().getLocationType() == LocationType.FOUNDATION_PILE) {
+			return FOUNDATION;
+		}
+		if (move.getSource().getLocationType() == LocationType.MAIN_DECK) {
+			return FROM_MAIN_DECK;
+		}
+		int cardIndex = move.getSource().getCardIndex();
+		if (cardIndex == 0) {
+			return EMPTIES_PILE;
+		}
+		Pile source = model.getTableauPile(move.getSource().getPileIndex());
+		return cardIndex == source.getExposeIndex() ? EXPOSES_CARD : OTHER;
+	}
+
+	private boolean isExpired() {
+		if (!aborted && (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted())) {
+			aborted = true;
+		}
+		return aborted;
+	}
+}
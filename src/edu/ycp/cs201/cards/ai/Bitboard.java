@@ -0,0 +1,220 @@
+package edu.ycp.cs201.cards.ai;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.CardTables;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * <p>Bitboard view of a game state: sets of cards represented as
+ * 64-bit masks, in which bit <i>c</i> stands for the card whose
+ * {@link Card#getCode() code} is <i>c</i>.  Once the masks have been
+ * computed from a {@link KlondikeModel} (see {@link #update(KlondikeModel)}),
+ * questions such as "can this card go on any tableau pile?" or
+ * "which cards can be moved anywhere?" take a few bitwise operations,
+ * instead of navigating {@link Card}, {@link edu.ycp.cs201.cards.Suit}
+ * and {@link edu.ycp.cs201.cards.Rank} objects for each candidate move.</p>
+ * 
+ * <p>The masks follow the rules of
+ * {@link edu.ycp.cs201.cards.KlondikeController#allowMove(KlondikeModel, edu.ycp.cs201.cards.Selection, edu.ycp.cs201.cards.Location)}:
+ * a card can go on a tableau pile whose exposed top card is of the
+ * opposite color and one rank higher, a king can go on an empty
+ * tableau pile, and a single card can go on a foundation pile if
+ * it is the next card of its suit.</p>
+ * 
+ * <p>A bitboard is a mutable scratch object, and is not thread-safe.
+ * It does not track changes to the model: call {@link #update(KlondikeModel)}
+ * again after the model changes.</p>
+ */
+public class Bitboard {
+	/** Mask of all 52 cards. */
+	public static final long ALL_CARDS = (1L << Card.NUM_CARDS) - 1;
+	
+	/** Mask of the four kings. */
+	public static final long KINGS;
+	
+	// STACKABLE_ON[c] is the mask of cards which can be placed on card c in a tableau pile
+	// (each mask is a row of the CardTables.canStackOn table)
+	private static final long[] STACKABLE_ON = new long[Card.NUM_CARDS + 1];
+	
+	static {
+		for (int onto = 0; onto <= CardTables.EMPTY; onto++) {
+			for (int c = 0; c < Card.NUM_CARDS; c++) {
+				if (CardTables.canStackOn(c, onto)) {
+					STACKABLE_ON[onto] |= bit(c);
+				}
+			}
+		}
+		KINGS = STACKABLE_ON[CardTables.EMPTY];
+	}
+	
+	private long faceUp;
+	private long onFoundation;
+	private long tableauTops;
+	private long mainDeckTop;
+	private long stock;
+	private long tableauAccepts;
+	private long foundationAccepts;
+	
+	/**
+	 * @param code a card code
+	 * @return the mask containing only that card
+	 */
+	public static long bit(int code) {
+		return 1L << code;
+	}
+	
+	/**
+	 * @param code the code of a tableau pile's top card, or {@link CardTables#EMPTY}
+	 * @return the mask of cards which can be placed on that card (or pile)
+	 */
+	public static long stackableOn(int code) {
+		return STACKABLE_ON[code];
+	}
+	
+	/**
+	 * Recompute the masks from a game state.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 */
+	public void update(KlondikeModel model) {
+		faceUp = 0L;
+		onFoundation = 0L;
+		tableauTops = 0L;
+		mainDeckTop = 0L;
+		stock = 0L;
+		tableauAccepts = 0L;
+		foundationAccepts = 0L;
+		
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			if (pile.isEmpty()) {
+				tableauAccepts |= KINGS;
+				continue;
+			}
+			for (int j = Math.max(0, pile.getExposeIndex()); j < pile.getNumCards(); j++) {
+				faceUp |= bit(pile.getCard(j).getCode());
+			}
+			if (pile.getIndexOfTopCard() >= pile.getExposeIndex()) {
+				int top = pile.getTopCard().getCode();
+				tableauTops |= bit(top);
+				tableauAccepts |= STACKABLE_ON[top];
+			}
+		}
+		
+		// Foundation piles are built up by suit from the ace, so the next
+		// card of each suit is one past the top card of its pile
+		long nextOfSuit = bit(0) | bit(13) | bit(26) | bit(39);
+		for (int i = 0; i < 4; i++) {
+			Pile pile = model.getFoundationPile(i);
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				onFoundation |= bit(pile.getCard(j).getCode());
+			}
+			if (!pile.isEmpty()) {
+				int top = pile.getTopCard().getCode();
+				nextOfSuit &= ~bit(top - top % 13);
+				if (top % 13 < 12) {
+					nextOfSuit |= bit(top + 1);
+				}
+			}
+		}
+		foundationAccepts = nextOfSuit;
+		
+		Pile mainDeck = model.getMainDeck();
+		for (int j = 0; j < mainDeck.getNumCards(); j++) {
+			stock |= bit(mainDeck.getCard(j).getCode());
+		}
+		if (!mainDeck.isEmpty() && mainDeck.getIndexOfTopCard() >= mainDeck.getExposeIndex()) {
+			mainDeckTop = bit(mainDeck.getTopCard().getCode());
+		}
+		Pile wastePile = model.getWastePile();
+		for (int j = 0; j < wastePile.getNumCards(); j++) {
+			stock |= bit(wastePile.getCard(j).getCode());
+		}
+	}
+	
+	/**
+	 * @return the mask of exposed tableau cards
+	 */
+	public long getFaceUp() {
+		return faceUp;
+	}
+	
+	/**
+	 * @return the mask of cards on foundation piles
+	 */
+	public long getOnFoundation() {
+		return onFoundation;
+	}
+	
+	/**
+	 * @return the mask of exposed top cards of tableau piles
+	 */
+	public long getTableauTops() {
+		return tableauTops;
+	}
+	
+	/**
+	 * @return the mask containing the exposed top card of the main deck, or 0
+	 */
+	public long getMainDeckTop() {
+		return mainDeckTop;
+	}
+	
+	/**
+	 * @return the mask of cards in the main deck and waste pile
+	 */
+	public long getStock() {
+		return stock;
+	}
+	
+	/**
+	 * @return the mask of cards which could be placed on some tableau pile
+	 */
+	public long getTableauAccepts() {
+		return tableauAccepts;
+	}
+	
+	/**
+	 * @return the mask of cards which could be placed on a foundation pile
+	 */
+	public long getFoundationAccepts() {
+		return foundationAccepts;
+	}
+	
+	/**
+	 * @return the mask of cards which can be selected: the exposed
+	 *         tableau cards and the main deck's top card
+	 */
+	public long getMovable() {
+		return faceUp | mainDeckTop;
+	}
+	
+	/**
+	 * Find every card which can legally be moved somewhere: a movable
+	 * card which some tableau pile accepts (together with any cards on top
+	 * of it), or a top card which a foundation pile accepts.
+	 * Moving a whole tableau pile to an empty pile is included.
+	 * 
+	 * @return the mask of cards with at least one legal move
+	 */
+	public long getCardsWithMoves() {
+		return (getMovable() & tableauAccepts) | ((tableauTops | mainDeckTop) & foundationAccepts);
+	}
+	
+	/**
+	 * @param code a card code
+	 * @return true if the card is movable and some tableau pile accepts it
+	 */
+	public boolean canMoveToTableau(int code) {
+		return (getMovable() & tableauAccepts & bit(code)) != 0;
+	}
+	
+	/**
+	 * @param code a card code
+	 * @return true if the card is a top card and a foundation pile accepts it
+	 */
+	public boolean canMoveToFoundation(int code) {
+		return ((tableauTops | mainDeckTop) & foundationAccepts & bit(code)) != 0;
+	}
+}
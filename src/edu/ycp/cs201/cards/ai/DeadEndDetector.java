@@ -0,0 +1,350 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.CardTables;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.Rank;
+
+/**
+ * Fast static detection of game states which can't be won.
+ * Each {@link Rule} only reports states which are provably lost,
+ * so a search can safely prune any state the detector reports,
+ * and the UI can tell the player that there are no moves left.
+ * The detector counts how often each rule fires, to measure how
+ * much each rule prunes.  It is thread-safe.
+ */
+public class DeadEndDetector {
+	/**
+	 * The rules checked by the detector, in the order in which they are checked.
+	 */
+	public enum Rule {
+		/**
+		 * A card is buried beneath a face-down card of the same suit
+		 * and higher rank, which is not a king, and both cards which that
+		 * card could be moved onto are on foundation piles or
+		 * are buried beneath it.  The face-down card can't go to a
+		 * foundation pile before the buried card, and can't go anywhere
+		 * else, so the buried card can never be reached.
+		 */
+		TRAPPED_CARD,
+		
+		/**
+		 * A card is buried beneath a face-down king of the same suit, so the
+		 * king can only move to an empty tableau pile, but there is no empty
+		 * tableau pile and none can ever be emptied.  A pile can't be emptied
+		 * if it holds a king of a suit blocked in this way (the king can
+		 * never go to a foundation pile, and can't move onto another card),
+		 * or if its bottom card can't go to a foundation pile because a
+		 * lower card of its suit is blocked in this way, and both cards it
+		 * could be moved onto are on foundation piles.
+		 */
+		BLOCKED_KING,
+		
+		/**
+		 * No card can be moved: no exposed tableau card can be moved to a
+		 * foundation or tableau pile, and no card in the main deck or waste
+		 * pile (all of which can be reached by drawing) can be played.
+		 */
+		NO_MOVES,
+	}
+	
+	// Locations of cards (see locate())
+	private static final int IN_STOCK = -1;
+	private static final int ON_FOUNDATION = -2;
+	
+	private static final int NUM_RANKS = 13;
+	
+	private final LongAdder checks;
+	private final LongAdder[] hits;
+	
+	/**
+	 * Constructor.
+	 */
+	public DeadEndDetector() {
+		this.checks = new LongAdder();
+		this.hits = new LongAdder[Rule.values().length];
+		for (int i = 0; i < hits.length; i++) {
+			hits[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * Determine whether a game state is provably lost.
+	 * 
+	 * @param model the game state
+	 * @return the first {@link Rule} which shows that the game can't be won,
+	 *         or null if none of the rules apply
+	 */
+	public Rule analyze(KlondikeModel model) {
+		checks.increment();
+		Rule rule = findDeadEnd(model);
+		if (rule != null) {
+			hits[rule.ordinal()].increment();
+		}
+		return rule;
+	}
+	
+	/**
+	 * @return the number of game states analyzed
+	 */
+	public long getChecks() {
+		return checks.sum();
+	}
+	
+	/**
+	 * @param rule a {@link Rule}
+	 * @return the number of game states the rule has reported as lost
+	 */
+	public long getHits(Rule rule) {
+		return hits[rule.ordinal()].sum();
+	}
+	
+	/**
+	 * Reset all statistics.
+	 */
+	public void resetStatistics() {
+		checks.reset();
+		for (LongAdder adder : hits) {
+			adder.reset();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("checks=").append(getChecks());
+		for (Rule rule : Rule.values()) {
+			buf.append(' ').append(rule).append('=').append(getHits(rule));
+		}
+		return buf.toString();
+	}
+
+	private Rule findDeadEnd(KlondikeModel model) {
+		if (isWon(model)) {
+			return null;
+		}
+		
+		// location[code] is the tableau pile number (0..6), IN_STOCK, or ON_FOUNDATION,
+		// and position[code] is the index of a tableau card within its pile
+		int[] location = new int[Card.NUM_CARDS];
+		int[] position = new int[Card.NUM_CARDS];
+		locate(model, location, position);
+		
+		boolean anyEmpty = false;
+		for (int i = 0; i < 7; i++) {
+			if (model.getTableauPile(i).isEmpty()) {
+				anyEmpty = true;
+			}
+		}
+		
+		// TRAPPED_CARD
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				if (findTrappingCard(pile, j, location, position) >= 0) {
+					return Rule.TRAPPED_CARD;
+				}
+			}
+		}
+		
+		// BLOCKED_KING
+		if (!anyEmpty && noPileCanBeEmptied(model, location)) {
+			return Rule.BLOCKED_KING;
+		}
+		
+		// NO_MOVES
+		if (!anyMove(model, anyEmpty)) {
+			return Rule.NO_MOVES;
+		}
+		
+		return null;
+	}
+
+	private static boolean isWon(KlondikeModel model) {
+		for (int i = 0; i < 4; i++) {
+			if (model.getFoundationPile(i).getNumCards() != 13) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void locate(KlondikeModel model, int[] location, int[] position) {
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			location[i] = IN_STOCK;
+		}
+		for (int i = 0; i < 4; i++) {
+			Pile pile = model.getFoundationPile(i);
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				location[pile.getCard(j).getCode()] = ON_FOUNDATION;
+			}
+		}
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				int code = pile.getCard(j).getCode();
+				location[code] = i;
+				position[code] = j;
+			}
+		}
+	}
+
+	// Find a face-down non-king card above the card at the given index
+	// which traps it (see Rule.TRAPPED_CARD); returns its index, or -1.
+	private static int findTrappingCard(Pile pile, int index, int[] location, int[] position) {
+		Card buried = pile.getCard(index);
+		int faceDownEnd = Math.min(pile.getExposeIndex(), pile.getNumCards());
+		for (int j = index + 1; j < faceDownEnd; j++) {
+			Card above = pile.getCard(j);
+			if (above.getSuit() == buried.getSuit()
+					&& above.getRank().ordinal() > buried.getRank().ordinal()
+					&& above.getRank() != Rank.KING
+					&& noParentAvailable(above, j, location, position)) {
+				return j;
+			}
+		}
+		return -1;
+	}
+
+	// Determine whether both cards the given tableau card could be moved onto
+	// (opposite color, one rank higher) are on foundations or beneath it.
+	private static boolean noParentAvailable(Card card, int index, int[] location, int[] position) {
+		int pileOfCard = location[card.getCode()];
+		int parentRank = card.getRank().ordinal() + 1;
+		for (int suit = 0; suit < 4; suit++) {
+			Card parent = Card.fromCode(suit*13 + parentRank);
+			if (parent.getSuit().getColor() == card.getSuit().getColor()) {
+				continue;
+			}
+			int parentLocation = location[parent.getCode()];
+			boolean unavailable = parentLocation == ON_FOUNDATION
+					|| (parentLocation == pileOfCard && position[parent.getCode()] < index);
+			if (!unavailable) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Determine whether, with no empty tableau pile, a card is blocked beneath
+	// a face-down king of its suit and no tableau pile can ever be emptied
+	// to take the king (see Rule.BLOCKED_KING).
+	private static boolean noPileCanBeEmptied(KlondikeModel model, int[] location) {
+		// blockedRank[suit] is the lowest rank of a card buried beneath
+		// a face-down king of its suit, or NUM_RANKS if there is none
+		int[] blockedRank = new int[4];
+		Arrays.fill(blockedRank, NUM_RANKS);
+		boolean anyBlocked = false;
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			int faceDownEnd = Math.min(pile.getExposeIndex(), pile.getNumCards());
+			for (int j = 1; j < faceDownEnd; j++) {
+				Card king = pile.getCard(j);
+				if (king.getRank() != Rank.KING) {
+					continue;
+				}
+				for (int k = 0; k < j; k++) {
+					Card buried = pile.getCard(k);
+					int suit = buried.getSuit().ordinal();
+					if (buried.getSuit() == king.getSuit() && buried.getRank().ordinal() < blockedRank[suit]) {
+						blockedRank[suit] = buried.getRank().ordinal();
+						anyBlocked = true;
+					}
+				}
+			}
+		}
+		if (!anyBlocked) {
+			return false;
+		}
+		
+		for (int i = 0; i < 7; i++) {
+			if (!cantBeEmptied(model.getTableauPile(i), blockedRank, location)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean cantBeEmptied(Pile pile, int[] blockedRank, int[] location) {
+		// A king of a blocked suit can never leave the pile
+		for (int j = 0; j < pile.getNumCards(); j++) {
+			Card card = pile.getCard(j);
+			if (card.getRank() == Rank.KING && blockedRank[card.getSuit().ordinal()] < NUM_RANKS) {
+				return true;
+			}
+		}
+		
+		// The bottom card can't go to a foundation pile or onto another card
+		Card bottom = pile.getCard(0);
+		if (bottom.getRank() == Rank.KING || blockedRank[bottom.getSuit().ordinal()] >= bottom.getRank().ordinal()) {
+			return false;
+		}
+		int parentRank = bottom.getRank().ordinal() + 1;
+		for (int suit = 0; suit < 4; suit++) {
+			Card parent = Card.fromCode(suit*13 + parentRank);
+			if (parent.getSuit().getColor() != bottom.getSuit().getColor() && location[parent.getCode()] != ON_FOUNDATION) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean anyMove(KlondikeModel model, boolean anyEmpty) {
+		// Foundation height for each suit
+		int[] heights = new int[4];
+		for (int i = 0; i < 4; i++) {
+			Pile pile = model.getFoundationPile(i);
+			if (!pile.isEmpty()) {
+				Card top = pile.getTopCard();
+				heights[top.getSuit().ordinal()] = top.getRank().ordinal() + 1;
+			}
+		}
+		
+		// Exposed tableau cards
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			for (int j = Math.max(0, pile.getExposeIndex()); j < pile.getNumCards(); j++) {
+				Card card = pile.getCard(j);
+				if (j == pile.getNumCards() - 1 && card.getRank().ordinal() == heights[card.getSuit().ordinal()]) {
+					return true;
+				}
+				if (card.getRank() == Rank.KING ? (anyEmpty && j > 0) : canGoOnTableau(model, card, i)) {
+					return true;
+				}
+			}
+		}
+		
+		// Main deck and waste pile cards
+		for (int p = 0; p < 2; p++) {
+			Pile pile = p == 0 ? model.getMainDeck() : model.getWastePile();
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				Card card = pile.getCard(j);
+				if (card.getRank().ordinal() == heights[card.getSuit().ordinal()]) {
+					return true;
+				}
+				if (card.getRank() == Rank.KING ? anyEmpty : canGoOnTableau(model, card, -1)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean canGoOnTableau(KlondikeModel model, Card card, int sourcePile) {
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			if (i == sourcePile || pile.isEmpty()) {
+				continue;
+			}
+			if (pile.getIndexOfTopCard() >= pile.getExposeIndex()
+					&& CardTables.canStackOn(card.getCode(), pile.getTopCard().getCode())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,209 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.SwingUtilities;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * Find hints (suggested next moves) without blocking the
+ * Swing event dispatch thread.  When a hint is requested,
+ * the game state is copied on the calling thread, and the
+ * search runs on a background thread until it finishes or
+ * its time budget runs out.  The result is posted back to the
+ * event dispatch thread using {@link SwingUtilities#invokeLater(Runnable)}.
+ * Requesting a new hint, or calling {@link #cancel()} (e.g., because
+ * the user made a move), cancels the search in progress, and a
+ * canceled search never delivers its result.
+ * Hints are cached by game state (see {@link StateCache}), so a repeated
+ * request for the same position is answered without searching again.
+ */
+public class HintEngine {
+	/** Default time budget for a hint search, in milliseconds. */
+	public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+	
+	/** Default maximum number of cached hints. */
+	public static final int DEFAULT_CACHE_CAPACITY = 4096;
+	
+	/** {@link StateCache.Codec} for saving and loading cached hints. */
+	public static final StateCache.Codec<Move> HINT_CODEC = new StateCache.Codec<Move>() {
+		@Override
+		public String encode(Move value) {
+			return value.toNotation();
+		}
+		
+		@Override
+		public Move decode(String s) {
+			return Move.parse(s);
+		}
+	};
+	
+	private final DeadEndDetector deadEndDetector;
+	private final AnytimeSearch search;
+	private final StateCache<Move> cache;
+	private final long timeBudgetNanos;
+	private final ExecutorService executor;
+	private final AtomicLong generation;
+	private Future<?> pending;
+	
+	/**
+	 * Constructor.  Uses the default time budget.
+	 * 
+	 * @param controller the {@link KlondikeController}
+	 */
+	public HintEngine(KlondikeController controller) {
+		this(controller, DEFAULT_TIME_BUDGET_MILLIS);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller        the {@link KlondikeController}
+	 * @param timeBudgetMillis  the maximum time to spend searching for a hint
+	 */
+	public HintEngine(KlondikeController controller, long timeBudgetMillis) {
+		this(controller, timeBudgetMillis, new StateCache<Move>(DEFAULT_CACHE_CAPACITY));
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller        the {@link KlondikeController}
+	 * @param timeBudgetMillis  the maximum time to spend searching for a hint
+	 * @param cache             the {@link StateCache} of hints, which may be
+	 *                          shared with other engines using the same time budget
+	 */
+	public HintEngine(KlondikeController controller, long timeBudgetMillis, StateCache<Move> cache) {
+		this.cache = cache;
+		this.deadEndDetector = new DeadEndDetector();
+		this.search = new AnytimeSearch(controller, deadEndDetector);
+		this.timeBudgetNanos = timeBudgetMillis * 1000000L;
+		// One platform thread, rather than a virtual thread per request
+		// (which would need Java 21): the AnytimeSearch reuses its scratch
+		// game states, so searches must not overlap, and each request
+		// cancels the previous one anyway
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "hint-engine");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.generation = new AtomicLong();
+	}
+	
+	/**
+	 * Request a hint for the given game state.  This method should be
+	 * called on the event dispatch thread: the model is copied before
+	 * this method returns, so the caller may continue to modify it.
+	 * Any hint request which is still in progress is canceled.
+	 * 
+	 * @param model     the {@link KlondikeModel}
+	 * @param listener  the {@link HintListener} to notify (on the event
+	 *                  dispatch thread) when the hint is found
+	 */
+	public void requestHint(KlondikeModel model, final HintListener listener) {
+		cancel();
+		
+		final long requestGeneration = generation.get();
+		final long key = StateKey.of(model);
+		Move cached = cache.get(key);
+		if (cached != null) {
+			postHint(listener, cached, requestGeneration);
+			return;
+		}
+		
+		final KlondikeModel snapshot = model.copy();
+		final long deadline = System.nanoTime() + timeBudgetNanos;
+		
+		pending = executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				Move hint = findHint(snapshot, deadline, requestGeneration);
+				if (!isCurrent(requestGeneration)) {
+					return;
+				}
+				if (hint != null) {
+					cache.put(key, hint);
+				}
+				postHint(listener, hint, requestGeneration);
+			}
+		});
+	}
+	
+	/**
+	 * Cancel the hint request in progress (if any).  Its
+	 * {@link HintListener} will not be notified.
+	 */
+	public void cancel() {
+		generation.incrementAndGet();
+		if (pending != null) {
+			pending.cancel(true);
+			pending = null;
+		}
+	}
+	
+	/**
+	 * @return the {@link StateCache} of hints
+	 */
+	public StateCache<Move> getCache() {
+		return cache;
+	}
+	
+	/**
+	 * @return the {@link DeadEndDetector} used to prune lost positions
+	 */
+	public DeadEndDetector getDeadEndDetector() {
+		return deadEndDetector;
+	}
+	
+	/**
+	 * Stop the background thread.  The engine can't be used afterwards.
+	 */
+	public void shutdown() {
+		cancel();
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Search for the best move in the given game state, stopping
+	 * at the deadline or when the request is canceled
+	 * (see {@link AnytimeSearch}).
+	 * 
+	 * @param model              the game state (a private copy)
+	 * @param deadline           the deadline, as a {@link System#nanoTime()} value
+	 * @param requestGeneration  the generation of the request
+	 * @return the best move found, or null if there are no legal moves
+	 *         or the game can't be won
+	 */
+	Move findHint(KlondikeModel model, long deadline, long requestGeneration) {
+		if (!isCurrent(requestGeneration)) {
+			return null;
+		}
+		return search.search(model, deadline).getBestMove();
+	}
+	
+	private void postHint(final HintListener listener, final Move hint, final long requestGeneration) {
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				// The user may have moved after the result was posted
+				if (isCurrent(requestGeneration)) {
+					listener.hintFound(hint);
+				}
+			}
+		});
+	}
+	
+	private boolean isCurrent(long requestGeneration) {
+		return generation.get() == requestGeneration;
+	}
+}
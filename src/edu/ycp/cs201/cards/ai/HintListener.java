@@ -0,0 +1,18 @@
+package edu.ycp.cs201.cards.ai;
+
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * Callback interface for receiving the result of a hint request
+ * made to a {@link HintEngine}.  The callback is always invoked
+ * on the Swing event dispatch thread.
+ */
+public interface HintListener {
+	/**
+	 * Called when a hint has been found.
+	 * 
+	 * @param hint the suggested {@link Move}, or null if there are no legal moves
+	 *             or the game can no longer be won (see {@link DeadEndDetector})
+	 */
+	public void hintFound(Move hint);
+}
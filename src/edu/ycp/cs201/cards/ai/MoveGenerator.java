@@ -0,0 +1,129 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.List;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.CardTables;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.Selection;
+
+/**
+ * Find the legal {@link Move}s in a game state.
+ * All legality checks are delegated to the {@link KlondikeController},
+ * so the moves found are exactly the moves a player could make in the UI.
+ * Moves which cannot make progress (moving an entire tableau pile
+ * onto an empty tableau pile) are not generated, and a king is only
+ * offered a single empty tableau pile, since all empty piles are equivalent.
+ * Before asking the controller about a move, the generator checks a
+ * {@link Bitboard} of the game state, so cards which can't go anywhere,
+ * and destinations which can't accept a card, are never probed.
+ */
+public class MoveGenerator {
+	private final KlondikeController controller;
+	private final ThreadLocal<Bitboard> bitboards;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller the {@link KlondikeController} used to check moves
+	 */
+	public MoveGenerator(KlondikeController controller) {
+		this.controller = controller;
+		this.bitboards = new ThreadLocal<Bitboard>() {
+			@Override
+			protected Bitboard initialValue() {
+				return new Bitboard();
+			}
+		};
+	}
+	
+	/**
+	 * Find all of the legal moves in the given game state.
+	 * The model is temporarily modified (cards are selected and then
+	 * unselected), but is unchanged when the method returns.
+	 * {@link Move#DRAW} is added last, if either the main deck
+	 * or the waste pile is non-empty.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @param moves the list to which the legal moves are added
+	 */
+	public void generateMoves(KlondikeModel model, List<Move> moves) {
+		Bitboard bitboard = bitboards.get();
+		bitboard.update(model);
+		long cardsWithMoves = bitboard.getCardsWithMoves();
+		
+		Pile mainDeck = model.getMainDeck();
+		if (!mainDeck.isEmpty() && hasMoves(cardsWithMoves, mainDeck.getTopCard())) {
+			addMovesFrom(model, bitboard, mainDeck.getTopCard(), new Location(LocationType.MAIN_DECK, 0, mainDeck.getIndexOfTopCard()), moves);
+		}
+		
+		for (int i = 0; i < 7 && cardsWithMoves != 0; i++) {
+			Pile tableauPile = model.getTableauPile(i);
+			for (int j = Math.max(0, tableauPile.getExposeIndex()); j < tableauPile.getNumCards(); j++) {
+				if (hasMoves(cardsWithMoves, tableauPile.getCard(j))) {
+					addMovesFrom(model, bitboard, tableauPile.getCard(j), new Location(LocationType.TABLEAU_PILE, i, j), moves);
+				}
+			}
+		}
+		
+		if (!mainDeck.isEmpty() || !model.getWastePile().isEmpty()) {
+			moves.add(Move.DRAW);
+		}
+	}
+
+	private static boolean hasMoves(long cardsWithMoves, Card card) {
+		return (cardsWithMoves & Bitboard.bit(card.getCode())) != 0;
+	}
+
+	// The bitboard masks are only used to skip probes which can't succeed:
+	// every move generated is still checked by the controller.
+	private void addMovesFrom(KlondikeModel model, Bitboard bitboard, Card bottomCard, Location source, List<Move> moves) {
+		Selection selection = controller.select(model, source);
+		if (selection == null) {
+			return;
+		}
+		
+		try {
+			long card = Bitboard.bit(bottomCard.getCode());
+			if (selection.getNumCards() == 1 && (bitboard.getFoundationAccepts() & card) != 0) {
+				for (int i = 0; i < 4; i++) {
+					Location dest = new Location(LocationType.FOUNDATION_PILE, i, -1);
+					if (controller.allowMove(model, selection, dest)) {
+						moves.add(new Move(source, dest));
+					}
+				}
+			}
+			
+			boolean movedToEmptyPile = false;
+			for (int i = 0; i < 7; i++) {
+				if (source.getLocationType() == LocationType.TABLEAU_PILE && source.getPileIndex() == i) {
+					continue;
+				}
+				Pile destPile = model.getTableauPile(i);
+				boolean destIsEmpty = destPile.isEmpty();
+				if (destIsEmpty && (movedToEmptyPile || isWholeTableauPile(source))) {
+					continue;
+				}
+				if ((Bitboard.stackableOn(CardTables.topCode(destPile)) & card) == 0) {
+					continue;
+				}
+				Location dest = new Location(LocationType.TABLEAU_PILE, i, -1);
+				if (controller.allowMove(model, selection, dest)) {
+					moves.add(new Move(source, dest));
+					movedToEmptyPile |= destIsEmpty;
+				}
+			}
+		} finally {
+			controller.unselect(model, selection);
+		}
+	}
+
+	private static boolean isWholeTableauPile(Location source) {
+		return source.getLocationType() == LocationType.TABLEAU_PILE && source.getCardIndex() == 0;
+	}
+}
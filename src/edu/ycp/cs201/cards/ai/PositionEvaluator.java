@@ -0,0 +1,47 @@
+package edu.ycp.cs201.cards.ai;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * Static evaluation of a game state: higher scores are better
+ * for the player.  Cards on the foundation piles are worth the most,
+ * face-down tableau cards count against the position, and empty
+ * tableau piles (which can accept a king) are worth a little.
+ */
+public class PositionEvaluator {
+	/** Score for each card on a foundation pile. */
+	public static final int FOUNDATION_CARD = 100;
+	
+	/** Penalty for each face-down card in a tableau pile. */
+	public static final int FACE_DOWN_CARD = -30;
+	
+	/** Score for each empty tableau pile. */
+	public static final int EMPTY_TABLEAU_PILE = 10;
+	
+	/** Penalty for each card still in the main deck or waste pile. */
+	public static final int STOCK_CARD = -2;
+	
+	/**
+	 * Evaluate a game state.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @return the score
+	 */
+	public static int evaluate(KlondikeModel model) {
+		int score = 0;
+		for (int i = 0; i < 4; i++) {
+			score += FOUNDATION_CARD * model.getFoundationPile(i).getNumCards();
+		}
+		for (int i = 0; i < 7; i++) {
+			Pile tableauPile = model.getTableauPile(i);
+			if (tableauPile.isEmpty()) {
+				score += EMPTY_TABLEAU_PILE;
+			} else {
+				score += FACE_DOWN_CARD * Math.min(tableauPile.getExposeIndex(), tableauPile.getNumCards());
+			}
+		}
+		score += STOCK_CARD * (model.getMainDeck().getNumCards() + model.getWastePile().getNumCards());
+		return score;
+	}
+}
@@ -0,0 +1,276 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.SplittableRandom;
+
+import edu.ycp.cs201.cards.CardTables;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * <p>Fast game playouts for the {@link WinProbabilityEstimator}.
+ * A rollout holds a game state as card codes (see
+ * {@link edu.ycp.cs201.cards.Card#getCode()}) in a single int array,
+ * rather than as a {@link KlondikeModel}, so that dealing and playing out
+ * a game allocates nothing and takes a few microseconds.  The rules
+ * are those of {@link edu.ycp.cs201.cards.KlondikeController}.</p>
+ * 
+ * <p>The <em>template</em> is the visible part of a game state: the cards
+ * a player can see, and the positions of the cards they can't (face-down
+ * tableau cards, every main deck card except the top card, and the
+ * waste pile).  Each call to {@link #deal(SplittableRandom)} fills the hidden
+ * positions with a random permutation of the hidden cards.</p>
+ * 
+ * <p>Games are played out greedily: a card is moved to a foundation pile
+ * if possible, otherwise a tableau run is moved if doing so exposes a
+ * face-down card (or moves a king off face-down cards into an empty pile),
+ * otherwise the main deck's top card is moved to the tableau if possible,
+ * and otherwise a card is drawn.  The playout is lost when every card in the
+ * main deck and waste pile has been drawn with no other move made.</p>
+ * 
+ * <p>A rollout is not thread-safe: each thread should use its own.</p>
+ */
+class Rollout {
+	// Layout of the cards array
+	private static final int TABLEAU_CAPACITY = 20;
+	private static final int MAIN_DECK = 7 * TABLEAU_CAPACITY;
+	private static final int WASTE_PILE = MAIN_DECK + 52;
+	private static final int NUM_SLOTS = WASTE_PILE + 52;
+	
+	/** Maximum number of moves in a playout. */
+	static final int MAX_STEPS = 2000;
+	
+	// Template
+	private final int[] templateCards;
+	private final int[] hiddenCards;
+	private final int[] hiddenSlots;
+	private final int[] templateTableauCounts;
+	private final int[] templateFaceDownCounts;
+	private final int templateMainCount;
+	private final int templateWasteCount;
+	private final int[] templateHeights;
+	
+	// Current state
+	private final int[] cards;
+	private final int[] tableauCounts;
+	private final int[] faceDownCounts;
+	private int mainCount;
+	private int wasteCount;
+	private final int[] heights;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param model the game state whose visible information is the template
+	 * @throws IllegalArgumentException if a tableau pile holds more cards
+	 *         than is possible in a legal game
+	 */
+	Rollout(KlondikeModel model) {
+		templateCards = new int[NUM_SLOTS];
+		templateTableauCounts = new int[7];
+		templateFaceDownCounts = new int[7];
+		templateHeights = new int[4];
+		
+		int[] slots = new int[52];
+		int numHidden = 0;
+		for (int i = 0; i < 7; i++) {
+			Pile pile = model.getTableauPile(i);
+			if (pile.getNumCards() > TABLEAU_CAPACITY) {
+				throw new IllegalArgumentException("Tableau pile " + i + " has " + pile.getNumCards() + " cards");
+			}
+			int faceDown = Math.min(Math.max(pile.getExposeIndex(), 0), pile.getNumCards());
+			templateTableauCounts[i] = pile.getNumCards();
+			templateFaceDownCounts[i] = faceDown;
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				templateCards[i*TABLEAU_CAPACITY + j] = pile.getCard(j).getCode();
+				if (j < faceDown) {
+					slots[numHidden++] = i*TABLEAU_CAPACITY + j;
+				}
+			}
+		}
+		Pile mainDeck = model.getMainDeck();
+		templateMainCount = mainDeck.getNumCards();
+		for (int j = 0; j < templateMainCount; j++) {
+			templateCards[MAIN_DECK + j] = mainDeck.getCard(j).getCode();
+			if (j < templateMainCount - 1) {
+				slots[numHidden++] = MAIN_DECK + j;
+			}
+		}
+		Pile wastePile = model.getWastePile();
+		templateWasteCount = wastePile.getNumCards();
+		for (int j = 0; j < templateWasteCount; j++) {
+			templateCards[WASTE_PILE + j] = wastePile.getCard(j).getCode();
+			slots[numHidden++] = WASTE_PILE + j;
+		}
+		for (int i = 0; i < 4; i++) {
+			Pile pile = model.getFoundationPile(i);
+			if (!pile.isEmpty()) {
+				int top = pile.getTopCard().getCode();
+				templateHeights[top / 13] = top % 13 + 1;
+			}
+		}
+		
+		hiddenSlots = new int[numHidden];
+		hiddenCards = new int[numHidden];
+		for (int i = 0; i < numHidden; i++) {
+			hiddenSlots[i] = slots[i];
+			hiddenCards[i] = templateCards[slots[i]];
+		}
+		
+		cards = new int[NUM_SLOTS];
+		tableauCounts = new int[7];
+		faceDownCounts = new int[7];
+		heights = new int[4];
+	}
+	
+	/**
+	 * @return the number of hidden cards in the template
+	 */
+	int getNumHiddenCards() {
+		return hiddenCards.length;
+	}
+	
+	/**
+	 * Reset the state to the template, filling the hidden
+	 * positions with a random permutation of the hidden cards.
+	 * 
+	 * @param random the random number generator
+	 */
+	void deal(SplittableRandom random) {
+		System.arraycopy(templateCards, 0, cards, 0, NUM_SLOTS);
+		System.arraycopy(templateTableauCounts, 0, tableauCounts, 0, 7);
+		System.arraycopy(templateFaceDownCounts, 0, faceDownCounts, 0, 7);
+		System.arraycopy(templateHeights, 0, heights, 0, 4);
+		mainCount = templateMainCount;
+		wasteCount = templateWasteCount;
+		
+		// Fisher-Yates shuffle, writing directly into the hidden slots
+		int n = hiddenCards.length;
+		for (int i = 0; i < n; i++) {
+			cards[hiddenSlots[i]] = hiddenCards[i];
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int tmp = cards[hiddenSlots[i]];
+			cards[hiddenSlots[i]] = cards[hiddenSlots[j]];
+			cards[hiddenSlots[j]] = tmp;
+		}
+	}
+	
+	/**
+	 * Play out the current state.
+	 * 
+	 * @return true if the game was won
+	 */
+	boolean play() {
+		int drawsWithoutProgress = 0;
+		for (int step = 0; step < MAX_STEPS; step++) {
+			if (heights[0] + heights[1] + heights[2] + heights[3] == 52) {
+				return true;
+			}
+			if (playToFoundation() || playTableauRun() || playMainDeckToTableau()) {
+				drawsWithoutProgress = 0;
+			} else if (mainCount + wasteCount == 0 || drawsWithoutProgress > mainCount + wasteCount) {
+				return false;
+			} else {
+				draw();
+				drawsWithoutProgress++;
+			}
+		}
+		return false;
+	}
+
+	private boolean playToFoundation() {
+		if (mainCount > 0 && canGoOnFoundation(cards[MAIN_DECK + mainCount - 1])) {
+			heights[cards[MAIN_DECK + mainCount - 1] / 13]++;
+			mainCount--;
+			return true;
+		}
+		for (int i = 0; i < 7; i++) {
+			int count = tableauCounts[i];
+			if (count > faceDownCounts[i] && canGoOnFoundation(cards[i*TABLEAU_CAPACITY + count - 1])) {
+				heights[cards[i*TABLEAU_CAPACITY + count - 1] / 13]++;
+				removeFromTableau(i, 1);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Move the face-up run of a tableau pile if that exposes a face-down card,
+	// or if it is a king run on face-down cards and there is an empty pile.
+	private boolean playTableauRun() {
+		for (int i = 0; i < 7; i++) {
+			int count = tableauCounts[i];
+			int faceDown = faceDownCounts[i];
+			if (faceDown == 0 || count == faceDown) {
+				continue;
+			}
+			int base = cards[i*TABLEAU_CAPACITY + faceDown];
+			for (int d = 0; d < 7; d++) {
+				if (d != i && canGoOnTableau(base, d)) {
+					moveRun(i, faceDown, d);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean playMainDeckToTableau() {
+		if (mainCount == 0) {
+			return false;
+		}
+		int card = cards[MAIN_DECK + mainCount - 1];
+		for (int d = 0; d < 7; d++) {
+			if (canGoOnTableau(card, d)) {
+				cards[d*TABLEAU_CAPACITY + tableauCounts[d]++] = card;
+				mainCount--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void draw() {
+		if (mainCount > 0) {
+			cards[WASTE_PILE + wasteCount++] = cards[MAIN_DECK + --mainCount];
+		} else {
+			// Recycle: the waste pile's bottom card becomes the main deck's top card
+			for (int j = 0; j < wasteCount; j++) {
+				cards[MAIN_DECK + j] = cards[WASTE_PILE + wasteCount - 1 - j];
+			}
+			mainCount = wasteCount;
+			wasteCount = 0;
+		}
+	}
+
+	private boolean canGoOnFoundation(int card) {
+		return card % 13 == heights[card / 13];
+	}
+
+	private boolean canGoOnTableau(int card, int pile) {
+		int count = tableauCounts[pile];
+		if (count == 0) {
+			return CardTables.canStackOn(card, CardTables.EMPTY);
+		}
+		return count > faceDownCounts[pile]
+				&& CardTables.canStackOn(card, cards[pile*TABLEAU_CAPACITY + count - 1]);
+	}
+
+	private void moveRun(int source, int start, int dest) {
+		int n = tableauCounts[source] - start;
+		System.arraycopy(cards, source*TABLEAU_CAPACITY + start, cards, dest*TABLEAU_CAPACITY + tableauCounts[dest], n);
+		tableauCounts[dest] += n;
+		removeFromTableau(source, n);
+	}
+
+	private void removeFromTableau(int pile, int n) {
+		tableauCounts[pile] -= n;
+		if (faceDownCounts[pile] >= tableauCounts[pile] && tableauCounts[pile] > 0) {
+			// Expose the new top card
+			faceDownCounts[pile] = tableauCounts[pile] - 1;
+		} else if (tableauCounts[pile] == 0) {
+			faceDownCounts[pile] = 0;
+		}
+	}
+}
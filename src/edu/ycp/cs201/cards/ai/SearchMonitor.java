@@ -0,0 +1,87 @@
+package edu.ycp.cs201.cards.ai;
+
+/**
+ * <p>Hook for observing {@link Solver} and {@link AnytimeSearch} runs,
+ * for example to record them with a profiler
+ * (see <code>edu.ycp.cs201.cards.metrics.FlightRecorderMonitor</code>).
+ * One monitor is installed for the whole program with
+ * {@link #install(SearchMonitor)}; until then, a monitor which
+ * does nothing is used.  Each method does nothing unless overridden.</p>
+ * 
+ * <p>The methods are called by the thread doing the search, so a
+ * monitor must be thread-safe, and should be cheap: only
+ * {@link #solveProgress(Solver, long, int)} is called during a search,
+ * once every {@link Solver#PROGRESS_INTERVAL} nodes.</p>
+ */
+public abstract class SearchMonitor {
+	private static volatile SearchMonitor installed = new SearchMonitor() { };
+	
+	/**
+	 * Install the monitor used by every {@link Solver} and {@link AnytimeSearch}
+	 * from their next run on.
+	 * 
+	 * @param monitor the SearchMonitor
+	 */
+	public static void install(SearchMonitor monitor) {
+		if (monitor == null) {
+			throw new IllegalArgumentException("monitor is null");
+		}
+		installed = monitor;
+	}
+	
+	/**
+	 * @return the installed SearchMonitor
+	 */
+	public static SearchMonitor get() {
+		return installed;
+	}
+	
+	/**
+	 * Called when a {@link Solver} starts solving a game.
+	 * 
+	 * @return a token which is passed to {@link #solveFinished(Object, Solver, SolverResult)}
+	 */
+	public Object solveStarted() {
+		return null;
+	}
+	
+	/**
+	 * Called when a {@link Solver} has solved a game.  The solver's
+	 * statistics (such as {@link Solver#getTranspositionHits()})
+	 * describe the game just solved.
+	 * 
+	 * @param token   the token returned by {@link #solveStarted()}
+	 * @param solver  the Solver
+	 * @param result  the {@link SolverResult}
+	 */
+	public void solveFinished(Object token, Solver solver, SolverResult result) {
+	}
+	
+	/**
+	 * Called every {@link Solver#PROGRESS_INTERVAL} nodes of a game being solved.
+	 * 
+	 * @param solver  the Solver
+	 * @param nodes   the number of positions examined so far
+	 * @param depth   the current search depth
+	 */
+	public void solveProgress(Solver solver, long nodes, int depth) {
+	}
+	
+	/**
+	 * Called when an {@link AnytimeSearch} starts.
+	 * 
+	 * @return a token which is passed to {@link #searchFinished(Object, SearchResult)}
+	 */
+	public Object searchStarted() {
+		return null;
+	}
+	
+	/**
+	 * Called when an {@link AnytimeSearch} has finished.
+	 * 
+	 * @param token   the token returned by {@link #searchStarted()}
+	 * @param result  the {@link SearchResult}
+	 */
+	public void searchFinished(Object token, SearchResult result) {
+	}
+}
@@ -0,0 +1,72 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * The result of an {@link AnytimeSearch}: the best line of play found
+ * before the deadline, and how much searching went into finding it.
+ */
+public class SearchResult {
+	private final List<Move> line;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param line   the best line of play found (empty if there are no legal moves)
+	 * @param score  the {@link PositionEvaluator} score of the best position on the line
+	 * @param depth  the deepest search depth which was completed
+	 * @param nodes  the number of game states examined
+	 */
+	public SearchResult(List<Move> line, int score, int depth, long nodes) {
+		this.line = Collections.unmodifiableList(line);
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * @return the first move of the best line, or null if there are no legal moves
+	 */
+	public Move getBestMove() {
+		return line.isEmpty() ? null : line.get(0);
+	}
+	
+	/**
+	 * @return the best line of play found
+	 */
+	public List<Move> getLine() {
+		return line;
+	}
+	
+	/**
+	 * @return the score of the best position reached by the line
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * @return the deepest search depth which was completed
+	 */
+	public int getDepth() {
+		return depth;
+	}
+	
+	/**
+	 * @return the number of game states examined
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+	
+	@Override
+	public String toString() {
+		return "SearchResult[line=" + line + ",score=" + score + ",depth=" + depth + ",nodes=" + nodes + "]";
+	}
+}
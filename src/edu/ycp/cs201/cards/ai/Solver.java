@@ -0,0 +1,296 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * <p>Depth-first solver: determines whether a game can be won,
+ * with full knowledge of the face-down cards, and finds a winning line.
+ * Moves are tried in the same heuristic order as {@link AnytimeSearch}.
+ * A transposition table of {@link StateKey}s ensures that no position
+ * is searched twice, and positions which the {@link DeadEndDetector}
+ * reports as lost are not searched.  After each move, the cards which can
+ * safely go to the foundation piles are moved there at once (see
+ * {@link KlondikeController#autoPlayToFoundations(KlondikeModel, List)}):
+ * since such moves never need to be undone, treating them as forced
+ * removes every ordering of them from the search.  The forced moves
+ * are included in the winning line.</p>
+ * 
+ * <p>The search uses an explicit stack rather than recursion, since
+ * winning lines (including draws) can be hundreds of moves long.
+ * It gives up, with the verdict {@link SolverResult.Verdict#UNKNOWN},
+ * after examining its node limit, or if any line reaches
+ * {@link #MAX_DEPTH} moves; a game is only reported
+ * {@link SolverResult.Verdict#UNSOLVABLE} if nothing was cut off.</p>
+ * 
+ * <p>Each game solved is reported to the installed {@link SearchMonitor},
+ * and long searches are sampled every {@link #PROGRESS_INTERVAL} nodes.
+ * The statistics of the most recent game are kept in plain counters,
+ * so they cost almost nothing per node.</p>
+ * 
+ * <p>A solver reuses its scratch game states and transposition table,
+ * so each thread should use its own.</p>
+ */
+public class Solver {
+	/** Default maximum number of positions examined per game. */
+	public static final long DEFAULT_NODE_LIMIT = 200000;
+	
+	/** Maximum length of a line of play. */
+	public static final int MAX_DEPTH = 1000;
+	
+	/** Number of positions examined between progress reports (a power of 2). */
+	public static final long PROGRESS_INTERVAL = 1L << 16;
+	
+	// Depth histogram buckets: 0, 1, 2-3, 4-7, ..., 512-1023
+	private static final int NUM_DEPTH_BUCKETS = 11;
+	
+	private final KlondikeController controller;
+	private final MoveGenerator moveGenerator;
+	private final DeadEndDetector deadEndDetector;
+	private final long nodeLimit;
+	private final boolean autoPlay;
+	
+	// Per-depth scratch state, grown as needed
+	private final List<KlondikeModel> models;
+	private final List<List<Move>> moveLists;
+	private final List<List<Move>> forcedLists;
+	private final int[] nextMove;
+	private final List<Move> unordered;
+	private final Set<Long> visited;
+	
+	// The SearchMonitor of the current game
+	private SearchMonitor monitor;
+	
+	// Statistics of the current game, reported to the SearchMonitor
+	private long transpositionHits;
+	private final long[] prunes;
+	private int maxDepth;
+	private final long[] depthHistogram;
+	
+	/**
+	 * Constructor.  Uses the default node limit.
+	 * 
+	 * @param controller the {@link KlondikeController} whose rules are used
+	 */
+	public Solver(KlondikeController controller) {
+		this(controller, new DeadEndDetector(), DEFAULT_NODE_LIMIT);
+	}
+	
+	/**
+	 * Constructor.  Safe moves to the foundation piles are forced.
+	 * 
+	 * @param controller       the {@link KlondikeController} whose rules are used
+	 * @param deadEndDetector  the {@link DeadEndDetector} used to prune lost positions
+	 * @param nodeLimit        the maximum number of positions to examine per game
+	 */
+	public Solver(KlondikeController controller, DeadEndDetector deadEndDetector, long nodeLimit) {
+		this(controller, deadEndDetector, nodeLimit, true);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller       the {@link KlondikeController} whose rules are used
+	 * @param deadEndDetector  the {@link DeadEndDetector} used to prune lost positions
+	 * @param nodeLimit        the maximum number of positions to examine per game
+	 * @param autoPlay         true if safe moves to the foundation piles should be
+	 *                         forced, false if they should be searched like other moves
+	 */
+	public Solver(KlondikeController controller, DeadEndDetector deadEndDetector, long nodeLimit, boolean autoPlay) {
+		this.controller = controller;
+		this.moveGenerator = new MoveGenerator(controller);
+		this.deadEndDetector = deadEndDetector;
+		this.nodeLimit = nodeLimit;
+		this.autoPlay = autoPlay;
+		this.models = new ArrayList<KlondikeModel>();
+		this.moveLists = new ArrayList<List<Move>>();
+		this.forcedLists = new ArrayList<List<Move>>();
+		this.nextMove = new int[MAX_DEPTH + 1];
+		this.unordered = new ArrayList<Move>();
+		this.visited = new HashSet<Long>();
+		this.prunes = new long[DeadEndDetector.Rule.values().length];
+		this.depthHistogram = new long[NUM_DEPTH_BUCKETS];
+	}
+	
+	/**
+	 * Solve a game.
+	 * 
+	 * @param model the game state to solve from (not modified)
+	 * @return the {@link SolverResult}
+	 */
+	public SolverResult solve(KlondikeModel model) {
+		monitor = SearchMonitor.get();
+		Object token = monitor.solveStarted();
+		SolverResult result = search(model);
+		monitor.solveFinished(token, this, result);
+		return result;
+	}
+	
+	/**
+	 * @return the number of positions of the most recent game which were
+	 *         skipped because they had already been searched
+	 */
+	public long getTranspositionHits() {
+		return transpositionHits;
+	}
+	
+	/**
+	 * @return the number of distinct positions in the transposition table
+	 *         (the positions of the most recent game searched for the first time)
+	 */
+	public int getTranspositionTableSize() {
+		return visited.size();
+	}
+	
+	/**
+	 * @param rule a {@link DeadEndDetector.Rule}
+	 * @return the number of positions of the most recent game which
+	 *         were pruned because of the rule
+	 */
+	public long getPrunes(DeadEndDetector.Rule rule) {
+		return prunes[rule.ordinal()];
+	}
+	
+	/**
+	 * @return the greatest depth expanded in the most recent game
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+	
+	/**
+	 * @return the number of positions of the most recent game expanded at depths
+	 *         0, 1, 2-3, 4-7, 8-15, ..., as a comma-separated string
+	 */
+	public String getDepthHistogram() {
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < NUM_DEPTH_BUCKETS; i++) {
+			if (i > 0) {
+				buf.append(',');
+			}
+			buf.append(depthHistogram[i]);
+		}
+		return buf.toString();
+	}
+	
+	private SolverResult search(KlondikeModel model) {
+		visited.clear();
+		transpositionHits = 0;
+		Arrays.fill(prunes, 0);
+		maxDepth = 0;
+		Arrays.fill(depthHistogram, 0);
+		
+		long nodes = 1;
+		if (controller.isWin(model)) {
+			return new SolverResult(SolverResult.Verdict.SOLVED, new ArrayList<Move>(), nodes);
+		}
+		if (isDeadEnd(model)) {
+			return new SolverResult(SolverResult.Verdict.UNSOLVABLE, new ArrayList<Move>(), nodes);
+		}
+		model.copyInto(scratchModel(0));
+		visited.add(StateKey.of(model));
+		expand(0);
+		
+		boolean cutOff = false;
+		int depth = 0;
+		while (depth >= 0) {
+			if (nodes >= nodeLimit) {
+				return new SolverResult(SolverResult.Verdict.UNKNOWN, new ArrayList<Move>(), nodes);
+			}
+			List<Move> moves = moveLists.get(depth);
+			if (nextMove[depth] == moves.size()) {
+				depth--;
+				continue;
+			}
+			Move move = moves.get(nextMove[depth]++);
+			KlondikeModel child = scratchModel(depth + 1);
+			models.get(depth).copyInto(child);
+			controller.makeMove(child, move);
+			List<Move> forced = forcedList(depth + 1);
+			forced.clear();
+			if (autoPlay) {
+				controller.autoPlayToFoundations(child, forced);
+			}
+			nodes++;
+			if ((nodes & (PROGRESS_INTERVAL - 1)) == 0) {
+				monitor.solveProgress(this, nodes, depth + 1);
+			}
+			
+			if (controller.isWin(child)) {
+				return new SolverResult(SolverResult.Verdict.SOLVED, currentLine(depth), nodes);
+			}
+			if (!visited.add(StateKey.of(child))) {
+				transpositionHits++;
+				continue;
+			}
+			if (isDeadEnd(child)) {
+				continue;
+			}
+			if (depth + 1 == MAX_DEPTH) {
+				cutOff = true;
+				continue;
+			}
+			depth++;
+			expand(depth);
+		}
+		return new SolverResult(cutOff ? SolverResult.Verdict.UNKNOWN : SolverResult.Verdict.UNSOLVABLE,
+				new ArrayList<Move>(), nodes);
+	}
+	
+	private boolean isDeadEnd(KlondikeModel model) {
+		DeadEndDetector.Rule rule = deadEndDetector.analyze(model);
+		if (rule == null) {
+			return false;
+		}
+		prunes[rule.ordinal()]++;
+		return true;
+	}
+	
+	private KlondikeModel scratchModel(int depth) {
+		while (models.size() <= depth) {
+			models.add(new KlondikeModel());
+		}
+		return models.get(depth);
+	}
+
+	private List<Move> forcedList(int depth) {
+		while (forcedLists.size() <= depth) {
+			forcedLists.add(new ArrayList<Move>());
+		}
+		return forcedLists.get(depth);
+	}
+
+	private void expand(int depth) {
+		while (moveLists.size() <= depth) {
+			moveLists.add(new ArrayList<Move>());
+		}
+		KlondikeModel model = models.get(depth);
+		List<Move> moves = moveLists.get(depth);
+		moves.clear();
+		unordered.clear();
+		moveGenerator.generateMoves(model, unordered);
+		AnytimeSearch.orderMoves(model, unordered, moves);
+		nextMove[depth] = 0;
+		
+		maxDepth = Math.max(maxDepth, depth);
+		depthHistogram[32 - Integer.numberOfLeadingZeros(depth)]++;
+	}
+
+	// The moves leading to the current child of the given depth,
+	// including the forced moves after each one.
+	private List<Move> currentLine(int depth) {
+		List<Move> line = new ArrayList<Move>(depth + 1);
+		for (int i = 0; i <= depth; i++) {
+			line.add(moveLists.get(i).get(nextMove[i] - 1));
+			line.addAll(forcedLists.get(i + 1));
+		}
+		return line;
+	}
+}
@@ -0,0 +1,66 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * The result of solving a game with a {@link Solver}.
+ */
+public class SolverResult {
+	/**
+	 * Outcome of a solver run.
+	 */
+	public enum Verdict {
+		/** A winning line was found. */
+		SOLVED,
+		/** Every reachable position was searched, and none is a win. */
+		UNSOLVABLE,
+		/** The search was cut off before reaching a verdict. */
+		UNKNOWN,
+	}
+	
+	private final Verdict verdict;
+	private final List<Move> moves;
+	private final long nodes;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param verdict  the {@link Verdict}
+	 * @param moves    the winning moves (empty unless the verdict is {@link Verdict#SOLVED})
+	 * @param nodes    the number of positions examined
+	 */
+	public SolverResult(Verdict verdict, List<Move> moves, long nodes) {
+		this.verdict = verdict;
+		this.moves = Collections.unmodifiableList(moves);
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * @return the {@link Verdict}
+	 */
+	public Verdict getVerdict() {
+		return verdict;
+	}
+	
+	/**
+	 * @return the winning moves (empty unless the game was solved)
+	 */
+	public List<Move> getMoves() {
+		return moves;
+	}
+	
+	/**
+	 * @return the number of positions examined
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+	
+	@Override
+	public String toString() {
+		return verdict + " (" + nodes + " nodes" + (verdict == Verdict.SOLVED ? ", " + moves.size() + " moves)" : ")");
+	}
+}
@@ -0,0 +1,274 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Bounded, thread-safe least-recently-used cache mapping
+ * game state keys (see {@link StateKey}) to results computed
+ * for those states, such as hints or solver verdicts.</p>
+ * 
+ * <p>The cache is split into independently-locked segments, chosen
+ * by the key, so that threads using different keys rarely contend.
+ * Each segment evicts its least recently used entry when it is full,
+ * so the cache as a whole holds at most its capacity (rounded up
+ * to a multiple of the number of segments).  Hits, misses, and
+ * evictions are counted.</p>
+ * 
+ * <p>The contents can be saved to and loaded from a text file,
+ * one entry per line, using a {@link Codec} to convert values
+ * to and from strings.</p>
+ * 
+ * @param <V> the type of the cached values
+ */
+public class StateCache<V> {
+	/**
+	 * Converts cached values to and from a string representation
+	 * (which must not contain line breaks) for persistence.
+	 * 
+	 * @param <V> the type of the cached values
+	 */
+	public interface Codec<V> {
+		/**
+		 * @param value a value
+		 * @return the string representation of the value
+		 */
+		public String encode(V value);
+		
+		/**
+		 * @param s a string representation returned by {@link #encode(Object)}
+		 * @return the value
+		 * @throws IllegalArgumentException if the string is not a valid representation
+		 */
+		public V decode(String s);
+	}
+	
+	/** Number of segments. */
+	public static final int NUM_SEGMENTS = 16;
+	
+	private final List<Segment<V>> segments;
+	private final LongAdder hits;
+	private final LongAdder misses;
+	private final LongAdder evictions;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param capacity the maximum number of entries
+	 */
+	public StateCache(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.evictions = new LongAdder();
+		this.segments = new ArrayList<Segment<V>>(NUM_SEGMENTS);
+		int segmentCapacity = (capacity + NUM_SEGMENTS - 1) / NUM_SEGMENTS;
+		for (int i = 0; i < NUM_SEGMENTS; i++) {
+			segments.add(new Segment<V>(segmentCapacity, evictions));
+		}
+		this.hits = new LongAdder();
+		this.misses = new LongAdder();
+	}
+	
+	/**
+	 * Look up the value cached for a state, marking it as recently used.
+	 * 
+	 * @param key the state key
+	 * @return the cached value, or null if there is none
+	 */
+	public V get(long key) {
+		Segment<V> segment = segmentFor(key);
+		V value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+		return value;
+	}
+	
+	/**
+	 * Cache a value for a state, possibly evicting the least
+	 * recently used entry of the key's segment.
+	 * 
+	 * @param key    the state key
+	 * @param value  the value (must not be null)
+	 */
+	public void put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Null values can't be cached");
+		}
+		Segment<V> segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+	
+	/**
+	 * @return the number of cached entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment<V> segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Remove all entries.  Statistics are not reset.
+	 */
+	public void clear() {
+		for (Segment<V> segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of lookups which found a value
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	/**
+	 * @return the number of lookups which didn't find a value
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	/**
+	 * @return the number of entries evicted to make room for new ones
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+	
+	/**
+	 * @return the fraction of lookups which found a value (0 if there have been none)
+	 */
+	public double getHitRate() {
+		long h = getHits();
+		long total = h + getMisses();
+		return total == 0 ? 0.0 : (double) h / total;
+	}
+	
+	/**
+	 * Save the cache contents to a file.  Each line has the key
+	 * (in hexadecimal), a tab, and the encoded value.
+	 * Entries are written from least to most recently used
+	 * within each segment, so loading the file preserves their order.
+	 * 
+	 * @param file   the file to write
+	 * @param codec  the {@link Codec} used to encode values
+	 * @throws IOException if the file can't be written
+	 */
+	public void save(File file, Codec<V> codec) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+		try {
+			for (Segment<V> segment : segments) {
+				List<Map.Entry<Long, V>> entries;
+				synchronized (segment) {
+					entries = new ArrayList<Map.Entry<Long, V>>(segment.entrySet());
+				}
+				for (Map.Entry<Long, V> entry : entries) {
+					writer.write(Long.toHexString(entry.getKey()));
+					writer.write('\t');
+					writer.write(codec.encode(entry.getValue()));
+					writer.write('\n');
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+	
+	/**
+	 * Add the entries saved in a file by {@link #save(File, Codec)}.
+	 * Malformed lines are skipped.
+	 * 
+	 * @param file   the file to read
+	 * @param codec  the {@link Codec} used to decode values
+	 * @return the number of entries loaded
+	 * @throws IOException if the file can't be read
+	 */
+	public int load(File file, Codec<V> codec) throws IOException {
+		int count = 0;
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int tab = line.indexOf('\t');
+				if (tab < 0) {
+					continue;
+				}
+				try {
+					long key = Long.parseUnsignedLong(line.substring(0, tab), 16);
+					put(key, codec.decode(line.substring(tab + 1)));
+					count++;
+				} catch (IllegalArgumentException e) {
+					// Skip malformed entry
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return count;
+	}
+	
+	@Override
+	public String toString() {
+		return "StateCache[size=" + size() + ",hits=" + getHits() + ",misses=" + getMisses()
+				+ ",evictions=" + getEvictions() + "]";
+	}
+
+	private Segment<V> segmentFor(long key) {
+		// Keys are already well mixed, so the high bits can be used directly
+		return segments.get((int) (key >>> 60) & (NUM_SEGMENTS - 1));
+	}
+
+	// One segment: an access-ordered LinkedHashMap which evicts its eldest
+	// entry when full.  Accessed only while holding the segment's lock.
+	private static class Segment<V> extends LinkedHashMap<Long, V> {
+		private static final long serialVersionUID = 1L;
+		
+		private final int capacity;
+		private final LongAdder evictions;
+		
+		Segment(int capacity, LongAdder evictions) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+			this.evictions = evictions;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
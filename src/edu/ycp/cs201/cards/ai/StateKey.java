@@ -0,0 +1,44 @@
+package edu.ycp.cs201.cards.ai;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * 64-bit keys identifying game states.  Two {@link KlondikeModel}s
+ * with the same cards in the same piles, and the same expose indices,
+ * always have the same key.  Keys are computed from the card codes
+ * alone (not from object identity or a random seed), so they are
+ * stable across runs and can be persisted (see {@link StateCache}).
+ * Distinct states collide with probability of about 2<sup>-64</sup>.
+ */
+public class StateKey {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	/**
+	 * Compute the key of a game state.
+	 * 
+	 * @param model the {@link KlondikeModel}
+	 * @return the 64-bit key
+	 */
+	public static long of(KlondikeModel model) {
+		long h = FNV_OFFSET_BASIS;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			Pile pile = model.getPile(i);
+			h = (h ^ pile.getNumCards()) * FNV_PRIME;
+			h = (h ^ (pile.getExposeIndex() & 0xff)) * FNV_PRIME;
+			for (int j = 0; j < pile.getNumCards(); j++) {
+				h = (h ^ pile.getCard(j).getCode()) * FNV_PRIME;
+			}
+		}
+		return mix(h);
+	}
+
+	// Final avalanche step (from SplitMix64), so that every bit
+	// of the key depends on every card.
+	private static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+}
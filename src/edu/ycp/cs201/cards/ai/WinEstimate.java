@@ -0,0 +1,82 @@
+package edu.ycp.cs201.cards.ai;
+
+/**
+ * An estimated probability of winning a game, from the number of
+ * random playouts won, with a 95% confidence interval
+ * (the Wilson score interval, which stays within [0, 1] and
+ * behaves well even when almost all or almost no playouts are won).
+ */
+public class WinEstimate {
+	/** z-score for a 95% confidence interval. */
+	public static final double Z_95 = 1.959964;
+	
+	private final long wins;
+	private final long rollouts;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param wins      the number of playouts won
+	 * @param rollouts  the total number of playouts
+	 */
+	public WinEstimate(long wins, long rollouts) {
+		if (wins < 0 || wins > rollouts) {
+			throw new IllegalArgumentException("Invalid win count " + wins + " of " + rollouts);
+		}
+		this.wins = wins;
+		this.rollouts = rollouts;
+	}
+	
+	/**
+	 * @return the number of playouts won
+	 */
+	public long getWins() {
+		return wins;
+	}
+	
+	/**
+	 * @return the total number of playouts
+	 */
+	public long getRollouts() {
+		return rollouts;
+	}
+	
+	/**
+	 * @return the estimated win probability (0 if there were no playouts)
+	 */
+	public double getProbability() {
+		return rollouts == 0 ? 0.0 : (double) wins / rollouts;
+	}
+	
+	/**
+	 * @return the lower bound of the 95% confidence interval
+	 */
+	public double getLowerBound() {
+		return rollouts == 0 ? 0.0 : center() - halfWidth();
+	}
+	
+	/**
+	 * @return the upper bound of the 95% confidence interval
+	 */
+	public double getUpperBound() {
+		return rollouts == 0 ? 1.0 : center() + halfWidth();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%.1f%% (95%% CI %.1f%%-%.1f%%, %d playouts)",
+				100.0 * getProbability(), 100.0 * getLowerBound(), 100.0 * getUpperBound(), rollouts);
+	}
+
+	private double center() {
+		double p = getProbability();
+		double z2n = Z_95 * Z_95 / rollouts;
+		return (p + z2n / 2) / (1 + z2n);
+	}
+
+	private double halfWidth() {
+		double p = getProbability();
+		double z2n = Z_95 * Z_95 / rollouts;
+		return Z_95 * Math.sqrt(p * (1 - p) / rollouts + z2n / (4 * rollouts)) / (1 + z2n);
+	}
+}
@@ -0,0 +1,129 @@
+package edu.ycp.cs201.cards.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+
+/**
+ * Estimate the probability that a player can win from a game state,
+ * given only what the player can see.  The face-down tableau cards,
+ * the main deck below its top card, and the waste pile are unknown,
+ * so many random arrangements of those cards are sampled, and each
+ * is played out (see {@link Rollout}).  Playouts are split evenly
+ * across a fixed pool of daemon threads, each with its own
+ * {@link Rollout} and random number generator, so the threads share
+ * nothing while they run.  Because the playout policy is simple,
+ * the estimate is a lower bound on what a strong player could achieve.
+ */
+public class WinProbabilityEstimator {
+	private final int numThreads;
+	private final ExecutorService executor;
+	
+	/**
+	 * Constructor.  Uses one thread per available processor.
+	 */
+	public WinProbabilityEstimator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param numThreads number of threads to run playouts on
+	 */
+	public WinProbabilityEstimator(int numThreads) {
+		this.numThreads = numThreads;
+		this.executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private int count;
+			
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "win-estimator-" + (count++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 * Estimate the win probability of a game state.
+	 * 
+	 * @param model        the game state (not modified)
+	 * @param numRollouts  the number of playouts
+	 * @return the {@link WinEstimate}
+	 * @throws InterruptedException if interrupted while waiting for the playouts
+	 */
+	public WinEstimate estimate(KlondikeModel model, int numRollouts) throws InterruptedException {
+		return estimate(model, numRollouts, new SplittableRandom());
+	}
+	
+	/**
+	 * Estimate the win probability of a game state, using a fixed
+	 * seed so that the estimate is reproducible.
+	 * 
+	 * @param model        the game state (not modified)
+	 * @param numRollouts  the number of playouts
+	 * @param seed         the random seed
+	 * @return the {@link WinEstimate}
+	 * @throws InterruptedException if interrupted while waiting for the playouts
+	 */
+	public WinEstimate estimate(KlondikeModel model, int numRollouts, long seed) throws InterruptedException {
+		return estimate(model, numRollouts, new SplittableRandom(seed));
+	}
+	
+	/**
+	 * Stop the playout threads.  The estimator can't be used afterwards.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private WinEstimate estimate(KlondikeModel model, int numRollouts, SplittableRandom random) throws InterruptedException {
+		// Templates and generators are created on the calling thread,
+		// so the workers never touch the model
+		List<Future<Long>> results = new ArrayList<Future<Long>>();
+		for (int t = 0; t < numThreads; t++) {
+			final int count = numRollouts / numThreads + (t < numRollouts % numThreads ? 1 : 0);
+			if (count == 0) {
+				continue;
+			}
+			final Rollout rollout = new Rollout(model);
+			final SplittableRandom taskRandom = random.split();
+			results.add(executor.submit(new Callable<Long>() {
+				@Override
+				public Long call() {
+					long wins = 0;
+					for (int i = 0; i < count && !Thread.currentThread().isInterrupted(); i++) {
+						rollout.deal(taskRandom);
+						if (rollout.play()) {
+							wins++;
+						}
+					}
+					return wins;
+				}
+			}));
+		}
+		
+		long wins = 0;
+		try {
+			for (Future<Long> result : results) {
+				wins += result.get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Playout failed", e.getCause());
+		} finally {
+			for (Future<Long> result : results) {
+				result.cancel(true);
+			}
+		}
+		return new WinEstimate(wins, numRollouts);
+	}
+}
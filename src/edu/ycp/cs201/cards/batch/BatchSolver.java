@@ -0,0 +1,308 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.ai.DeadEndDetector;
+import edu.ycp.cs201.cards.ai.Solver;
+import edu.ycp.cs201.cards.ai.SolverResult;
+import edu.ycp.cs201.cards.metrics.FlightRecorderMonitor;
+
+/**
+ * <p>Solve a stream of deals (see {@link DealSource}) with a {@link Solver},
+ * appending one line per deal to an output file:</p>
+ * <pre>
+ * &lt;deal&gt; &lt;verdict&gt; &lt;nodes&gt; [&lt;moves&gt;...]
+ * </pre>
+ * <p>where the deal is the deal's string from the {@link DealSource}
+ * (its seed, or its game state), so each result can be tied back to
+ * its deal and replayed, and the moves of a solved deal are in
+ * {@link Move#toNotation() move notation}.</p>
+ * 
+ * <p>Deals are read in chunks, and each chunk is solved by one of a fixed
+ * pool of solver threads.  Results are handed to a dedicated writer thread,
+ * which writes whatever chunks have accumulated in a single batch, so
+ * solver threads never wait for I/O.  The number of chunks read ahead
+ * is bounded, so memory use doesn't depend on the number of deals.</p>
+ * 
+ * <p>The writer periodically forces the output to disk and saves a
+ * {@link Checkpoint} recording the completed chunks and the length of
+ * the output.  A run restarted with the same deals, output, and checkpoint
+ * truncates the output to the checkpointed length (discarding results
+ * written after the checkpoint) and skips every completed chunk, so no
+ * completed deal is solved twice and no result is duplicated.
+ * Results appear in the output in the order chunks are completed,
+ * which is not necessarily deal order.</p>
+ */
+public class BatchSolver {
+	/** Default number of deals per chunk. */
+	public static final int DEFAULT_CHUNK_SIZE = 64;
+	
+	/** Default interval between checkpoints, in milliseconds. */
+	public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 10000;
+	
+	// Sentinel telling the writer thread that all chunks have been queued
+	private static final ChunkResult END = new ChunkResult(-1, "");
+	
+	private final KlondikeController controller;
+	private final long nodeLimit;
+	private final int numThreads;
+	private final int chunkSize;
+	private final long checkpointIntervalNanos;
+	private final ThreadLocal<Solver> solvers;
+	
+	/**
+	 * Constructor.  Uses the default chunk size and checkpoint interval.
+	 * 
+	 * @param controller  the {@link KlondikeController}
+	 * @param nodeLimit   the {@link Solver} node limit per deal
+	 * @param numThreads  the number of solver threads
+	 */
+	public BatchSolver(KlondikeController controller, long nodeLimit, int numThreads) {
+		this(controller, nodeLimit, numThreads, DEFAULT_CHUNK_SIZE, DEFAULT_CHECKPOINT_INTERVAL_MILLIS);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller                the {@link KlondikeController}
+	 * @param nodeLimit                 the {@link Solver} node limit per deal
+	 * @param numThreads                the number of solver threads
+	 * @param chunkSize                 the number of deals per chunk (must be the
+	 *                                  same when a run is resumed)
+	 * @param checkpointIntervalMillis  the minimum time between checkpoints
+	 */
+	public BatchSolver(KlondikeController controller, long nodeLimit, int numThreads,
+			int chunkSize, long checkpointIntervalMillis) {
+		this.controller = controller;
+		this.nodeLimit = nodeLimit;
+		this.numThreads = numThreads;
+		this.chunkSize = chunkSize;
+		this.checkpointIntervalNanos = checkpointIntervalMillis * 1000000L;
+		this.solvers = new ThreadLocal<Solver>() {
+			@Override
+			protected Solver initialValue() {
+				return new Solver(BatchSolver.this.controller, new DeadEndDetector(), BatchSolver.this.nodeLimit);
+			}
+		};
+	}
+	
+	/**
+	 * Solve all of the deals which the checkpoint doesn't record as completed.
+	 * 
+	 * @param source          the {@link DealSource} (not closed by this method)
+	 * @param output          the output file
+	 * @param checkpointFile  the checkpoint file
+	 * @return the number of deals solved by this run
+	 * @throws IOException if the deals can't be read, or the output or checkpoint can't be written
+	 * @throws InterruptedException if interrupted while waiting for the solver or writer threads
+	 */
+	public long run(DealSource source, File output, final File checkpointFile) throws IOException, InterruptedException {
+		final Checkpoint checkpoint = Checkpoint.load(checkpointFile, chunkSize);
+		// The writer thread updates the checkpoint, so the chunks to
+		// skip are read from a copy made before it starts
+		Checkpoint resumed = checkpoint.copy();
+		final FileChannel out = FileChannel.open(output.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final BlockingQueue<ChunkResult> results = new LinkedBlockingQueue<ChunkResult>();
+		final Semaphore inFlight = new Semaphore(2 * numThreads);
+		ExecutorService pool = Executors.newFixedThreadPool(numThreads);
+		long numSolved = 0;
+		
+		try {
+			out.truncate(checkpoint.getOffset());
+			out.position(checkpoint.getOffset());
+			
+			Thread writer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						writeResults(results, out, checkpoint, checkpointFile);
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			}, "batch-solver-writer");
+			writer.start();
+			
+			try {
+				for (int chunk = 0; failure.get() == null; chunk++) {
+					final List<String> deals = readChunk(source);
+					if (deals.isEmpty()) {
+						break;
+					}
+					if (resumed.isDone(chunk)) {
+						continue;
+					}
+					final int chunkIndex = chunk;
+					inFlight.acquire();
+					pool.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								results.add(new ChunkResult(chunkIndex, solveChunk(deals)));
+							} catch (Throwable e) {
+								failure.compareAndSet(null, e);
+							} finally {
+								inFlight.release();
+							}
+						}
+					});
+					numSolved += deals.size();
+				}
+			} finally {
+				pool.shutdown();
+				pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+				results.add(END);
+				writer.join();
+			}
+		} finally {
+			pool.shutdownNow();
+			out.close();
+		}
+		
+		Throwable e = failure.get();
+		if (e instanceof IOException) {
+			throw (IOException) e;
+		} else if (e != null) {
+			throw new IllegalStateException("Batch solve failed", e);
+		}
+		return numSolved;
+	}
+
+	private List<String> readChunk(DealSource source) throws IOException {
+		List<String> deals = new ArrayList<String>(chunkSize);
+		String deal;
+		while (deals.size() < chunkSize && (deal = source.nextDeal()) != null) {
+			deals.add(deal);
+		}
+		return deals;
+	}
+
+	// Solve one chunk on a solver thread, formatting its output lines.
+	private String solveChunk(List<String> deals) {
+		Solver solver = solvers.get();
+		KlondikeModel model = new KlondikeModel();
+		Random random = new Random();
+		StringBuilder buf = new StringBuilder();
+		for (int i = 0; i < deals.size(); i++) {
+			DealSource.deal(controller, model, random, deals.get(i));
+			formatResult(buf, deals.get(i), solver.solve(model));
+			buf.append('\n');
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Format a solver result as an output line (without the line terminator).
+	 * 
+	 * @param buf     the buffer to append the line to
+	 * @param deal    the deal string (seed or game state)
+	 * @param result  the {@link SolverResult}
+	 */
+	static void formatResult(StringBuilder buf, String deal, SolverResult result) {
+		buf.append(deal).append(' ').append(result.getVerdict()).append(' ').append(result.getNodes());
+		for (Move move : result.getMoves()) {
+			buf.append(' ').append(move.toNotation());
+		}
+	}
+
+	// The writer thread: write batches of completed chunks, checkpointing
+	// periodically and once more when all chunks have been written.
+	private void writeResults(BlockingQueue<ChunkResult> results, FileChannel out,
+			Checkpoint checkpoint, File checkpointFile) throws IOException, InterruptedException {
+		List<ChunkResult> batch = new ArrayList<ChunkResult>();
+		long lastCheckpoint = System.nanoTime();
+		boolean finished = false;
+		while (!finished) {
+			batch.add(results.take());
+			results.drainTo(batch);
+			
+			for (ChunkResult result : batch) {
+				if (result == END) {
+					finished = true;
+					continue;
+				}
+				ByteBuffer buf = ByteBuffer.wrap(result.lines.getBytes(StandardCharsets.UTF_8));
+				while (buf.hasRemaining()) {
+					out.write(buf);
+				}
+				checkpoint.markDone(result.chunk);
+			}
+			batch.clear();
+			
+			if (finished || System.nanoTime() - lastCheckpoint >= checkpointIntervalNanos) {
+				// The results must be on disk before the checkpoint says they are
+				out.force(false);
+				checkpoint.setOffset(out.position());
+				checkpoint.save(checkpointFile);
+				lastCheckpoint = System.nanoTime();
+			}
+		}
+	}
+
+	// The formatted results of one chunk.
+	private static class ChunkResult {
+		final int chunk;
+		final String lines;
+		
+		ChunkResult(int chunk, String lines) {
+			this.chunk = chunk;
+			this.lines = lines;
+		}
+	}
+	
+	/**
+	 * Solve a batch of deals, resuming from the checkpoint if there is one.
+	 * Usage: <code>BatchSolver &lt;seeds:first:count | deal file&gt; &lt;output&gt; &lt;checkpoint&gt; [threads] [node limit]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the batch fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err.println("Usage: BatchSolver <seeds:first:count | deal file> <output> <checkpoint> [threads] [node limit]");
+			System.exit(1);
+		}
+		int numThreads = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		long nodeLimit = args.length >= 5 ? Long.parseLong(args[4]) : Solver.DEFAULT_NODE_LIMIT;
+		FlightRecorderMonitor.install();
+		
+		DealSource source;
+		if (args[0].startsWith("seeds:")) {
+			String[] parts = args[0].split(":");
+			source = DealSource.seeds(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+		} else {
+			source = DealSource.file(new File(args[0]));
+		}
+		
+		BatchSolver batchSolver = new BatchSolver(new KlondikeController(), nodeLimit, numThreads);
+		long start = System.nanoTime();
+		long numSolved;
+		try {
+			numSolved = batchSolver.run(source, new File(args[1]), new File(args[2]));
+		} finally {
+			source.close();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("Solved %d deals in %.2f s: %.1f deals/s on %d threads\n",
+				numSolved, seconds, numSolved / seconds, numThreads);
+	}
+}
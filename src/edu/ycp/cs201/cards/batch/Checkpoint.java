@@ -0,0 +1,176 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <p>Progress of a {@link BatchSolver} run: which chunks of deals
+ * have been completed, and the length of the output file containing
+ * exactly the results of those chunks.</p>
+ * 
+ * <p>A checkpoint is a small text file:</p>
+ * <pre>
+ * chunkSize=256
+ * offset=1048576
+ * done=0-41,43,45-47
+ * </pre>
+ * <p>It is saved by writing a temporary file and renaming it over the
+ * old checkpoint, so a crash while saving leaves the previous checkpoint intact.</p>
+ * 
+ * <p>A checkpoint is not thread-safe: a thread which needs to read it while
+ * another updates it should read a {@link #copy()}.</p>
+ */
+public class Checkpoint {
+	private final int chunkSize;
+	private long offset;
+	private final BitSet done;
+	
+	/**
+	 * Constructor: a checkpoint with no completed chunks.
+	 * 
+	 * @param chunkSize the number of deals per chunk
+	 */
+	public Checkpoint(int chunkSize) {
+		this.chunkSize = chunkSize;
+		this.offset = 0L;
+		this.done = new BitSet();
+	}
+	
+	/**
+	 * @return a copy of this checkpoint
+	 */
+	public Checkpoint copy() {
+		Checkpoint copy = new Checkpoint(chunkSize);
+		copy.offset = offset;
+		copy.done.or(done);
+		return copy;
+	}
+	
+	/**
+	 * Load a checkpoint.  If the file doesn't exist, the checkpoint
+	 * has no completed chunks.
+	 * 
+	 * @param file       the checkpoint file
+	 * @param chunkSize  the number of deals per chunk
+	 * @return the {@link Checkpoint}
+	 * @throws IOException if the file can't be read, is malformed,
+	 *         or was written with a different chunk size
+	 */
+	public static Checkpoint load(File file, int chunkSize) throws IOException {
+		Checkpoint checkpoint = new Checkpoint(chunkSize);
+		if (!file.exists()) {
+			return checkpoint;
+		}
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		try {
+			for (String line : lines) {
+				int eq = line.indexOf('=');
+				if (eq < 0) {
+					continue;
+				}
+				String name = line.substring(0, eq);
+				String value = line.substring(eq + 1);
+				if (name.equals("chunkSize")) {
+					if (Integer.parseInt(value) != chunkSize) {
+						throw new IOException("Checkpoint " + file + " has chunk size " + value + ", expected " + chunkSize);
+					}
+				} else if (name.equals("offset")) {
+					checkpoint.offset = Long.parseLong(value);
+				} else if (name.equals("done") && !value.isEmpty()) {
+					for (String range : value.split(",")) {
+						int dash = range.indexOf('-');
+						int from = Integer.parseInt(dash < 0 ? range : range.substring(0, dash));
+						int to = dash < 0 ? from : Integer.parseInt(range.substring(dash + 1));
+						checkpoint.done.set(from, to + 1);
+					}
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed checkpoint " + file, e);
+		}
+		return checkpoint;
+	}
+	
+	/**
+	 * Save the checkpoint atomically.
+	 * 
+	 * @param file the checkpoint file
+	 * @throws IOException if the checkpoint can't be written
+	 */
+	public void save(File file) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		Files.write(temp.toPath(), toString().getBytes(StandardCharsets.UTF_8));
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * @return the number of deals per chunk
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+	
+	/**
+	 * @return the length of the output file covered by the checkpoint
+	 */
+	public long getOffset() {
+		return offset;
+	}
+	
+	/**
+	 * @param offset the length of the output file covered by the checkpoint
+	 */
+	public void setOffset(long offset) {
+		this.offset = offset;
+	}
+	
+	/**
+	 * @param chunk a chunk index
+	 * @return true if the chunk has been completed
+	 */
+	public boolean isDone(int chunk) {
+		return done.get(chunk);
+	}
+	
+	/**
+	 * Record that a chunk has been completed.
+	 * 
+	 * @param chunk the chunk index
+	 */
+	public void markDone(int chunk) {
+		done.set(chunk);
+	}
+	
+	/**
+	 * @return the number of completed chunks
+	 */
+	public int getNumDone() {
+		return done.cardinality();
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		buf.append("chunkSize=").append(chunkSize).append('\n');
+		buf.append("offset=").append(offset).append('\n');
+		buf.append("done=");
+		for (int from = done.nextSetBit(0); from >= 0; from = done.nextSetBit(from)) {
+			int to = done.nextClearBit(from) - 1;
+			if (buf.charAt(buf.length() - 1) != '=') {
+				buf.append(',');
+			}
+			buf.append(from);
+			if (to > from) {
+				buf.append('-').append(to);
+			}
+			from = to + 1;
+		}
+		buf.append('\n');
+		return buf.toString();
+	}
+}
@@ -0,0 +1,103 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+/**
+ * A stream of deals for the {@link BatchSolver}, read one at a time
+ * so that batches of any size can be processed in constant memory.
+ * Each deal is described by a string: either a seed (see
+ * {@link KlondikeController#initModel(KlondikeModel, Random)}), or
+ * a game state in the format of {@link StringifyGameState}.
+ */
+public abstract class DealSource implements Closeable {
+	/**
+	 * @return the next deal, or null if there are no more deals
+	 * @throws IOException if the deal can't be read
+	 */
+	public abstract String nextDeal() throws IOException;
+	
+	@Override
+	public void close() throws IOException {
+		// Nothing to do by default
+	}
+	
+	/**
+	 * Deal a game described by a deal string.
+	 * 
+	 * @param controller  the {@link KlondikeController}
+	 * @param model       the {@link KlondikeModel} to deal into
+	 * @param random      the random number generator (reseeded for a seed deal)
+	 * @param deal        the deal string
+	 */
+	public static void deal(KlondikeController controller, KlondikeModel model, Random random, String deal) {
+		long seed;
+		try {
+			seed = Long.parseLong(deal);
+		} catch (NumberFormatException e) {
+			model.reset();
+			StringifyGameState.stringToModel(model, deal);
+			return;
+		}
+		random.setSeed(seed);
+		controller.initModel(model, random);
+	}
+	
+	/**
+	 * Create a source of consecutive seeds.
+	 * 
+	 * @param firstSeed  the first seed
+	 * @param count      the number of seeds
+	 * @return the {@link DealSource}
+	 */
+	public static DealSource seeds(final long firstSeed, final long count) {
+		return new DealSource() {
+			private long next = 0;
+			
+			@Override
+			public String nextDeal() {
+				return next < count ? Long.toString(firstSeed + next++) : null;
+			}
+		};
+	}
+	
+	/**
+	 * Create a source reading deals from a file, one per line.
+	 * Blank lines are skipped.
+	 * 
+	 * @param file the deal file
+	 * @return the {@link DealSource}
+	 * @throws IOException if the file can't be opened
+	 */
+	public static DealSource file(File file) throws IOException {
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		return new DealSource() {
+			@Override
+			public String nextDeal() throws IOException {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					line = line.trim();
+					if (!line.isEmpty()) {
+						return line;
+					}
+				}
+				return null;
+			}
+			
+			@Override
+			public void close() throws IOException {
+				reader.close();
+			}
+		};
+	}
+}
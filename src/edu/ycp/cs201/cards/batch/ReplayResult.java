@@ -0,0 +1,62 @@
+package edu.ycp.cs201.cards.batch;
+
+/**
+ * The result of replaying a submitted game with {@link ReplayVerifier}.
+ */
+public class ReplayResult {
+	/**
+	 * Outcome of a replay.
+	 */
+	public enum Status {
+		/** All moves were legal, and the game was won. */
+		ACCEPTED,
+		/** One of the moves was not legal. */
+		ILLEGAL_MOVE,
+		/** All moves were legal, but the game was not won. */
+		NOT_A_WIN,
+		/** The submission could not be parsed. */
+		MALFORMED,
+	}
+	
+	private final Status status;
+	private final int moveIndex;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param status     the {@link Status}
+	 * @param moveIndex  the index of the first illegal or unparseable move
+	 *                   (-1 if there is none)
+	 */
+	public ReplayResult(Status status, int moveIndex) {
+		this.status = status;
+		this.moveIndex = moveIndex;
+	}
+	
+	/**
+	 * @return the {@link Status}
+	 */
+	public Status getStatus() {
+		return status;
+	}
+	
+	/**
+	 * @return true if the submission was accepted
+	 */
+	public boolean isAccepted() {
+		return status == Status.ACCEPTED;
+	}
+	
+	/**
+	 * @return the index of the first illegal move ({@link Status#ILLEGAL_MOVE})
+	 *         or unparseable move ({@link Status#MALFORMED}), or -1 if there is none
+	 */
+	public int getMoveIndex() {
+		return moveIndex;
+	}
+	
+	@Override
+	public String toString() {
+		return moveIndex >= 0 ? status + " " + moveIndex : status.toString();
+	}
+}
@@ -0,0 +1,267 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.KlondikeModelPool;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * Verify submitted winning games by replaying them.
+ * A submission is a single line: the seed of the deal (see
+ * {@link KlondikeController#initModel(KlondikeModel, Random)}),
+ * followed by the moves in {@link Move#toNotation() move notation},
+ * separated by spaces.  Each game is dealt from its seed into a pooled
+ * {@link KlondikeModel}, every move is replayed through the
+ * {@link KlondikeController}, and the game must end in a win.
+ * Batches of submissions are verified in parallel, on a fixed pool of
+ * daemon threads which is kept until {@link #shutdown()} is called.
+ */
+public class ReplayVerifier {
+	/** Number of submissions verified by each task in a batch. */
+	private static final int CHUNK_SIZE = 256;
+	
+	private final KlondikeController controller;
+	private final KlondikeModelPool pool;
+	private final ThreadLocal<Random> randoms;
+	private final ExecutorService executor;
+	
+	/**
+	 * Constructor.  Uses one thread per available processor.
+	 * 
+	 * @param controller the {@link KlondikeController}
+	 * @param pool       the {@link KlondikeModelPool} to take models from
+	 */
+	public ReplayVerifier(KlondikeController controller, KlondikeModelPool pool) {
+		this(controller, pool, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller  the {@link KlondikeController}
+	 * @param pool        the {@link KlondikeModelPool} to take models from
+	 * @param numThreads  number of threads to verify batches on
+	 */
+	public ReplayVerifier(KlondikeController controller, KlondikeModelPool pool, int numThreads) {
+		this.controller = controller;
+		this.pool = pool;
+		this.randoms = new ThreadLocal<Random>() {
+			@Override
+			protected Random initialValue() {
+				return new Random();
+			}
+		};
+		this.executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private int count;
+			
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "replay-verifier-" + (count++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 * Replay a game.
+	 * 
+	 * @param seed   the seed of the deal
+	 * @param moves  the moves
+	 * @return the {@link ReplayResult}
+	 */
+	public ReplayResult verify(long seed, List<Move> moves) {
+		KlondikeModel model = pool.acquire();
+		try {
+			Random random = randoms.get();
+			random.setSeed(seed);
+			controller.initModel(model, random);
+			
+			for (int i = 0; i < moves.size(); i++) {
+				Move move = moves.get(i);
+				if (!inRange(model, move) || !controller.makeMove(model, move)) {
+					return new ReplayResult(ReplayResult.Status.ILLEGAL_MOVE, i);
+				}
+			}
+			return new ReplayResult(controller.isWin(model) ? ReplayResult.Status.ACCEPTED : ReplayResult.Status.NOT_A_WIN, -1);
+		} finally {
+			pool.release(model);
+		}
+	}
+	
+	// Check that a move's piles are on the board, and that a source card
+	// on the main deck or a tableau pile is in its pile.  The controller
+	// assumes that they are, so a move which fails the check is illegal.
+	private static boolean inRange(KlondikeModel model, Move move) {
+		if (move.isDraw()) {
+			return true;
+		}
+		Location source = move.getSource();
+		if (!isPileOnBoard(source) || !isPileOnBoard(move.getDest())) {
+			return false;
+		}
+		LocationType type = source.getLocationType();
+		if (type == LocationType.MAIN_DECK || type == LocationType.TABLEAU_PILE) {
+			int numCards = model.getPile(KlondikeModel.getPileNumber(source)).getNumCards();
+			return source.getCardIndex() >= 0 && source.getCardIndex() < numCards;
+		}
+		return true;
+	}
+	
+	private static boolean isPileOnBoard(Location location) {
+		int numPiles;
+		switch (location.getLocationType()) {
+		case FOUNDATION_PILE:
+			numPiles = 4;
+			break;
+		case TABLEAU_PILE:
+			numPiles = 7;
+			break;
+		default:
+			numPiles = 1;
+			break;
+		}
+		return location.getPileIndex() >= 0 && location.getPileIndex() < numPiles;
+	}
+	
+	/**
+	 * Replay a game from a submission line.
+	 * A submission whose seed can't be parsed is {@link ReplayResult.Status#MALFORMED}
+	 * with move index -1; one with a move which can't be parsed (including
+	 * a pile or card index out of range) is MALFORMED with that move's index.
+	 * 
+	 * @param submission the submission (seed followed by moves)
+	 * @return the {@link ReplayResult}
+	 */
+	public ReplayResult verify(String submission) {
+		String[] tokens = submission.trim().split("\\s+");
+		List<Move> moves = new ArrayList<Move>(tokens.length);
+		long seed;
+		try {
+			seed = Long.parseLong(tokens[0]);
+		} catch (NumberFormatException e) {
+			return new ReplayResult(ReplayResult.Status.MALFORMED, -1);
+		}
+		for (int i = 1; i < tokens.length; i++) {
+			try {
+				moves.add(Move.parse(tokens[i]));
+			} catch (IllegalArgumentException e) {
+				return new ReplayResult(ReplayResult.Status.MALFORMED, i - 1);
+			}
+		}
+		return verify(seed, moves);
+	}
+	
+	/**
+	 * Verify a batch of submissions in parallel.
+	 * 
+	 * @param submissions  the submissions
+	 * @return the {@link ReplayResult}s, in the same order as the submissions
+	 * @throws InterruptedException if interrupted while waiting for the results
+	 */
+	public ReplayResult[] verifyAll(final List<String> submissions) throws InterruptedException {
+		final ReplayResult[] results = new ReplayResult[submissions.size()];
+		List<Future<Void>> chunks = new ArrayList<Future<Void>>();
+		try {
+			for (int start = 0; start < submissions.size(); start += CHUNK_SIZE) {
+				final int from = start;
+				final int to = Math.min(submissions.size(), start + CHUNK_SIZE);
+				chunks.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (int i = from; i < to; i++) {
+							results[i] = verify(submissions.get(i));
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> chunk : chunks) {
+				try {
+					chunk.get();
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("Verification failed", e.getCause());
+				}
+			}
+		} finally {
+			for (Future<Void> chunk : chunks) {
+				chunk.cancel(true);
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Stop the verification threads.  Batches can't be verified afterwards.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Verify a file of submissions (one per line), printing the result
+	 * for each submission and the overall throughput.
+	 * Usage: <code>ReplayVerifier &lt;submissions file&gt; [threads]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the submissions can't be read
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: ReplayVerifier <submissions file> [threads]");
+			System.exit(1);
+		}
+		int numThreads = args.length >= 2 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		
+		List<String> submissions = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.trim().isEmpty()) {
+					submissions.add(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		
+		ReplayVerifier verifier = new ReplayVerifier(new KlondikeController(), new KlondikeModelPool(4 * numThreads), numThreads);
+		long start = System.nanoTime();
+		ReplayResult[] results;
+		try {
+			results = verifier.verifyAll(submissions);
+		} finally {
+			verifier.shutdown();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		int accepted = 0;
+		StringBuilder out = new StringBuilder();
+		for (int i = 0; i < results.length; i++) {
+			out.append(i).append(' ').append(results[i]).append('\n');
+			if (results[i].isAccepted()) {
+				accepted++;
+			}
+		}
+		System.out.print(out);
+		System.err.printf("Verified %d games (%d accepted) in %.2f s: %.0f games/s on %d threads\n",
+				results.length, accepted, seconds, results.length / seconds, numThreads);
+	}
+}
@@ -0,0 +1,466 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import edu.ycp.cs201.cards.ai.Solver;
+
+/**
+ * <p>Coordinator for solving a range of seeds with worker processes
+ * (see {@link SolveWorker}) connected over TCP.  Each worker is handed
+ * one sub-range of seeds at a time, and streams back one result line
+ * per seed (in the {@link BatchSolver} output format); the coordinator
+ * writes each seed's result to its output exactly once.</p>
+ * 
+ * <p>Load is balanced in three ways.  Workers ask for more work as soon
+ * as they finish, so faster workers get more ranges.  The size of each
+ * range is based on the worker's measured throughput, so every range
+ * takes about {@link #TARGET_RANGE_SECONDS}, and a slow worker never holds
+ * a large amount of unfinished work.  And when no unassigned seeds remain,
+ * idle workers are given backup copies of the oldest unfinished ranges,
+ * so one worker falling behind can't hold up the end of the run; whichever
+ * copy of a seed's result arrives first is kept.</p>
+ * 
+ * <p>If a worker's connection fails, the seeds of its range which have
+ * no result yet are returned to the front of the queue.  If the output
+ * can't be written, the run stops, and {@link #run()} throws the error.</p>
+ * 
+ * <p>Protocol: all messages are written with {@link DataOutputStream}.
+ * A worker sends {@link #HELLO} (followed by its thread count) when
+ * it connects, {@link #RESULT} (seed, result line) for each seed, and
+ * {@link #COMPLETE} when it has finished its range.  The coordinator
+ * replies to {@link #HELLO} and {@link #COMPLETE} with {@link #ASSIGN}
+ * (first seed, number of seeds) or {@link #FINISHED}.</p>
+ */
+public class SolveCoordinator {
+	/** Message: worker has connected. */
+	static final byte HELLO = 'H';
+	/** Message: result for one seed. */
+	static final byte RESULT = 'R';
+	/** Message: worker has finished its range. */
+	static final byte COMPLETE = 'C';
+	/** Message: range assigned to worker. */
+	static final byte ASSIGN = 'A';
+	/** Message: there is no more work. */
+	static final byte FINISHED = 'F';
+	
+	/** Number of seeds in a worker's first range, per thread. */
+	public static final int INITIAL_RANGE_SIZE = 8;
+	
+	/** Maximum number of seeds in a range. */
+	public static final int MAX_RANGE_SIZE = 4096;
+	
+	/** Target time for a worker to solve one range, in seconds. */
+	public static final double TARGET_RANGE_SECONDS = 2.0;
+	
+	private final long firstSeed;
+	private final int count;
+	private final ServerSocket serverSocket;
+	private final Writer output;
+	
+	// All fields below are guarded by this
+	private final BitSet done;
+	private final Deque<Range> pending;
+	private final List<Range> outstanding;
+	private int numDone;
+	private int numDuplicates;
+	private int numRequeued;
+	private IOException outputFailure;
+	
+	/**
+	 * Constructor.  Listens on the loopback interface.
+	 * 
+	 * @param firstSeed  the first seed to solve
+	 * @param count      the number of seeds to solve
+	 * @param output     the file to write results to
+	 * @param port       the port to listen on (0 for any free port)
+	 * @throws IOException if the server socket or output file can't be opened
+	 */
+	public SolveCoordinator(long firstSeed, int count, File output, int port) throws IOException {
+		this(firstSeed, count, new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)), port);
+	}
+	
+	/**
+	 * Constructor.  Listens on the loopback interface.
+	 * 
+	 * @param firstSeed  the first seed to solve
+	 * @param count      the number of seeds to solve
+	 * @param output     the Writer to write results to
+	 * @param port       the port to listen on (0 for any free port)
+	 * @throws IOException if the server socket can't be opened
+	 */
+	SolveCoordinator(long firstSeed, int count, Writer output, int port) throws IOException {
+		this.firstSeed = firstSeed;
+		this.count = count;
+		this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		this.output = output;
+		this.done = new BitSet(count);
+		this.pending = new ArrayDeque<Range>();
+		this.outstanding = new ArrayList<Range>();
+		if (count > 0) {
+			pending.add(new Range(firstSeed, count));
+		}
+	}
+	
+	/**
+	 * @return the port the coordinator is listening on
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * Accept workers until every seed has a result (or the output
+	 * can't be written), then close the server socket and the output.
+	 * 
+	 * @throws IOException if the output can't be written
+	 * @throws InterruptedException if interrupted while waiting for results
+	 */
+	public void run() throws IOException, InterruptedException {
+		Thread acceptor = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				acceptWorkers();
+			}
+		}, "solve-coordinator-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		
+		try {
+			synchronized (this) {
+				while (numDone < count && outputFailure == null) {
+					wait();
+				}
+				if (outputFailure != null) {
+					throw outputFailure;
+				}
+			}
+		} finally {
+			serverSocket.close();
+			synchronized (this) {
+				try {
+					output.close();
+				} catch (IOException e) {
+					// Report the original failure, if any, rather than this one
+					if (outputFailure == null) {
+						throw e;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of seeds with results
+	 */
+	public synchronized int getNumDone() {
+		return numDone;
+	}
+	
+	/**
+	 * @return the number of results discarded because another
+	 *         worker had already sent a result for the seed
+	 */
+	public synchronized int getNumDuplicates() {
+		return numDuplicates;
+	}
+	
+	/**
+	 * @return the number of seeds returned to the queue after a worker failed
+	 */
+	public synchronized int getNumRequeued() {
+		return numRequeued;
+	}
+
+	private void acceptWorkers() {
+		for (int i = 0; ; i++) {
+			final Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				// Server socket closed: the run is over
+				return;
+			}
+			Thread handler = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					handleWorker(socket);
+				}
+			}, "solve-coordinator-worker-" + i);
+			handler.setDaemon(true);
+			handler.start();
+		}
+	}
+
+	private void handleWorker(Socket socket) {
+		WorkerState worker = new WorkerState();
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			if (in.readByte() != HELLO) {
+				throw new IOException("Expected HELLO");
+			}
+			worker.numThreads = Math.max(1, in.readInt());
+			
+			while (true) {
+				Range range = nextAssignment(worker);
+				if (range == null) {
+					out.writeByte(FINISHED);
+					out.flush();
+					return;
+				}
+				out.writeByte(ASSIGN);
+				out.writeLong(range.first);
+				out.writeInt(range.count);
+				out.flush();
+				
+				byte message;
+				while ((message = in.readByte()) == RESULT) {
+					long seed = in.readLong();
+					recordResult(seed, in.readUTF());
+				}
+				if (message != COMPLETE) {
+					throw new IOException("Unexpected message " + message);
+				}
+				completeAssignment(worker, range);
+			}
+		} catch (IOException e) {
+			abandonAssignment(worker);
+		} catch (InterruptedException e) {
+			abandonAssignment(worker);
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Ignore
+			}
+		}
+	}
+
+	// Choose the next range for a worker, waiting if every unfinished
+	// range is already assigned to it; returns null when all seeds are
+	// done, or when the output has failed.
+	private synchronized Range nextAssignment(WorkerState worker) throws InterruptedException {
+		while (numDone < count && outputFailure == null) {
+			Range range = pending.pollFirst();
+			if (range != null) {
+				int size = worker.targetRangeSize();
+				if (range.count > size) {
+					pending.addFirst(new Range(range.first + size, range.count - size));
+					range = new Range(range.first, size);
+				}
+				outstanding.add(range);
+			} else {
+				// Back up the oldest unfinished range this worker isn't already working on
+				for (Range candidate : outstanding) {
+					if (!candidate.workers.contains(worker)) {
+						range = candidate;
+						break;
+					}
+				}
+			}
+			if (range != null) {
+				range.workers.add(worker);
+				worker.assigned = range;
+				worker.assignedAt = System.nanoTime();
+				return range;
+			}
+			wait();
+		}
+		return null;
+	}
+
+	// Write a seed's result, unless it already has one.  An IOException
+	// thrown by this method means the worker misbehaved; a failure to write
+	// the output is not the worker's fault, so it is recorded for run()
+	// to report, and no more results are written.
+	private synchronized void recordResult(long seed, String line) throws IOException {
+		int index = (int) (seed - firstSeed);
+		if (index < 0 || index >= count) {
+			throw new IOException("Result for seed " + seed + " is out of range");
+		}
+		if (outputFailure != null) {
+			return;
+		}
+		if (done.get(index)) {
+			numDuplicates++;
+			return;
+		}
+		try {
+			output.write(line);
+			output.write('\n');
+		} catch (IOException e) {
+			outputFailure = e;
+			notifyAll();
+			return;
+		}
+		done.set(index);
+		numDone++;
+		if (numDone == count) {
+			notifyAll();
+		}
+	}
+
+	private synchronized void completeAssignment(WorkerState worker, Range range) {
+		worker.recordCompletion(range.count, System.nanoTime() - worker.assignedAt);
+		worker.assigned = null;
+		range.workers.remove(worker);
+		if (isDone(range) || range.workers.isEmpty()) {
+			outstanding.remove(range);
+			requeueUnfinished(range);
+		}
+		notifyAll();
+	}
+
+	private synchronized void abandonAssignment(WorkerState worker) {
+		Range range = worker.assigned;
+		if (range == null) {
+			return;
+		}
+		worker.assigned = null;
+		range.workers.remove(worker);
+		if (range.workers.isEmpty()) {
+			outstanding.remove(range);
+			requeueUnfinished(range);
+		}
+		notifyAll();
+	}
+
+	// Return the seeds of a range which have no result to the front of
+	// the queue (unless the output has failed, so no more will be solved).
+	private void requeueUnfinished(Range range) {
+		if (outputFailure != null) {
+			return;
+		}
+		int start = (int) (range.first - firstSeed);
+		int end = start + range.count;
+		List<Range> unfinished = new ArrayList<Range>();
+		for (int i = done.nextClearBit(start); i < end; i = done.nextClearBit(i)) {
+			int runEnd = Math.min(end, done.nextSetBit(i) < 0 ? end : done.nextSetBit(i));
+			unfinished.add(new Range(firstSeed + i, runEnd - i));
+			numRequeued += runEnd - i;
+			i = runEnd;
+		}
+		for (int i = unfinished.size() - 1; i >= 0; i--) {
+			pending.addFirst(unfinished.get(i));
+		}
+	}
+
+	private boolean isDone(Range range) {
+		int start = (int) (range.first - firstSeed);
+		return done.nextClearBit(start) >= start + range.count;
+	}
+
+	// A range of seeds, and the workers it is currently assigned to.
+	private static class Range {
+		final long first;
+		final int count;
+		final Set<WorkerState> workers;
+		
+		Range(long first, int count) {
+			this.first = first;
+			this.count = count;
+			this.workers = new HashSet<WorkerState>();
+		}
+	}
+	
+	// Coordinator's view of one worker (guarded by the coordinator).
+	private static class WorkerState {
+		int numThreads;
+		Range assigned;
+		long assignedAt;
+		long seedsCompleted;
+		long nanosWorking;
+		
+		int targetRangeSize() {
+			if (seedsCompleted == 0) {
+				return INITIAL_RANGE_SIZE * numThreads;
+			}
+			double seedsPerSecond = seedsCompleted / (nanosWorking / 1e9);
+			return (int) Math.max(1, Math.min(MAX_RANGE_SIZE, seedsPerSecond * TARGET_RANGE_SECONDS));
+		}
+		
+		void recordCompletion(int seeds, long nanos) {
+			seedsCompleted += seeds;
+			nanosWorking += Math.max(1L, nanos);
+		}
+	}
+	
+	/**
+	 * Start a worker JVM on this machine, using the same classpath
+	 * as the current JVM.
+	 * 
+	 * @param port        the coordinator's port
+	 * @param numThreads  the number of solver threads for the worker
+	 * @param nodeLimit   the solver node limit per deal
+	 * @return the worker {@link Process}
+	 * @throws IOException if the process can't be started
+	 */
+	public static Process launchLocalWorker(int port, int numThreads, long nodeLimit) throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				SolveWorker.class.getName(), "localhost", Integer.toString(port),
+				Integer.toString(numThreads), Long.toString(nodeLimit));
+		builder.inheritIO();
+		return builder.start();
+	}
+	
+	/**
+	 * Solve a range of seeds, optionally starting local worker processes.
+	 * Usage: <code>SolveCoordinator &lt;first seed&gt; &lt;count&gt; &lt;output&gt; [port] [local workers] [threads per worker] [node limit]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the run fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.err.println("Usage: SolveCoordinator <first seed> <count> <output> [port] [local workers] [threads per worker] [node limit]");
+			System.exit(1);
+		}
+		int port = args.length >= 4 ? Integer.parseInt(args[3]) : 0;
+		int numLocalWorkers = args.length >= 5 ? Integer.parseInt(args[4]) : 0;
+		int threadsPerWorker = args.length >= 6 ? Integer.parseInt(args[5]) : 1;
+		long nodeLimit = args.length >= 7 ? Long.parseLong(args[6]) : Solver.DEFAULT_NODE_LIMIT;
+		
+		int count = Integer.parseInt(args[1]);
+		SolveCoordinator coordinator = new SolveCoordinator(Long.parseLong(args[0]), count, new File(args[2]), port);
+		System.err.println("Coordinator listening on port " + coordinator.getPort());
+		
+		List<Process> workers = new ArrayList<Process>();
+		for (int i = 0; i < numLocalWorkers; i++) {
+			workers.add(launchLocalWorker(coordinator.getPort(), threadsPerWorker, nodeLimit));
+		}
+		
+		long start = System.nanoTime();
+		try {
+			coordinator.run();
+		} finally {
+			for (Process worker : workers) {
+				worker.destroy();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.err.printf("Solved %d seeds in %.2f s: %.1f seeds/s (%d duplicate results, %d seeds requeued)\n",
+				count, seconds, count / seconds, coordinator.getNumDuplicates(), coordinator.getNumRequeued());
+	}
+}
@@ -0,0 +1,178 @@
+package edu.ycp.cs201.cards.batch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.ai.DeadEndDetector;
+import edu.ycp.cs201.cards.ai.Solver;
+import edu.ycp.cs201.cards.metrics.FlightRecorderMonitor;
+
+/**
+ * Worker for a {@link SolveCoordinator}: connects to the coordinator,
+ * and solves the ranges of seeds it is assigned until there is no more
+ * work.  Each seed is dealt with
+ * {@link KlondikeController#initModel(KlondikeModel, Random)} and solved
+ * with a {@link Solver}.  The seeds of a range are shared dynamically
+ * among the worker's threads, each with its own solver, model, and
+ * random number generator, and each result is sent as soon as it is found,
+ * so the results of a worker which dies part way through a range aren't lost.
+ */
+public class SolveWorker {
+	private final KlondikeController controller;
+	private final long nodeLimit;
+	private final int numThreads;
+	private final ThreadLocal<Solver> solvers;
+	private final ThreadLocal<KlondikeModel> models;
+	private final ThreadLocal<Random> randoms;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller  the {@link KlondikeController}
+	 * @param nodeLimit   the {@link Solver} node limit per deal
+	 * @param numThreads  the number of solver threads
+	 */
+	public SolveWorker(KlondikeController controller, long nodeLimit, int numThreads) {
+		this.controller = controller;
+		this.nodeLimit = nodeLimit;
+		this.numThreads = numThreads;
+		this.solvers = new ThreadLocal<Solver>() {
+			@Override
+			protected Solver initialValue() {
+				return new Solver(SolveWorker.this.controller, new DeadEndDetector(), SolveWorker.this.nodeLimit);
+			}
+		};
+		this.models = new ThreadLocal<KlondikeModel>() {
+			@Override
+			protected KlondikeModel initialValue() {
+				return new KlondikeModel();
+			}
+		};
+		this.randoms = new ThreadLocal<Random>() {
+			@Override
+			protected Random initialValue() {
+				return new Random();
+			}
+		};
+	}
+	
+	/**
+	 * Connect to a coordinator and solve ranges until it has no more work.
+	 * 
+	 * @param host  the coordinator's host
+	 * @param port  the coordinator's port
+	 * @return the number of seeds solved
+	 * @throws IOException if the connection fails
+	 * @throws InterruptedException if interrupted while solving
+	 */
+	public long run(String host, int port) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		Socket socket = new Socket(host, port);
+		long numSolved = 0;
+		try {
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			out.writeByte(SolveCoordinator.HELLO);
+			out.writeInt(numThreads);
+			out.flush();
+			
+			byte message;
+			while ((message = in.readByte()) == SolveCoordinator.ASSIGN) {
+				long first = in.readLong();
+				int count = in.readInt();
+				solveRange(executor, out, first, count);
+				out.writeByte(SolveCoordinator.COMPLETE);
+				out.flush();
+				numSolved += count;
+			}
+			if (message != SolveCoordinator.FINISHED) {
+				throw new IOException("Unexpected message " + message);
+			}
+		} finally {
+			executor.shutdownNow();
+			socket.close();
+		}
+		return numSolved;
+	}
+
+	private void solveRange(ExecutorService executor, final DataOutputStream out, final long first, final int count)
+			throws IOException, InterruptedException {
+		final AtomicLong next = new AtomicLong(first);
+		List<Future<Void>> tasks = new ArrayList<Future<Void>>();
+		for (int t = 0; t < numThreads; t++) {
+			tasks.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws IOException {
+					long seed;
+					while ((seed = next.getAndIncrement()) < first + count) {
+						String line = solve(seed);
+						synchronized (out) {
+							out.writeByte(SolveCoordinator.RESULT);
+							out.writeLong(seed);
+							out.writeUTF(line);
+							out.flush();
+						}
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> task : tasks) {
+			try {
+				task.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IllegalStateException("Solver failed", e.getCause());
+			}
+		}
+	}
+
+	private String solve(long seed) {
+		KlondikeModel model = models.get();
+		Random random = randoms.get();
+		random.setSeed(seed);
+		controller.initModel(model, random);
+		StringBuilder buf = new StringBuilder();
+		BatchSolver.formatResult(buf, Long.toString(seed), solvers.get().solve(model));
+		return buf.toString();
+	}
+	
+	/**
+	 * Run a worker.
+	 * Usage: <code>SolveWorker &lt;host&gt; &lt;port&gt; [threads] [node limit]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the worker fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: SolveWorker <host> <port> [threads] [node limit]");
+			System.exit(1);
+		}
+		int numThreads = args.length >= 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		long nodeLimit = args.length >= 4 ? Long.parseLong(args[3]) : Solver.DEFAULT_NODE_LIMIT;
+		FlightRecorderMonitor.install();
+		
+		SolveWorker worker = new SolveWorker(new KlondikeController(), nodeLimit, numThreads);
+		long numSolved = worker.run(args[0], Integer.parseInt(args[1]));
+		System.err.println("Worker solved " + numSolved + " seeds");
+	}
+}
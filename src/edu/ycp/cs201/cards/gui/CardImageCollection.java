@@ -12,8 +12,14 @@ import edu.ycp.cs201.cards.Card;
 import edu.ycp.cs201.cards.Rank;
 import edu.ycp.cs201.cards.Suit;
 
+/**
+ * The images for all of the cards, plus the card back image.
+ * All images are loaded by the constructor and never modified,
+ * so a CardImageCollection may be shared between threads once
+ * it has been constructed.
+ */
 public class CardImageCollection {
-	private Map<CardImageKey, BufferedImage> imageMap;
+	private final Map<CardImageKey, BufferedImage> imageMap;
 	private BufferedImage backImage;
 	
 	public CardImageCollection() {
@@ -4,32 +4,43 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
 import javax.swing.JPanel;
+import javax.swing.KeyStroke;
 
 import edu.ycp.cs201.cards.Card;
 import edu.ycp.cs201.cards.KlondikeController;
 import edu.ycp.cs201.cards.KlondikeModel;
 import edu.ycp.cs201.cards.Location;
 import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
 import edu.ycp.cs201.cards.Pile;
 import edu.ycp.cs201.cards.Selection;
 import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.ai.HintEngine;
+import edu.ycp.cs201.cards.ai.HintListener;
 
 public class KlondikeView extends JPanel {
 
 	private static final long serialVersionUID = 1L;
 	
 	/** Width of the window */
-	private static final int WIDTH = 800;
+	static final int WIDTH = 800;
 	
 	/** Height of window */
-	private static final int HEIGHT = 600;
+	static final int HEIGHT = 600;
+	
+	/** Background color of the window */
+	static final Color BACKGROUND_COLOR = new Color(0, 100, 0);
 	
 	/** Width of card images */
 	private static final int CARD_WIDTH = 80;
@@ -55,16 +66,32 @@ public class KlondikeView extends JPanel {
 	/** Vertical spacing of cards in tableau piles */
 	public static final int VERTICAL_CARD_SPACING = 24;
 
+	/** Color used to outline the cards suggested by a hint */
+	private static final Color HINT_COLOR = Color.YELLOW;
+
 	private KlondikeModel model;
 	private KlondikeController controller;
 	
 	private CardImageCollection cardImageCollection;
+	private HintEngine hintEngine;
+	private Move hint;
+	private boolean noMovesLeft;
 	// TODO: add other fields
 	
 	public KlondikeView() {
-		setBackground(new Color(0, 100, 0));
+		this(new CardImageCollection());
+	}
+	
+	/**
+	 * Constructor.  Card images are read-only once loaded, so a single
+	 * {@link CardImageCollection} may be shared by several views.
+	 * 
+	 * @param cardImageCollection the {@link CardImageCollection} to draw cards with
+	 */
+	public KlondikeView(CardImageCollection cardImageCollection) {
+		setBackground(BACKGROUND_COLOR);
 		setPreferredSize(new Dimension(WIDTH, HEIGHT));
-		cardImageCollection = new CardImageCollection();
+		this.cardImageCollection = cardImageCollection;
 		
 		MouseAdapter listener = new MouseAdapter() {
 			@Override
@@ -84,6 +111,28 @@ public class KlondikeView extends JPanel {
 		};
 		addMouseListener(listener);
 		addMouseMotionListener(listener);
+		
+		// Pressing "H" requests a hint
+		getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_H, 0), "hint");
+		getActionMap().put("hint", new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				requestHint();
+			}
+		});
+		
+		// Pressing "A" moves all safe cards to the foundation piles
+		getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_A, 0), "autoPlay");
+		getActionMap().put("autoPlay", new AbstractAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				autoPlay();
+			}
+		});
 	}
 	
 	public void setModel(KlondikeModel model) {
@@ -92,9 +141,54 @@ public class KlondikeView extends JPanel {
 	
 	public void setController(KlondikeController controller) {
 		this.controller = controller;
+		if (hintEngine != null) {
+			hintEngine.shutdown();
+		}
+		this.hintEngine = new HintEngine(controller);
+	}
+	
+	/**
+	 * Ask the {@link HintEngine} for a hint for the current game state.
+	 * The search runs in the background, and the hinted move is
+	 * outlined when it is found.
+	 */
+	public void requestHint() {
+		hintEngine.requestHint(model, new HintListener() {
+			@Override
+			public void hintFound(Move hint) {
+				KlondikeView.this.hint = hint;
+				noMovesLeft = (hint == null);
+				repaint();
+			}
+		});
+	}
+	
+	/**
+	 * Move all cards which can safely be moved to the foundation
+	 * piles, repainting once when all of them have been moved.
+	 */
+	public void autoPlay() {
+		cancelHint();
+		if (controller.autoPlayToFoundations(model) > 0) {
+			repaint();
+		}
+	}
+	
+	/**
+	 * Cancel any hint being searched for, and stop showing the
+	 * current hint.  Called whenever the user interacts with the game.
+	 */
+	public void cancelHint() {
+		if (hintEngine != null) {
+			hintEngine.cancel();
+		}
+		hint = null;
+		noMovesLeft = false;
 	}
 	
 	protected void handleMousePressed(MouseEvent e) {
+		cancelHint();
+		
 		// TODO: implement
 		
 		repaint();
@@ -117,29 +211,55 @@ public class KlondikeView extends JPanel {
 		// Paint background
 		super.paintComponent(g);
 		
+		// Paint all of the piles
+		paintPiles(g, model, cardImageCollection);
+		
+		// Outline the hinted move (if there is one)
+		if (hint != null) {
+			drawHint(g, hint);
+		}
+		
+		// Tell the player if the hint search found that the game can't be won
+		if (noMovesLeft) {
+			g.setColor(HINT_COLOR);
+			g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 24));
+			g.drawString("No moves left", FOUNDATION_LEFT_OFFSET, HEIGHT - TOP_OFFSET);
+		}
+		
+		// TODO: draw selection (if there is one)
+		
+		// TODO: draw congratulatory message if player has won the game
+	}
+
+	/**
+	 * Paint the piles of a game state.  This is static, and separate from
+	 * {@link #paintComponent(Graphics)}, so that game states can also be
+	 * rendered off-screen on any thread, without creating a Swing
+	 * component (see {@link ThumbnailRenderer}).
+	 * 
+	 * @param g                    the Graphics object to draw on
+	 * @param model                the {@link KlondikeModel} to paint
+	 * @param cardImageCollection  the {@link CardImageCollection} to draw cards with
+	 */
+	static void paintPiles(Graphics g, KlondikeModel model, CardImageCollection cardImageCollection) {
 		// Paint main deck (showing top card)
-		drawPile(g, LEFT_OFFSET, TOP_OFFSET, model.getMainDeck());
+		drawPile(g, LEFT_OFFSET, TOP_OFFSET, model.getMainDeck(), cardImageCollection);
 		
 		// Paint waste pile
-		System.out.printf("Waste pile expose index=%d\n", model.getWastePile().getExposeIndex());
-		drawPile(g, LEFT_OFFSET + HORIZONTAL_PILE_SPACING, TOP_OFFSET, model.getWastePile());
+		drawPile(g, LEFT_OFFSET + HORIZONTAL_PILE_SPACING, TOP_OFFSET, model.getWastePile(), cardImageCollection);
 		
 		// Paint foundation piles (showing top card)
 		for (int i = 0; i < 4; i++) {
-			drawPile(g, FOUNDATION_LEFT_OFFSET + i*HORIZONTAL_PILE_SPACING, TOP_OFFSET, model.getFoundationPile(i));
+			drawPile(g, FOUNDATION_LEFT_OFFSET + i*HORIZONTAL_PILE_SPACING, TOP_OFFSET, model.getFoundationPile(i), cardImageCollection);
 		}
 		
 		// Paint tableau piles
 		for (int i = 0; i < 7; i++) {
-			drawTableauPile(g, LEFT_OFFSET + i*HORIZONTAL_PILE_SPACING, TABLEAU_TOP_OFFSET, model.getTableauPile(i));
+			drawTableauPile(g, LEFT_OFFSET + i*HORIZONTAL_PILE_SPACING, TABLEAU_TOP_OFFSET, model.getTableauPile(i), cardImageCollection);
 		}
-		
-		// TODO: draw selection (if there is one)
-		
-		// TODO: draw congratulatory message if player has won the game
 	}
 
-	private void drawPile(Graphics g, int x, int y, Pile pile) {
+	private static void drawPile(Graphics g, int x, int y, Pile pile, CardImageCollection cardImageCollection) {
 		if (pile.isEmpty()) {
 			// Draw outline
 			g.setColor(Color.LIGHT_GRAY);
@@ -156,7 +276,43 @@ public class KlondikeView extends JPanel {
 		}
 	}
 
-	private void drawTableauPile(Graphics g, int x, int y, Pile tableauPile) {
+	private void drawHint(Graphics g, Move move) {
+		g.setColor(HINT_COLOR);
+		drawOutline(g, move.getSource());
+		if (!move.isDraw()) {
+			drawOutline(g, move.getDest());
+		}
+	}
+
+	private void drawOutline(Graphics g, Location location) {
+		int x, y;
+		switch (location.getLocationType()) {
+		case MAIN_DECK:
+			x = LEFT_OFFSET;
+			y = TOP_OFFSET;
+			break;
+		case WASTE_PILE:
+			x = LEFT_OFFSET + HORIZONTAL_PILE_SPACING;
+			y = TOP_OFFSET;
+			break;
+		case FOUNDATION_PILE:
+			x = FOUNDATION_LEFT_OFFSET + location.getPileIndex()*HORIZONTAL_PILE_SPACING;
+			y = TOP_OFFSET;
+			break;
+		default:
+			// For a destination tableau pile (card index -1), outline its top card
+			int cardIndex = location.getCardIndex() >= 0
+					? location.getCardIndex()
+					: Math.max(0, model.getTableauPile(location.getPileIndex()).getIndexOfTopCard());
+			x = LEFT_OFFSET + location.getPileIndex()*HORIZONTAL_PILE_SPACING;
+			y = TABLEAU_TOP_OFFSET + cardIndex*VERTICAL_CARD_SPACING;
+			break;
+		}
+		g.drawRoundRect(x - 2, y - 2, CARD_WIDTH + 4, CARD_HEIGHT + 4, 12, 12);
+		g.drawRoundRect(x - 1, y - 1, CARD_WIDTH + 2, CARD_HEIGHT + 2, 12, 12);
+	}
+
+	private static void drawTableauPile(Graphics g, int x, int y, Pile tableauPile, CardImageCollection cardImageCollection) {
 		// Draw cards from bottom of pile towards top.
 		// All cards whose indices are greater than or equal to
 		// the pile's expose index are drawn face-up.
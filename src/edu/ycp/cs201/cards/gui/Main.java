@@ -6,9 +6,13 @@ import javax.swing.SwingUtilities;
 import edu.ycp.cs201.cards.KlondikeController;
 import edu.ycp.cs201.cards.KlondikeModel;
 import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.metrics.FlightRecorderMonitor;
 
 public class Main {
 	public static void main(final String[] args) {
+		// Record hint searches when a JDK Flight Recorder recording is running
+		FlightRecorderMonitor.install();
+		
 		SwingUtilities.invokeLater(new Runnable() {
 			@Override
 			public void run() {
@@ -0,0 +1,173 @@
+package edu.ycp.cs201.cards.gui;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+/**
+ * Render game states (as encoded by {@link StringifyGameState}) to
+ * PNG thumbnails without a display.  The piles are drawn by the same
+ * code as in {@link KlondikeView}, so thumbnails look exactly like the
+ * game window, but no Swing component is created, so rendering is safe
+ * on any thread (not just the event dispatch thread).  All rendering
+ * threads share a single (read-only) {@link CardImageCollection}.
+ */
+public class ThumbnailRenderer {
+	/** Default width of rendered thumbnails, in pixels. */
+	public static final int DEFAULT_THUMBNAIL_WIDTH = 200;
+	
+	private final CardImageCollection cardImageCollection;
+	private final int thumbnailWidth;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param cardImageCollection the {@link CardImageCollection} (shared by all threads)
+	 * @param thumbnailWidth      the width of rendered thumbnails; the height is scaled
+	 *                            to preserve the aspect ratio of the game window
+	 */
+	public ThumbnailRenderer(CardImageCollection cardImageCollection, int thumbnailWidth) {
+		this.cardImageCollection = cardImageCollection;
+		this.thumbnailWidth = thumbnailWidth;
+	}
+	
+	/**
+	 * Render a game state to an image.
+	 * 
+	 * @param model the {@link KlondikeModel} to render
+	 * @return the thumbnail image
+	 */
+	public BufferedImage render(KlondikeModel model) {
+		int width = KlondikeView.WIDTH;
+		int height = KlondikeView.HEIGHT;
+		BufferedImage full = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = full.createGraphics();
+		try {
+			g.setColor(KlondikeView.BACKGROUND_COLOR);
+			g.fillRect(0, 0, width, height);
+			KlondikeView.paintPiles(g, model, cardImageCollection);
+		} finally {
+			g.dispose();
+		}
+		
+		if (thumbnailWidth >= width) {
+			return full;
+		}
+		
+		int thumbnailHeight = Math.max(1, height * thumbnailWidth / width);
+		BufferedImage thumbnail = new BufferedImage(thumbnailWidth, thumbnailHeight, BufferedImage.TYPE_INT_RGB);
+		Graphics2D tg = thumbnail.createGraphics();
+		try {
+			tg.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			tg.drawImage(full, 0, 0, thumbnailWidth, thumbnailHeight, null);
+		} finally {
+			tg.dispose();
+		}
+		return thumbnail;
+	}
+	
+	/**
+	 * Render an encoded game state to a PNG file.
+	 * 
+	 * @param state a game state returned by {@link StringifyGameState#modelToString(KlondikeModel)}
+	 * @param file  the PNG file to write
+	 * @throws IOException if the file can't be written
+	 */
+	public void renderToFile(String state, File file) throws IOException {
+		KlondikeModel model = new KlondikeModel();
+		StringifyGameState.stringToModel(model, state);
+		if (!ImageIO.write(render(model), "png", file)) {
+			throw new IOException("No PNG encoder available");
+		}
+	}
+	
+	/**
+	 * Render encoded game states to PNG files in parallel.
+	 * The state at index <i>i</i> is written to
+	 * <code>state-</code><i>i</i><code>.png</code> in the output directory
+	 * (with <i>i</i> zero-padded to six digits).
+	 * 
+	 * @param states      the encoded game states
+	 * @param outputDir   the directory to write the PNG files to
+	 * @param numThreads  the number of rendering threads
+	 * @throws IOException if any of the states can't be rendered or written
+	 * @throws InterruptedException if interrupted while waiting for rendering to finish
+	 */
+	public void renderAll(List<String> states, final File outputDir, int numThreads) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for (int i = 0; i < states.size(); i++) {
+				final String state = states.get(i);
+				final File file = new File(outputDir, String.format("state-%06d.png", i));
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						renderToFile(state, file);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					throw new IOException("Could not render game state", e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Render every game state in a file (one encoded state per line)
+	 * to PNG thumbnails.
+	 * Usage: <code>ThumbnailRenderer &lt;states file&gt; &lt;output dir&gt; [thumbnail width]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the game states can't be rendered
+	 */
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		
+		if (args.length < 2) {
+			System.err.println("Usage: ThumbnailRenderer <states file> <output dir> [thumbnail width]");
+			System.exit(1);
+		}
+		
+		List<String> states = new ArrayList<String>();
+		for (String line : Files.readAllLines(new File(args[0]).toPath(), StandardCharsets.UTF_8)) {
+			if (!line.trim().isEmpty()) {
+				states.add(line.trim());
+			}
+		}
+		File outputDir = new File(args[1]);
+		outputDir.mkdirs();
+		int thumbnailWidth = args.length >= 3 ? Integer.parseInt(args[2]) : DEFAULT_THUMBNAIL_WIDTH;
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		
+		ThumbnailRenderer renderer = new ThumbnailRenderer(new CardImageCollection(), thumbnailWidth);
+		long start = System.nanoTime();
+		renderer.renderAll(states, outputDir, numThreads);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Rendered %d states in %.2f s (%.1f states/s) using %d threads\n",
+				states.size(), seconds, states.size() / seconds, numThreads);
+	}
+}
@@ -0,0 +1,193 @@
+package edu.ycp.cs201.cards.history;
+
+import java.nio.ByteBuffer;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * Constants and encoding/decoding methods for the game history format
+ * written by {@link HistoryWriter} and read by {@link HistoryReader}.
+ * 
+ * <p>A history starts with a header: the 4-byte magic number, a version
+ * byte, and the 4-byte keyframe interval <i>K</i>.  It is followed by one
+ * record for each game state: record 0 is the initial state, and record
+ * <i>n</i> is the state after <i>n</i> moves.  Every <i>K</i>th record is
+ * a keyframe, which holds the complete game state.  All other records are
+ * normally deltas describing how the previous state was changed; a keyframe
+ * is written instead if a change can't be described by a delta.</p>
+ * 
+ * <p>A keyframe is the tag byte {@link #KEYFRAME}, followed by each of the
+ * 13 piles (in {@link KlondikeModel#getPile(int)} order) as the expose index
+ * (one signed byte), the number of cards (one byte), and the card codes (one byte
+ * each).</p>
+ * 
+ * <p>A delta is three bytes: flags, then the source and destination pile
+ * numbers (four bits each), then the number of cards moved.  The cards
+ * are moved from the top of the source pile to the top of the destination
+ * pile, in reverse order if {@link #REVERSE} is set (as when the waste pile
+ * is recycled).  {@link #SOURCE_EXPOSED} and {@link #DEST_EXPOSED} indicate
+ * that the expose index of the source or destination pile was set to
+ * the index of its top card (i.e., its top card was turned face-up).</p>
+ */
+public class HistoryFormat {
+	/** Magic number at the start of every history. */
+	public static final int MAGIC = 0x4B484953; // "KHIS"
+	
+	/** Format version. */
+	public static final byte VERSION = 1;
+	
+	/** Size of the header, in bytes. */
+	public static final int HEADER_SIZE = 9;
+	
+	/** Tag byte of a keyframe record. */
+	public static final byte KEYFRAME = (byte) 0x80;
+	
+	/** Delta flag: the moved cards are reversed. */
+	public static final int REVERSE = 0x01;
+	
+	/** Delta flag: the source pile's top card was exposed. */
+	public static final int SOURCE_EXPOSED = 0x02;
+	
+	/** Delta flag: the destination pile's top card was exposed. */
+	public static final int DEST_EXPOSED = 0x04;
+	
+	/** Size of a delta record, in bytes. */
+	public static final int DELTA_SIZE = 3;
+	
+	/** Maximum size of a keyframe record, in bytes. */
+	public static final int MAX_KEYFRAME_SIZE = 1 + 2*KlondikeModel.NUM_PILES + Card.NUM_CARDS;
+	
+	/**
+	 * Write a keyframe record.
+	 * 
+	 * @param model the game state
+	 * @param buf   the buffer to write to
+	 */
+	public static void writeKeyframe(KlondikeModel model, ByteBuffer buf) {
+		buf.put(KEYFRAME);
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			Pile pile = model.getPile(i);
+			int numCards = pile.getNumCards();
+			buf.put((byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, pile.getExposeIndex())));
+			buf.put((byte) numCards);
+			for (int j = 0; j < numCards; j++) {
+				buf.put((byte) pile.getCard(j).getCode());
+			}
+		}
+	}
+	
+	/**
+	 * Read a keyframe record (after its tag byte).
+	 * 
+	 * @param buf    the buffer to read from
+	 * @param model  the model to store the game state in
+	 */
+	public static void readKeyframe(ByteBuffer buf, KlondikeModel model) {
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			Pile pile = model.getPile(i);
+			pile.clear();
+			int exposeIndex = buf.get();
+			int numCards = buf.get() & 0xFF;
+			for (int j = 0; j < numCards; j++) {
+				pile.addCard(Card.fromCode(buf.get()));
+			}
+			pile.setExposeIndex(exposeIndex);
+		}
+	}
+	
+	/**
+	 * Apply a delta record to a game state.
+	 * 
+	 * @param flags   the delta's flags byte
+	 * @param piles   the delta's source/destination byte
+	 * @param count   the delta's card count byte
+	 * @param model   the game state to change
+	 */
+	public static void applyDelta(int flags, int piles, int count, KlondikeModel model) {
+		if (count == 0) {
+			return;
+		}
+		Pile source = model.getPile((piles >> 4) & 0xF);
+		Pile dest = model.getPile(piles & 0xF);
+		if ((flags & REVERSE) != 0) {
+			for (int i = 0; i < count; i++) {
+				dest.addCard(source.drawCard());
+			}
+		} else {
+			dest.addCards(source.removeCards(count));
+		}
+		if ((flags & SOURCE_EXPOSED) != 0) {
+			source.setExposeIndex(source.getIndexOfTopCard());
+		}
+		if ((flags & DEST_EXPOSED) != 0) {
+			dest.setExposeIndex(dest.getIndexOfTopCard());
+		}
+	}
+	
+	/**
+	 * Get the size of the keyframe record at the current position of a
+	 * buffer, without consuming it.
+	 * 
+	 * @param buf the buffer, positioned at the keyframe's tag byte
+	 * @return the size of the keyframe record, or -1 if the buffer
+	 *         does not contain the complete record
+	 */
+	public static int keyframeSize(ByteBuffer buf) {
+		int pos = buf.position() + 1;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			if (pos + 2 > buf.limit()) {
+				return -1;
+			}
+			pos += 2 + (buf.get(pos + 1) & 0xFF);
+		}
+		return pos <= buf.limit() ? pos - buf.position() : -1;
+	}
+	
+	/**
+	 * Check that the complete keyframe record at the current position of
+	 * a buffer holds no more than a deck of cards, and only valid card codes.
+	 * 
+	 * @param buf the buffer, positioned at the keyframe's tag byte
+	 * @return true if the keyframe is valid, false otherwise
+	 */
+	public static boolean isValidKeyframe(ByteBuffer buf) {
+		int pos = buf.position() + 1;
+		int totalCards = 0;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			int numCards = buf.get(pos + 1) & 0xFF;
+			totalCards += numCards;
+			if (totalCards > Card.NUM_CARDS) {
+				return false;
+			}
+			pos += 2;
+			for (int j = 0; j < numCards; j++) {
+				if ((buf.get(pos++) & 0xFF) >= Card.NUM_CARDS) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Check the bytes of a delta record.  The pile numbers must be different
+	 * and in range, and only defined flags may be set, except in the empty
+	 * delta (all zero bytes) recorded for a move which changed nothing.
+	 * 
+	 * @param flags   the delta's flags byte
+	 * @param piles   the delta's source/destination byte
+	 * @param count   the delta's card count byte
+	 * @return true if the delta is valid, false otherwise
+	 */
+	public static boolean isValidDelta(int flags, int piles, int count) {
+		if (count == 0) {
+			return flags == 0 && piles == 0;
+		}
+		int source = (piles >> 4) & 0xF, dest = piles & 0xF;
+		return (flags & ~(REVERSE | SOURCE_EXPOSED | DEST_EXPOSED)) == 0
+				&& source < KlondikeModel.NUM_PILES && dest < KlondikeModel.NUM_PILES && source != dest
+				&& count <= Card.NUM_CARDS;
+	}
+}
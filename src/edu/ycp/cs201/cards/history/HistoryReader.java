@@ -0,0 +1,209 @@
+package edu.ycp.cs201.cards.history;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+
+/**
+ * Read a game history (see {@link HistoryFormat}) from a channel.
+ * States can be read sequentially with {@link #next(KlondikeModel)},
+ * or by move number with {@link #readState(int, KlondikeModel)}, which
+ * starts from the nearest preceding periodic keyframe, and so applies
+ * fewer deltas than the keyframe interval.  Sequential reading continues
+ * from the record after the one last read by either method.  A record
+ * which is not valid is reported as an IOException.
+ */
+public class HistoryReader implements Closeable {
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final SeekableByteChannel channel;
+	private final int keyframeInterval;
+	private final ByteBuffer buf;
+	private boolean eof;
+	private int nextRecord;
+	
+	// Positions of the periodic keyframes (built on first random access)
+	private long[] keyframePositions;
+	private int numRecords;
+	
+	/**
+	 * Constructor.  Reads and checks the header.
+	 * 
+	 * @param channel the channel to read from, positioned at the start of the history
+	 * @throws IOException if the header can't be read or is not valid
+	 */
+	public HistoryReader(SeekableByteChannel channel) throws IOException {
+		this.channel = channel;
+		this.buf = ByteBuffer.allocate(BUFFER_SIZE);
+		buf.limit(0);
+		
+		if (!fill(HistoryFormat.HEADER_SIZE)) {
+			throw new IOException("Missing history header");
+		}
+		if (buf.getInt() != HistoryFormat.MAGIC || buf.get() != HistoryFormat.VERSION) {
+			throw new IOException("Not a game history (or unsupported version)");
+		}
+		this.keyframeInterval = buf.getInt();
+		this.numRecords = -1;
+	}
+	
+	/**
+	 * @return the number of records between periodic keyframes
+	 */
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+	
+	/**
+	 * Read the next record, updating the given model.  The model
+	 * must hold the state read by the previous call (for the first
+	 * call, its contents don't matter, since record 0 is a keyframe).
+	 * 
+	 * @param model the game state to update
+	 * @return true if a record was read, false at the end of the history
+	 * @throws IOException if the history can't be read, or the record is
+	 *         not valid (or can't be applied to the model)
+	 */
+	public boolean next(KlondikeModel model) throws IOException {
+		if (!fill(1)) {
+			return false;
+		}
+		boolean keyframe = buf.get(buf.position()) == HistoryFormat.KEYFRAME;
+		checkRecord();
+		if (keyframe) {
+			buf.get();
+			HistoryFormat.readKeyframe(buf, model);
+		} else {
+			int flags = buf.get() & 0xFF, piles = buf.get() & 0xFF, count = buf.get() & 0xFF;
+			if (count > model.getPile((piles >> 4) & 0xF).getNumCards()) {
+				throw new IOException("Delta for record " + nextRecord + " moves more cards than its source pile has");
+			}
+			HistoryFormat.applyDelta(flags, piles, count, model);
+		}
+		nextRecord++;
+		return true;
+	}
+	
+	/**
+	 * Read the game state after the given number of moves.
+	 * 
+	 * @param moveNumber the move number (0 for the initial state)
+	 * @param model      the model to store the game state in
+	 * @throws IOException if the history can't be read
+	 * @throws IndexOutOfBoundsException if there is no such record
+	 */
+	public void readState(int moveNumber, KlondikeModel model) throws IOException {
+		if (moveNumber < 0 || moveNumber >= getNumRecords()) {
+			throw new IndexOutOfBoundsException("No state for move " + moveNumber);
+		}
+		int keyframe = moveNumber / keyframeInterval;
+		seek(keyframePositions[keyframe], keyframe * keyframeInterval);
+		while (nextRecord <= moveNumber) {
+			next(model);
+		}
+	}
+	
+	/**
+	 * Get the number of records.  The first call reads through the whole
+	 * history, but the position of sequential reading is not changed.
+	 * 
+	 * @return the number of records (game states) in the history
+	 * @throws IOException if the history can't be read, or a record is not valid
+	 */
+	public int getNumRecords() throws IOException {
+		if (numRecords < 0) {
+			buildIndex();
+		}
+		return numRecords;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private void buildIndex() throws IOException {
+		long[] positions = new long[16];
+		int count = 0;
+		
+		// Where sequential reading will continue
+		long savedPosition = channel.position() - buf.remaining();
+		int savedRecord = nextRecord;
+		
+		seek(HistoryFormat.HEADER_SIZE, 0);
+		long pos = HistoryFormat.HEADER_SIZE;
+		int record = 0;
+		while (fill(1)) {
+			int size = checkRecord();
+			if (record % keyframeInterval == 0) {
+				if (count == positions.length) {
+					positions = Arrays.copyOf(positions, count * 2);
+				}
+				positions[count++] = pos;
+			}
+			buf.position(buf.position() + size);
+			pos += size;
+			record++;
+			nextRecord = record;
+		}
+		
+		keyframePositions = Arrays.copyOf(positions, count);
+		numRecords = record;
+		seek(savedPosition, savedRecord);
+	}
+	
+	// Buffer the record at the buffer's position and check it.
+	// Returns its size.
+	private int checkRecord() throws IOException {
+		if (buf.get(buf.position()) == HistoryFormat.KEYFRAME) {
+			// A keyframe which doesn't fit in the maximum size is corrupt,
+			// not truncated
+			boolean full = fill(HistoryFormat.MAX_KEYFRAME_SIZE);
+			int size = HistoryFormat.keyframeSize(buf);
+			if (size < 0 && !full) {
+				throw new EOFException("Truncated keyframe");
+			}
+			if (size < 0 || size > HistoryFormat.MAX_KEYFRAME_SIZE || !HistoryFormat.isValidKeyframe(buf)) {
+				throw new IOException("Corrupt keyframe for record " + nextRecord);
+			}
+			return size;
+		}
+		if (!fill(HistoryFormat.DELTA_SIZE)) {
+			throw new EOFException("Truncated delta");
+		}
+		int pos = buf.position();
+		if (!HistoryFormat.isValidDelta(buf.get(pos) & 0xFF, buf.get(pos + 1) & 0xFF, buf.get(pos + 2) & 0xFF)) {
+			throw new IOException("Invalid record " + nextRecord);
+		}
+		return HistoryFormat.DELTA_SIZE;
+	}
+	
+	private void seek(long position, int record) throws IOException {
+		channel.position(position);
+		buf.clear();
+		buf.limit(0);
+		eof = false;
+		nextRecord = record;
+	}
+
+	// Make sure that at least n bytes are buffered (if possible).
+	// Returns false if the end of the channel is reached first.
+	private boolean fill(int n) throws IOException {
+		if (buf.remaining() >= n) {
+			return true;
+		}
+		buf.compact();
+		while (!eof && buf.position() < n) {
+			if (channel.read(buf) < 0) {
+				eof = true;
+			}
+		}
+		buf.flip();
+		return buf.remaining() >= n;
+	}
+}
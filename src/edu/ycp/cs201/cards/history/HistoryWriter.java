@@ -0,0 +1,189 @@
+package edu.ycp.cs201.cards.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * Write a game history (see {@link HistoryFormat}) to a channel.
+ * The caller appends the game state after every move; the writer
+ * works out the delta from the previous state by comparing the two,
+ * so it doesn't depend on how the move was made.
+ */
+public class HistoryWriter implements Closeable {
+	/** Default number of records between keyframes. */
+	public static final int DEFAULT_KEYFRAME_INTERVAL = 32;
+	
+	private static final int BUFFER_SIZE = 8192;
+	
+	private final WritableByteChannel channel;
+	private final int keyframeInterval;
+	private final ByteBuffer buf;
+	private final KlondikeModel previous;
+	private int numRecords;
+	private long bytesWritten;
+	
+	/**
+	 * Constructor.  Writes the header immediately.
+	 * 
+	 * @param channel           the channel to write to
+	 * @param keyframeInterval  number of records between keyframes
+	 * @throws IOException if the header can't be written
+	 */
+	public HistoryWriter(WritableByteChannel channel, int keyframeInterval) throws IOException {
+		if (keyframeInterval < 1) {
+			throw new IllegalArgumentException("Keyframe interval must be positive");
+		}
+		this.channel = channel;
+		this.keyframeInterval = keyframeInterval;
+		this.buf = ByteBuffer.allocate(BUFFER_SIZE);
+		this.previous = new KlondikeModel();
+		
+		buf.putInt(HistoryFormat.MAGIC);
+		buf.put(HistoryFormat.VERSION);
+		buf.putInt(keyframeInterval);
+	}
+	
+	/**
+	 * Append a game state.  The first state appended is the initial
+	 * state; each subsequent state should be the state after one more move.
+	 * 
+	 * @param model the game state
+	 * @throws IOException if the buffered records can't be written
+	 */
+	public void append(KlondikeModel model) throws IOException {
+		if (buf.remaining() < HistoryFormat.MAX_KEYFRAME_SIZE) {
+			flush();
+		}
+		if (numRecords % keyframeInterval == 0 || !writeDelta(previous, model)) {
+			HistoryFormat.writeKeyframe(model, buf);
+		}
+		model.copyInto(previous);
+		numRecords++;
+	}
+	
+	/**
+	 * @return the number of records (game states) appended
+	 */
+	public int getNumRecords() {
+		return numRecords;
+	}
+	
+	/**
+	 * @return the number of bytes written so far, including buffered bytes
+	 */
+	public long getBytesWritten() {
+		return bytesWritten + buf.position();
+	}
+	
+	/**
+	 * Write all buffered records to the channel.
+	 * 
+	 * @throws IOException if the records can't be written
+	 */
+	public void flush() throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) {
+			bytesWritten += channel.write(buf);
+		}
+		buf.clear();
+	}
+	
+	/**
+	 * Flush buffered records and close the channel.
+	 * 
+	 * @throws IOException if the records can't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private boolean writeDelta(KlondikeModel before, KlondikeModel after) {
+		int first = -1, second = -1;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			if (!samePile(before.getPile(i), after.getPile(i))) {
+				if (first < 0) {
+					first = i;
+				} else if (second < 0) {
+					second = i;
+				} else {
+					return false;
+				}
+			}
+		}
+		
+		if (first < 0) {
+			// Nothing changed (e.g., drawing when there are no cards to draw)
+			buf.put((byte) 0).put((byte) 0).put((byte) 0);
+			return true;
+		}
+		if (second < 0) {
+			return false;
+		}
+		
+		// The source is the pile which lost cards
+		int firstChange = after.getPile(first).getNumCards() - before.getPile(first).getNumCards();
+		int src = firstChange < 0 ? first : second;
+		int dst = firstChange < 0 ? second : first;
+		Pile srcBefore = before.getPile(src), srcAfter = after.getPile(src);
+		Pile dstBefore = before.getPile(dst), dstAfter = after.getPile(dst);
+		int count = srcBefore.getNumCards() - srcAfter.getNumCards();
+		if (count <= 0 || dstAfter.getNumCards() - dstBefore.getNumCards() != count) {
+			return false;
+		}
+		if (!samePrefix(srcBefore, srcAfter, srcAfter.getNumCards()) || !samePrefix(dstBefore, dstAfter, dstBefore.getNumCards())) {
+			return false;
+		}
+		
+		boolean inOrder = true, reversed = true;
+		for (int i = 0; i < count; i++) {
+			int moved = srcAfter.getNumCards() + i;
+			inOrder &= srcBefore.getCard(moved).equals(dstAfter.getCard(dstBefore.getNumCards() + i));
+			reversed &= srcBefore.getCard(moved).equals(dstAfter.getCard(dstAfter.getNumCards() - 1 - i));
+		}
+		if (!inOrder && !reversed) {
+			return false;
+		}
+		
+		int flags = inOrder ? 0 : HistoryFormat.REVERSE;
+		if (srcAfter.getExposeIndex() != srcBefore.getExposeIndex()) {
+			if (srcAfter.getExposeIndex() != srcAfter.getIndexOfTopCard()) {
+				return false;
+			}
+			flags |= HistoryFormat.SOURCE_EXPOSED;
+		}
+		if (dstAfter.getExposeIndex() != dstBefore.getExposeIndex()) {
+			if (dstAfter.getExposeIndex() != dstAfter.getIndexOfTopCard()) {
+				return false;
+			}
+			flags |= HistoryFormat.DEST_EXPOSED;
+		}
+		
+		buf.put((byte) flags).put((byte) ((src << 4) | dst)).put((byte) count);
+		return true;
+	}
+	
+	private static boolean samePile(Pile a, Pile b) {
+		return a.getNumCards() == b.getNumCards()
+				&& a.getExposeIndex() == b.getExposeIndex()
+				&& samePrefix(a, b, a.getNumCards());
+	}
+	
+	private static boolean samePrefix(Pile a, Pile b, int numCards) {
+		for (int i = 0; i < numCards; i++) {
+			if (!a.getCard(i).equals(b.getCard(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
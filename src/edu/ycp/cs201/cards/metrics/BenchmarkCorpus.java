@@ -0,0 +1,168 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.ai.MoveGenerator;
+import edu.ycp.cs201.cards.sim.GreedyPolicy;
+
+/**
+ * <p>The set of game states used by {@link RegressionBenchmark}.
+ * The corpus is read from the <code>res/corpus.txt</code> resource,
+ * in which each line names a position and says how to build it:
+ * <code>state</code> positions are {@link StringifyGameState} strings
+ * (such as the test games of <code>KlondikeControllerTest</code>), and
+ * <code>early</code>, <code>late</code>, and <code>waste</code> positions
+ * are generated from a seed.  Generated positions are defined by the
+ * dealing rules of {@link KlondikeController#initModel(KlondikeModel, Random)},
+ * so they are the same on every machine without being stored.</p>
+ * 
+ * <p>An early position is a fresh deal.  A late position is a deal played
+ * for up to {@link #LATE_GAME_MOVES} moves by the {@link GreedyPolicy}.
+ * A waste position is a deal whose main deck has been drawn down to one
+ * card, so that nearly all of the deck is in the waste pile.</p>
+ */
+public class BenchmarkCorpus {
+	/** Name of the corpus resource. */
+	public static final String RESOURCE_NAME = "edu/ycp/cs201/cards/metrics/res/corpus.txt";
+	
+	/** Maximum number of moves played to generate a late position. */
+	public static final int LATE_GAME_MOVES = 80;
+	
+	private final List<String> names;
+	private final List<KlondikeModel> models;
+	
+	private BenchmarkCorpus() {
+		this.names = new ArrayList<String>();
+		this.models = new ArrayList<KlondikeModel>();
+	}
+	
+	/**
+	 * Load the corpus resource.
+	 * 
+	 * @param controller the {@link KlondikeController} used to generate positions
+	 * @return the corpus
+	 * @throws IOException if the resource can't be read
+	 */
+	public static BenchmarkCorpus load(KlondikeController controller) throws IOException {
+		InputStream in = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(RESOURCE_NAME);
+		if (in == null) {
+			throw new IOException("Resource " + RESOURCE_NAME + " not found");
+		}
+		Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+		try {
+			return load(controller, reader);
+		} finally {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * Load a corpus in the format of the corpus resource.
+	 * 
+	 * @param controller  the {@link KlondikeController} used to generate positions
+	 * @param reader      the corpus text
+	 * @return the corpus
+	 * @throws IOException if the text can't be read, or is invalid
+	 */
+	public static BenchmarkCorpus load(KlondikeController controller, Reader reader) throws IOException {
+		BenchmarkCorpus corpus = new BenchmarkCorpus();
+		BufferedReader in = new BufferedReader(reader);
+		String line;
+		int lineNumber = 0;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("\\s+", 3);
+			if (fields.length != 3) {
+				throw new IOException("Line " + lineNumber + ": expected <name> <kind> <data>");
+			}
+			try {
+				corpus.names.add(fields[0]);
+				corpus.models.add(createPosition(controller, fields[1], fields[2]));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+			}
+		}
+		return corpus;
+	}
+	
+	/**
+	 * @return the number of positions
+	 */
+	public int getNumPositions() {
+		return models.size();
+	}
+	
+	/**
+	 * @param index the index of a position
+	 * @return the position's name
+	 */
+	public String getName(int index) {
+		return names.get(index);
+	}
+	
+	/**
+	 * Get a position.  The model is shared, so callers which make moves
+	 * should {@link KlondikeModel#copyInto(KlondikeModel) copy} it first.
+	 * 
+	 * @param index the index of a position
+	 * @return the position's game state
+	 */
+	public KlondikeModel getModel(int index) {
+		return models.get(index);
+	}
+
+	private static KlondikeModel createPosition(KlondikeController controller, String kind, String data) {
+		KlondikeModel model = new KlondikeModel();
+		if (kind.equals("state")) {
+			StringifyGameState.stringToModel(model, data);
+			return model;
+		}
+		
+		if (!kind.equals("early") && !kind.equals("late") && !kind.equals("waste")) {
+			throw new IllegalArgumentException("Unknown position kind " + kind);
+		}
+		controller.initModel(model, new Random(Long.parseLong(data)));
+		if (kind.equals("late")) {
+			playGreedily(controller, model);
+		} else if (kind.equals("waste")) {
+			while (model.getMainDeck().getNumCards() > 1) {
+				controller.drawCardOrRecycleWaste(model);
+			}
+		}
+		return model;
+	}
+
+	private static void playGreedily(KlondikeController controller, KlondikeModel model) {
+		MoveGenerator moveGenerator = new MoveGenerator(controller);
+		GreedyPolicy policy = new GreedyPolicy();
+		List<Move> moves = new ArrayList<Move>();
+		for (int i = 0; i < LATE_GAME_MOVES && !controller.isWin(model); i++) {
+			moves.clear();
+			moveGenerator.generateMoves(model, moves);
+			if (moves.isEmpty()) {
+				break;
+			}
+			Move move = policy.chooseMove(model, moves, null);
+			if (move == null) {
+				break;
+			}
+			controller.makeMove(model, move);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.util.Random;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.CardTables;
+
+/**
+ * Micro-benchmark comparing the tableau and foundation rule checks
+ * made by navigating {@link Card}, {@link edu.ycp.cs201.cards.Suit} and
+ * {@link edu.ycp.cs201.cards.Rank} objects with the same checks made
+ * using {@link CardTables}.  Each round checks the same random card pairs
+ * both ways; the first rounds are discarded as JIT warm-up, and a
+ * checksum of the results is printed so the checks can't be optimized away.
+ * Usage: <code>CardTablesBenchmark [rounds]</code>
+ */
+public class CardTablesBenchmark {
+	private static final int NUM_PAIRS = 1 << 16;
+	private static final int WARMUP_ROUNDS = 20;
+	
+	/**
+	 * Run the benchmark.
+	 * 
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		
+		Random random = new Random(1234L);
+		int[] cardCodes = new int[NUM_PAIRS];
+		int[] ontoCodes = new int[NUM_PAIRS];
+		Card[] cards = new Card[NUM_PAIRS];
+		Card[] ontos = new Card[NUM_PAIRS];
+		for (int i = 0; i < NUM_PAIRS; i++) {
+			cardCodes[i] = random.nextInt(Card.NUM_CARDS);
+			ontoCodes[i] = random.nextInt(Card.NUM_CARDS);
+			cards[i] = Card.fromCode(cardCodes[i]);
+			ontos[i] = Card.fromCode(ontoCodes[i]);
+		}
+		
+		long enumNanos = 0, tableNanos = 0;
+		long enumChecksum = 0, tableChecksum = 0;
+		for (int round = 0; round < WARMUP_ROUNDS + rounds; round++) {
+			long start = System.nanoTime();
+			int enumCount = checkWithEnums(cards, ontos);
+			long mid = System.nanoTime();
+			int tableCount = checkWithTables(cardCodes, ontoCodes);
+			long end = System.nanoTime();
+			if (round >= WARMUP_ROUNDS) {
+				enumNanos += mid - start;
+				tableNanos += end - mid;
+				enumChecksum += enumCount;
+				tableChecksum += tableCount;
+			}
+		}
+		
+		if (enumChecksum != tableChecksum) {
+			throw new IllegalStateException("Results differ: " + enumChecksum + " vs " + tableChecksum);
+		}
+		double checks = 2.0 * NUM_PAIRS * rounds;
+		System.out.printf("enum navigation: %.2f ns/check%n", enumNanos / checks);
+		System.out.printf("lookup tables:   %.2f ns/check%n", tableNanos / checks);
+		System.out.printf("checksum: %d%n", tableChecksum);
+	}
+
+	private static int checkWithEnums(Card[] cards, Card[] ontos) {
+		int count = 0;
+		for (int i = 0; i < cards.length; i++) {
+			Card card = cards[i];
+			Card onto = ontos[i];
+			if (card.getSuit().getColor() != onto.getSuit().getColor()
+					&& card.getRank().ordinal() + 1 == onto.getRank().ordinal()) {
+				count++;
+			}
+			if (card.getSuit() == onto.getSuit() && card.getRank().ordinal() == onto.getRank().ordinal() + 1) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int checkWithTables(int[] cardCodes, int[] ontoCodes) {
+		int count = 0;
+		for (int i = 0; i < cardCodes.length; i++) {
+			if (CardTables.canStackOn(cardCodes[i], ontoCodes[i])) {
+				count++;
+			}
+			if (CardTables.canGoOnFoundation(cardCodes[i], ontoCodes[i])) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,33 @@
+package edu.ycp.cs201.cards.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event recording a sampled call of a
+ * {@link edu.ycp.cs201.cards.KlondikeController} bulk operation
+ * (dealing a game, or auto-playing cards to the foundations).
+ * These operations run millions of times in simulations, so only one
+ * call in {@link #sampleWeight} is recorded (see
+ * {@link InstrumentedKlondikeController}); multiply counts by the
+ * weight to estimate totals.
+ */
+@Name("edu.ycp.cs201.cards.ControllerBulkOperation")
+@Label("Controller Bulk Operation")
+@Description("Sampled call of a KlondikeController bulk operation")
+@Category({ "Klondike", "Controller" })
+@StackTrace(false)
+public class ControllerBulkEvent extends jdk.jfr.Event {
+	@Label("Operation")
+	public String operation;
+	
+	@Label("Cards Moved")
+	public int cardsMoved;
+	
+	@Label("Sample Weight")
+	@Description("Number of calls this event stands for")
+	public int sampleWeight;
+}
@@ -0,0 +1,83 @@
+package edu.ycp.cs201.cards.metrics;
+
+import edu.ycp.cs201.cards.ai.AnytimeSearch;
+import edu.ycp.cs201.cards.ai.DeadEndDetector;
+import edu.ycp.cs201.cards.ai.SearchMonitor;
+import edu.ycp.cs201.cards.ai.SearchResult;
+import edu.ycp.cs201.cards.ai.Solver;
+import edu.ycp.cs201.cards.ai.SolverResult;
+
+/**
+ * {@link SearchMonitor} which records {@link Solver} and {@link AnytimeSearch}
+ * runs as JDK Flight Recorder events: each game solved is recorded as a
+ * {@link SolveEvent}, long solves are sampled by {@link SolveProgressEvent}s,
+ * and each search is recorded as a {@link SearchEvent}.  Events are only
+ * recorded while a recording with them enabled is running; otherwise
+ * the monitor costs almost nothing.  Programs which want the events
+ * call {@link #install()} at startup.
+ */
+public class FlightRecorderMonitor extends SearchMonitor {
+	/**
+	 * Install a FlightRecorderMonitor as the {@link SearchMonitor}.
+	 */
+	public static void install() {
+		SearchMonitor.install(new FlightRecorderMonitor());
+	}
+	
+	@Override
+	public Object solveStarted() {
+		SolveEvent event = new SolveEvent();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void solveFinished(Object token, Solver solver, SolverResult result) {
+		SolveEvent event = (SolveEvent) token;
+		event.end();
+		if (event.shouldCommit()) {
+			event.verdict = result.getVerdict().name();
+			event.nodes = result.getNodes();
+			event.transpositionHits = solver.getTranspositionHits();
+			event.transpositionMisses = solver.getTranspositionTableSize();
+			event.trappedCardPrunes = solver.getPrunes(DeadEndDetector.Rule.TRAPPED_CARD);
+			event.blockedKingPrunes = solver.getPrunes(DeadEndDetector.Rule.BLOCKED_KING);
+			event.noMovesPrunes = solver.getPrunes(DeadEndDetector.Rule.NO_MOVES);
+			event.maxDepth = solver.getMaxDepth();
+			event.solutionLength = result.getMoves().size();
+			event.depthHistogram = solver.getDepthHistogram();
+			event.commit();
+		}
+	}
+	
+	@Override
+	public void solveProgress(Solver solver, long nodes, int depth) {
+		SolveProgressEvent event = new SolveProgressEvent();
+		if (event.shouldCommit()) {
+			event.nodes = nodes;
+			event.depth = depth;
+			event.transpositionTableSize = solver.getTranspositionTableSize();
+			event.commit();
+		}
+	}
+	
+	@Override
+	public Object searchStarted() {
+		SearchEvent event = new SearchEvent();
+		event.begin();
+		return event;
+	}
+	
+	@Override
+	public void searchFinished(Object token, SearchResult result) {
+		SearchEvent event = (SearchEvent) token;
+		event.end();
+		if (event.shouldCommit()) {
+			event.depth = result.getDepth();
+			event.nodes = result.getNodes();
+			event.score = result.getScore();
+			event.lineLength = result.getLine().size();
+			event.commit();
+		}
+	}
+}
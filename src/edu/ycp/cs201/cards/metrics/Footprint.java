@@ -0,0 +1,98 @@
+package edu.ycp.cs201.cards.metrics;
+
+/**
+ * The memory footprint of one representation of game data,
+ * as measured by the {@link ObjectSizer}: the number of objects and
+ * bytes it retains on the Java heap, and the bytes it uses outside
+ * of the heap (in direct buffers).
+ */
+public class Footprint {
+	private final String name;
+	private final long numObjects;
+	private final long heapBytes;
+	private final long offHeapBytes;
+	private final boolean exact;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param name          the name of the representation
+	 * @param numObjects    the number of heap objects
+	 * @param heapBytes     the number of heap bytes
+	 * @param offHeapBytes  the number of off-heap bytes
+	 * @param exact         true if the heap sizes were measured, false if estimated
+	 */
+	public Footprint(String name, long numObjects, long heapBytes, long offHeapBytes, boolean exact) {
+		this.name = name;
+		this.numObjects = numObjects;
+		this.heapBytes = heapBytes;
+		this.offHeapBytes = offHeapBytes;
+		this.exact = exact;
+	}
+	
+	/**
+	 * @return the name of the representation
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the number of heap objects
+	 */
+	public long getNumObjects() {
+		return numObjects;
+	}
+	
+	/**
+	 * @return the number of heap bytes
+	 */
+	public long getHeapBytes() {
+		return heapBytes;
+	}
+	
+	/**
+	 * @return the number of off-heap bytes
+	 */
+	public long getOffHeapBytes() {
+		return offHeapBytes;
+	}
+	
+	/**
+	 * @return the total number of bytes, on and off the heap
+	 */
+	public long getTotalBytes() {
+		return heapBytes + offHeapBytes;
+	}
+	
+	/**
+	 * @return true if the heap sizes were measured with
+	 *         {@link java.lang.instrument.Instrumentation}, false if they were estimated
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+	
+	/**
+	 * Get the footprint of one of a number of items stored together
+	 * (e.g., one state in a {@link edu.ycp.cs201.cards.packed.StateArena}).
+	 * 
+	 * @param name      the name of the per-item representation
+	 * @param numItems  the number of items this footprint covers
+	 * @return the footprint divided by the number of items (rounded up)
+	 */
+	public Footprint perItem(String name, long numItems) {
+		return new Footprint(name, ceilDiv(numObjects, numItems), ceilDiv(heapBytes, numItems),
+				ceilDiv(offHeapBytes, numItems), exact);
+	}
+
+	private static long ceilDiv(long x, long y) {
+		return (x + y - 1) / y;
+	}
+	
+	@Override
+	public String toString() {
+		return name + ": " + numObjects + " objects, " + heapBytes + " heap bytes"
+				+ (exact ? "" : " (estimated)") + ", " + offHeapBytes + " off-heap bytes";
+	}
+}
@@ -0,0 +1,43 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent which gives the {@link ObjectSizer} access to
+ * {@link Instrumentation#getObjectSize(Object)}, so that object sizes
+ * are exact rather than estimated.  Package the class in a jar whose
+ * manifest has <code>Premain-Class: edu.ycp.cs201.cards.metrics.FootprintAgent</code>
+ * (and <code>Agent-Class</code>, to attach to a running JVM), and run with
+ * <code>-javaagent:</code><i>jar</i>.  Without the agent, sizes are estimated
+ * from the JVM's object layout.
+ */
+public class FootprintAgent {
+	private static volatile Instrumentation instrumentation;
+	
+	/**
+	 * Called by the JVM when the agent is loaded at startup.
+	 * 
+	 * @param args  agent arguments (ignored)
+	 * @param inst  the {@link Instrumentation}
+	 */
+	public static void premain(String args, Instrumentation inst) {
+		instrumentation = inst;
+	}
+	
+	/**
+	 * Called by the JVM when the agent is attached to a running JVM.
+	 * 
+	 * @param args  agent arguments (ignored)
+	 * @param inst  the {@link Instrumentation}
+	 */
+	public static void agentmain(String args, Instrumentation inst) {
+		instrumentation = inst;
+	}
+	
+	/**
+	 * @return the {@link Instrumentation}, or null if the agent isn't loaded
+	 */
+	public static Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+}
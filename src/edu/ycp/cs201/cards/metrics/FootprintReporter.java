@@ -0,0 +1,116 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.PersistentGameState;
+import edu.ycp.cs201.cards.PersistentPile;
+import edu.ycp.cs201.cards.Rank;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.Suit;
+import edu.ycp.cs201.cards.packed.PackedState;
+import edu.ycp.cs201.cards.packed.StateArena;
+
+/**
+ * Compare the memory footprints of the representations of a game state:
+ * a {@link KlondikeModel} and its {@link edu.ycp.cs201.cards.Pile}s,
+ * a {@link PersistentGameState}, a {@link StringifyGameState} string,
+ * a {@link PackedState} in a heap buffer, and a state stored off the heap
+ * in a {@link StateArena}.  Use the table for capacity planning (e.g., how
+ * many sessions fit in a heap), and to catch representation changes which
+ * make a state larger.  The canonical {@link Card} objects
+ * ({@link Card#fromCode(int)}) are shared by every game, so they are not
+ * counted as part of any representation.
+ * Usage: <code>FootprintReporter [seed]</code>; run with the
+ * {@link FootprintAgent} for exact sizes.
+ */
+public class FootprintReporter {
+	// Number of states stored to measure the per-state cost of a StateArena
+	private static final int ARENA_STATES = 1024;
+	
+	private final ObjectSizer sizer;
+	private final Collection<Object> shared;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param sizer the {@link ObjectSizer} used to measure object graphs
+	 */
+	public FootprintReporter(ObjectSizer sizer) {
+		this.sizer = sizer;
+		this.shared = new ArrayList<Object>();
+		for (int i = 0; i < Card.NUM_CARDS; i++) {
+			shared.add(Card.fromCode(i));
+		}
+		shared.add(PersistentPile.EMPTY);
+	}
+	
+	/**
+	 * Measure each representation of a game state.
+	 * 
+	 * @param model the game state
+	 * @return the {@link Footprint} of each representation
+	 */
+	public List<Footprint> report(KlondikeModel model) {
+		List<Footprint> footprints = new ArrayList<Footprint>();
+		footprints.add(sizer.measure("KlondikeModel", model, shared));
+		footprints.add(sizer.measure("KlondikeModel, incl. cards", model, Collections.emptyList()));
+		footprints.add(sizer.measure("Pile (main deck, " + model.getMainDeck().getNumCards() + " cards)",
+				model.getMainDeck(), shared));
+		footprints.add(sizer.measure("Card", new Card(Rank.ACE, Suit.CLUBS),
+				Collections.emptyList()));
+		footprints.add(sizer.measure("PersistentGameState", PersistentGameState.fromModel(model), shared));
+		footprints.add(sizer.measure("StringifyGameState string", StringifyGameState.modelToString(model), shared));
+		
+		ByteBuffer packed = ByteBuffer.allocate(PackedState.SIZE);
+		PackedState.pack(model, packed, 0);
+		footprints.add(sizer.measure("PackedState (heap buffer)", packed, shared));
+		
+		StateArena arena = new StateArena(ARENA_STATES);
+		for (int i = 0; i < ARENA_STATES; i++) {
+			arena.add(model);
+		}
+		footprints.add(sizer.measure("StateArena", arena, shared).perItem("StateArena, per state", ARENA_STATES));
+		return footprints;
+	}
+	
+	/**
+	 * Format footprints as a table.
+	 * 
+	 * @param footprints the {@link Footprint}s
+	 * @return the table
+	 */
+	public static String format(List<Footprint> footprints) {
+		StringBuilder buf = new StringBuilder();
+		buf.append(String.format("%-32s %8s %12s %14s%n", "representation", "objects", "heap bytes", "off-heap bytes"));
+		boolean exact = true;
+		for (Footprint footprint : footprints) {
+			buf.append(String.format("%-32s %8d %12d %14d%n", footprint.getName(), footprint.getNumObjects(),
+					footprint.getHeapBytes(), footprint.getOffHeapBytes()));
+			exact &= footprint.isExact();
+		}
+		if (!exact) {
+			buf.append("(heap sizes estimated: run with the FootprintAgent for exact sizes)\n");
+		}
+		return buf.toString();
+	}
+	
+	/**
+	 * Print the footprints of a freshly dealt game.
+	 * 
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+		KlondikeModel model = new KlondikeModel();
+		new KlondikeController().initModel(model, new Random(seed));
+		System.out.print(format(new FootprintReporter(new ObjectSizer()).report(model)));
+	}
+}
@@ -0,0 +1,206 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.EventType;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Selection;
+
+/**
+ * A {@link KlondikeController} which records call counts, rejection
+ * counts, and latencies for {@link #select(KlondikeModel, Location) select},
+ * {@link #allowMove(KlondikeModel, Selection, Location) allowMove},
+ * {@link #moveCards(KlondikeModel, Selection, Location) moveCards},
+ * {@link #drawCardOrRecycleWaste(KlondikeModel) drawCardOrRecycleWaste}, and
+ * {@link #isWin(KlondikeModel) isWin}.
+ * Use it in place of a plain KlondikeController to turn instrumentation on;
+ * when instrumentation is not wanted, use a plain KlondikeController, which
+ * has no instrumentation overhead at all.  The statistics can be published
+ * through JMX with {@link #registerMBeans()}.
+ * 
+ * <p>Independently of {@link #setEnabled(boolean)}, while a JDK Flight Recorder
+ * recording is running, a sample of one in {@link #BULK_SAMPLE_INTERVAL}
+ * calls of {@link #initModel(KlondikeModel, Random) initModel} and
+ * {@link #autoPlayToFoundations(KlondikeModel, List) autoPlayToFoundations}
+ * is recorded as a {@link ControllerBulkEvent}.  Sampling is per-thread and
+ * random, so it adds no contention, and recording every call of operations
+ * which take a microsecond or two would add far more than 1% overhead.</p>
+ */
+public class InstrumentedKlondikeController extends KlondikeController {
+	/** JMX domain of the registered MBeans. */
+	public static final String JMX_DOMAIN = "edu.ycp.cs201.cards";
+	
+	/** One in this many bulk operations is recorded as a {@link ControllerBulkEvent}. */
+	public static final int BULK_SAMPLE_INTERVAL = 64;
+	
+	private static final EventType BULK_EVENT_TYPE = EventType.getEventType(ControllerBulkEvent.class);
+	
+	private final OperationStats selectStats;
+	private final OperationStats allowMoveStats;
+	private final OperationStats moveCardsStats;
+	private final OperationStats drawStats;
+	private final OperationStats isWinStats;
+	private volatile boolean enabled;
+	
+	/**
+	 * Constructor.  Recording is enabled initially.
+	 */
+	public InstrumentedKlondikeController() {
+		this.selectStats = new OperationStats("select");
+		this.allowMoveStats = new OperationStats("allowMove");
+		this.moveCardsStats = new OperationStats("moveCards");
+		this.drawStats = new OperationStats("drawCardOrRecycleWaste");
+		this.isWinStats = new OperationStats("isWin");
+		this.enabled = true;
+	}
+	
+	/**
+	 * Turn recording on or off.  While recording is off, calls
+	 * are passed straight through to the KlondikeController.
+	 * 
+	 * @param enabled true to record calls, false to stop recording
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * @return all of the {@link OperationStats}
+	 */
+	public OperationStats[] getStats() {
+		return new OperationStats[] { selectStats, allowMoveStats, moveCardsStats, drawStats, isWinStats };
+	}
+	
+	/**
+	 * Register an MBean for each operation with the platform MBean server,
+	 * named <code>edu.ycp.cs201.cards:type=KlondikeController,operation=</code><i>name</i>.
+	 * 
+	 * @throws JMException if the MBeans can't be registered
+	 */
+	public void registerMBeans() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (OperationStats stats : getStats()) {
+			server.registerMBean(stats, getObjectName(stats));
+		}
+	}
+	
+	/**
+	 * Unregister the MBeans registered by {@link #registerMBeans()}.
+	 * 
+	 * @throws JMException if the MBeans can't be unregistered
+	 */
+	public void unregisterMBeans() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (OperationStats stats : getStats()) {
+			server.unregisterMBean(getObjectName(stats));
+		}
+	}
+
+	private static ObjectName getObjectName(OperationStats stats) throws JMException {
+		return new ObjectName(JMX_DOMAIN + ":type=KlondikeController,operation=" + stats.getName());
+	}
+	
+	@Override
+	public Selection select(KlondikeModel model, Location location) {
+		if (!enabled) {
+			return super.select(model, location);
+		}
+		long start = System.nanoTime();
+		Selection selection = super.select(model, location);
+		selectStats.record(start, selection != null);
+		return selection;
+	}
+	
+	@Override
+	public boolean allowMove(KlondikeModel model, Selection selection, Location dest) {
+		if (!enabled) {
+			return super.allowMove(model, selection, dest);
+		}
+		long start = System.nanoTime();
+		boolean allowed = super.allowMove(model, selection, dest);
+		allowMoveStats.record(start, allowed);
+		return allowed;
+	}
+	
+	@Override
+	public void moveCards(KlondikeModel model, Selection selection, Location dest) {
+		if (!enabled) {
+			super.moveCards(model, selection, dest);
+			return;
+		}
+		long start = System.nanoTime();
+		super.moveCards(model, selection, dest);
+		moveCardsStats.record(start, true);
+	}
+	
+	@Override
+	public void drawCardOrRecycleWaste(KlondikeModel model) {
+		if (!enabled) {
+			super.drawCardOrRecycleWaste(model);
+			return;
+		}
+		long start = System.nanoTime();
+		super.drawCardOrRecycleWaste(model);
+		drawStats.record(start, true);
+	}
+	
+	@Override
+	public boolean isWin(KlondikeModel model) {
+		if (!enabled) {
+			return super.isWin(model);
+		}
+		long start = System.nanoTime();
+		boolean win = super.isWin(model);
+		isWinStats.record(start, true);
+		return win;
+	}
+	
+	@Override
+	public void initModel(KlondikeModel model, Random random) {
+		if (!sampleBulkOperation()) {
+			super.initModel(model, random);
+			return;
+		}
+		ControllerBulkEvent event = new ControllerBulkEvent();
+		event.begin();
+		super.initModel(model, random);
+		commitBulkEvent(event, "initModel", 52);
+	}
+	
+	@Override
+	public int autoPlayToFoundations(KlondikeModel model, List<Move> moves) {
+		if (!sampleBulkOperation()) {
+			return super.autoPlayToFoundations(model, moves);
+		}
+		ControllerBulkEvent event = new ControllerBulkEvent();
+		event.begin();
+		int numMoved = super.autoPlayToFoundations(model, moves);
+		commitBulkEvent(event, "autoPlayToFoundations", numMoved);
+		return numMoved;
+	}
+	
+	private static boolean sampleBulkOperation() {
+		return BULK_EVENT_TYPE.isEnabled() && ThreadLocalRandom.current().nextInt(BULK_SAMPLE_INTERVAL) == 0;
+	}
+	
+	private static void commitBulkEvent(ControllerBulkEvent event, String operation, int cardsMoved) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.cardsMoved = cardsMoved;
+			event.sampleWeight = BULK_SAMPLE_INTERVAL;
+			event.commit();
+		}
+	}
+}
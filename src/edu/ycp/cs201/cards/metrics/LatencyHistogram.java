@@ -0,0 +1,141 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies (or any non-negative values).
+ * Values are counted in logarithmic buckets: each power of two is
+ * split into four sub-buckets, so a percentile is reported to within
+ * 25% of the true value.  Recording a value is a few arithmetic
+ * operations and one atomic increment, and never blocks.
+ */
+public class LatencyHistogram {
+	/** Number of buckets (enough for any non-negative long value). */
+	public static final int NUM_BUCKETS = 248;
+	
+	private final AtomicLongArray counts;
+	private final LongAdder total;
+	private final LongAdder sum;
+	private final AtomicLong max;
+	
+	/**
+	 * Constructor.
+	 */
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(NUM_BUCKETS);
+		this.total = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new AtomicLong();
+	}
+	
+	/**
+	 * Get the bucket a value is counted in.
+	 * 
+	 * @param value the value (negative values are treated as 0)
+	 * @return the bucket index
+	 */
+	public static int bucketFor(long value) {
+		if (value < 4) {
+			return (int) Math.max(0, value);
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) ((value >>> (exp - 2)) & 3);
+		return (exp - 1)*4 + sub;
+	}
+	
+	/**
+	 * Get the largest value counted in a bucket.
+	 * 
+	 * @param bucket the bucket index
+	 * @return the largest value in the bucket
+	 */
+	public static long bucketUpperBound(int bucket) {
+		if (bucket < 4) {
+			return bucket;
+		}
+		int exp = bucket/4 + 1;
+		int sub = bucket%4;
+		long lower = (long) (4 + sub) << (exp - 2);
+		return lower + (1L << (exp - 2)) - 1;
+	}
+	
+	/**
+	 * Record a value.
+	 * 
+	 * @param value the value
+	 */
+	public void record(long value) {
+		counts.incrementAndGet(bucketFor(value));
+		total.increment();
+		sum.add(value);
+		long currentMax = max.get();
+		while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+			currentMax = max.get();
+		}
+	}
+	
+	/**
+	 * @return the number of values recorded
+	 */
+	public long getCount() {
+		return total.sum();
+	}
+	
+	/**
+	 * @return the mean of the values recorded, or 0 if there are none
+	 */
+	public double getMean() {
+		long count = total.sum();
+		return count == 0 ? 0.0 : (double) sum.sum() / count;
+	}
+	
+	/**
+	 * @return the largest value recorded
+	 */
+	public long getMax() {
+		return max.get();
+	}
+	
+	/**
+	 * Get an (over-)estimate of a percentile of the values recorded.
+	 * 
+	 * @param fraction the percentile, as a fraction (e.g., 0.99 for the 99th percentile)
+	 * @return the upper bound of the bucket containing the percentile
+	 *         (but no more than the largest value recorded), or 0 if
+	 *         no values have been recorded
+	 */
+	public long getPercentile(double fraction) {
+		long count = 0;
+		long[] snapshot = new long[NUM_BUCKETS];
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(fraction * count);
+		long seen = 0;
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+	
+	/**
+	 * Discard all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		total.reset();
+		sum.reset();
+		max.set(0);
+	}
+}
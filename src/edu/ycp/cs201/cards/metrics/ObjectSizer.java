@@ -0,0 +1,268 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Measure the memory retained by an object graph: every object
+ * reachable from a root is counted once, except for classes, enum
+ * constants, and any objects the caller says are shared (for example,
+ * the canonical {@link edu.ycp.cs201.cards.Card} objects), which aren't
+ * retained by any one graph.  Direct buffers are counted as off-heap
+ * bytes (their capacity) in addition to the buffer object itself.</p>
+ * 
+ * <p>Object sizes are taken from {@link Instrumentation#getObjectSize(Object)}
+ * when the {@link FootprintAgent} is loaded.  Otherwise they are estimated
+ * from HotSpot's object layout: a header, the fields (references are 4 bytes
+ * with compressed oops, otherwise 8), and padding to a multiple of 8 bytes.
+ * Field packing is ignored, so estimates may be slightly high.</p>
+ * 
+ * <p>References are followed by reflection.  The fields of JDK classes
+ * can't be made accessible, so the contents of collections, strings,
+ * and heap buffers are estimated from their public interfaces instead.</p>
+ */
+public class ObjectSizer {
+	private static final int ALIGNMENT = 8;
+	
+	private final Instrumentation instrumentation;
+	private final int referenceSize;
+	private final int objectHeaderSize;
+	private final int arrayHeaderSize;
+	
+	// Reference fields of each class, or null if they can't be read
+	private final Map<Class<?>, Field[]> referenceFields;
+	
+	/**
+	 * Constructor.  Uses the {@link FootprintAgent}'s
+	 * {@link Instrumentation}, if the agent is loaded.
+	 */
+	public ObjectSizer() {
+		this(FootprintAgent.getInstrumentation());
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param instrumentation the {@link Instrumentation} used to measure object sizes,
+	 *                        or null to estimate them
+	 */
+	public ObjectSizer(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+		boolean compressed = isCompressedOops();
+		this.referenceSize = compressed ? 4 : 8;
+		this.objectHeaderSize = compressed ? 12 : 16;
+		this.arrayHeaderSize = compressed ? 16 : 24;
+		this.referenceFields = new HashMap<Class<?>, Field[]>();
+	}
+	
+	/**
+	 * @return true if object sizes are measured, false if they are estimated
+	 */
+	public boolean isExact() {
+		return instrumentation != null;
+	}
+	
+	/**
+	 * @return the size of a reference, in bytes
+	 */
+	public int getReferenceSize() {
+		return referenceSize;
+	}
+	
+	/**
+	 * Get the size of one object, not including the objects it refers to.
+	 * 
+	 * @param obj the object
+	 * @return the object's size, in bytes
+	 */
+	public long shallowSize(Object obj) {
+		if (instrumentation != null) {
+			return instrumentation.getObjectSize(obj);
+		}
+		Class<?> cls = obj.getClass();
+		if (cls.isArray()) {
+			return arraySize(cls.getComponentType(), Array.getLength(obj));
+		}
+		long size = objectHeaderSize;
+		for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					size += fieldSize(field.getType());
+				}
+			}
+		}
+		return align(size);
+	}
+	
+	/**
+	 * Measure the memory retained by an object graph.
+	 * 
+	 * @param name    the name of the representation
+	 * @param root    the root of the object graph
+	 * @param shared  objects which are not counted, and not followed
+	 * @return the {@link Footprint}
+	 */
+	public Footprint measure(String name, Object root, Collection<?> shared) {
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		for (Object obj : shared) {
+			visited.add(obj);
+		}
+		
+		long numObjects = 0;
+		long heapBytes = 0;
+		long offHeapBytes = 0;
+		Deque<Object> stack = new ArrayDeque<Object>();
+		push(stack, visited, root);
+		while (!stack.isEmpty()) {
+			Object obj = stack.pop();
+			numObjects++;
+			heapBytes += shallowSize(obj);
+			
+			Class<?> cls = obj.getClass();
+			if (cls.isArray()) {
+				if (!cls.getComponentType().isPrimitive()) {
+					for (Object element : (Object[]) obj) {
+						push(stack, visited, element);
+					}
+				}
+				continue;
+			}
+			if (obj instanceof Buffer && ((Buffer) obj).isDirect()) {
+				offHeapBytes += ((Buffer) obj).capacity();
+			}
+			
+			Field[] fields = getReferenceFields(cls);
+			if (fields != null) {
+				for (Field field : fields) {
+					try {
+						push(stack, visited, field.get(obj));
+					} catch (IllegalAccessException e) {
+						throw new IllegalStateException("Field " + field + " not accessible", e);
+					}
+				}
+			} else {
+				// JDK internals: estimate the hidden storage, and follow the contents
+				heapBytes += estimateInternals(obj);
+				if (obj instanceof Collection) {
+					for (Object element : (Collection<?>) obj) {
+						push(stack, visited, element);
+					}
+				} else if (obj instanceof Map) {
+					for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+						push(stack, visited, entry.getKey());
+						push(stack, visited, entry.getValue());
+					}
+				} else if (obj instanceof ByteBuffer && ((ByteBuffer) obj).hasArray()) {
+					push(stack, visited, ((ByteBuffer) obj).array());
+				}
+			}
+		}
+		return new Footprint(name, numObjects, heapBytes, offHeapBytes, isExact());
+	}
+
+	private static void push(Deque<Object> stack, Set<Object> visited, Object obj) {
+		if (obj == null || obj instanceof Class || obj instanceof Enum) {
+			return;
+		}
+		if (visited.add(obj)) {
+			stack.push(obj);
+		}
+	}
+	
+	// Estimate the storage behind a JDK object whose fields can't be read.
+	private long estimateInternals(Object obj) {
+		if (obj instanceof String) {
+			// Compact strings: one byte per char if Latin-1, two otherwise
+			String s = (String) obj;
+			boolean latin1 = true;
+			for (int i = 0; i < s.length() && latin1; i++) {
+				latin1 = s.charAt(i) <= 0xFF;
+			}
+			return arraySize(byte.class, latin1 ? s.length() : 2 * s.length());
+		}
+		if (obj instanceof Collection) {
+			// A backing array (or one node per element)
+			return arraySize(Object.class, ((Collection<?>) obj).size());
+		}
+		if (obj instanceof Map) {
+			// A table, plus one entry node per mapping
+			int size = ((Map<?, ?>) obj).size();
+			return arraySize(Object.class, size) + size * align(objectHeaderSize + 4 + 3 * referenceSize);
+		}
+		return 0;
+	}
+
+	private Field[] getReferenceFields(Class<?> cls) {
+		if (referenceFields.containsKey(cls)) {
+			return referenceFields.get(cls);
+		}
+		List<Field> fields = new ArrayList<Field>();
+		Field[] result;
+		try {
+			for (Class<?> c = cls; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+			}
+			result = fields.toArray(new Field[fields.size()]);
+		} catch (RuntimeException e) {
+			// The class is in a module which isn't open to us
+			result = null;
+		}
+		referenceFields.put(cls, result);
+		return result;
+	}
+	
+	private long arraySize(Class<?> componentType, int length) {
+		return align(arrayHeaderSize + (long) length * fieldSize(componentType));
+	}
+
+	private int fieldSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		} else if (type == byte.class || type == boolean.class) {
+			return 1;
+		} else {
+			return referenceSize;
+		}
+	}
+
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+	}
+	
+	private static boolean isCompressedOops() {
+		try {
+			com.sun.management.HotSpotDiagnosticMXBean hotSpot =
+					ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+			return Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+		} catch (RuntimeException e) {
+			// Not HotSpot: assume the common case
+			return true;
+		} catch (LinkageError e) {
+			return true;
+		}
+	}
+}
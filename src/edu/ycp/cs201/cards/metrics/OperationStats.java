@@ -0,0 +1,104 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, rejection count, and latency histogram for one
+ * {@link edu.ycp.cs201.cards.KlondikeController} operation.
+ * Counters are striped (LongAdder), so threads recording
+ * concurrently don't contend with each other.
+ */
+public class OperationStats implements OperationStatsMBean {
+	private final String name;
+	private final LongAdder calls;
+	private final LongAdder rejected;
+	private final LatencyHistogram latency;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param name the name of the operation
+	 */
+	public OperationStats(String name) {
+		this.name = name;
+		this.calls = new LongAdder();
+		this.rejected = new LongAdder();
+		this.latency = new LatencyHistogram();
+	}
+	
+	/**
+	 * @return the name of the operation
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Record a call.
+	 * 
+	 * @param startNanos  the {@link System#nanoTime()} value when the call started
+	 * @param accepted    false if the call rejected the requested selection or move
+	 */
+	public void record(long startNanos, boolean accepted) {
+		latency.record(System.nanoTime() - startNanos);
+		calls.increment();
+		if (!accepted) {
+			rejected.increment();
+		}
+	}
+	
+	/**
+	 * @return the {@link LatencyHistogram}
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+	
+	@Override
+	public long getCalls() {
+		return calls.sum();
+	}
+	
+	@Override
+	public long getRejected() {
+		return rejected.sum();
+	}
+	
+	@Override
+	public double getMeanNanos() {
+		return latency.getMean();
+	}
+	
+	@Override
+	public long getP50Nanos() {
+		return latency.getPercentile(0.50);
+	}
+	
+	@Override
+	public long getP99Nanos() {
+		return latency.getPercentile(0.99);
+	}
+	
+	@Override
+	public long getP999Nanos() {
+		return latency.getPercentile(0.999);
+	}
+	
+	@Override
+	public long getMaxNanos() {
+		return latency.getMax();
+	}
+	
+	@Override
+	public void reset() {
+		calls.reset();
+		rejected.reset();
+		latency.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%s: calls=%d rejected=%d mean=%.0fns p50=%dns p99=%dns max=%dns",
+				name, getCalls(), getRejected(), getMeanNanos(), getP50Nanos(), getP99Nanos(), getMaxNanos());
+	}
+}
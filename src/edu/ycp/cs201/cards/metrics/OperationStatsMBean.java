@@ -0,0 +1,46 @@
+package edu.ycp.cs201.cards.metrics;
+
+/**
+ * JMX management interface for {@link OperationStats}.
+ */
+public interface OperationStatsMBean {
+	/**
+	 * @return number of calls
+	 */
+	public long getCalls();
+	
+	/**
+	 * @return number of calls which rejected the requested selection or move
+	 */
+	public long getRejected();
+	
+	/**
+	 * @return mean latency, in nanoseconds
+	 */
+	public double getMeanNanos();
+	
+	/**
+	 * @return median latency, in nanoseconds
+	 */
+	public long getP50Nanos();
+	
+	/**
+	 * @return 99th percentile latency, in nanoseconds
+	 */
+	public long getP99Nanos();
+	
+	/**
+	 * @return 99.9th percentile latency, in nanoseconds
+	 */
+	public long getP999Nanos();
+	
+	/**
+	 * @return maximum latency, in nanoseconds
+	 */
+	public long getMaxNanos();
+	
+	/**
+	 * Reset all statistics.
+	 */
+	public void reset();
+}
@@ -0,0 +1,368 @@
+package edu.ycp.cs201.cards.metrics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.StringifyGameState;
+import edu.ycp.cs201.cards.ai.AnytimeSearch;
+import edu.ycp.cs201.cards.ai.DeadEndDetector;
+import edu.ycp.cs201.cards.ai.MoveGenerator;
+import edu.ycp.cs201.cards.packed.PackedState;
+
+/**
+ * <p>Headless performance regression check.  Times controller operations,
+ * hint search, and serialization on every position of the
+ * {@link BenchmarkCorpus}, and compares the throughput of each benchmark
+ * with a baseline, failing (with exit status 1) if any benchmark is
+ * slower than its baseline by more than the threshold.
+ * Benchmarks with no baseline entry are reported, but never fail.</p>
+ * 
+ * <p>Each benchmark is run repeatedly for {@link #WARMUP_MILLIS} as JIT
+ * warm-up, then for {@link #ROUNDS} rounds of {@link #ROUND_MILLIS};
+ * the median round's throughput is used, so a single slow round
+ * (e.g., one with a garbage collection) doesn't fail the check.
+ * Baselines are only meaningful on the machine they were recorded on;
+ * record a new one with <code>--record</code> after an intended change
+ * in performance, or a change to the corpus.</p>
+ * 
+ * <p>Usage: <code>RegressionBenchmark [--baseline &lt;file&gt;] [--record &lt;file&gt;] [--threshold &lt;fraction&gt;]</code>.
+ * The default baseline is the committed <code>res/baseline.txt</code> resource.</p>
+ */
+public class RegressionBenchmark {
+	/** Name of the committed baseline resource. */
+	public static final String BASELINE_RESOURCE_NAME = "edu/ycp/cs201/cards/metrics/res/baseline.txt";
+	
+	/** Default allowed drop in throughput, as a fraction of the baseline. */
+	public static final double DEFAULT_THRESHOLD = 0.10;
+	
+	/** Warm-up time per benchmark, in milliseconds. */
+	public static final long WARMUP_MILLIS = 1000;
+	
+	/** Number of timed rounds per benchmark. */
+	public static final int ROUNDS = 5;
+	
+	/** Length of each timed round, in milliseconds. */
+	public static final long ROUND_MILLIS = 500;
+	
+	// Time limit of each hint search, in milliseconds
+	private static final long SEARCH_MILLIS = 5;
+	
+	// Results are accumulated here so the benchmarked work can't be optimized away
+	static volatile long sink;
+	
+	/**
+	 * One benchmark: an operation applied to every position of the corpus.
+	 */
+	private static abstract class Benchmark {
+		final String name;
+		
+		Benchmark(String name) {
+			this.name = name;
+		}
+		
+		// Run the operation on every position, and return the number of operations done.
+		abstract long run();
+	}
+	
+	private final List<Benchmark> benchmarks;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller  the {@link KlondikeController} to benchmark
+	 * @param corpus      the {@link BenchmarkCorpus}
+	 */
+	public RegressionBenchmark(final KlondikeController controller, final BenchmarkCorpus corpus) {
+		final int n = corpus.getNumPositions();
+		final MoveGenerator moveGenerator = new MoveGenerator(controller);
+		final AnytimeSearch search = new AnytimeSearch(controller, new DeadEndDetector());
+		final KlondikeModel scratch = new KlondikeModel();
+		final List<Move> moves = new ArrayList<Move>();
+		final List<List<Move>> legalMoves = new ArrayList<List<Move>>();
+		final String[] strings = new String[n];
+		for (int i = 0; i < n; i++) {
+			List<Move> positionMoves = new ArrayList<Move>();
+			moveGenerator.generateMoves(corpus.getModel(i), positionMoves);
+			legalMoves.add(positionMoves);
+			strings[i] = StringifyGameState.modelToString(corpus.getModel(i));
+		}
+		final ByteBuffer packed = ByteBuffer.allocate(PackedState.SIZE);
+		
+		this.benchmarks = new ArrayList<Benchmark>();
+		benchmarks.add(new Benchmark("generateMoves") {
+			@Override
+			long run() {
+				long count = 0;
+				for (int i = 0; i < n; i++) {
+					moves.clear();
+					moveGenerator.generateMoves(corpus.getModel(i), moves);
+					count += moves.size();
+				}
+				sink += count;
+				return n;
+			}
+		});
+		benchmarks.add(new Benchmark("makeMove") {
+			@Override
+			long run() {
+				long ops = 0;
+				for (int i = 0; i < n; i++) {
+					for (Move move : legalMoves.get(i)) {
+						corpus.getModel(i).copyInto(scratch);
+						controller.makeMove(scratch, move);
+						ops++;
+					}
+				}
+				return ops;
+			}
+		});
+		benchmarks.add(new Benchmark("autoPlayToFoundations") {
+			@Override
+			long run() {
+				long count = 0;
+				for (int i = 0; i < n; i++) {
+					corpus.getModel(i).copyInto(scratch);
+					count += controller.autoPlayToFoundations(scratch);
+				}
+				sink += count;
+				return n;
+			}
+		});
+		benchmarks.add(new Benchmark("isWin") {
+			@Override
+			long run() {
+				long count = 0;
+				for (int i = 0; i < n; i++) {
+					if (controller.isWin(corpus.getModel(i))) {
+						count++;
+					}
+				}
+				sink += count;
+				return n;
+			}
+		});
+		// Hint search is time-limited, so its throughput is search nodes per second
+		benchmarks.add(new Benchmark("hintSearchNodes") {
+			@Override
+			long run() {
+				long nodes = 0;
+				for (int i = 0; i < n; i++) {
+					long deadline = System.nanoTime() + SEARCH_MILLIS * 1000000L;
+					nodes += search.search(corpus.getModel(i), deadline).getNodes();
+				}
+				return nodes;
+			}
+		});
+		benchmarks.add(new Benchmark("stringify") {
+			@Override
+			long run() {
+				long length = 0;
+				for (int i = 0; i < n; i++) {
+					length += StringifyGameState.modelToString(corpus.getModel(i)).length();
+					scratch.reset();
+					StringifyGameState.stringToModel(scratch, strings[i]);
+				}
+				sink += length;
+				return 2 * n;
+			}
+		});
+		benchmarks.add(new Benchmark("packedState") {
+			@Override
+			long run() {
+				for (int i = 0; i < n; i++) {
+					PackedState.pack(corpus.getModel(i), packed, 0);
+					PackedState.unpack(packed, 0, scratch);
+				}
+				sink += packed.get(0);
+				return 2 * n;
+			}
+		});
+	}
+	
+	/**
+	 * Run every benchmark.
+	 * 
+	 * @return the throughput of each benchmark, in operations per second, by name
+	 */
+	public Map<String, Double> run() {
+		Map<String, Double> results = new LinkedHashMap<String, Double>();
+		for (Benchmark benchmark : benchmarks) {
+			runFor(benchmark, WARMUP_MILLIS);
+			double[] rounds = new double[ROUNDS];
+			for (int r = 0; r < ROUNDS; r++) {
+				rounds[r] = runFor(benchmark, ROUND_MILLIS);
+			}
+			Arrays.sort(rounds);
+			results.put(benchmark.name, rounds[ROUNDS / 2]);
+		}
+		return results;
+	}
+
+	// Run a benchmark repeatedly for (at least) the given time, and return its throughput.
+	private static double runFor(Benchmark benchmark, long millis) {
+		long start = System.nanoTime();
+		long end = start + millis * 1000000L;
+		long ops = 0;
+		long now;
+		do {
+			ops += benchmark.run();
+			now = System.nanoTime();
+		} while (now - end < 0);
+		return ops * 1e9 / (now - start);
+	}
+	
+	/**
+	 * Read a baseline: lines of <code>&lt;name&gt; &lt;operations per second&gt;</code>,
+	 * with blank lines and lines starting with <code>#</code> ignored.
+	 * 
+	 * @param reader the baseline text
+	 * @return the baseline throughput of each benchmark, by name
+	 * @throws IOException if the text can't be read, or is invalid
+	 */
+	static Map<String, Double> readBaseline(Reader reader) throws IOException {
+		Map<String, Double> baseline = new LinkedHashMap<String, Double>();
+		BufferedReader in = new BufferedReader(reader);
+		String line;
+		while ((line = in.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("\\s+");
+			if (fields.length != 2) {
+				throw new IOException("Invalid baseline line: " + line);
+			}
+			try {
+				baseline.put(fields[0], Double.parseDouble(fields[1]));
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid baseline line: " + line, e);
+			}
+		}
+		return baseline;
+	}
+	
+	/**
+	 * Write a baseline in the format read by {@link #readBaseline(Reader)}.
+	 * 
+	 * @param writer   the writer to write to
+	 * @param results  the throughput of each benchmark, by name
+	 * @throws IOException if the baseline can't be written
+	 */
+	static void writeBaseline(Writer writer, Map<String, Double> results) throws IOException {
+		writer.write("# RegressionBenchmark baseline (operations per second), recorded with --record\n");
+		writer.write("# on " + System.getProperty("os.name") + ", " + System.getProperty("java.vm.name")
+				+ " " + System.getProperty("java.version") + ", "
+				+ Runtime.getRuntime().availableProcessors() + " processors\n");
+		for (Map.Entry<String, Double> entry : results.entrySet()) {
+			writer.write(String.format("%s %.1f%n", entry.getKey(), entry.getValue()));
+		}
+	}
+	
+	/**
+	 * Find the benchmarks whose throughput has dropped by more than the threshold.
+	 * 
+	 * @param baseline   the baseline throughput of each benchmark, by name
+	 * @param results    the measured throughput of each benchmark, by name
+	 * @param threshold  the allowed drop, as a fraction of the baseline
+	 * @return the names of the benchmarks which regressed
+	 */
+	static List<String> findRegressions(Map<String, Double> baseline, Map<String, Double> results, double threshold) {
+		List<String> regressions = new ArrayList<String>();
+		for (Map.Entry<String, Double> entry : results.entrySet()) {
+			Double expected = baseline.get(entry.getKey());
+			if (expected != null && entry.getValue() < expected * (1.0 - threshold)) {
+				regressions.add(entry.getKey());
+			}
+		}
+		return regressions;
+	}
+	
+	/**
+	 * Run the benchmarks and compare them with the baseline.
+	 * 
+	 * @param args command line arguments
+	 * @throws IOException if the corpus or baseline can't be read, or the baseline can't be written
+	 */
+	public static void main(String[] args) throws IOException {
+		String baselineFile = null;
+		String recordFile = null;
+		double threshold = DEFAULT_THRESHOLD;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--baseline") && i + 1 < args.length) {
+				baselineFile = args[++i];
+			} else if (args[i].equals("--record") && i + 1 < args.length) {
+				recordFile = args[++i];
+			} else if (args[i].equals("--threshold") && i + 1 < args.length) {
+				threshold = Double.parseDouble(args[++i]);
+			} else {
+				System.err.println("Usage: RegressionBenchmark [--baseline <file>] [--record <file>] [--threshold <fraction>]");
+				System.exit(1);
+			}
+		}
+		
+		KlondikeController controller = new KlondikeController();
+		BenchmarkCorpus corpus = BenchmarkCorpus.load(controller);
+		System.out.println("Corpus: " + corpus.getNumPositions() + " positions");
+		Map<String, Double> results = new RegressionBenchmark(controller, corpus).run();
+		
+		if (recordFile != null) {
+			Writer writer = new OutputStreamWriter(new FileOutputStream(recordFile), StandardCharsets.UTF_8);
+			try {
+				writeBaseline(writer, results);
+			} finally {
+				writer.close();
+			}
+			System.out.println("Baseline recorded in " + recordFile);
+		}
+		
+		Map<String, Double> baseline;
+		InputStream in = baselineFile != null
+				? new FileInputStream(new File(baselineFile))
+				: RegressionBenchmark.class.getClassLoader().getResourceAsStream(BASELINE_RESOURCE_NAME);
+		if (in == null) {
+			baseline = new LinkedHashMap<String, Double>();
+		} else {
+			Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+			try {
+				baseline = readBaseline(reader);
+			} finally {
+				reader.close();
+			}
+		}
+		
+		List<String> regressions = findRegressions(baseline, results, threshold);
+		System.out.printf("%-24s %16s %16s %8s%n", "benchmark", "ops/s", "baseline", "change");
+		for (Map.Entry<String, Double> entry : results.entrySet()) {
+			Double expected = baseline.get(entry.getKey());
+			String status = regressions.contains(entry.getKey()) ? "  REGRESSION" : "";
+			if (expected == null) {
+				System.out.printf("%-24s %16.1f %16s %8s%n", entry.getKey(), entry.getValue(), "-", "new");
+			} else {
+				System.out.printf("%-24s %16.1f %16.1f %+7.1f%%%s%n", entry.getKey(), entry.getValue(), expected,
+						100.0 * (entry.getValue() / expected - 1.0), status);
+			}
+		}
+		if (!regressions.isEmpty()) {
+			System.out.println(regressions.size() + " benchmark(s) more than " + Math.round(threshold * 100) + "% slower than baseline");
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package edu.ycp.cs201.cards.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event recording one time-limited
+ * {@link edu.ycp.cs201.cards.ai.AnytimeSearch} (for example, a hint request).
+ */
+@Name("edu.ycp.cs201.cards.Search")
+@Label("Anytime Search")
+@Description("Depth reached and nodes examined by one time-limited search")
+@Category({ "Klondike", "Search" })
+@StackTrace(false)
+public class SearchEvent extends jdk.jfr.Event {
+	@Label("Completed Depth")
+	public int depth;
+	
+	@Label("Nodes Examined")
+	public long nodes;
+	
+	@Label("Best Score")
+	public int score;
+	
+	@Label("Line Length")
+	public int lineLength;
+}
@@ -0,0 +1,53 @@
+package edu.ycp.cs201.cards.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event recording one run of the
+ * {@link edu.ycp.cs201.cards.ai.Solver}: its outcome, duration,
+ * and search statistics.  One event is committed per deal, so the
+ * overhead is negligible even when every deal is recorded.
+ */
+@Name("edu.ycp.cs201.cards.Solve")
+@Label("Solve")
+@Description("Outcome and search statistics of solving one deal")
+@Category({ "Klondike", "Solver" })
+@StackTrace(false)
+public class SolveEvent extends jdk.jfr.Event {
+	@Label("Verdict")
+	public String verdict;
+	
+	@Label("Nodes Expanded")
+	public long nodes;
+	
+	@Label("Transposition Hits")
+	@Description("Positions skipped because they had already been searched")
+	public long transpositionHits;
+	
+	@Label("Transposition Misses")
+	@Description("Positions searched for the first time")
+	public long transpositionMisses;
+	
+	@Label("Trapped Card Prunes")
+	public long trappedCardPrunes;
+	
+	@Label("Blocked King Prunes")
+	public long blockedKingPrunes;
+	
+	@Label("No Moves Prunes")
+	public long noMovesPrunes;
+	
+	@Label("Maximum Depth")
+	public int maxDepth;
+	
+	@Label("Solution Length")
+	public int solutionLength;
+	
+	@Label("Depth Histogram")
+	@Description("Number of positions expanded at depths 0, 1, 2-3, 4-7, 8-15, ..., comma-separated")
+	public String depthHistogram;
+}
@@ -0,0 +1,30 @@
+package edu.ycp.cs201.cards.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event sampling the progress of a long
+ * {@link edu.ycp.cs201.cards.ai.Solver} run.  One event is committed
+ * every {@link edu.ycp.cs201.cards.ai.Solver#PROGRESS_INTERVAL}
+ * nodes, rather than one per node, so that recording hard deals
+ * adds a negligible amount of work.
+ */
+@Name("edu.ycp.cs201.cards.SolveProgress")
+@Label("Solve Progress")
+@Description("Periodic sample of a solver run in progress")
+@Category({ "Klondike", "Solver" })
+@StackTrace(false)
+public class SolveProgressEvent extends jdk.jfr.Event {
+	@Label("Nodes Expanded")
+	public long nodes;
+	
+	@Label("Current Depth")
+	public int depth;
+	
+	@Label("Transposition Table Size")
+	public int transpositionTableSize;
+}
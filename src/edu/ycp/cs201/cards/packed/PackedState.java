@@ -0,0 +1,76 @@
+package edu.ycp.cs201.cards.packed;
+
+import java.nio.ByteBuffer;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * Fixed-width binary encoding of a game state, used by {@link StateArena}.
+ * A packed state is {@link #SIZE} bytes: the number of cards in each of
+ * the 13 piles (in {@link KlondikeModel#getPile(int)} order), then the
+ * expose index of each pile (as a signed byte), then the codes (see
+ * {@link Card#getCode()}) of all 52 cards, pile by pile, from the bottom
+ * of each pile to the top.
+ */
+public class PackedState {
+	/** Offset of the pile sizes. */
+	public static final int NUM_CARDS_OFFSET = 0;
+	
+	/** Offset of the expose indices. */
+	public static final int EXPOSE_INDEX_OFFSET = NUM_CARDS_OFFSET + KlondikeModel.NUM_PILES;
+	
+	/** Offset of the card codes. */
+	public static final int CARDS_OFFSET = EXPOSE_INDEX_OFFSET + KlondikeModel.NUM_PILES;
+	
+	/** Size of a packed state, in bytes (padded to a multiple of 8). */
+	public static final int SIZE = (CARDS_OFFSET + Card.NUM_CARDS + 7) & ~7;
+	
+	/**
+	 * Pack a game state.
+	 * 
+	 * @param model   the game state
+	 * @param buf     the buffer to write to
+	 * @param offset  the offset in the buffer at which to write the packed state
+	 */
+	public static void pack(KlondikeModel model, ByteBuffer buf, int offset) {
+		int cardPos = offset + CARDS_OFFSET;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			Pile pile = model.getPile(i);
+			int numCards = pile.getNumCards();
+			if (cardPos + numCards > offset + CARDS_OFFSET + Card.NUM_CARDS) {
+				throw new IllegalArgumentException("Game state has more than " + Card.NUM_CARDS + " cards");
+			}
+			buf.put(offset + NUM_CARDS_OFFSET + i, (byte) numCards);
+			buf.put(offset + EXPOSE_INDEX_OFFSET + i,
+					(byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, pile.getExposeIndex())));
+			for (int j = 0; j < numCards; j++) {
+				buf.put(cardPos++, (byte) pile.getCard(j).getCode());
+			}
+		}
+		while (cardPos < offset + SIZE) {
+			buf.put(cardPos++, (byte) 0);
+		}
+	}
+	
+	/**
+	 * Unpack a game state.
+	 * 
+	 * @param buf     the buffer to read from
+	 * @param offset  the offset of the packed state in the buffer
+	 * @param model   the model to store the game state in
+	 */
+	public static void unpack(ByteBuffer buf, int offset, KlondikeModel model) {
+		int cardPos = offset + CARDS_OFFSET;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			Pile pile = model.getPile(i);
+			pile.clear();
+			int numCards = buf.get(offset + NUM_CARDS_OFFSET + i);
+			for (int j = 0; j < numCards; j++) {
+				pile.addCard(Card.fromCode(buf.get(cardPos++)));
+			}
+			pile.setExposeIndex(buf.get(offset + EXPOSE_INDEX_OFFSET + i));
+		}
+	}
+}
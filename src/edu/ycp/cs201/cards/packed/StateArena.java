@@ -0,0 +1,110 @@
+package edu.ycp.cs201.cards.packed;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+
+/**
+ * Store large numbers of game states outside of the Java heap.
+ * States are packed (see {@link PackedState}) into fixed-size slots in
+ * direct ByteBuffer slabs, which are allocated as the arena grows.
+ * A stored state is identified by its index, and is read through a
+ * {@link StateCursor}, so reading states creates no objects.
+ * 
+ * <p>Adding states is synchronized.  A state may be read from any
+ * thread once {@link #add(KlondikeModel)} has returned its index.</p>
+ */
+public class StateArena {
+	/** Default number of states per slab. */
+	public static final int DEFAULT_STATES_PER_SLAB = 1 << 20;
+	
+	private final int statesPerSlab;
+	private volatile ByteBuffer[] slabs;
+	private volatile long size;
+	
+	/**
+	 * Constructor.  Uses the default slab size.
+	 */
+	public StateArena() {
+		this(DEFAULT_STATES_PER_SLAB);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param statesPerSlab number of states stored in each slab
+	 */
+	public StateArena(int statesPerSlab) {
+		if (statesPerSlab < 1 || (long) statesPerSlab * PackedState.SIZE > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid slab size: " + statesPerSlab);
+		}
+		this.statesPerSlab = statesPerSlab;
+		this.slabs = new ByteBuffer[0];
+	}
+	
+	/**
+	 * Add a game state.
+	 * 
+	 * @param model the game state
+	 * @return the index of the stored state
+	 */
+	public synchronized long add(KlondikeModel model) {
+		long index = size;
+		int slab = (int) (index / statesPerSlab);
+		if (slab == slabs.length) {
+			ByteBuffer[] grown = Arrays.copyOf(slabs, slab + 1);
+			grown[slab] = ByteBuffer.allocateDirect(statesPerSlab * PackedState.SIZE);
+			slabs = grown;
+		}
+		PackedState.pack(model, slabs[slab], offset(index));
+		size = index + 1;
+		return index;
+	}
+	
+	/**
+	 * @return the number of states stored
+	 */
+	public long size() {
+		return size;
+	}
+	
+	/**
+	 * @return the number of bytes of off-heap memory allocated
+	 */
+	public long getAllocatedBytes() {
+		return (long) slabs.length * statesPerSlab * PackedState.SIZE;
+	}
+	
+	/**
+	 * @return a new {@link StateCursor} for reading states from this arena
+	 */
+	public StateCursor cursor() {
+		return new StateCursor(this);
+	}
+	
+	/**
+	 * Copy a stored state into a {@link KlondikeModel}.
+	 * 
+	 * @param index  the index of the state
+	 * @param model  the model to store the game state in
+	 */
+	public void get(long index, KlondikeModel model) {
+		checkIndex(index);
+		PackedState.unpack(slab(index), offset(index), model);
+	}
+	
+	ByteBuffer slab(long index) {
+		return slabs[(int) (index / statesPerSlab)];
+	}
+	
+	int offset(long index) {
+		return (int) (index % statesPerSlab) * PackedState.SIZE;
+	}
+	
+	void checkIndex(long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("No state " + index);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package edu.ycp.cs201.cards.packed;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeModel;
+
+/**
+ * A flyweight view of one state stored in a {@link StateArena}.
+ * The cursor can be moved to any stored state, and provides read-only
+ * access to its piles (numbered as in {@link KlondikeModel#getPile(int)})
+ * directly from the packed data.  A cursor should only be used by one
+ * thread at a time.
+ */
+public class StateCursor {
+	private final StateArena arena;
+	private final int[] pileStart;
+	private ByteBuffer slab;
+	private int offset;
+	private long index;
+	
+	StateCursor(StateArena arena) {
+		this.arena = arena;
+		this.pileStart = new int[KlondikeModel.NUM_PILES];
+		this.index = -1;
+	}
+	
+	/**
+	 * Move the cursor to a stored state.
+	 * 
+	 * @param index the index of the state
+	 * @return this cursor
+	 */
+	public StateCursor moveTo(long index) {
+		arena.checkIndex(index);
+		this.slab = arena.slab(index);
+		this.offset = arena.offset(index);
+		this.index = index;
+		
+		int pos = offset + PackedState.CARDS_OFFSET;
+		for (int i = 0; i < KlondikeModel.NUM_PILES; i++) {
+			pileStart[i] = pos;
+			pos += slab.get(offset + PackedState.NUM_CARDS_OFFSET + i);
+		}
+		return this;
+	}
+	
+	/**
+	 * @return the index of the current state
+	 */
+	public long getIndex() {
+		return index;
+	}
+	
+	/**
+	 * @param pileNumber the pile number
+	 * @return the number of cards in the pile
+	 */
+	public int getNumCards(int pileNumber) {
+		return slab.get(offset + PackedState.NUM_CARDS_OFFSET + pileNumber);
+	}
+	
+	/**
+	 * @param pileNumber the pile number
+	 * @return the pile's expose index
+	 */
+	public int getExposeIndex(int pileNumber) {
+		return slab.get(offset + PackedState.EXPOSE_INDEX_OFFSET + pileNumber);
+	}
+	
+	/**
+	 * @param pileNumber  the pile number
+	 * @param cardIndex   the index of a card in the pile
+	 * @return the code (see {@link Card#getCode()}) of the card
+	 */
+	public int getCardCode(int pileNumber, int cardIndex) {
+		return slab.get(pileStart[pileNumber] + cardIndex);
+	}
+	
+	/**
+	 * @param pileNumber  the pile number
+	 * @param cardIndex   the index of a card in the pile
+	 * @return the {@link Card} (a shared instance, so no object is created)
+	 */
+	public Card getCard(int pileNumber, int cardIndex) {
+		return Card.fromCode(getCardCode(pileNumber, cardIndex));
+	}
+	
+	/**
+	 * @param pileNumber the pile number
+	 * @return the top {@link Card} of the pile
+	 * @throws NoSuchElementException if the pile is empty
+	 */
+	public Card getTopCard(int pileNumber) {
+		int numCards = getNumCards(pileNumber);
+		if (numCards == 0) {
+			throw new NoSuchElementException("Pile " + pileNumber + " is empty");
+		}
+		return getCard(pileNumber, numCards - 1);
+	}
+	
+	/**
+	 * Determine whether the current state is identical to the current
+	 * state of another cursor (e.g., for deduplication).
+	 * 
+	 * @param other the other cursor
+	 * @return true if the states are identical
+	 */
+	public boolean sameState(StateCursor other) {
+		for (int i = 0; i < PackedState.SIZE; i++) {
+			if (slab.get(offset + i) != other.slab.get(other.offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Copy the current state into a {@link KlondikeModel}.
+	 * 
+	 * @param model the model to store the game state in
+	 */
+	public void copyInto(KlondikeModel model) {
+		PackedState.unpack(slab, offset, model);
+	}
+}
@@ -0,0 +1,257 @@
+package edu.ycp.cs201.cards.server;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.Selection;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+/**
+ * One game hosted by a {@link SessionManager}.
+ * Each session has a mailbox of pending {@link SessionCommand}s.
+ * The mailbox is drained by a shared thread pool, but never by
+ * more than one thread at a time, so commands for a session are
+ * serialized without dedicating a thread to each session.
+ * An idle session can be evicted: its game state is then kept
+ * only in its compact {@link StringifyGameState} form, and
+ * is decoded again when the next command arrives.
+ */
+public class GameSession implements Runnable {
+	/** Maximum number of commands run before yielding the pool thread. */
+	private static final int MAX_BATCH = 64;
+	
+	private final String id;
+	private final KlondikeController controller;
+	private final Executor executor;
+	private final ConcurrentLinkedQueue<FutureTask<?>> mailbox;
+	private final AtomicBoolean scheduled;
+	private volatile long lastAccessNanos;
+	private volatile boolean resident;
+	
+	// These fields are only accessed by commands (i.e., one thread at a time)
+	private KlondikeModel model;
+	private String evictedState;
+	private Selection selection;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param id          the session id
+	 * @param controller  the {@link KlondikeController}
+	 * @param executor    the Executor used to run the session's commands
+	 * @param model       the game state
+	 */
+	GameSession(String id, KlondikeController controller, Executor executor, KlondikeModel model) {
+		this.id = id;
+		this.controller = controller;
+		this.executor = executor;
+		this.mailbox = new ConcurrentLinkedQueue<FutureTask<?>>();
+		this.scheduled = new AtomicBoolean();
+		this.model = model;
+		this.resident = true;
+		this.lastAccessNanos = System.nanoTime();
+	}
+	
+	/**
+	 * @return the session id
+	 */
+	public String getId() {
+		return id;
+	}
+	
+	/**
+	 * @return the {@link System#nanoTime()} value when a command was last submitted
+	 */
+	public long getLastAccessNanos() {
+		return lastAccessNanos;
+	}
+	
+	/**
+	 * @return true if the game state is decoded (not evicted)
+	 */
+	public boolean isResident() {
+		return resident;
+	}
+	
+	/**
+	 * Add a command to this session's mailbox.
+	 * 
+	 * @param command the {@link SessionCommand}
+	 * @return a Future which will hold the command's result
+	 */
+	public <T> Future<T> submit(final SessionCommand<T> command) {
+		return enqueue(command, true);
+	}
+	
+	/**
+	 * Add a command to this session's mailbox without counting it
+	 * as activity (used for housekeeping such as eviction).
+	 * 
+	 * @param command the {@link SessionCommand}
+	 * @return a Future which will hold the command's result
+	 */
+	<T> Future<T> submitHousekeeping(SessionCommand<T> command) {
+		return enqueue(command, false);
+	}
+	
+	private <T> Future<T> enqueue(final SessionCommand<T> command, boolean touch) {
+		if (touch) {
+			lastAccessNanos = System.nanoTime();
+		}
+		FutureTask<T> task = new FutureTask<T>(new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				return command.execute(GameSession.this);
+			}
+		});
+		mailbox.add(task);
+		if (scheduled.compareAndSet(false, true)) {
+			executor.execute(this);
+		}
+		return task;
+	}
+	
+	/**
+	 * Drain the mailbox.  Only ever run by one thread at a time.
+	 */
+	@Override
+	public void run() {
+		for (int i = 0; i < MAX_BATCH; i++) {
+			FutureTask<?> task = mailbox.poll();
+			if (task == null) {
+				break;
+			}
+			task.run();
+		}
+		scheduled.set(false);
+		
+		// A command may have arrived after the last poll
+		if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+			executor.execute(this);
+		}
+	}
+	
+	/**
+	 * Get the game state, decoding it if the session was evicted.
+	 * 
+	 * @return the {@link KlondikeModel}
+	 */
+	public KlondikeModel getModel() {
+		if (model == null) {
+			model = new KlondikeModel();
+			StringifyGameState.stringToModel(model, evictedState);
+			evictedState = null;
+			resident = true;
+		}
+		return model;
+	}
+	
+	/**
+	 * Draw a card, or recycle the waste pile.  Any pending selection is canceled.
+	 */
+	public void draw() {
+		KlondikeModel model = getModel();
+		cancelSelection(model);
+		controller.drawCardOrRecycleWaste(model);
+	}
+	
+	/**
+	 * Select cards to move.  Any pending selection is canceled first.
+	 * 
+	 * @param location the {@link Location} of the cards to select
+	 * @return true if the selection is legal, false otherwise
+	 * @throws IllegalArgumentException if the location's card index is
+	 *         not the index of a card in its pile
+	 */
+	public boolean select(Location location) {
+		KlondikeModel model = getModel();
+		cancelSelection(model);
+		int numCards = model.getPile(KlondikeModel.getPileNumber(location)).getNumCards();
+		if (location.getCardIndex() < 0 || location.getCardIndex() >= numCards) {
+			throw new IllegalArgumentException("location out of range");
+		}
+		selection = controller.select(model, location);
+		return selection != null;
+	}
+	
+	/**
+	 * Move the selected cards.  If the move is not legal,
+	 * the selected cards are returned to where they came from.
+	 * 
+	 * @param dest the destination {@link Location}
+	 * @return true if the move was legal (and was made), false otherwise
+	 */
+	public boolean move(Location dest) {
+		KlondikeModel model = getModel();
+		if (selection == null) {
+			return false;
+		}
+		boolean allowed = controller.allowMove(model, selection, dest);
+		if (allowed) {
+			controller.moveCards(model, selection, dest);
+			selection = null;
+		} else {
+			cancelSelection(model);
+		}
+		return allowed;
+	}
+	
+	/**
+	 * @return the encoded game state (not including any pending selection)
+	 */
+	public String getState() {
+		if (model == null) {
+			return evictedState;
+		}
+		if (selection == null) {
+			return StringifyGameState.modelToString(model);
+		}
+		controller.unselect(model, selection);
+		String state = StringifyGameState.modelToString(model);
+		selection = controller.select(model, selection.getOrigin());
+		return state;
+	}
+	
+	/**
+	 * @return true if the player has won
+	 */
+	public boolean isWin() {
+		return controller.isWin(getModel());
+	}
+
+	/**
+	 * Evict the game state to its serialized form, if the session is
+	 * still idle.  Must be called from a command.  Idleness is checked
+	 * again here, rather than only when the eviction is requested,
+	 * since commands may have been submitted and run in the meantime.
+	 * 
+	 * @param idleTimeoutNanos how long the session must have been idle
+	 * @return true if the session was evicted, false if it was already
+	 *         evicted, if it was used within the idle timeout, or if more
+	 *         commands are waiting
+	 */
+	boolean evict(long idleTimeoutNanos) {
+		if (model == null || !mailbox.isEmpty() || System.nanoTime() - lastAccessNanos < idleTimeoutNanos) {
+			return false;
+		}
+		cancelSelection(model);
+		evictedState = StringifyGameState.modelToString(model);
+		model = null;
+		resident = false;
+		return true;
+	}
+	
+	private void cancelSelection(KlondikeModel model) {
+		if (selection != null) {
+			controller.unselect(model, selection);
+			selection = null;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package edu.ycp.cs201.cards.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+import edu.ycp.cs201.cards.StringifyGameState;
+
+/**
+ * Load-test client for a {@link SessionServer}.  Each client thread
+ * creates its own session, then issues a random mix of draw, select,
+ * move, and state requests until the test duration has elapsed.
+ * Like a real client, it reads the game state again after each request
+ * which changed it, and only selects face-up cards in its copy of the
+ * state, so every request is valid.  At the end, the throughput
+ * (successful requests per second) and the latency distribution of the
+ * successful requests are reported, along with the number of failed
+ * requests (error responses), which are not included in either.
+ */
+public class LoadTestClient {
+	private static final Pattern ID_PATTERN = Pattern.compile("\"id\":\"([^\"]*)\"");
+	private static final Pattern STATE_PATTERN = Pattern.compile("\"state\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+	private static final String[] DESTINATION_TYPES = { "FOUNDATION_PILE", "TABLEAU_PILE" };
+	
+	private final String baseUrl;
+	private final long durationNanos;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param baseUrl         the server's base URL (e.g., <code>http://localhost:8080</code>)
+	 * @param durationMillis  how long to run the test
+	 */
+	public LoadTestClient(String baseUrl, long durationMillis) {
+		this.baseUrl = baseUrl;
+		this.durationNanos = durationMillis * 1000000L;
+	}
+	
+	/**
+	 * Run the load test.
+	 * 
+	 * @param numClients number of concurrent clients (threads)
+	 * @throws InterruptedException if interrupted while waiting for the clients
+	 */
+	public void run(int numClients) throws InterruptedException {
+		final long[][] latencies = new long[numClients][];
+		final int[] counts = new int[numClients];
+		final int[] failures = new int[numClients];
+		final long deadline = System.nanoTime() + durationNanos;
+		
+		Thread[] threads = new Thread[numClients];
+		for (int i = 0; i < numClients; i++) {
+			final int clientIndex = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long[] samples = new long[1024];
+					int count = 0;
+					int numFailed = 0;
+					Random random = new Random(clientIndex);
+					KlondikeModel model = new KlondikeModel();
+					try {
+						String id = extractId(request("POST", "/sessions").body);
+						boolean stale = true;
+						while (System.nanoTime() < deadline) {
+							long start = System.nanoTime();
+							String path = stale ? "/sessions/" + id + "/state" : randomOperation(id, model, random);
+							boolean isState = path.endsWith("/state");
+							Response response = request(isState ? "GET" : "POST", path);
+							long elapsed = System.nanoTime() - start;
+							if (response.status >= 400) {
+								numFailed++;
+								continue;
+							}
+							if (count == samples.length) {
+								samples = Arrays.copyOf(samples, count * 2);
+							}
+							samples[count++] = elapsed;
+							
+							if (isState) {
+								parseState(response.body, model);
+								stale = false;
+							} else if (path.endsWith("/draw") || response.body.contains("\"ok\":true,")) {
+								// A draw, or a successful move
+								stale = true;
+							}
+						}
+					} catch (IOException e) {
+						System.err.println("Client " + clientIndex + " failed: " + e);
+					}
+					latencies[clientIndex] = samples;
+					counts[clientIndex] = count;
+					failures[clientIndex] = numFailed;
+				}
+			}, "load-client-" + i);
+			threads[i].start();
+		}
+		
+		long start = System.nanoTime();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		
+		int total = 0;
+		for (int count : counts) {
+			total += count;
+		}
+		int totalFailed = 0;
+		for (int numFailed : failures) {
+			totalFailed += numFailed;
+		}
+		long[] all = new long[total];
+		int pos = 0;
+		for (int i = 0; i < numClients; i++) {
+			System.arraycopy(latencies[i], 0, all, pos, counts[i]);
+			pos += counts[i];
+		}
+		Arrays.sort(all);
+		
+		System.out.printf("%d clients, %d requests in %.2f s: %.0f ops/s, %d failed\n",
+				numClients, total, seconds, total / seconds, totalFailed);
+		if (total > 0) {
+			System.out.printf("latency (us): p50=%d p90=%d p99=%d p99.9=%d max=%d\n",
+					percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+					percentile(all, 0.999), all[total - 1] / 1000);
+		}
+	}
+	
+	// A random request, selecting only face-up cards of the game state
+	private String randomOperation(String id, KlondikeModel model, Random random) {
+		String prefix = "/sessions/" + id;
+		switch (random.nextInt(4)) {
+		case 0:
+			return prefix + "/state";
+		case 1:
+			return prefix + "/draw";
+		case 2:
+			int pile = random.nextInt(7);
+			Pile tableauPile = model.getTableauPile(pile);
+			if (tableauPile.isEmpty()) {
+				return prefix + "/state";
+			}
+			int first = Math.min(tableauPile.getExposeIndex(), tableauPile.getIndexOfTopCard());
+			int card = first + random.nextInt(tableauPile.getNumCards() - first);
+			return prefix + "/select?type=TABLEAU_PILE&pile=" + pile + "&card=" + card;
+		default:
+			int type = random.nextInt(2);
+			return prefix + "/move?type=" + DESTINATION_TYPES[type] + "&pile=" + random.nextInt(type == 0 ? 4 : 7);
+		}
+	}
+	
+	// Decode the game state in a state response into the model.
+	private static void parseState(String json, KlondikeModel model) throws IOException {
+		Matcher m = STATE_PATTERN.matcher(json);
+		if (!m.find()) {
+			throw new IOException("No game state: " + json);
+		}
+		// The only escapes SessionServer.quote writes in a game state are \" and \\
+		model.reset();
+		StringifyGameState.stringToModel(model, m.group(1).replaceAll("\\\\(.)", "$1"));
+	}
+	
+	// The status and body of a response.
+	private static class Response {
+		final int status;
+		final String body;
+		
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+	}
+	
+	private Response request(String method, String path) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		conn.setRequestMethod(method);
+		int status = conn.getResponseCode();
+		InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream();
+		StringBuilder body = new StringBuilder();
+		try {
+			byte[] buf = new byte[1024];
+			int n;
+			while ((n = in.read(buf)) > 0) {
+				body.append(new String(buf, 0, n, "UTF-8"));
+			}
+		} finally {
+			in.close();
+		}
+		return new Response(status, body.toString());
+	}
+	
+	private static String extractId(String json) throws IOException {
+		Matcher m = ID_PATTERN.matcher(json);
+		if (!m.find()) {
+			throw new IOException("Could not create session: " + json);
+		}
+		return m.group(1);
+	}
+	
+	private static long percentile(long[] sorted, double p) {
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(0, index)] / 1000;
+	}
+	
+	/**
+	 * Run the load test.
+	 * Usage: <code>LoadTestClient [base URL] [clients] [duration millis]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws InterruptedException if interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		String baseUrl = args.length >= 1 ? args[0] : "http://localhost:8080";
+		int numClients = args.length >= 2 ? Integer.parseInt(args[1]) : 32;
+		long durationMillis = args.length >= 3 ? Long.parseLong(args[2]) : 10000;
+		new LoadTestClient(baseUrl, durationMillis).run(numClients);
+	}
+}
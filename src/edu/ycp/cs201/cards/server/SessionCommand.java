@@ -0,0 +1,19 @@
+package edu.ycp.cs201.cards.server;
+
+/**
+ * A command to be executed on a {@link GameSession}.
+ * Commands for a given session are executed one at a time,
+ * in the order in which they were submitted, so a command
+ * has exclusive access to its session while it runs.
+ *
+ * @param <T> the type of the command's result
+ */
+public interface SessionCommand<T> {
+	/**
+	 * Execute the command.
+	 * 
+	 * @param session the {@link GameSession}
+	 * @return the result of the command
+	 */
+	public T execute(GameSession session);
+}
@@ -0,0 +1,164 @@
+package edu.ycp.cs201.cards.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+
+/**
+ * Host many concurrent games, each in its own {@link GameSession},
+ * keyed by session id.  Commands for all sessions run on a shared
+ * thread pool (see {@link GameSession} for how commands for a single
+ * session are serialized).  Sessions which have not received a command
+ * within the idle timeout are periodically evicted to their serialized form.
+ */
+public class SessionManager {
+	private final KlondikeController controller;
+	private final ConcurrentHashMap<String, GameSession> sessions;
+	private final AtomicLong nextId;
+	private final AtomicLong evictionCount;
+	private final ExecutorService executor;
+	private final ScheduledExecutorService evictionTimer;
+	private final long idleTimeoutNanos;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller          the {@link KlondikeController}
+	 * @param numThreads          number of threads used to run commands
+	 * @param idleTimeoutMillis   how long a session may be idle before it is evicted
+	 */
+	public SessionManager(KlondikeController controller, int numThreads, long idleTimeoutMillis) {
+		this.controller = controller;
+		this.sessions = new ConcurrentHashMap<String, GameSession>();
+		this.nextId = new AtomicLong();
+		this.evictionCount = new AtomicLong();
+		// A fixed pool of platform threads, rather than a virtual thread per
+		// session (which would need Java 21): commands never block, and a
+		// session's mailbox only occupies a thread while it has commands
+		this.executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private final AtomicLong count = new AtomicLong();
+			
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "session-worker-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.evictionTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "session-eviction");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+		
+		long period = Math.max(1, idleTimeoutMillis / 2);
+		evictionTimer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				evictIdleSessions();
+			}
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Create a new session with a newly-dealt game.
+	 * 
+	 * @return the new {@link GameSession}
+	 */
+	public GameSession createSession() {
+		KlondikeModel model = new KlondikeModel();
+		controller.initModel(model);
+		String id = Long.toString(nextId.incrementAndGet(), 36);
+		GameSession session = new GameSession(id, controller, executor, model);
+		sessions.put(id, session);
+		return session;
+	}
+	
+	/**
+	 * Get a session.
+	 * 
+	 * @param id the session id
+	 * @return the {@link GameSession}, or null if there is no such session
+	 */
+	public GameSession getSession(String id) {
+		return sessions.get(id);
+	}
+	
+	/**
+	 * Submit a command to a session.
+	 * 
+	 * @param id       the session id
+	 * @param command  the {@link SessionCommand}
+	 * @return a Future which will hold the command's result, or null
+	 *         if there is no such session
+	 */
+	public <T> Future<T> submit(String id, SessionCommand<T> command) {
+		GameSession session = sessions.get(id);
+		return session != null ? session.submit(command) : null;
+	}
+	
+	/**
+	 * Remove a session.
+	 * 
+	 * @param id the session id
+	 * @return true if the session existed
+	 */
+	public boolean removeSession(String id) {
+		return sessions.remove(id) != null;
+	}
+	
+	/**
+	 * @return the number of sessions
+	 */
+	public int getNumSessions() {
+		return sessions.size();
+	}
+	
+	/**
+	 * @return the total number of times a session has been evicted
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+	
+	/**
+	 * Request eviction of every session which has been idle
+	 * for longer than the idle timeout.
+	 */
+	public void evictIdleSessions() {
+		long now = System.nanoTime();
+		for (GameSession session : sessions.values()) {
+			if (session.isResident() && now - session.getLastAccessNanos() > idleTimeoutNanos) {
+				session.submitHousekeeping(new SessionCommand<Void>() {
+					@Override
+					public Void execute(GameSession session) {
+						if (session.evict(idleTimeoutNanos)) {
+							evictionCount.incrementAndGet();
+						}
+						return null;
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Stop the worker and eviction threads.
+	 */
+	public void shutdown() {
+		evictionTimer.shutdownNow();
+		executor.shutdownNow();
+	}
+}
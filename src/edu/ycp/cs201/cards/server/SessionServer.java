@@ -0,0 +1,328 @@
+package edu.ycp.cs201.cards.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+
+/**
+ * HTTP/JSON front-end for a {@link SessionManager}.
+ * The API is:
+ * <ul>
+ *   <li><code>POST /sessions</code>: create a session, returns its id</li>
+ *   <li><code>GET /sessions/</code><i>id</i><code>/state</code>: the encoded game state</li>
+ *   <li><code>POST /sessions/</code><i>id</i><code>/draw</code>: draw a card (or recycle the waste pile)</li>
+ *   <li><code>POST /sessions/</code><i>id</i><code>/select?type=</code><i>t</i><code>&amp;pile=</code><i>p</i><code>&amp;card=</code><i>c</i>:
+ *       select cards to move</li>
+ *   <li><code>POST /sessions/</code><i>id</i><code>/move?type=</code><i>t</i><code>&amp;pile=</code><i>p</i>:
+ *       move the selected cards</li>
+ *   <li><code>DELETE /sessions/</code><i>id</i>: remove the session</li>
+ *   <li><code>GET /stats</code>: number of sessions and evictions</li>
+ * </ul>
+ * The <i>type</i> parameter is the name of a {@link LocationType} member.
+ * A request with a missing or invalid parameter, including a pile or card
+ * index outside the board or beyond the end of its pile, gets a 400 response.
+ */
+public class SessionServer {
+	/** Maximum time to wait for a session command to complete. */
+	private static final long COMMAND_TIMEOUT_MILLIS = 5000;
+	
+	private final SessionManager sessionManager;
+	private final HttpServer httpServer;
+	private final ExecutorService httpExecutor;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param sessionManager  the {@link SessionManager}
+	 * @param port            the port to listen on (on localhost)
+	 * @param numHttpThreads  number of threads handling HTTP requests
+	 * @throws IOException if the server socket can't be created
+	 */
+	public SessionServer(SessionManager sessionManager, int port, int numHttpThreads) throws IOException {
+		this.sessionManager = sessionManager;
+		this.httpServer = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+		httpServer.createContext("/sessions", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleSessions(exchange);
+			}
+		});
+		httpServer.createContext("/stats", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleStats(exchange);
+			}
+		});
+		this.httpExecutor = Executors.newFixedThreadPool(numHttpThreads);
+		httpServer.setExecutor(httpExecutor);
+	}
+	
+	/**
+	 * @return the port the server is listening on
+	 */
+	public int getPort() {
+		return httpServer.getAddress().getPort();
+	}
+	
+	/**
+	 * Start handling requests.
+	 */
+	public void start() {
+		httpServer.start();
+	}
+	
+	/**
+	 * Stop handling requests, and stop the threads which handle them.
+	 */
+	public void stop() {
+		httpServer.stop(0);
+		httpExecutor.shutdownNow();
+	}
+
+	private void handleStats(HttpExchange exchange) throws IOException {
+		try {
+			if (!exchange.getRequestURI().getPath().equals("/stats")) {
+				send(exchange, 404, error("not found"));
+			} else if (!exchange.getRequestMethod().equals("GET")) {
+				send(exchange, 405, error("method not allowed"));
+			} else {
+				send(exchange, 200, "{\"sessions\":" + sessionManager.getNumSessions()
+						+ ",\"evictions\":" + sessionManager.getEvictionCount() + "}");
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void handleSessions(HttpExchange exchange) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			String[] path = exchange.getRequestURI().getPath().split("/");
+			// path[0] is empty, path[1] is "sessions" (the context
+			// also matches other paths starting with "/sessions")
+			if (path.length < 2 || path.length > 4 || !path[1].equals("sessions")) {
+				send(exchange, 404, error("not found"));
+				return;
+			}
+			if (path.length == 2) {
+				if (!method.equals("POST")) {
+					send(exchange, 405, error("method not allowed"));
+					return;
+				}
+				GameSession session = sessionManager.createSession();
+				send(exchange, 200, "{\"id\":" + quote(session.getId()) + "}");
+				return;
+			}
+			
+			final String id = path[2];
+			if (path.length == 3) {
+				if (!method.equals("DELETE")) {
+					send(exchange, 405, error("method not allowed"));
+					return;
+				}
+				boolean removed = sessionManager.removeSession(id);
+				send(exchange, removed ? 200 : 404, removed ? "{\"ok\":true}" : error("no such session"));
+				return;
+			}
+			
+			String operation = path[3];
+			if (!isOperation(operation)) {
+				send(exchange, 404, error("unknown operation " + operation));
+				return;
+			}
+			if (!method.equals(operation.equals("state") ? "GET" : "POST")) {
+				send(exchange, 405, error("method not allowed"));
+				return;
+			}
+			SessionCommand<String> command = createCommand(operation, parseQuery(exchange.getRequestURI().getRawQuery()));
+			Future<String> result = sessionManager.submit(id, command);
+			if (result == null) {
+				send(exchange, 404, error("no such session"));
+				return;
+			}
+			send(exchange, 200, result.get(COMMAND_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+		} catch (IllegalArgumentException e) {
+			send(exchange, 400, error(e.getMessage()));
+		} catch (ExecutionException e) {
+			// A command rejects a location beyond the end of its pile
+			if (e.getCause() instanceof IllegalArgumentException) {
+				send(exchange, 400, error(e.getCause().getMessage()));
+			} else {
+				send(exchange, 500, error("internal error"));
+			}
+		} catch (TimeoutException e) {
+			send(exchange, 503, error("timed out"));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			send(exchange, 503, error("interrupted"));
+		} finally {
+			exchange.close();
+		}
+	}
+	
+	private static boolean isOperation(String operation) {
+		return operation.equals("state") || operation.equals("draw")
+				|| operation.equals("select") || operation.equals("move");
+	}
+
+	// Create the command for an operation (see isOperation).
+	private SessionCommand<String> createCommand(String operation, final Map<String, String> params) {
+		if (operation.equals("state")) {
+			return new SessionCommand<String>() {
+				@Override
+				public String execute(GameSession session) {
+					return stateJson(session);
+				}
+			};
+		}
+		if (operation.equals("draw")) {
+			return new SessionCommand<String>() {
+				@Override
+				public String execute(GameSession session) {
+					session.draw();
+					return "{\"ok\":true}";
+				}
+			};
+		}
+		if (operation.equals("select")) {
+			final Location location = parseLocation(params, true);
+			return new SessionCommand<String>() {
+				@Override
+				public String execute(GameSession session) {
+					return "{\"ok\":" + session.select(location) + "}";
+				}
+			};
+		}
+		if (operation.equals("move")) {
+			final Location location = parseLocation(params, false);
+			return new SessionCommand<String>() {
+				@Override
+				public String execute(GameSession session) {
+					boolean ok = session.move(location);
+					return "{\"ok\":" + ok + ",\"win\":" + (ok && session.isWin()) + "}";
+				}
+			};
+		}
+		return null;
+	}
+	
+	private static String stateJson(GameSession session) {
+		return "{\"id\":" + quote(session.getId())
+				+ ",\"state\":" + quote(session.getState())
+				+ ",\"win\":" + session.isWin() + "}";
+	}
+
+	private static Location parseLocation(Map<String, String> params, boolean needCardIndex) {
+		String type = params.get("type");
+		String pile = params.get("pile");
+		String card = params.get("card");
+		if (type == null || (needCardIndex && card == null)) {
+			throw new IllegalArgumentException("missing location parameter");
+		}
+		LocationType locationType;
+		int pileIndex;
+		int cardIndex;
+		try {
+			locationType = LocationType.valueOf(type);
+			pileIndex = pile != null ? Integer.parseInt(pile) : 0;
+			cardIndex = card != null ? Integer.parseInt(card) : -1;
+		} catch (IllegalArgumentException e) {
+			// Including NumberFormatException
+			throw new IllegalArgumentException("invalid location parameter");
+		}
+		int numPiles = locationType == LocationType.TABLEAU_PILE ? 7
+				: locationType == LocationType.FOUNDATION_PILE ? 4 : 1;
+		if (pileIndex < 0 || pileIndex >= numPiles || cardIndex < -1 || cardIndex >= Card.NUM_CARDS) {
+			throw new IllegalArgumentException("location out of range");
+		}
+		return new Location(locationType, pileIndex, cardIndex);
+	}
+
+	private static Map<String, String> parseQuery(String query) {
+		Map<String, String> params = new HashMap<String, String>();
+		if (query != null) {
+			for (String param : query.split("&")) {
+				int eq = param.indexOf('=');
+				if (eq > 0) {
+					params.put(param.substring(0, eq), param.substring(eq + 1));
+				}
+			}
+		}
+		return params;
+	}
+	
+	private static String error(String message) {
+		return "{\"error\":" + quote(message) + "}";
+	}
+
+	/**
+	 * Quote a string as a JSON string literal.
+	 * 
+	 * @param s the string
+	 * @return the JSON string literal
+	 */
+	static String quote(String s) {
+		StringBuilder buf = new StringBuilder(s.length() + 2);
+		buf.append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				buf.append('\\').append(c);
+			} else if (c < 0x20) {
+				buf.append(String.format("\\u%04x", (int) c));
+			} else {
+				buf.append(c);
+			}
+		}
+		buf.append('"');
+		return buf.toString();
+	}
+
+	private static void send(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		try {
+			out.write(body);
+		} finally {
+			out.close();
+		}
+	}
+	
+	/**
+	 * Run the server.
+	 * Usage: <code>SessionServer [port] [idle timeout millis]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws IOException if the server can't be started
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = args.length >= 1 ? Integer.parseInt(args[0]) : 8080;
+		long idleTimeoutMillis = args.length >= 2 ? Long.parseLong(args[1]) : 60000;
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		
+		SessionManager sessionManager = new SessionManager(new KlondikeController(), numThreads, idleTimeoutMillis);
+		SessionServer server = new SessionServer(sessionManager, port, 4 * numThreads);
+		server.start();
+		System.out.println("Listening on http://localhost:" + server.getPort() + "/");
+	}
+}
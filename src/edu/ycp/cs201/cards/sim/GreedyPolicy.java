@@ -0,0 +1,66 @@
+package edu.ycp.cs201.cards.sim;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * A {@link PlayoutPolicy} which makes the first available move of the
+ * highest priority: a move to a foundation pile, then a move which
+ * exposes a face-down card, then a move which empties a tableau pile,
+ * then a move from the main deck, and finally drawing.
+ * Other tableau-to-tableau moves are never made, since they can undo
+ * each other indefinitely; as a result, the policy can only get stuck
+ * by drawing forever, which the simulator detects.
+ */
+public class GreedyPolicy implements PlayoutPolicy {
+	private static final int FOUNDATION = 0;
+	private static final int EXPOSES_CARD = 1;
+	private static final int EMPTIES_PILE = 2;
+	private static final int FROM_MAIN_DECK = 3;
+	private static final int DRAW = 4;
+	private static final int NEVER = 5;
+	
+	@Override
+	public Move chooseMove(KlondikeModel model, List<Move> moves, SplittableRandom random) {
+		Move best = null;
+		int bestPriority = NEVER;
+		for (Move move : moves) {
+			int priority = getPriority(model, move);
+			if (priority < bestPriority) {
+				best = move;
+				bestPriority = priority;
+				if (priority == FOUNDATION) {
+					break;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static int getPriority(KlondikeModel model, Move move) {
+		if (move.isDraw()) {
+			return DRAW;
+		}
+		if (move.getDest().getLocationType() == LocationType.FOUNDATION_PILE) {
+			return FOUNDATION;
+		}
+		if (move.getSource().getLocationType() == LocationType.MAIN_DECK) {
+			return FROM_MAIN_DECK;
+		}
+		int cardIndex = move.getSource().getCardIndex();
+		if (cardIndex == 0) {
+			return EMPTIES_PILE;
+		}
+		int exposeIndex = model.getTableauPile(move.getSource().getPileIndex()).getExposeIndex();
+		return cardIndex == exposeIndex ? EXPOSES_CARD : NEVER;
+	}
+	
+	@Override
+	public String toString() {
+		return "greedy";
+	}
+}
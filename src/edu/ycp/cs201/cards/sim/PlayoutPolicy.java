@@ -0,0 +1,28 @@
+package edu.ycp.cs201.cards.sim;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * A strategy for playing games in the {@link PlayoutSimulator}:
+ * given a game state and its legal moves, choose the move to make.
+ * A policy is shared by all of the simulator's threads, so it must
+ * either be stateless or be thread-safe.  Any randomness should come
+ * from the random number generator passed in, which the simulator
+ * seeds from the deal, so that simulations are reproducible.
+ */
+public interface PlayoutPolicy {
+	/**
+	 * Choose a move.
+	 * 
+	 * @param model   the game state (must not be modified)
+	 * @param moves   the legal moves, as found by the
+	 *                {@link edu.ycp.cs201.cards.ai.MoveGenerator}; never empty
+	 * @param random  the random number generator for this game
+	 * @return one of the moves, or null to resign the game
+	 */
+	public Move chooseMove(KlondikeModel model, List<Move> moves, SplittableRandom random);
+}
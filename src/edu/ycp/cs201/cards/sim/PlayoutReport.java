@@ -0,0 +1,123 @@
+package edu.ycp.cs201.cards.sim;
+
+import java.util.Arrays;
+
+import edu.ycp.cs201.cards.ai.WinEstimate;
+
+/**
+ * The results of a {@link PlayoutSimulator} run: the number of games
+ * played and won, the time taken, and the distribution of the number
+ * of moves made per game.
+ */
+public class PlayoutReport {
+	private final String policyName;
+	private final long numGames;
+	private final long numWins;
+	private final long elapsedNanos;
+	private final long[] moveCounts;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param policyName    the name of the {@link PlayoutPolicy}
+	 * @param numGames      the number of games played
+	 * @param numWins       the number of games won
+	 * @param elapsedNanos  the wall-clock time taken, in nanoseconds
+	 * @param moveCounts    the number of games which took each number of moves,
+	 *                      indexed by number of moves (not copied)
+	 */
+	public PlayoutReport(String policyName, long numGames, long numWins, long elapsedNanos, long[] moveCounts) {
+		this.policyName = policyName;
+		this.numGames = numGames;
+		this.numWins = numWins;
+		this.elapsedNanos = elapsedNanos;
+		this.moveCounts = moveCounts;
+	}
+	
+	/**
+	 * @return the name of the {@link PlayoutPolicy}
+	 */
+	public String getPolicyName() {
+		return policyName;
+	}
+	
+	/**
+	 * @return the number of games played
+	 */
+	public long getNumGames() {
+		return numGames;
+	}
+	
+	/**
+	 * @return the number of games won
+	 */
+	public long getNumWins() {
+		return numWins;
+	}
+	
+	/**
+	 * @return the win rate, with its 95% confidence interval
+	 */
+	public WinEstimate getWinRate() {
+		return new WinEstimate(numWins, numGames);
+	}
+	
+	/**
+	 * @return the wall-clock time taken, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+	
+	/**
+	 * @return the number of games played per second
+	 */
+	public double getGamesPerSecond() {
+		return elapsedNanos > 0 ? numGames * 1e9 / elapsedNanos : 0.0;
+	}
+	
+	/**
+	 * @return a copy of the move count distribution: element <i>n</i>
+	 *         is the number of games in which <i>n</i> moves were made
+	 */
+	public long[] getMoveCounts() {
+		return Arrays.copyOf(moveCounts, moveCounts.length);
+	}
+	
+	/**
+	 * @return the mean number of moves per game
+	 */
+	public double getMeanMoves() {
+		long total = 0;
+		for (int n = 0; n < moveCounts.length; n++) {
+			total += n * moveCounts[n];
+		}
+		return numGames > 0 ? (double) total / numGames : 0.0;
+	}
+	
+	/**
+	 * Get a percentile of the number of moves per game.
+	 * 
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the smallest number of moves which at least the given
+	 *         percentage of games took no more than
+	 */
+	public int getMovesPercentile(double percentile) {
+		long rank = (long) Math.ceil(numGames * percentile / 100.0);
+		long count = 0;
+		for (int n = 0; n < moveCounts.length; n++) {
+			count += moveCounts[n];
+			if (count >= rank && count > 0) {
+				return n;
+			}
+		}
+		return 0;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("%s: %d games, %.0f games/s, win rate %s, moves mean %.1f p50 %d p90 %d p99 %d max %d",
+				policyName, numGames, getGamesPerSecond(), getWinRate(), getMeanMoves(),
+				getMovesPercentile(50), getMovesPercentile(90), getMovesPercentile(99), getMovesPercentile(100));
+	}
+}
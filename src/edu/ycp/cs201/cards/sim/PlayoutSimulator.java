@@ -0,0 +1,234 @@
+package edu.ycp.cs201.cards.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.KlondikeModelPool;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.ai.MoveGenerator;
+
+/**
+ * <p>Play large numbers of complete games with a {@link PlayoutPolicy},
+ * for evaluating and comparing policies.  Game <i>i</i> of a run is dealt
+ * from seed <i>firstSeed + i</i> (as by
+ * {@link KlondikeController#initModel(KlondikeModel, Random)}), and the
+ * policy's random number generator is seeded from the same seed, so a
+ * run's results depend only on the policy and seeds, not on the number
+ * of threads.</p>
+ * 
+ * <p>Moves are found by a {@link MoveGenerator} and made with
+ * {@link KlondikeController#makeMove(KlondikeModel, Move)}, so the games
+ * follow exactly the controller's rules.  A game ends when it is won,
+ * when the policy resigns, when the only moves made for a full pass
+ * through the main deck and waste pile are draws, or after
+ * {@link #MAX_MOVES} moves.</p>
+ * 
+ * <p>Games are handed out to a fixed pool of daemon threads in chunks
+ * of {@link #CHUNK_SIZE}.  Each thread plays on a model taken from a
+ * {@link KlondikeModelPool} and keeps its own tallies, which are only
+ * combined at the end of the run, so the threads share nothing but
+ * the chunk counter while they run.</p>
+ */
+public class PlayoutSimulator {
+	/** Maximum number of moves made in one game. */
+	public static final int MAX_MOVES = 1000;
+	
+	/** Number of games handed to a thread at a time. */
+	public static final int CHUNK_SIZE = 256;
+	
+	private final KlondikeController controller;
+	private final MoveGenerator moveGenerator;
+	private final KlondikeModelPool modelPool;
+	private final int numThreads;
+	private final ExecutorService executor;
+	
+	/**
+	 * Constructor.  Uses one thread per available processor.
+	 * 
+	 * @param controller the {@link KlondikeController} whose rules are used
+	 */
+	public PlayoutSimulator(KlondikeController controller) {
+		this(controller, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller  the {@link KlondikeController} whose rules are used
+	 * @param numThreads  number of threads to play games on
+	 */
+	public PlayoutSimulator(KlondikeController controller, int numThreads) {
+		this.controller = controller;
+		this.moveGenerator = new MoveGenerator(controller);
+		this.modelPool = new KlondikeModelPool(numThreads);
+		this.numThreads = numThreads;
+		this.executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+			private int count;
+			
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "playout-simulator-" + (count++));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 * Play games from a range of seeds.
+	 * 
+	 * @param policy     the {@link PlayoutPolicy}
+	 * @param firstSeed  the seed of the first game
+	 * @param numGames   the number of games to play
+	 * @return the {@link PlayoutReport}
+	 * @throws InterruptedException if interrupted while waiting for the games
+	 */
+	public PlayoutReport run(final PlayoutPolicy policy, final long firstSeed, final long numGames) throws InterruptedException {
+		long start = System.nanoTime();
+		final AtomicLong nextGame = new AtomicLong();
+		List<Future<Tally>> results = new ArrayList<Future<Tally>>();
+		for (int t = 0; t < numThreads; t++) {
+			results.add(executor.submit(new Callable<Tally>() {
+				@Override
+				public Tally call() {
+					return playChunks(policy, firstSeed, numGames, nextGame);
+				}
+			}));
+		}
+		
+		Tally total = new Tally();
+		try {
+			for (Future<Tally> result : results) {
+				total.add(result.get());
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Playout failed", e.getCause());
+		} finally {
+			for (Future<Tally> result : results) {
+				result.cancel(true);
+			}
+		}
+		return new PlayoutReport(policy.toString(), total.games, total.wins, System.nanoTime() - start, total.moveCounts);
+	}
+	
+	/**
+	 * Stop the playout threads.  The simulator can't be used afterwards.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	private Tally playChunks(PlayoutPolicy policy, long firstSeed, long numGames, AtomicLong nextGame) {
+		Tally tally = new Tally();
+		KlondikeModel model = modelPool.acquire();
+		Random dealRandom = new Random();
+		List<Move> moves = new ArrayList<Move>();
+		try {
+			long first;
+			while ((first = nextGame.getAndAdd(CHUNK_SIZE)) < numGames && !Thread.currentThread().isInterrupted()) {
+				long end = Math.min(numGames, first + CHUNK_SIZE);
+				for (long game = first; game < end; game++) {
+					long seed = firstSeed + game;
+					dealRandom.setSeed(seed);
+					controller.initModel(model, dealRandom);
+					int numMoves = play(policy, model, moves, new SplittableRandom(seed));
+					tally.games++;
+					tally.moveCounts[numMoves]++;
+					if (controller.isWin(model)) {
+						tally.wins++;
+					}
+				}
+			}
+		} finally {
+			modelPool.release(model);
+		}
+		return tally;
+	}
+
+	// Play one game to its end, and return the number of moves made.
+	private int play(PlayoutPolicy policy, KlondikeModel model, List<Move> moves, SplittableRandom random) {
+		int numMoves = 0;
+		int consecutiveDraws = 0;
+		while (numMoves < MAX_MOVES && !controller.isWin(model)) {
+			moves.clear();
+			moveGenerator.generateMoves(model, moves);
+			if (moves.isEmpty()) {
+				break;
+			}
+			Move move = policy.chooseMove(model, moves, random);
+			if (move == null) {
+				break;
+			}
+			if (move.isDraw()) {
+				// A full pass is one draw per card, plus the recycle
+				int passLength = model.getMainDeck().getNumCards() + model.getWastePile().getNumCards() + 1;
+				if (++consecutiveDraws > passLength) {
+					break;
+				}
+			} else {
+				consecutiveDraws = 0;
+			}
+			controller.makeMove(model, move);
+			numMoves++;
+		}
+		return numMoves;
+	}
+
+	// Per-thread results.
+	private static class Tally {
+		long games;
+		long wins;
+		final long[] moveCounts = new long[MAX_MOVES + 1];
+		
+		void add(Tally other) {
+			games += other.games;
+			wins += other.wins;
+			for (int i = 0; i <= MAX_MOVES; i++) {
+				moveCounts[i] += other.moveCounts[i];
+			}
+		}
+	}
+	
+	/**
+	 * Play games and print the report.
+	 * Usage: <code>PlayoutSimulator &lt;random | greedy | policy class name&gt; &lt;games&gt; [first seed] [threads]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws Exception if the simulation fails
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: PlayoutSimulator <random | greedy | policy class name> <games> [first seed] [threads]");
+			System.exit(1);
+		}
+		PlayoutPolicy policy;
+		if (args[0].equals("random")) {
+			policy = new RandomPolicy();
+		} else if (args[0].equals("greedy")) {
+			policy = new GreedyPolicy();
+		} else {
+			policy = Class.forName(args[0]).asSubclass(PlayoutPolicy.class).getDeclaredConstructor().newInstance();
+		}
+		long numGames = Long.parseLong(args[1]);
+		long firstSeed = args.length >= 3 ? Long.parseLong(args[2]) : 0L;
+		int numThreads = args.length >= 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		
+		PlayoutSimulator simulator = new PlayoutSimulator(new KlondikeController(), numThreads);
+		try {
+			System.out.println(simulator.run(policy, firstSeed, numGames));
+		} finally {
+			simulator.shutdown();
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package edu.ycp.cs201.cards.sim;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Move;
+
+/**
+ * A {@link PlayoutPolicy} which chooses uniformly at random
+ * among the legal moves.  Useful as a baseline: any policy worth
+ * considering should win more often than this one.
+ */
+public class RandomPolicy implements PlayoutPolicy {
+	@Override
+	public Move chooseMove(KlondikeModel model, List<Move> moves, SplittableRandom random) {
+		return moves.get(random.nextInt(moves.size()));
+	}
+	
+	@Override
+	public String toString() {
+		return "random";
+	}
+}
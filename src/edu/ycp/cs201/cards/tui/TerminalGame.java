@@ -0,0 +1,229 @@
+package edu.ycp.cs201.cards.tui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.ycp.cs201.cards.KlondikeController;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Location;
+import edu.ycp.cs201.cards.LocationType;
+import edu.ycp.cs201.cards.Move;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * <p>Text front-end for playing over SSH or a serial console.
+ * The game is drawn by a {@link TerminalRenderer}, which only sends the
+ * parts of the screen that change, and moves are made by typing
+ * commands (one per line), which are carried out by the
+ * {@link KlondikeController}, exactly as in the Swing
+ * {@link edu.ycp.cs201.cards.gui.KlondikeView}.</p>
+ * 
+ * <p>Commands: <code>d</code> draws a card (or recycles the waste pile),
+ * <code>a</code> auto-plays safe cards to the foundations, and
+ * <i>source destination</i> moves cards, where the source is <code>m</code>
+ * (the main deck) or <code>t1</code>-<code>t7</code>, and the destination is
+ * <code>t1</code>-<code>t7</code>, <code>f1</code>-<code>f4</code>, or
+ * <code>f</code> (any foundation pile).  From a tableau pile, the deepest
+ * face-up card which can legally move is moved, with the cards on top of it.
+ * A move may also be given in {@link Move#toNotation() move notation}.
+ * <code>r</code> redraws the screen, <code>s</code> shows how many bytes
+ * the screen updates have taken, and <code>q</code> quits.</p>
+ */
+public class TerminalGame {
+	private static final int PROMPT_WIDTH = TerminalRenderer.PROMPT.length();
+	private static final String HELP = "d=draw a=autoplay <m|t1-7> <t1-7|f|f1-4> r=redraw s=stats q=quit";
+	
+	private final KlondikeController controller;
+	private final KlondikeModel model;
+	private final TerminalRenderer renderer;
+	private long numUpdates;
+	private long updateBytes;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param controller  the {@link KlondikeController}
+	 * @param model       the game state to play
+	 * @param renderer    the {@link TerminalRenderer}
+	 */
+	public TerminalGame(KlondikeController controller, KlondikeModel model, TerminalRenderer renderer) {
+		this.controller = controller;
+		this.model = model;
+		this.renderer = renderer;
+	}
+	
+	/**
+	 * Play until the player quits, or the input ends.
+	 * 
+	 * @param input   the player's commands
+	 * @param output  the terminal
+	 * @throws IOException if the terminal can't be read or written
+	 */
+	public void run(Reader input, OutputStream output) throws IOException {
+		BufferedReader in = new BufferedReader(input);
+		output.write(renderer.render(model, HELP).getBytes(StandardCharsets.UTF_8));
+		output.flush();
+		
+		String line;
+		while ((line = in.readLine()) != null) {
+			String command = line.trim().toLowerCase();
+			if (command.equals("q")) {
+				break;
+			}
+			String status;
+			if (PROMPT_WIDTH + line.length() >= TerminalRenderer.WIDTH) {
+				// The input wrapped past the prompt row, onto the piles
+				renderer.invalidate();
+			}
+			if (command.equals("r")) {
+				renderer.invalidate();
+				status = HELP;
+			} else {
+				status = execute(command);
+			}
+			byte[] update = renderer.render(model, status).getBytes(StandardCharsets.UTF_8);
+			numUpdates++;
+			updateBytes += update.length;
+			output.write(update);
+			output.flush();
+		}
+	}
+	
+	/**
+	 * Carry out a command.
+	 * 
+	 * @param command the command (trimmed, in lower case)
+	 * @return the status message to show
+	 */
+	String execute(String command) {
+		String status;
+		if (command.isEmpty()) {
+			status = "";
+		} else if (command.equals("d")) {
+			status = controller.makeMove(model, Move.DRAW) ? "" : "Nothing to draw";
+		} else if (command.equals("a")) {
+			int numMoved = controller.autoPlayToFoundations(model);
+			status = numMoved + (numMoved == 1 ? " card" : " cards") + " moved";
+		} else if (command.equals("s")) {
+			return numUpdates + " updates, " + updateBytes + " bytes, "
+					+ (numUpdates > 0 ? updateBytes / numUpdates : 0) + " bytes/update";
+		} else if (command.indexOf('>') >= 0) {
+			status = makeMove(command) ? "" : "Illegal move";
+		} else {
+			String[] words = command.split("\\s+");
+			status = words.length == 2 ? moveCards(words[0], words[1]) : "Unknown command: " + HELP;
+		}
+		return controller.isWin(model) ? "You win!" : status;
+	}
+
+	// Make a move given in move notation.  Notation which can't be parsed,
+	// including a pile or card index outside the board, and a card index
+	// beyond the end of its pile, are illegal moves.
+	private boolean makeMove(String notation) {
+		try {
+			return controller.makeMove(model, Move.parse(notation.toUpperCase()));
+		} catch (IllegalArgumentException e) {
+			return false;
+		} catch (IndexOutOfBoundsException e) {
+			return false;
+		}
+	}
+
+	private String moveCards(String source, String dest) {
+		List<Location> sources = parseSource(source);
+		if (sources == null) {
+			return "Invalid source: " + source;
+		}
+		List<Location> dests = parseDest(dest);
+		if (dests == null) {
+			return "Invalid destination: " + dest;
+		}
+		for (Location from : sources) {
+			for (Location to : dests) {
+				if (controller.makeMove(model, new Move(from, to))) {
+					return "";
+				}
+			}
+		}
+		return "Illegal move";
+	}
+
+	// The locations a source could mean, deepest first: the top of the
+	// main deck, or each face-up card of a tableau pile.
+	private List<Location> parseSource(String source) {
+		List<Location> sources = new ArrayList<Location>();
+		if (source.equals("m")) {
+			Pile mainDeck = model.getMainDeck();
+			if (!mainDeck.isEmpty()) {
+				sources.add(new Location(LocationType.MAIN_DECK, 0, mainDeck.getIndexOfTopCard()));
+			}
+			return sources;
+		}
+		int pileIndex = parsePileIndex(source, 't', 7);
+		if (pileIndex < 0) {
+			return null;
+		}
+		Pile tableauPile = model.getTableauPile(pileIndex);
+		for (int j = Math.max(0, tableauPile.getExposeIndex()); j < tableauPile.getNumCards(); j++) {
+			sources.add(new Location(LocationType.TABLEAU_PILE, pileIndex, j));
+		}
+		return sources;
+	}
+
+	// The locations a destination could mean: "f" is any foundation pile.
+	private static List<Location> parseDest(String dest) {
+		List<Location> dests = new ArrayList<Location>();
+		if (dest.equals("f")) {
+			for (int i = 0; i < 4; i++) {
+				dests.add(new Location(LocationType.FOUNDATION_PILE, i, -1));
+			}
+		} else if (parsePileIndex(dest, 'f', 4) >= 0) {
+			dests.add(new Location(LocationType.FOUNDATION_PILE, parsePileIndex(dest, 'f', 4), -1));
+		} else if (parsePileIndex(dest, 't', 7) >= 0) {
+			dests.add(new Location(LocationType.TABLEAU_PILE, parsePileIndex(dest, 't', 7), -1));
+		} else {
+			return null;
+		}
+		return dests;
+	}
+
+	// Parse a pile name such as "t3" (1-based) to a pile index, or -1 if invalid.
+	private static int parsePileIndex(String s, char prefix, int numPiles) {
+		if (s.length() != 2 || s.charAt(0) != prefix) {
+			return -1;
+		}
+		int n = s.charAt(1) - '0';
+		return n >= 1 && n <= numPiles ? n - 1 : -1;
+	}
+	
+	/**
+	 * Play a game on the console.
+	 * Usage: <code>TerminalGame [seed] [--no-color]</code>
+	 * 
+	 * @param args command line arguments
+	 * @throws IOException if the console can't be read or written
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean color = true;
+		Random random = new Random();
+		for (String arg : args) {
+			if (arg.equals("--no-color")) {
+				color = false;
+			} else {
+				random = new Random(Long.parseLong(arg));
+			}
+		}
+		KlondikeController controller = new KlondikeController();
+		KlondikeModel model = new KlondikeModel();
+		controller.initModel(model, random);
+		new TerminalGame(controller, model, new TerminalRenderer(color))
+				.run(new InputStreamReader(System.in, StandardCharsets.UTF_8), System.out);
+	}
+}
@@ -0,0 +1,234 @@
+package edu.ycp.cs201.cards.tui;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ycp.cs201.cards.Card;
+import edu.ycp.cs201.cards.Color;
+import edu.ycp.cs201.cards.KlondikeModel;
+import edu.ycp.cs201.cards.Pile;
+
+/**
+ * <p>Render a {@link KlondikeModel} on an ANSI terminal, using the
+ * {@link Card#toString()} symbols.  The screen is a grid of fixed-width
+ * cells: the main deck's top card and size, the waste pile's size, and the
+ * top of each foundation pile on row {@link #PILE_ROW}, and the tableau
+ * piles in columns from row {@link #TABLEAU_ROW} down, with face-down
+ * cards shown as <code>##</code>.</p>
+ * 
+ * <p>The layout fits an 80x24 terminal, the usual size of serial consoles
+ * and SSH sessions.  The command prompt is on the top row, so pressing
+ * Enter moves the cursor down a row rather than scrolling the screen
+ * (which would leave every later update a row off); the tallest possible
+ * tableau pile, six face-down cards and thirteen face-up cards, ends on
+ * row 23; and the status line, on the bottom row, is cut short of the
+ * last column, so writing it can't scroll the screen either.</p>
+ * 
+ * <p>The renderer remembers the last frame it rendered, and after the
+ * first (full) frame, only writes the cells which have changed, each
+ * preceded by a cursor-addressing escape sequence (omitted when the
+ * cursor is already in place).  A move changes a handful of cells, so
+ * an update is typically tens of bytes rather than a full screen.</p>
+ */
+public class TerminalRenderer {
+	/** Width of the screen, in columns. */
+	public static final int WIDTH = 80;
+	
+	/** Height of the screen, in rows. */
+	public static final int HEIGHT = 24;
+	
+	/** Width of a cell, in columns. */
+	public static final int CELL_WIDTH = 5;
+	
+	/** Row of the command prompt. */
+	public static final int PROMPT_ROW = 1;
+	
+	/** Row of the main deck, waste pile, and foundation piles. */
+	public static final int PILE_ROW = 3;
+	
+	/** Row of the first card of each tableau pile. */
+	public static final int TABLEAU_ROW = 5;
+	
+	/** Row of the status line. */
+	public static final int STATUS_ROW = HEIGHT;
+	
+	/** The command prompt. */
+	public static final String PROMPT = "> ";
+	
+	static final String ESC = "\u001b[";
+	
+	private static final int DECK_COLUMN = 1;
+	private static final int WASTE_COLUMN = DECK_COLUMN + 2*CELL_WIDTH;
+	private static final int FOUNDATION_COLUMN = 1 + 3*CELL_WIDTH;
+	private static final String BLANK = pad("");
+	
+	private final boolean color;
+	private Map<Integer, String> previous;
+	private String previousStatus;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param color true to show red cards in red, false for plain text
+	 *              (which is smaller, and works on any terminal)
+	 */
+	public TerminalRenderer(boolean color) {
+		this.color = color;
+	}
+	
+	/**
+	 * Forget the last frame, so that the next {@link #render(KlondikeModel, String)}
+	 * redraws the whole screen (e.g., after the terminal has been cleared).
+	 */
+	public void invalidate() {
+		previous = null;
+		previousStatus = null;
+	}
+	
+	/**
+	 * Render a game state.  The first call (or the first call after
+	 * {@link #invalidate()}) clears the screen and draws everything;
+	 * later calls only draw the cells which changed.  In either case,
+	 * the cursor is left at the start of a cleared prompt line.
+	 * 
+	 * @param model   the game state
+	 * @param status  the status message (may be empty)
+	 * @return the text to write to the terminal
+	 */
+	public String render(KlondikeModel model, String status) {
+		StringBuilder buf = new StringBuilder();
+		Map<Integer, String> current = buildFrame(model);
+		if (previous == null) {
+			buf.append(ESC).append("2J");
+			drawLabels(buf);
+			diff(new TreeMap<Integer, String>(), current, buf);
+		} else {
+			diff(previous, current, buf);
+		}
+		if (!status.equals(previousStatus)) {
+			moveTo(buf, STATUS_ROW, 1);
+			buf.append(status.length() < WIDTH ? status : status.substring(0, WIDTH - 1)).append(ESC).append('K');
+		}
+		moveTo(buf, PROMPT_ROW, 1);
+		buf.append(ESC).append('K').append(PROMPT);
+		
+		previous = current;
+		previousStatus = status;
+		return buf.toString();
+	}
+	
+	/**
+	 * Build the cells of a frame, keyed by {@link #key(int, int) position}.
+	 * 
+	 * @param model the game state
+	 * @return the text of each cell, padded to {@link #CELL_WIDTH}
+	 */
+	Map<Integer, String> buildFrame(KlondikeModel model) {
+		Map<Integer, String> frame = new TreeMap<Integer, String>();
+		
+		Pile mainDeck = model.getMainDeck();
+		frame.put(key(PILE_ROW, DECK_COLUMN), mainDeck.isEmpty() ? pad("--") : cardCell(mainDeck, mainDeck.getIndexOfTopCard()));
+		frame.put(key(PILE_ROW, DECK_COLUMN + CELL_WIDTH), pad("(" + mainDeck.getNumCards() + ")"));
+		frame.put(key(PILE_ROW, WASTE_COLUMN), pad("W" + model.getWastePile().getNumCards()));
+		
+		for (int i = 0; i < 4; i++) {
+			Pile foundation = model.getFoundationPile(i);
+			frame.put(key(PILE_ROW, FOUNDATION_COLUMN + i*CELL_WIDTH),
+					foundation.isEmpty() ? pad("--") : cardCell(foundation, foundation.getIndexOfTopCard()));
+		}
+		
+		for (int i = 0; i < 7; i++) {
+			Pile tableauPile = model.getTableauPile(i);
+			int column = 1 + i*CELL_WIDTH;
+			if (tableauPile.isEmpty()) {
+				frame.put(key(TABLEAU_ROW, column), pad("--"));
+			}
+			for (int j = 0; j < tableauPile.getNumCards(); j++) {
+				frame.put(key(TABLEAU_ROW + j, column), cardCell(tableauPile, j));
+			}
+		}
+		return frame;
+	}
+
+	/**
+	 * Append the escape sequences and text which turn one frame into another:
+	 * changed and new cells are drawn, and cells which are gone are blanked.
+	 * 
+	 * @param previous  the cells on the screen
+	 * @param current   the cells which should be on the screen
+	 * @param buf       the buffer to append to
+	 */
+	static void diff(Map<Integer, String> previous, Map<Integer, String> current, StringBuilder buf) {
+		// All cells are CELL_WIDTH wide, so after drawing a cell the cursor
+		// is at the start of the next cell on the same row
+		int cursor = -1;
+		TreeMap<Integer, String> changes = new TreeMap<Integer, String>();
+		for (Map.Entry<Integer, String> entry : current.entrySet()) {
+			if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+				changes.put(entry.getKey(), entry.getValue());
+			}
+		}
+		for (Integer position : previous.keySet()) {
+			if (!current.containsKey(position)) {
+				changes.put(position, BLANK);
+			}
+		}
+		for (Map.Entry<Integer, String> entry : changes.entrySet()) {
+			int position = entry.getKey();
+			if (position != cursor) {
+				moveTo(buf, position >> 8, position & 0xFF);
+			}
+			buf.append(entry.getValue());
+			cursor = position + CELL_WIDTH;
+		}
+	}
+	
+	/**
+	 * Get the key of a cell position.
+	 * 
+	 * @param row     the row (1-based)
+	 * @param column  the column (1-based)
+	 * @return the key, which orders cells by row and then column
+	 */
+	static int key(int row, int column) {
+		return (row << 8) | column;
+	}
+
+	private String cardCell(Pile pile, int index) {
+		if (index < pile.getExposeIndex()) {
+			return pad("##");
+		}
+		Card card = pile.getCard(index);
+		String text = pad(card.toString());
+		if (color && card.getSuit().getColor() == Color.RED) {
+			// Color only the card, not the padding, so a cell is still CELL_WIDTH wide
+			String symbol = card.toString();
+			return ESC + "31m" + symbol + ESC + "0m" + text.substring(symbol.length());
+		}
+		return text;
+	}
+	
+	private static void drawLabels(StringBuilder buf) {
+		moveTo(buf, PILE_ROW - 1, DECK_COLUMN);
+		buf.append(pad("Deck")).append(pad("")).append(pad("Waste"));
+		for (int i = 0; i < 4; i++) {
+			buf.append(pad("F" + (i + 1)));
+		}
+		moveTo(buf, TABLEAU_ROW - 1, 1);
+		for (int i = 0; i < 7; i++) {
+			buf.append(pad("T" + (i + 1)));
+		}
+	}
+
+	private static void moveTo(StringBuilder buf, int row, int column) {
+		buf.append(ESC).append(row).append(';').append(column).append('H');
+	}
+
+	private static String pad(String text) {
+		StringBuilder buf = new StringBuilder(text);
+		while (buf.length() < CELL_WIDTH) {
+			buf.append(' ');
+		}
+		return buf.toString();
+	}
+}